@@ -11,7 +11,6 @@ public class AuthenticationTest {
     @BeforeMethod
     public void setup() {
         RestAssured.baseURI = "https://restful-booker.herokuapp.com";
-        RestAssured.basePath = "/auth";
     }
 
     @Test
@@ -21,7 +20,7 @@ public class AuthenticationTest {
         Response response = RestAssured.given()
                 .contentType("application/json")
                 .body(requestBody)
-                .post();
+                .post("/auth");
 
         assertEquals(response.getStatusCode(), 200);
         assertNotNull(response.jsonPath().getString("token"));
@@ -35,7 +34,7 @@ public class AuthenticationTest {
         Response response = RestAssured.given()
                 .contentType("application/json")
                 .body(requestBody)
-                .post();
+                .post("/auth");
 
         assertEquals(response.getStatusCode(), 401);
         assertTrue(response.getBody().asString().contains("Bad credentials"));
@@ -48,7 +47,7 @@ public class AuthenticationTest {
         Response response = RestAssured.given()
                 .contentType("application/json")
                 .body(requestBody)
-                .post();
+                .post("/auth");
 
         assertEquals(response.getStatusCode(), 401);
         assertTrue(response.getBody().asString().contains("Bad credentials"));
@@ -61,7 +60,7 @@ public class AuthenticationTest {
         Response response = RestAssured.given()
                 .contentType("application/json")
                 .body(requestBody)
-                .post();
+                .post("/auth");
 
         assertEquals(response.getStatusCode(), 400);
         assertTrue(response.getBody().asString().contains("Invalid credentials"));
@@ -74,7 +73,7 @@ public class AuthenticationTest {
         Response response = RestAssured.given()
                 .contentType("application/json")
                 .body(requestBody)
-                .post();
+                .post("/auth");
 
         assertEquals(response.getStatusCode(), 400);
         assertTrue(response.getBody().asString().contains("Invalid credentials"));
@@ -87,7 +86,7 @@ public class AuthenticationTest {
         Response response = RestAssured.given()
                 .contentType("application/json")
                 .body(requestBody)
-                .post();
+                .post("/auth");
 
         assertEquals(response.getStatusCode(), 400);
         assertTrue(response.getBody().asString().contains("Invalid credentials"));
@@ -100,7 +99,7 @@ public class AuthenticationTest {
         Response response = RestAssured.given()
                 .contentType("application/x-www-form-urlencoded")
                 .body(requestBody)
-                .post();
+                .post("/auth");
 
         assertEquals(response.getStatusCode(), 415);
     }
@@ -112,7 +111,7 @@ public class AuthenticationTest {
         Response response = RestAssured.given()
                 .contentType("application/json")
                 .body(requestBody)
-                .post();
+                .post("/auth");
 
         assertEquals(response.getStatusCode(), 400);
         assertTrue(response.getBody().asString().contains("Invalid JSON"));
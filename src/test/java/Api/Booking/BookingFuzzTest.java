@@ -0,0 +1,154 @@
+package Api.Booking;
+
+import Client.ApiResponse;
+import Client.HttpBookingClient;
+import Fuzz.FuzzCase;
+import Fuzz.Fuzzer;
+import Fuzz.Generators;
+import Fuzz.Properties;
+import Load.ScenarioMix;
+import Utils.ConfigManager;
+import Utils.LocalBookingServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.http.HttpClient;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.testng.Assert.*;
+
+// Generated /booking and /auth bodies on a worker pool. Runs against a local server unless -Dfuzz.baseUri is set;
+// failures are logged shrunk, with the seed and case index that regenerate them (-Dfuzz.seed).
+public class BookingFuzzTest {
+    private static final Logger logger = LoggerFactory.getLogger(BookingFuzzTest.class);
+
+    private LocalBookingServer server;
+    private HttpClient http;
+    private String baseUri;
+    private String token;
+    private int bookingId;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        baseUri = ConfigManager.get("fuzz.baseUri", null);
+        if (baseUri == null) {
+            server = new LocalBookingServer();
+            baseUri = server.getBaseUri();
+        }
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpBookingClient client = new HttpBookingClient(http, baseUri);
+        token = ScenarioMix.authenticate(client);
+        bookingId = client.createBooking("{\"firstname\": \"Fuzz\", \"lastname\": \"Target\", \"totalprice\": 1,"
+                + " \"depositpaid\": true, \"bookingdates\": {\"checkin\": \"2025-01-01\", \"checkout\": \"2025-01-02\"}}")
+                .json().get("bookingid").asInt();
+    }
+
+    @AfterClass
+    public void cleanup() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void createBookingBodies() throws Exception {
+        assertNoFailures("POST /booking", new Fuzzer(Fuzzer.http(http, baseUri, null, 0),
+                Generators.booking(), Properties.bookingCreate()).run());
+    }
+
+    @Test
+    public void updateBookingBodies() throws Exception {
+        assertNoFailures("PUT /booking/{id}", new Fuzzer(Fuzzer.http(http, baseUri, token, bookingId),
+                Generators.bookingUpdate(), Properties.bookingUpdate()).run());
+    }
+
+    @Test
+    public void authBodies() throws Exception {
+        assertNoFailures("POST /auth", new Fuzzer(Fuzzer.http(http, baseUri, null, 0),
+                Generators.auth(), Properties.auth()).run());
+    }
+
+    @Test
+    public void casesAreReproducibleFromSeedAndCoverEveryShape() {
+        Fuzzer first = new Fuzzer(input -> null, Generators.booking(), Properties.bookingCreate()).seed(42);
+        Fuzzer second = new Fuzzer(input -> null, Generators.booking(), Properties.bookingCreate()).seed(42);
+        Set<Properties.Shape> shapes = EnumSet.noneOf(Properties.Shape.class);
+        for (int i = 0; i < 2000; i++) {
+            FuzzCase input = first.caseAt(i);
+            assertEquals(second.caseAt(i).body(), input.body());
+            shapes.add(Properties.bookingShape(input));
+        }
+        assertEquals(shapes, EnumSet.allOf(Properties.Shape.class));
+    }
+
+    @Test
+    public void oversizedFieldShrinksToTheBoundary() throws Exception {
+        // A planted bug: valid bookings whose lastname is over 100 characters get a 500
+        Fuzzer.Target buggy = stub(input -> Properties.bookingShape(input) == Properties.Shape.VALID
+                && codePoints(input.parsed().get("lastname")) > 100);
+
+        Fuzzer.Report report = new Fuzzer(buggy, Generators.booking(), Properties.bookingCreate())
+                .seed(7).cases(5000).threads(4).run();
+
+        assertTrue(report.failedCases() > 0, "Planted bug was not found");
+        assertEquals(report.failures().size(), 1);
+        JsonNode minimal = report.failures().get(0).minimal().tree();
+        logger.info("Shrunk {} to {}", report.failures().get(0).original(), minimal);
+        assertEquals(codePoints(minimal.get("lastname")), 101);
+        assertEquals(minimal.get("firstname").asText(), "");
+        assertEquals(minimal.get("totalprice").asInt(), 0);
+        assertEquals(minimal.size(), 5, "Only the required fields should be left: " + minimal);
+    }
+
+    @Test
+    public void malformedBodyShrinksToOneCharacter() throws Exception {
+        // A planted bug: a lenient parser that accepts single-quoted JSON
+        Fuzzer.Target lenient = stub(input -> input.parsed() == null && input.body().contains("'"));
+
+        Fuzzer.Report report = new Fuzzer(lenient, Generators.booking(), Properties.bookingCreate())
+                .seed(11).cases(5000).threads(4).run();
+
+        assertEquals(report.failures().size(), 1);
+        assertEquals(report.failures().get(0).minimal().body(), "'");
+    }
+
+    private static void assertNoFailures(String endpoint, Fuzzer.Report report) {
+        logger.info("{} fuzz: {}", endpoint, report);
+        assertTrue(report.cases() > 0);
+        assertTrue(report.failures().isEmpty(), endpoint + " failed:\n" + report);
+    }
+
+    private static int codePoints(JsonNode text) {
+        return text.asText().codePointCount(0, text.asText().length());
+    }
+
+    // Answers like the real service, except where bug matches; there it answers 500, or 200 to broken JSON
+    private static Fuzzer.Target stub(Predicate<FuzzCase> bug) {
+        return input -> {
+            Properties.Shape shape = Properties.bookingShape(input);
+            if (bug.test(input)) {
+                return response(shape == Properties.Shape.MALFORMED ? 200 : 500, "{}");
+            }
+            switch (shape) {
+                case MALFORMED:
+                    return response(400, "Bad Request");
+                case NOT_OBJECT:
+                case MISSING_REQUIRED:
+                    return response(500, "Internal Server Error");
+                default:
+                    return response(200, "{\"bookingid\": 1, \"booking\": " + input.parsed() + "}");
+            }
+        };
+    }
+
+    private static ApiResponse response(int status, String body) {
+        return new ApiResponse(status, body, Collections.emptyMap(), 0);
+    }
+}
@@ -0,0 +1,162 @@
+package Api.Booking;
+
+import Client.ApiResponse;
+import Client.BookingClient;
+import Client.ClientBackend;
+import Fuzz.Campaign;
+import Lifecycle.Action;
+import Lifecycle.LifecycleEngine;
+import Lifecycle.Step;
+import Load.ScenarioMix;
+import Utils.LocalBookingServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.*;
+
+// Random walks through the booking lifecycle on a worker pool, checked against an in-memory model.
+// Failures are logged shrunk, with the seed and walk index that regenerate them (-Dlifecycle.seed).
+public class BookingLifecycleTest {
+    private static final Logger logger = LoggerFactory.getLogger(BookingLifecycleTest.class);
+
+    private LocalBookingServer server;
+    private BookingClient client;
+    private String token;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer(16);
+        client = ClientBackend.HTTP.create(server.getBaseUri());
+        token = ScenarioMix.authenticate(client);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void cleanup() {
+        server.close();
+    }
+
+    @Test
+    public void everyWalkMatchesTheModel() throws Exception {
+        LifecycleEngine.Report report = new LifecycleEngine(client, token).bookings(1000).threads(8).run();
+
+        logger.info("Booking lifecycle walks:\n{}", report);
+        assertEquals(report.failedSequences(), 0, report.toString());
+        assertEquals(report.sequences(), 1000);
+        assertEquals(report.actions(Action.CREATE), 1000);
+        for (Action action : Action.values()) {
+            assertTrue(report.actions(action) > 0, action + " never ran: " + report);
+        }
+        assertTrue(report.actionsPerSecond() > 0);
+        // Walks delete whatever they leave behind
+        assertEquals(server.bookingCount(), 0);
+    }
+
+    @Test
+    public void aSecondDeleteIsRefusedAsTheRealServiceDoes() {
+        ApiResponse created = client.createBooking("{\"firstname\":\"Twice\",\"lastname\":\"Deleted\","
+                + "\"totalprice\":100,\"depositpaid\":true,"
+                + "\"bookingdates\":{\"checkin\":\"2024-01-01\",\"checkout\":\"2024-01-02\"}}");
+        Object id = created.json().get("bookingid").asInt();
+
+        assertEquals(client.deleteBooking(id, token).getStatusCode(), 201);
+        // restful-booker refuses a delete of a missing booking with 405, and the local server copies it
+        assertEquals(client.deleteBooking(id, token).getStatusCode(), 405);
+        assertEquals(client.getBooking(id).getStatusCode(), 404);
+    }
+
+    @Test
+    public void walksAreReproducibleFromTheSeed() {
+        LifecycleEngine first = new LifecycleEngine(client, token).seed(42);
+        LifecycleEngine second = new LifecycleEngine(client, token).seed(42);
+        Set<String> afterDelete = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            List<Step> walk = first.sequenceAt(i);
+            assertEquals(walk.toString(), second.sequenceAt(i).toString());
+            assertEquals(walk.get(0).action(), Action.CREATE);
+            assertTrue(walk.size() >= 2 && walk.size() <= 12, walk.toString());
+            boolean deleted = false;
+            for (Step step : walk.subList(1, walk.size())) {
+                assertNotEquals(step.action(), Action.CREATE);
+                if (deleted) {
+                    afterDelete.add(step.action().name());
+                }
+                deleted |= step.action() == Action.DELETE;
+            }
+        }
+        assertNotEquals(first.sequenceAt(0).toString(),
+                new LifecycleEngine(client, token).seed(43).sequenceAt(0).toString());
+        // Reads and writes of a deleted booking are generated too
+        assertEquals(afterDelete, EnumSet.of(Action.GET, Action.SEARCH, Action.PUT, Action.PATCH, Action.DELETE)
+                .stream().map(Action::name).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void failingWalksShrinkToTheStepsThatMatter() throws Exception {
+        // A client-side cache that keeps serving a booking once it has been patched, even after it is deleted
+        Map<Object, ApiResponse> patched = new ConcurrentHashMap<>();
+        BookingClient stale = new BookingClient() {
+            @Override
+            public ApiResponse auth(String username, String password) {
+                return client.auth(username, password);
+            }
+
+            @Override
+            public ApiResponse createBooking(String body) {
+                return client.createBooking(body);
+            }
+
+            @Override
+            public ApiResponse getBooking(Object id) {
+                ApiResponse response = client.getBooking(id);
+                return response.getStatusCode() == 404 && patched.containsKey(id) ? patched.get(id) : response;
+            }
+
+            @Override
+            public ApiResponse searchBookings(Map<String, String> query) {
+                return client.searchBookings(query);
+            }
+
+            @Override
+            public ApiResponse updateBooking(Object id, String body, String token) {
+                return client.updateBooking(id, body, token);
+            }
+
+            @Override
+            public ApiResponse partialUpdateBooking(Object id, String body, String token) {
+                ApiResponse response = client.partialUpdateBooking(id, body, token);
+                if (response.getStatusCode() == 200) {
+                    patched.put(id, response);
+                }
+                return response;
+            }
+
+            @Override
+            public ApiResponse deleteBooking(Object id, String token) {
+                return client.deleteBooking(id, token);
+            }
+        };
+
+        LifecycleEngine.Report report = new LifecycleEngine(stale, token).seed(7).bookings(300).threads(4).run();
+
+        logger.info("Lifecycle walks through a stale cache:\n{}", report);
+        assertTrue(report.failedSequences() > 0, report.toString());
+        assertEquals(report.failures().size(), 1, report.toString());
+        Campaign.Failure<List<Step>> failure = report.failures().get(0);
+        assertTrue(failure.failure().startsWith("GET status: expected 404 after delete, got 200"), failure.toString());
+        // Whatever the walk did around them, only these four steps are needed to show the bug
+        assertEquals(failure.minimal().stream().map(Step::action).collect(Collectors.toList()),
+                List.of(Action.CREATE, Action.PATCH, Action.DELETE, Action.GET), failure.toString());
+        assertTrue(failure.original().size() >= failure.minimal().size());
+    }
+}
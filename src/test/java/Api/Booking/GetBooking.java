@@ -1,5 +1,9 @@
 package Api.Booking;
 
+import Client.ResponseCache;
+import Scheduling.Resources;
+import Scheduling.UsesResources;
+import Utils.ConfigManager;
 import Utils.TokenManager;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
@@ -12,17 +16,19 @@ import static org.testng.Assert.*;
 public class GetBooking {
 
     private static final Logger logger = LoggerFactory.getLogger(GetBooking.class);
-    private final int VALID_BOOKING_ID = 1; // Replace with known valid ID
+    private static final int VALID_BOOKING_ID = 1; // Replace with known valid ID
 
     @BeforeClass
     public void setup() {
-        RestAssured.baseURI = "https://restful-booker.herokuapp.com";
+        RestAssured.baseURI = ConfigManager.getBaseUri();
     }
 
     @Test
+    @UsesResources(reads = Resources.BOOKING + VALID_BOOKING_ID)
     public void getBookingWithValidId() {
         try {
             Response response = RestAssured.given()
+                    .filter(ResponseCache.global())
                     .header("Authorization", "Bearer " + TokenManager.getToken())
                     .pathParam("booking_id", VALID_BOOKING_ID)
                     .get("/booking/{booking_id}");
@@ -57,6 +63,7 @@ public class GetBooking {
     }
 
     @Test
+    @UsesResources(reads = Resources.BOOKING + VALID_BOOKING_ID)
     public void getBookingWithoutAuthentication() {
         try {
             Response response = RestAssured.given()
@@ -74,6 +81,7 @@ public class GetBooking {
     }
 
     @Test
+    @UsesResources(reads = Resources.BOOKING + VALID_BOOKING_ID)
     public void getBookingWithInvalidToken() {
         try {
             Response response = RestAssured.given()
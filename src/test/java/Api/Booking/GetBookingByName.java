@@ -1,6 +1,13 @@
 package Api.Booking;
 
-import Utils.TokenManager;
+import Client.ApiResponse;
+import Client.ResponseCache;
+import Client.TimedHttpClient;
+import Scheduling.Resources;
+import Scheduling.UsesResources;
+import Telemetry.PhaseTimings;
+import Utils.BookingFixtures;
+import Utils.ConfigManager;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
@@ -13,15 +20,18 @@ import java.util.concurrent.TimeUnit;
 
 import static org.testng.Assert.*;
 
+// Searches count the John Doe bookings, so anything creating or deleting one would change the results
+@UsesResources(reads = Resources.NAME + GetBookingByName.TEST_FIRSTNAME + " " + GetBookingByName.TEST_LASTNAME)
 public class GetBookingByName {
 
     private static final Logger logger = LoggerFactory.getLogger(GetBookingByName.class);
-    private final String TEST_FIRSTNAME = "John";
-    private final String TEST_LASTNAME = "Doe";
+    static final String TEST_FIRSTNAME = "John";
+    static final String TEST_LASTNAME = "Doe";
 
     @BeforeClass
+    @UsesResources(writes = Resources.NAME + TEST_FIRSTNAME + " " + TEST_LASTNAME)
     public void setup() {
-        RestAssured.baseURI = "https://restful-booker.herokuapp.com";
+        RestAssured.baseURI = ConfigManager.getBaseUri();
         createTestBooking(); // Ensure test data exists
     }
 
@@ -29,6 +39,7 @@ public class GetBookingByName {
     public void getBookingWithValidName() {
         try {
             Response response = RestAssured.given()
+                    .filter(ResponseCache.global())
                     .queryParam("firstname", TEST_FIRSTNAME)
                     .queryParam("lastname", TEST_LASTNAME)
                     .get("/booking");
@@ -66,6 +77,7 @@ public class GetBookingByName {
     public void getBookingWithPartialName() {
         try {
             Response response = RestAssured.given()
+                    .filter(ResponseCache.global())
                     .queryParam("firstname", TEST_FIRSTNAME)
                     .get("/booking");
 
@@ -101,6 +113,7 @@ public class GetBookingByName {
     public void getBookingWithCaseInsensitiveSearch() {
         try {
             Response response = RestAssured.given()
+                    .filter(ResponseCache.global())
                     .queryParam("firstname", TEST_FIRSTNAME.toLowerCase())
                     .queryParam("lastname", TEST_LASTNAME.toUpperCase())
                     .get("/booking");
@@ -207,16 +220,13 @@ public class GetBookingByName {
 
     private void createTestBooking() {
         try {
-            RestAssured.given()
-                    .header("Authorization", "Bearer " + TokenManager.getToken())
-                    .contentType("application/json")
-                    .body("{"
-                            + "\"firstname\": \"" + TEST_FIRSTNAME + "\","
-                            + "\"lastname\": \"" + TEST_LASTNAME + "\","
-                            + "\"totalprice\": 250,"
-                            + "\"depositpaid\": true"
-                            + "}")
-                    .post("/booking");
+            ApiResponse response = BookingFixtures.client().createBooking("{"
+                    + "\"firstname\": \"" + TEST_FIRSTNAME + "\","
+                    + "\"lastname\": \"" + TEST_LASTNAME + "\","
+                    + "\"totalprice\": 250,"
+                    + "\"depositpaid\": true"
+                    + "}").join();
+            logger.debug("Test booking response: {}", response);
         } catch (Exception e) {
             logger.error("Exception occurred while creating test booking: ", e);
             fail("Exception occurred while creating test booking: " + e.getMessage());
@@ -253,14 +263,15 @@ public class GetBookingByName {
     @Test
     public void testResponseTime() {
         try {
-            long responseTime = RestAssured.given()
-                    .queryParam("firstname", TEST_FIRSTNAME)
-                    .get("/booking")
-                    .timeIn(TimeUnit.MILLISECONDS);
+            PhaseTimings timings = TimedHttpClient.shared(RestAssured.baseURI)
+                    .get("/booking?firstname=" + TEST_FIRSTNAME)
+                    .timings();
+            long responseTime = timings.total(TimeUnit.MILLISECONDS);
 
-            logger.debug("Response time: {} ms", responseTime);
+            logger.debug("Response time: {}", timings);
 
-            assertTrue(responseTime < 1000, "Response time too slow: " + responseTime + "ms");
+            assertEquals(timings.status(), 200);
+            assertTrue(responseTime < 1000, "Response time too slow: " + timings);
         } catch (Exception e) {
             logger.error("Exception occurred: ", e);
             fail("Exception occurred: " + e.getMessage());
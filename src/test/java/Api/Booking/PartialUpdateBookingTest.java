@@ -1,5 +1,6 @@
 package Api.Booking;
 
+import Utils.BookingFixtures;
 import Utils.TokenManager;
 import com.github.javafaker.Faker;
 import io.restassured.RestAssured;
@@ -14,6 +15,9 @@ import java.time.ZoneId;
 import java.util.concurrent.TimeUnit;
 import static org.testng.Assert.*;
 
+// Each test patches a booking its @BeforeMethod creates into the fields below, so under parallel="methods" the
+// class keeps its tests on one thread, one at a time; it shares no server-side state with other classes.
+@Test(singleThreaded = true)
 public class PartialUpdateBookingTest {
     private static final Logger logger = LoggerFactory.getLogger(PartialUpdateBookingTest.class);
     private String VALID_TOKEN;
@@ -54,11 +58,7 @@ public class PartialUpdateBookingTest {
     @AfterMethod
     public void cleanup() {
         try {
-            RestAssured.given()
-                    .header("Authorization", "Bearer " + VALID_TOKEN)
-                    .cookie("token", VALID_TOKEN)
-                    .pathParam("id", bookingId)
-                    .delete("/booking/{id}");
+            BookingFixtures.delete(bookingId);
         } catch (Exception e) {
             logger.error("Exception occurred during cleanup: ", e);
             fail("Exception occurred during cleanup: " + e.getMessage());
@@ -223,12 +223,7 @@ public class PartialUpdateBookingTest {
                     + "\"additionalneeds\": \"" + originalAdditionalNeeds + "\""
                     + "}";
 
-            return RestAssured.given()
-                    .contentType("application/json")
-                    .body(createBody)
-                    .post("/booking")
-                    .jsonPath()
-                    .getInt("bookingid");
+            return BookingFixtures.create(createBody);
         } catch (Exception e) {
             logger.error("Exception occurred while creating test booking: ", e);
             fail("Exception occurred while creating test booking: " + e.getMessage());
@@ -1,5 +1,12 @@
 package Api.Booking;
 
+import Client.ApiResponse;
+import Client.TimedHttpClient;
+import Scheduling.Resources;
+import Scheduling.UsesResources;
+import Telemetry.PhaseTimings;
+import Utils.BookingFixtures;
+import Utils.ConfigManager;
 import Utils.TokenManager;
 import com.github.javafaker.Faker;
 import io.restassured.RestAssured;
@@ -9,8 +16,10 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static org.testng.Assert.*;
@@ -28,7 +37,7 @@ public class UpdateBookingTest {
 
     @BeforeClass
     public void setup() {
-        RestAssured.baseURI = "https://restful-booker.herokuapp.com";
+        RestAssured.baseURI = ConfigManager.getBaseUri();
         faker = new Faker();
         validToken = TokenManager.getToken();
 
@@ -104,6 +113,7 @@ public class UpdateBookingTest {
     }
 
     @Test
+    @UsesResources(writes = Resources.BOOKING + 1)
     public void updateNonExistentBooking() {
         Response response = RestAssured.given()
                 .header("Authorization", "Bearer " + validToken)
@@ -166,28 +176,24 @@ public class UpdateBookingTest {
     }
 
     @Test
-    public void testUpdatePerformance() {
+    public void testUpdatePerformance() throws IOException {
         String tempNeed = faker.food().ingredient();
 
-        long responseTime = RestAssured.given()
-                .header("Authorization", "Bearer " + validToken)
-                .cookie("token", validToken)
-                .contentType(ContentType.JSON)
-                .pathParam("id", validBookingId)
-                .body("{ \"additionalneeds\": \"" + tempNeed + "\" }")
-                .put("/booking/{id}")
-                .timeIn(TimeUnit.MILLISECONDS);
+        PhaseTimings timings = TimedHttpClient.shared(RestAssured.baseURI)
+                .send("PUT", "/booking/" + validBookingId, Map.of(
+                        "Authorization", "Bearer " + validToken,
+                        "Cookie", "token=" + validToken,
+                        "Content-Type", "application/json"),
+                        "{ \"additionalneeds\": \"" + tempNeed + "\" }")
+                .timings();
+        long responseTime = timings.total(TimeUnit.MILLISECONDS);
 
-        assertTrue(responseTime < 1500, "Response time exceeded 1.5 seconds: " + responseTime + "ms");
+        assertTrue(responseTime < 1500, "Response time exceeded 1.5 seconds: " + timings);
     }
 
     @AfterClass
     public void cleanup() {
-        Response response = RestAssured.given()
-                .header("Authorization", "Bearer " + validToken)
-                .cookie("token", validToken)
-                .pathParam("id", validBookingId)
-                .delete("/booking/{id}");
+        ApiResponse response = BookingFixtures.delete(validBookingId);
 
         assertEquals(response.getStatusCode(), 201, "Cleanup failed - booking not deleted");
     }
@@ -206,13 +212,6 @@ public class UpdateBookingTest {
                         + "}", originalFirstname, originalLastname, originalTotalPrice,
                 originalCheckin, originalCheckout, originalAdditionalNeeds);
 
-        return RestAssured.given()
-                .contentType(ContentType.JSON)
-                .body(createBody)
-                .post("/booking")
-                .then()
-                .statusCode(200)
-                .extract()
-                .path("bookingid");
+        return BookingFixtures.create(createBody);
     }
 }
\ No newline at end of file
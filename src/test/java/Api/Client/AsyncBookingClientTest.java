@@ -0,0 +1,93 @@
+package Api.Client;
+
+import Client.ApiResponse;
+import Client.AsyncBookingClient;
+import Client.Booking;
+import Client.HttpBookingClient;
+import Utils.LocalBookingServer;
+import com.github.javafaker.Faker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.testng.Assert.*;
+
+public class AsyncBookingClientTest {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncBookingClientTest.class);
+    private static final int MAX_IN_FLIGHT = 16;
+    private LocalBookingServer server;
+    private AsyncBookingClient client;
+    private Faker faker;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer(32);
+        client = new AsyncBookingClient(new HttpBookingClient(server.getBaseUri()), MAX_IN_FLIGHT);
+        faker = new Faker();
+    }
+
+    @AfterClass
+    public void cleanup() {
+        server.close();
+    }
+
+    @Test
+    public void seedsHundredsOfBookingsFromOneThreadWithinInFlightLimit() {
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            bodies.add(Booking.random(faker).toJson());
+        }
+
+        long start = System.nanoTime();
+        List<ApiResponse> responses = client.createAll(bodies, Duration.ofSeconds(60)).join();
+        logger.debug("Created {} bookings in {} ms", responses.size(), (System.nanoTime() - start) / 1_000_000);
+
+        assertEquals(responses.size(), 500);
+        for (ApiResponse response : responses) {
+            assertEquals(response.getStatusCode(), 200);
+        }
+        assertTrue(client.peakInFlight() <= MAX_IN_FLIGHT, "Peak in-flight " + client.peakInFlight());
+        assertEquals(client.inFlight(), 0);
+    }
+
+    @Test
+    public void createThenGetReturnsTheStoredBooking() {
+        Booking booking = Booking.random(faker);
+
+        ApiResponse fetched = client.createThenGet(booking.toJson()).join();
+
+        assertEquals(fetched.getStatusCode(), 200);
+        assertEquals(fetched.json().get("firstname").asText(), booking.getFirstname());
+        assertEquals(fetched.json().get("totalprice").asInt(), (int) booking.getTotalprice());
+    }
+
+    @Test
+    public void createThenGetPassesThroughFailedCreate() {
+        ApiResponse response = client.createThenGet("{ \"firstname\": \"OnlyFirst\" }").join();
+
+        assertEquals(response.getStatusCode(), 500);
+    }
+
+    @Test
+    public void allOfTimesOutWhenAFutureNeverCompletes() {
+        List<CompletableFuture<ApiResponse>> futures = new ArrayList<>();
+        futures.add(client.getBooking(1));
+        futures.add(new CompletableFuture<>());
+
+        try {
+            AsyncBookingClient.allOf(futures, Duration.ofMillis(200)).join();
+            fail("Expected a timeout");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException, "Unexpected cause: " + e.getCause());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package Api.Client;
+
+import Client.ApiResponse;
+import Client.AsyncBookingClient;
+import Client.Booking;
+import Client.HttpBookingClient;
+import Load.ScenarioMix;
+import Snapshot.BookingSnapshot;
+import Snapshot.SnapshotDiff;
+import Snapshot.SnapshotExporter;
+import Utils.LocalBookingServer;
+import com.github.javafaker.Faker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+// The diff test changes the bookings the other test snapshots, so the two take turns on the class's server.
+@Test(singleThreaded = true)
+public class BookingSnapshotTest {
+    private static final Logger logger = LoggerFactory.getLogger(BookingSnapshotTest.class);
+    private static final int BOOKINGS = 300;
+    private LocalBookingServer server;
+    private AsyncBookingClient client;
+    private SnapshotExporter exporter;
+    private String token;
+    private List<Integer> ids;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer(32);
+        HttpBookingClient http = new HttpBookingClient(server.getBaseUri());
+        client = new AsyncBookingClient(http, 16);
+        exporter = new SnapshotExporter(client, Duration.ofSeconds(60));
+        token = ScenarioMix.authenticate(http);
+
+        Faker faker = new Faker();
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bodies.add(Booking.random(faker).toJson());
+        }
+        ids = new ArrayList<>();
+        for (ApiResponse created : client.createAll(bodies, Duration.ofSeconds(60)).join()) {
+            assertEquals(created.getStatusCode(), 200);
+            ids.add(created.json().get("bookingid").asInt());
+        }
+    }
+
+    @AfterClass
+    public void cleanup() {
+        server.close();
+    }
+
+    @Test
+    public void capturedSnapshotMatchesServerAfterReloadFromDisk() throws Exception {
+        Path file = Files.createTempFile("bookings", ".snapshot");
+        try {
+            exporter.capture().write(file);
+            BookingSnapshot snapshot = BookingSnapshot.map(file);
+
+            assertEquals(snapshot.size(), server.bookingCount());
+            for (int id : Arrays.asList(ids.get(0), ids.get(BOOKINGS / 2), ids.get(BOOKINGS - 1))) {
+                int row = snapshot.rowOf(id);
+                assertTrue(row >= 0, "Booking " + id + " missing from snapshot");
+                Booking expected = Booking.fromJson(client.getBooking(id).join().getBody());
+                assertEquals(snapshot.booking(row).toJson(), expected.toJson());
+            }
+            assertEquals(snapshot.rowOf(Integer.MAX_VALUE), -1);
+            logger.info("{} bookings in {} bytes", snapshot.size(), snapshot.sizeInBytes());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void diffReportsAddedRemovedAndChangedBookings() {
+        BookingSnapshot before = exporter.capture();
+
+        int changedId = ids.get(10);
+        int removedId = ids.get(20);
+        assertEquals(client.partialUpdateBooking(changedId, "{\"totalprice\": 5, \"additionalneeds\": \"Late checkout\"}",
+                token).join().getStatusCode(), 200);
+        assertEquals(client.deleteBooking(removedId, token).join().getStatusCode(), 201);
+        ApiResponse created = client.createBooking(Booking.random(new Faker()).toJson()).join();
+        int addedId = created.json().get("bookingid").asInt();
+        ids.remove(Integer.valueOf(removedId));
+        ids.add(addedId);
+
+        BookingSnapshot after = exporter.capture();
+        long start = System.nanoTime();
+        SnapshotDiff diff = SnapshotDiff.of(before, after);
+        logger.info("Diffed {} vs {} bookings in {} us: {}", before.size(), after.size(),
+                (System.nanoTime() - start) / 1000, diff);
+
+        assertEquals(diff.added(), Collections.singletonList(addedId));
+        assertEquals(diff.removed(), Collections.singletonList(removedId));
+        assertEquals(diff.changed().keySet(), Collections.singleton(changedId));
+        assertEquals(diff.changed().get(changedId), Arrays.asList("totalprice", "additionalneeds"));
+        assertTrue(SnapshotDiff.of(after, after).isEmpty());
+    }
+}
@@ -0,0 +1,110 @@
+package Api.Client;
+
+import Client.HttpBookingClient;
+import Client.TimedHttpClient;
+import Deadlines.Deadline;
+import Deadlines.DeadlineExceededException;
+import Utils.LocalBookingServer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+// The hanging server is started and stopped around each test, so the tests must not overlap.
+@Test(singleThreaded = true)
+public class DeadlineTest {
+    private ServerSocket hanging;
+    private final List<Socket> accepted = new ArrayList<>();
+
+    // Accepts connections and never answers, like a stuck upstream
+    @BeforeMethod
+    public void startHangingServer() throws IOException {
+        hanging = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (true) {
+                    accepted.add(hanging.accept());
+                }
+            } catch (IOException closed) {
+                // stopped
+            }
+        }, "hanging-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopHangingServer() throws IOException {
+        hanging.close();
+        for (Socket socket : accepted) {
+            socket.close();
+        }
+    }
+
+    private String hangingUri() {
+        return "http://127.0.0.1:" + hanging.getLocalPort();
+    }
+
+    @Test
+    public void requestsTimeOutWithTheRemainingBudget() {
+        HttpBookingClient client = new HttpBookingClient(hangingUri());
+        long start = System.nanoTime();
+        try (Deadline deadline = Deadline.start("hangs", Duration.ofMillis(500))) {
+            expectThrows(RuntimeException.class, () -> client.getBooking(1));
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsed >= 450 && elapsed < 2_000, "took " + elapsed + "ms");
+            assertTrue(deadline.slowest().startsWith("GET /booking/{id} took"), deadline.slowest());
+            assertTrue(deadline.slowest().contains("(failed)"), deadline.slowest());
+
+            // Nothing is left, so the next call is refused without being sent
+            DeadlineExceededException refused =
+                    expectThrows(DeadlineExceededException.class, () -> client.searchBookings(Map.of()));
+            assertTrue(refused.getMessage().startsWith("hangs exceeded its 500ms budget"), refused.getMessage());
+            assertTrue(refused.getMessage().contains("/booking was not sent"), refused.getMessage());
+        }
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    public void timedClientUsesTheBudgetForConnectAndRead() {
+        TimedHttpClient client = new TimedHttpClient(hangingUri());
+        long start = System.nanoTime();
+        try (Deadline deadline = Deadline.start("timed", Duration.ofMillis(300))) {
+            expectThrows(SocketTimeoutException.class, () -> client.get("/booking/7"));
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsed >= 250 && elapsed < 2_000, "took " + elapsed + "ms");
+            assertTrue(deadline.isExceeded());
+        }
+    }
+
+    @Test
+    public void slowestCallIsNamedAndThreadsInheritTheBudget() throws Exception {
+        try (LocalBookingServer server = new LocalBookingServer();
+             Deadline deadline = Deadline.start("fast", Duration.ofSeconds(30))) {
+            HttpBookingClient client = new HttpBookingClient(server.getBaseUri());
+            client.createBooking("{\"firstname\": \"Dee\", \"lastname\": \"Line\"}");
+            Thread worker = new Thread(() -> client.getBooking(1));
+            worker.start();
+            worker.join();
+
+            assertSame(Deadline.current(), deadline);
+            assertTrue(deadline.slowest().endsWith("slowest of 2 calls"), deadline.slowest());
+            assertFalse(deadline.isExceeded());
+            assertTrue(Deadline.timeout("GET /booking").compareTo(Duration.ofSeconds(30)) <= 0);
+        }
+        // Outside a budget only the per-request cap applies
+        assertEquals(Deadline.timeout("GET /booking"), Deadline.requestCap());
+    }
+}
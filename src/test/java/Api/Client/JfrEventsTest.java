@@ -0,0 +1,88 @@
+package Api.Client;
+
+import Client.HttpBookingClient;
+import Telemetry.AllocationMeter;
+import Telemetry.Endpoints;
+import Utils.LocalBookingServer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.*;
+
+public class JfrEventsTest {
+
+    @Test
+    public void exchangesAreRecordedWithEndpointTemplates() throws Exception {
+        Path dump = Files.createTempFile("booking-exchanges", ".jfr");
+        try (LocalBookingServer server = new LocalBookingServer(); Recording recording = new Recording()) {
+            recording.enable("booking.HttpExchange");
+            recording.start();
+
+            HttpBookingClient client = new HttpBookingClient(server.getBaseUri());
+            client.getBooking(42);
+            client.getBooking(43);
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // Only this thread's exchanges: under parallel="methods" other tests record theirs into the same recording
+        long thread = Thread.currentThread().getId();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(e -> e.getEventType().getName().equals("booking.HttpExchange"))
+                .filter(e -> e.getThread() != null && e.getThread().getJavaThreadId() == thread)
+                .collect(Collectors.toList());
+        Files.deleteIfExists(dump);
+
+        assertEquals(events.size(), 2);
+        for (RecordedEvent event : events) {
+            assertEquals(event.getString("method"), "GET");
+            assertEquals(event.getString("endpoint"), "/booking/{id}");
+            assertEquals(event.getInt("status"), 404);
+            assertTrue(event.getLong("responseBytes") > 0);
+        }
+    }
+
+    @Test
+    public void endpointTemplatesCollapseIdsAndParameters() {
+        assertEquals(Endpoints.template("/booking/{booking_id}"), "/booking/{id}");
+        assertEquals(Endpoints.template("/booking/123"), "/booking/{id}");
+        assertEquals(Endpoints.template("https://restful-booker.herokuapp.com/auth"), "/auth");
+        assertEquals(Endpoints.template("/booking?firstname=John"), "/booking");
+        assertEquals(Endpoints.template(""), "/");
+        assertEquals(Endpoints.template("/booking/"), "/booking");
+        assertEquals(Endpoints.template("/booking/7/"), "/booking/{id}");
+        assertEquals(Endpoints.template("/"), "/");
+        assertEquals(Endpoints.template("/bookings/1"), "/bookings/{id}");
+        assertEquals(Endpoints.template("/booking/7/x"), "/booking/{id}/x");
+    }
+
+    @Test
+    public void templatesOfSeenEndpointsDoNotAllocate() throws Exception {
+        if (!AllocationMeter.isSupported()) {
+            throw new SkipException("Per-thread allocation counting is not available on this JVM");
+        }
+        String[] paths = new String[500];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = (i % 2 == 0 ? "/booking/" : "http://127.0.0.1:3001/booking/") + (1000 + i) + "?x=1";
+        }
+        Endpoints.template("/booking/1");
+        long bytes = AllocationMeter.bytesPerOperation(() -> {
+            for (String path : paths) {
+                Endpoints.template(path);
+            }
+            Endpoints.template("/booking/{booking_id}");
+            Endpoints.template("/auth");
+        }, 50, 200);
+
+        assertEquals(bytes, 0, "bytes allocated templating " + (paths.length + 2) + " paths");
+    }
+}
@@ -0,0 +1,126 @@
+package Api.Client;
+
+import Client.HttpBookingClient;
+import Telemetry.Endpoints;
+import Telemetry.LatencyHistogram;
+import Telemetry.MetricsRegistry;
+import Telemetry.MetricsServer;
+import Utils.LocalBookingServer;
+import org.testng.annotations.Test;
+
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void histogramPercentilesStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 100_000; micros++) {
+            histogram.recordMicros(micros);
+        }
+
+        assertEquals(histogram.count(), 100_000);
+        assertEquals(histogram.percentileMicros(50), 50_000, 50_000 * 0.07);
+        assertEquals(histogram.percentileMicros(99), 99_000, 99_000 * 0.07);
+        assertTrue(histogram.percentileMicros(100) >= 100_000);
+    }
+
+    @Test
+    public void exportsOpenMetricsPerEndpointAndStatusClass() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.record("GET", "/booking/{id}", 200, 3_000_000, 0, 120);
+        registry.record("GET", "/booking/{id}", 404, 1_000_000, 0, 9);
+        registry.record("POST", "/booking", 200, 40_000_000, 200, 250);
+
+        StringWriter out = new StringWriter();
+        registry.writeOpenMetrics(out);
+        String text = out.toString();
+
+        assertTrue(text.contains("# TYPE booking_http_request_duration_seconds histogram"));
+        assertTrue(text.contains("booking_http_request_duration_seconds_count{method=\"GET\",endpoint=\"/booking/{id}\",status=\"2xx\"} 1"));
+        assertTrue(text.contains("booking_http_request_duration_seconds_count{method=\"GET\",endpoint=\"/booking/{id}\",status=\"4xx\"} 1"));
+        assertTrue(text.contains("booking_http_request_duration_seconds_bucket{method=\"POST\",endpoint=\"/booking\",status=\"2xx\",le=\"0.025\"} 0"));
+        assertTrue(text.contains("booking_http_request_duration_seconds_bucket{method=\"POST\",endpoint=\"/booking\",status=\"2xx\",le=\"0.05\"} 1"));
+        assertTrue(text.contains("booking_http_request_bytes_total{method=\"POST\",endpoint=\"/booking\",status=\"2xx\"} 200"));
+        assertTrue(text.endsWith("# EOF\n"));
+    }
+
+    @Test
+    public void visibilityLagIsExportedApartFromRequests() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        LatencyHistogram lag = new LatencyHistogram();
+        lag.recordMicros(30_000);
+        registry.visibilityLag("create").merge(lag);
+
+        StringWriter out = new StringWriter();
+        registry.writeOpenMetrics(out);
+        String text = out.toString();
+
+        assertTrue(text.contains("# TYPE booking_visibility_lag_seconds histogram"));
+        assertTrue(text.contains("booking_visibility_lag_seconds_bucket{op=\"create\",le=\"0.05\"} 1"));
+        assertFalse(text.contains("visibility:"), "Lag should not appear as a request series");
+        assertTrue(registry.successLatencies().isEmpty());
+    }
+
+    @Test
+    public void recordingDoesNotAllocateOnceSeriesExist() {
+        MetricsRegistry registry = new MetricsRegistry();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < 20_000; i++) {
+            registry.record("GET", "/booking/{id}", 200, i * 1000L, 0, 100);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            registry.record("GET", "/booking/{id}", 200, i * 1000L, 0, 100);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(allocated < 64 * 1024, "record() allocated " + allocated + " bytes for 100k calls");
+    }
+
+    @Test
+    public void gateLatenciesAreKeptPerTarget() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.record("127.0.0.1:41234", "GET", "/booking/{id}", 200, 300_000, 0, 120);
+        registry.record("restful-booker.herokuapp.com", "GET", "/booking/{id}", 200, 250_000_000, 0, 120);
+        registry.record("restful-booker.herokuapp.com", "GET", "/booking/{id}", 404, 200_000_000, 0, 9);
+
+        Map<String, LatencyHistogram> remote = registry.successLatencies("restful-booker.herokuapp.com");
+        assertEquals(remote.keySet(), Set.of("GET /booking/{id}"));
+        assertEquals(remote.get("GET /booking/{id}").count(), 1);
+        assertTrue(remote.get("GET /booking/{id}").percentileMicros(50) >= 250_000);
+        assertEquals(registry.successLatencies("127.0.0.1:41234").get("GET /booking/{id}").count(), 1);
+        assertTrue(registry.successLatencies("localhost:3001").isEmpty());
+        assertEquals(Endpoints.authority("https://restful-booker.herokuapp.com/auth"), "restful-booker.herokuapp.com");
+        assertEquals(Endpoints.authority("http://127.0.0.1:3001"), "127.0.0.1:3001");
+        assertNull(Endpoints.authority("/booking/1"));
+    }
+
+    @Test
+    public void metricsEndpointServesClientTraffic() throws Exception {
+        MetricsRegistry.global().reset();
+        try (LocalBookingServer server = new LocalBookingServer();
+             MetricsServer metrics = new MetricsServer(MetricsRegistry.global(), 0)) {
+            new HttpBookingClient(server.getBaseUri()).getBooking(7);
+
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + metrics.getPort() + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(response.statusCode(), 200);
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/openmetrics-text"));
+            assertTrue(response.body().contains("endpoint=\"/booking/{id}\",status=\"4xx\""), response.body());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package Api.Client;
+
+import Client.ApiResponse;
+import Client.Booking;
+import Client.TimedHttpClient;
+import Telemetry.LatencyHistogram;
+import Telemetry.MetricsRegistry;
+import Telemetry.PhaseReport;
+import Telemetry.PhaseTimings;
+import Utils.LocalBookingServer;
+import com.github.javafaker.Faker;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class PhaseTimingTest {
+    private static final Logger logger = LoggerFactory.getLogger(PhaseTimingTest.class);
+    private LocalBookingServer server;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer();
+    }
+
+    @AfterClass
+    public void cleanup() {
+        server.close();
+    }
+
+    @Test
+    public void onlyColdConnectionsPaySetup() throws Exception {
+        PhaseReport report = new PhaseReport();
+        TimedHttpClient client = new TimedHttpClient(server.getBaseUri(), report);
+        TimedHttpClient.Exchange created = client.send("POST", "/booking",
+                Map.of("Content-Type", "application/json"), Booking.random(new Faker()).toJson());
+        assertEquals(created.response().getStatusCode(), 200);
+        String path = "/booking/" + created.response().json().path("bookingid").asInt();
+
+        client.closeIdle();
+        PhaseTimings cold = client.get(path).timings();
+        TimedHttpClient.Exchange warmExchange = client.get(path);
+        PhaseTimings warm = warmExchange.timings();
+        ApiResponse warmResponse = warmExchange.response();
+
+        logger.info("Cold {}\nWarm {}\n{}", cold, warm, report);
+        assertFalse(cold.reused());
+        assertTrue(cold.get(PhaseTimings.Phase.CONNECT, TimeUnit.NANOSECONDS) > 0);
+        assertTrue(warm.reused());
+        assertEquals(warm.setup(TimeUnit.NANOSECONDS), 0);
+        // Reusing the connection costs nothing the phases leave out
+        assertEquals(warm.total(TimeUnit.MICROSECONDS), warmResponse.getTimeIn(TimeUnit.MICROSECONDS), 500.0);
+        assertEquals(client.idleConnections(), 1);
+        assertEquals(report.series("GET /booking/{id}", false).total().count(), 1);
+        assertEquals(report.series("GET /booking/{id}", true).total().count(), 1);
+        assertEquals(report.series("POST /booking", false).total().count(), 1);
+    }
+
+    @Test
+    public void serverTimeAndTransferAreSeparated() throws Exception {
+        // Thinks for 60ms before answering, then streams the body in two chunks 40ms apart
+        HttpServer slow = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        slow.createContext("/booking", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            pause(60);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("[{\"bookingid\": 1},".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                pause(40);
+                out.write(" {\"bookingid\": 2}]".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        slow.start();
+        try {
+            TimedHttpClient.Exchange exchange = new TimedHttpClient("http://127.0.0.1:" + slow.getAddress().getPort(),
+                    new PhaseReport()).get("/booking?firstname=Jim");
+
+            PhaseTimings timings = exchange.timings();
+            logger.info("Slow server: {}", timings);
+            assertEquals(exchange.response().json().size(), 2);
+            assertTrue(timings.get(PhaseTimings.Phase.WAIT, TimeUnit.MILLISECONDS) >= 55, timings.toString());
+            assertTrue(timings.get(PhaseTimings.Phase.DOWNLOAD, TimeUnit.MILLISECONDS) >= 35, timings.toString());
+            assertTrue(timings.setup(TimeUnit.MILLISECONDS) < 35, timings.toString());
+            assertEquals(timings.total(TimeUnit.MILLISECONDS), exchange.response().getTimeIn(TimeUnit.MILLISECONDS), 1);
+        } finally {
+            slow.stop(0);
+        }
+    }
+
+    @Test
+    public void exchangesAreRecordedInTheMetricsRegistry() throws Exception {
+        // A server of its own, so the registry's per-target series hold only this test's requests
+        try (LocalBookingServer own = new LocalBookingServer()) {
+            TimedHttpClient client = new TimedHttpClient(own.getBaseUri(), new PhaseReport());
+            TimedHttpClient.Exchange created = client.send("POST", "/booking",
+                    Map.of("Content-Type", "application/json"), Booking.random(new Faker()).toJson());
+            String path = "/booking/" + created.response().json().path("bookingid").asInt();
+            client.get(path);
+            client.get(path);
+
+            Map<String, LatencyHistogram> latencies =
+                    MetricsRegistry.global().successLatencies(URI.create(own.getBaseUri()).getRawAuthority());
+            assertEquals(latencies.keySet(), Set.of("POST /booking", "GET /booking/{id}"));
+            assertEquals(latencies.get("POST /booking").count(), 1);
+            assertEquals(latencies.get("GET /booking/{id}").count(), 2);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void timingsAreAttachedToTheTestResult() throws Exception {
+        TimedHttpClient client = new TimedHttpClient(server.getBaseUri(), new PhaseReport());
+        client.get("/booking");
+        client.get("/booking");
+
+        List<PhaseTimings> attached =
+                (List<PhaseTimings>) Reporter.getCurrentTestResult().getAttribute(PhaseReport.ATTRIBUTE);
+        assertEquals(attached.size(), 2);
+        assertFalse(attached.get(0).reused());
+        assertTrue(attached.get(1).reused());
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
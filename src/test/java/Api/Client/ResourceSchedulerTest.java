@@ -0,0 +1,151 @@
+package Api.Client;
+
+import Scheduling.ResourceClaims;
+import Scheduling.ResourceLocks;
+import Scheduling.ResourceScheduler;
+import Scheduling.Resources;
+import Scheduling.UsesResources;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class ResourceSchedulerTest {
+
+    @UsesResources(reads = Resources.NAME + "John Doe")
+    static class Declared {
+        @UsesResources(reads = Resources.BOOKING + 1)
+        public void readsBooking() {
+        }
+
+        @UsesResources(writes = Resources.BOOKING + 1)
+        public void writesBooking() {
+        }
+
+        public void classOnly() {
+        }
+    }
+
+    private static ResourceClaims claims(String reads, String writes) {
+        return new ResourceClaims(set(reads), set(writes));
+    }
+
+    private static Set<String> set(String resources) {
+        return resources.isEmpty() ? new HashSet<>() : new HashSet<>(Arrays.asList(resources.split(",")));
+    }
+
+    @Test
+    public void claimsMergeClassAndMethodDeclarations() throws Exception {
+        ResourceClaims reads = ResourceClaims.of(Declared.class.getMethod("readsBooking"));
+        ResourceClaims writes = ResourceClaims.of(Declared.class.getMethod("writesBooking"));
+
+        assertEquals(reads.reads(), set("name:John Doe,booking:1"));
+        assertEquals(writes.writes(), set("booking:1"));
+        assertEquals(ResourceClaims.of(Declared.class.getMethod("classOnly")).reads(), set("name:John Doe"));
+        assertTrue(ResourceClaims.of(Object.class.getMethod("toString")).isEmpty());
+        assertTrue(reads.conflictsWith(writes));
+        assertTrue(writes.conflictsWith(reads));
+        assertFalse(reads.conflictsWith(ResourceClaims.of(Declared.class.getMethod("classOnly"))));
+        // Writing a resource also covers reading it
+        assertEquals(claims("a,b", "a").reads(), set("b"));
+    }
+
+    @Test
+    public void wavesSeparateConflictsAndKeepReadersTogether() {
+        List<ResourceClaims> tests = List.of(
+                claims("booking:1", ""),
+                claims("booking:1", ""),
+                claims("", "booking:1"),
+                ResourceClaims.NONE,
+                claims("name:John Doe", ""),
+                claims("", "name:John Doe,booking:1"),
+                claims("booking:1", ""));
+
+        List<List<ResourceClaims>> waves = ResourceScheduler.waves(tests, claims -> claims);
+
+        assertEquals(waves.stream().mapToInt(List::size).sum(), tests.size());
+        for (List<ResourceClaims> wave : waves) {
+            for (int i = 0; i < wave.size(); i++) {
+                for (int j = i + 1; j < wave.size(); j++) {
+                    assertFalse(wave.get(i).conflictsWith(wave.get(j)), wave.get(i) + " alongside " + wave.get(j));
+                }
+            }
+        }
+        // Two writers that conflict with each other and with the readers need three waves, and no more
+        assertEquals(waves.size(), 3);
+        assertTrue(waves.get(0).contains(tests.get(3)));
+        List<ResourceClaims> readers = waves.get(2);
+        assertEquals(readers, List.of(tests.get(0), tests.get(1), tests.get(6)));
+    }
+
+    @Test
+    public void locksNeverOverlapWritersWithOthers() throws Exception {
+        ResourceLocks locks = new ResourceLocks();
+        List<ResourceClaims> tests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String resource = "booking:" + (i % 3);
+            tests.add(i % 5 == 0 ? claims("", resource) : i % 7 == 0 ? claims("booking:0", resource)
+                    : claims(resource, ""));
+        }
+        Map<String, AtomicInteger> readers = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> writers = new ConcurrentHashMap<>();
+        AtomicInteger maxReaders = new AtomicInteger();
+        List<String> violations = new ArrayList<>();
+        ExecutorService threads = Executors.newFixedThreadPool(16);
+        List<Future<?>> running = new ArrayList<>();
+        for (ResourceClaims claimed : tests) {
+            running.add(threads.submit(() -> {
+                ResourceLocks.Lease lease = locks.acquire(claimed);
+                try {
+                    claimed.reads().forEach(r -> {
+                        int count = readers.computeIfAbsent(r, k -> new AtomicInteger()).incrementAndGet();
+                        maxReaders.accumulateAndGet(count, Math::max);
+                    });
+                    claimed.writes().forEach(w -> writers.computeIfAbsent(w, k -> new AtomicInteger()).incrementAndGet());
+                    for (String w : claimed.writes()) {
+                        if (writers.get(w).get() != 1 || readers.getOrDefault(w, new AtomicInteger()).get() != 0) {
+                            synchronized (violations) {
+                                violations.add(w + " written while in use");
+                            }
+                        }
+                    }
+                    for (String r : claimed.reads()) {
+                        if (writers.getOrDefault(r, new AtomicInteger()).get() != 0) {
+                            synchronized (violations) {
+                                violations.add(r + " read while written");
+                            }
+                        }
+                    }
+                    TimeUnit.MILLISECONDS.sleep(2);
+                    claimed.reads().forEach(r -> readers.get(r).decrementAndGet());
+                    claimed.writes().forEach(w -> writers.get(w).decrementAndGet());
+                } finally {
+                    lease.close();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> test : running) {
+            test.get(60, TimeUnit.SECONDS);
+        }
+        threads.shutdown();
+
+        assertEquals(violations, List.of());
+        assertEquals(locks.acquired(), tests.size());
+        // Readers of one booking did share it
+        assertTrue(maxReaders.get() > 1, "max concurrent readers " + maxReaders);
+        assertTrue(locks.waited() > 0);
+    }
+}
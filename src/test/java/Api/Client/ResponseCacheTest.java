@@ -0,0 +1,114 @@
+package Api.Client;
+
+import Client.HttpBookingClient;
+import Client.ResponseCache;
+import Load.ScenarioMix;
+import Utils.LocalBookingServer;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class ResponseCacheTest {
+    private LocalBookingServer server;
+    private HttpBookingClient client;
+    private String token;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer();
+        client = new HttpBookingClient(server.getBaseUri());
+        token = ScenarioMix.authenticate(client);
+    }
+
+    @AfterClass
+    public void cleanup() {
+        server.close();
+    }
+
+    @Test
+    public void repeatedGetsAreRevalidatedWithEtag() {
+        ResponseCache cache = new ResponseCache(16, 1024 * 1024, 2000);
+        int id = createBooking("Cached");
+
+        Response first = get(cache, "/booking/" + id);
+        Response second = get(cache, "/booking/" + id);
+        Response third = get(cache, "/booking/" + id);
+
+        assertEquals(cache.misses(), 1);
+        assertEquals(cache.revalidations(), 2);
+        assertEquals(second.getStatusCode(), 200);
+        assertEquals(third.asString(), first.asString());
+    }
+
+    @Test
+    public void writeThroughTheFilterInvalidatesBookingAndSearches() {
+        ResponseCache cache = new ResponseCache(16, 1024 * 1024, 2000);
+        int id = createBooking("Before");
+        get(cache, "/booking/" + id);
+        get(cache, "/booking?firstname=Before");
+
+        Response patched = RestAssured.given().baseUri(server.getBaseUri()).filter(cache)
+                .cookie("token", token)
+                .contentType("application/json")
+                .body("{\"firstname\": \"After\"}")
+                .patch("/booking/" + id);
+        assertEquals(patched.getStatusCode(), 200);
+        assertEquals(cache.invalidations(), 2);
+
+        assertEquals(get(cache, "/booking/" + id).jsonPath().getString("firstname"), "After");
+        assertEquals(cache.misses(), 3);
+    }
+
+    @Test
+    public void writeFromAnotherClientInvalidatesTheSharedCache() {
+        ResponseCache cache = ResponseCache.global();
+        cache.clear();
+        int id = createBooking("Shared");
+        get(cache, "/booking/" + id);
+        long invalidations = cache.invalidations();
+
+        assertEquals(client.partialUpdateBooking(id, "{\"firstname\": \"Changed\"}", token).getStatusCode(), 200);
+
+        assertEquals(cache.invalidations(), invalidations + 1);
+        assertEquals(get(cache, "/booking/" + id).jsonPath().getString("firstname"), "Changed");
+    }
+
+    @Test
+    public void errorsAreNotCachedAndLeastRecentlyUsedIsEvicted() {
+        ResponseCache cache = new ResponseCache(2, 1024 * 1024, 2000);
+        get(cache, "/booking/999999");
+        get(cache, "/booking/999999");
+        assertEquals(cache.misses(), 2);
+        assertEquals(cache.size(), 0);
+
+        int a = createBooking("A");
+        int b = createBooking("B");
+        int c = createBooking("C");
+        get(cache, "/booking/" + a);
+        get(cache, "/booking/" + b);
+        get(cache, "/booking/" + a);
+        get(cache, "/booking/" + c);
+
+        assertEquals(cache.evictions(), 1);
+        get(cache, "/booking/" + a);
+        assertEquals(cache.revalidations(), 2, "Recently used entry should have survived the eviction");
+    }
+
+    private Response get(ResponseCache cache, String path) {
+        return RestAssured.given().baseUri(server.getBaseUri()).filter(cache).get(path);
+    }
+
+    private int createBooking(String firstname) {
+        return client.createBooking("{"
+                + "\"firstname\": \"" + firstname + "\","
+                + "\"lastname\": \"Doe\","
+                + "\"totalprice\": 100,"
+                + "\"depositpaid\": true,"
+                + "\"bookingdates\": {\"checkin\": \"2025-01-01\", \"checkout\": \"2025-01-02\"}"
+                + "}").json().get("bookingid").asInt();
+    }
+}
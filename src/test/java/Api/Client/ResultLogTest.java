@@ -0,0 +1,135 @@
+package Api.Client;
+
+import Results.ResultLog;
+import Results.ResultSummary;
+import Results.TestOutcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class ResultLogTest {
+    private static final Logger logger = LoggerFactory.getLogger(ResultLogTest.class);
+
+    @Test
+    public void outcomesRoundTrip() throws IOException {
+        Path log = Files.createTempFile("results", ".bin");
+        TestOutcome failed = new TestOutcome("Api.Booking.CreateBookingTest", "createBooking", "Jim, 150", 1000L, 2500,
+                TestOutcome.Status.FAILED, "java.lang.AssertionError", "expected [200] but found [500]");
+        try (ResultLog.Writer writer = new ResultLog.Writer(log)) {
+            writer.append(failed);
+            writer.append(new TestOutcome("Api.Booking.CreateBookingTest", "createBooking", "", 1002L, 900,
+                    TestOutcome.Status.PASSED, null, null));
+        }
+
+        List<TestOutcome> read = new ArrayList<>();
+        new ResultLog.Reader(log).readAvailable(read::add);
+
+        assertEquals(read.size(), 2);
+        assertEquals(read.get(0).toString(), failed.toString());
+        assertEquals(read.get(0).failureMessage(), failed.failureMessage());
+        assertEquals(read.get(1).status(), TestOutcome.Status.PASSED);
+        assertNull(read.get(1).failureType());
+        Files.delete(log);
+    }
+
+    @Test
+    public void summaryFollowsTheLogIncrementally() throws IOException {
+        Path log = Files.createTempFile("results", ".bin");
+        ResultSummary summary = new ResultSummary(log);
+        int invocations = 200_000;
+        try (ResultLog.Writer writer = new ResultLog.Writer(log)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < invocations; i++) {
+                writer.append(outcome(i));
+                if (i % 50_000 == 49_999) {
+                    writer.flush();
+                    int added = summary.update();
+                    assertEquals(added, 50_000, "each update reads only the new records");
+                }
+            }
+            logger.info("Logged and summarised {} invocations in {}ms, {} bytes", invocations,
+                    (System.nanoTime() - start) / 1_000_000, Files.size(log));
+        }
+
+        assertEquals(summary.update(), 0);
+        assertEquals(summary.total(), invocations);
+        assertEquals(summary.count(TestOutcome.Status.FAILED), invocations / 10);
+        assertEquals(summary.methods().size(), 10);
+        assertEquals(summary.slowest().size(), 20);
+        assertEquals(summary.slowest().get(0).durationMicros(), outcome(invocations - 1).durationMicros());
+        // Failures differing only in the booking id share a group
+        assertEquals(summary.failureGroups().size(), 10);
+        assertEquals(summary.failureGroups().get(0).count(), invocations / 100);
+        // Interned names keep a record to a few dozen bytes
+        assertTrue(Files.size(log) < invocations * 64L, "log is " + Files.size(log) + " bytes");
+
+        Path report = log.resolveSibling(log.getFileName() + ".txt");
+        summary.write(report);
+        assertTrue(Files.readString(report).contains("Failures by cause"));
+        Files.delete(report);
+        Files.delete(log);
+    }
+
+    @Test
+    public void partialTrailingRecordIsLeftForTheNextUpdate() throws IOException {
+        Path log = Files.createTempFile("results", ".bin");
+        try (ResultLog.Writer writer = new ResultLog.Writer(log)) {
+            for (int i = 0; i < 3; i++) {
+                writer.append(outcome(i));
+            }
+        }
+        long complete = Files.size(log);
+        byte[] bytes = Files.readAllBytes(log);
+        // Leave the last record half written, as a crashed or still-running fork would
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            file.setLength(complete - 10);
+        }
+
+        ResultSummary summary = new ResultSummary(log);
+        assertEquals(summary.update(), 2);
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            file.seek(complete - 10);
+            file.write(bytes, (int) complete - 10, 10);
+        }
+        assertEquals(summary.update(), 1);
+        assertEquals(summary.total(), 3);
+        Files.delete(log);
+    }
+
+    @Test
+    public void reopenedLogKeepsItsStringTable() throws IOException {
+        Path log = Files.createTempFile("results", ".bin");
+        try (ResultLog.Writer writer = new ResultLog.Writer(log)) {
+            writer.append(outcome(0));
+        }
+        try (ResultLog.Writer writer = new ResultLog.Writer(log)) {
+            writer.append(outcome(1));
+            writer.append(outcome(10));
+        }
+
+        List<TestOutcome> read = new ArrayList<>();
+        new ResultLog.Reader(log).readAvailable(read::add);
+
+        assertEquals(read.size(), 3);
+        assertEquals(read.get(1).method(), outcome(1).method());
+        assertEquals(read.get(2).method(), outcome(10).method());
+        Files.delete(log);
+    }
+
+    // Ten methods, each failing one run in ten with the booking id in the message
+    private static TestOutcome outcome(int i) {
+        boolean failed = i % 100 < 10;
+        return new TestOutcome("Api.Booking.GeneratedTest", "case" + i % 10, "booking-" + i, 1_700_000_000_000L + i,
+                1000 + i, failed ? TestOutcome.Status.FAILED : TestOutcome.Status.PASSED,
+                failed ? "java.lang.AssertionError" : null, failed ? "booking " + i + " returned 500" : null);
+    }
+}
@@ -0,0 +1,179 @@
+package Api.Client;
+
+import Client.ApiResponse;
+import Client.Booking;
+import Client.Compression;
+import Client.HttpBookingClient;
+import Client.StreamingBody;
+import Load.ScenarioMix;
+import Utils.ConfigManager;
+import Utils.LocalBookingServer;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+public class StreamingBodyTest {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingBodyTest.class);
+    private static final int LARGE = 8 << 20;
+    private static final String TEXT = "Late checkout, extra pillows and a quiet room away from the lift. ";
+
+    private final long heapTestBytes = ConfigManager.getLong("streaming.heapTestBytes", 256L << 20);
+    private LocalBookingServer server;
+    private HttpBookingClient client;
+    private String token;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer();
+        client = new HttpBookingClient(newHttpClient(), server.getBaseUri(), Compression.none());
+        token = ScenarioMix.authenticate(client);
+    }
+
+    @AfterClass
+    public void cleanup() {
+        server.close();
+    }
+
+    @Test
+    public void createStreamsLargeAdditionalNeeds() {
+        ApiResponse created = client.createBookingStreaming(
+                StreamingBody.booking(sampleBooking(), StreamingBody.repeating(TEXT, LARGE)));
+
+        assertEquals(created.getStatusCode(), 200);
+        assertStoredNeeds(created.json().get("bookingid").asInt(), LARGE);
+    }
+
+    @Test
+    public void patchStreamsLargeAdditionalNeeds() {
+        ApiResponse created = client.createBooking(sampleBooking().toJson());
+        int id = created.json().get("bookingid").asInt();
+
+        ApiResponse patched = client.partialUpdateBookingStreaming(id,
+                StreamingBody.field("additionalneeds", StreamingBody.repeating(TEXT, LARGE)), token);
+
+        assertEquals(patched.getStatusCode(), 200);
+        assertStoredNeeds(id, LARGE);
+    }
+
+    @Test
+    public void streamedBodiesCanBeGzipped() {
+        HttpBookingClient gzip = new HttpBookingClient(newHttpClient(), server.getBaseUri(), Compression.gzip(1024));
+        ApiResponse created = gzip.createBookingStreaming(
+                StreamingBody.booking(sampleBooking(), StreamingBody.repeating(TEXT, LARGE)));
+
+        assertEquals(created.getStatusCode(), 200);
+        assertStoredNeeds(created.json().get("bookingid").asInt(), LARGE);
+    }
+
+    @Test(expectedExceptions = UncheckedIOException.class)
+    public void failingWriterFailsTheRequestInsteadOfSendingATruncatedBody() {
+        StreamingBody.JsonWriter broken = generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("firstname", "Half");
+            throw new IOException("source went away");
+        };
+
+        client.createBookingStreaming(broken);
+    }
+
+    @Test
+    public void clientHeapStaysBoundedWhileStreaming() throws Exception {
+        // A sink that only counts bytes, so the only thing in this JVM holding body data is the client
+        HttpServer sink = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        sink.createContext("/booking", exchange -> {
+            long received = 0;
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream in = exchange.getRequestBody()) {
+                for (int n; (n = in.read(buffer)) > 0; ) {
+                    received += n;
+                }
+            }
+            byte[] response = ("{\"bookingid\": 1, \"received\": " + received + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        sink.start();
+        try {
+            HttpBookingClient sinkClient = new HttpBookingClient(newHttpClient(),
+                    "http://127.0.0.1:" + sink.getAddress().getPort(), Compression.none());
+            long baseline = usedHeapAfterGc();
+            HeapSamplingReader needs = new HeapSamplingReader(StreamingBody.repeating(TEXT, heapTestBytes), heapTestBytes / 2);
+
+            ApiResponse response = sinkClient.createBookingStreaming(StreamingBody.booking(sampleBooking(), needs));
+
+            assertEquals(response.getStatusCode(), 200);
+            assertTrue(response.json().get("received").asLong() > heapTestBytes);
+            long growth = needs.usedHeapMidway - baseline;
+            logger.info("Streamed {} MB; retained heap midway grew by {} KB", heapTestBytes >> 20, growth >> 10);
+            assertTrue(growth < 32L << 20, "Client retained " + (growth >> 20) + " MB while streaming");
+        } finally {
+            sink.stop(0);
+        }
+    }
+
+    private void assertStoredNeeds(int id, int length) {
+        ApiResponse fetched = client.getBooking(id);
+        assertEquals(fetched.getStatusCode(), 200);
+        String needs = fetched.json().get("additionalneeds").asText();
+        assertEquals(needs.length(), length);
+        assertTrue(needs.startsWith(TEXT));
+    }
+
+    private static Booking sampleBooking() {
+        return new Booking("John", "Doe", 250, true, "2025-01-01", "2025-01-05", null);
+    }
+
+    private static HttpClient newHttpClient() {
+        return HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Records post-GC heap once the producer is halfway through the body
+    private static class HeapSamplingReader extends Reader {
+        private final Reader delegate;
+        private final long sampleAt;
+        private long read;
+        volatile long usedHeapMidway;
+
+        HeapSamplingReader(Reader delegate, long sampleAt) {
+            this.delegate = delegate;
+            this.sampleAt = sampleAt;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int n = delegate.read(buffer, offset, length);
+            if (n > 0 && read < sampleAt && read + n >= sampleAt) {
+                usedHeapMidway = usedHeapAfterGc();
+            }
+            read += Math.max(n, 0);
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
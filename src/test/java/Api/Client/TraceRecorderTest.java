@@ -0,0 +1,140 @@
+package Api.Client;
+
+import Trace.TraceRecorder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class TraceRecorderTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static JsonNode written(TraceRecorder recorder) throws Exception {
+        Path file = Files.createTempFile("run", ".trace.json");
+        try {
+            recorder.write(file);
+            return MAPPER.readTree(file.toFile());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<JsonNode> events(JsonNode trace, String phase) {
+        List<JsonNode> events = new ArrayList<>();
+        for (JsonNode event : trace.get("traceEvents")) {
+            if (event.get("ph").asText().equals(phase)) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private static JsonNode named(List<JsonNode> events, String name) {
+        return events.stream().filter(e -> e.get("name").asText().equals(name)).findFirst()
+                .orElseThrow(() -> new AssertionError("no event " + name + " in " + events));
+    }
+
+    private static void work(TraceRecorder recorder, String test) throws InterruptedException {
+        try (TraceRecorder.Span span = recorder.begin(test, "test")) {
+            TimeUnit.MILLISECONDS.sleep(5);
+            try (TraceRecorder.Span http = recorder.begin("GET /booking/{id}", "http")) {
+                TimeUnit.MILLISECONDS.sleep(5);
+                http.arg("status", 200);
+            }
+            span.arg("calls", 1);
+        }
+    }
+
+    @Test
+    public void spansNestOnTheirThreadsLane() throws Exception {
+        TraceRecorder recorder = new TraceRecorder(true, 1000);
+        Thread other = new Thread(() -> {
+            try {
+                work(recorder, "Other.test");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "worker-2");
+        other.start();
+        work(recorder, "Main.test");
+        other.join();
+
+        JsonNode trace = written(recorder);
+        List<JsonNode> spans = events(trace, "X");
+        assertEquals(spans.size(), 4);
+        JsonNode test = named(spans, "Main.test");
+        long lane = Thread.currentThread().getId();
+        assertEquals(test.get("tid").asLong(), lane);
+        assertEquals(test.get("pid").asInt(), TraceRecorder.THREADS);
+        assertEquals(named(spans, "Other.test").get("tid").asLong(), other.getId());
+
+        // The HTTP call on this thread sits inside the test that made it
+        JsonNode http = spans.stream().filter(e -> e.get("cat").asText().equals("http")
+                && e.get("tid").asLong() == lane).findFirst().orElseThrow(AssertionError::new);
+        double testStart = test.get("ts").asDouble();
+        double testEnd = testStart + test.get("dur").asDouble();
+        assertTrue(http.get("ts").asDouble() >= testStart, http + " starts before " + test);
+        assertTrue(http.get("ts").asDouble() + http.get("dur").asDouble() <= testEnd, http + " ends after " + test);
+        assertTrue(http.get("dur").asDouble() >= 4_000, http.toString());
+        assertEquals(http.get("args").get("status").asInt(), 200);
+
+        Map<Long, String> threadNames = new HashMap<>();
+        for (JsonNode meta : events(trace, "M")) {
+            if (meta.get("name").asText().equals("thread_name") && meta.get("pid").asInt() == TraceRecorder.THREADS) {
+                threadNames.put(meta.get("tid").asLong(), meta.get("args").get("name").asText());
+            }
+        }
+        assertEquals(threadNames.get(other.getId()), "worker-2");
+        assertEquals(threadNames.get(lane), Thread.currentThread().getName());
+    }
+
+    @Test
+    public void structureLanesAndAsyncSlices() throws Exception {
+        TraceRecorder recorder = new TraceRecorder(true, 1000);
+        long start = System.nanoTime();
+        long classLane = recorder.structureLane("Api.Booking.GetBooking");
+        assertEquals(recorder.structureLane("Api.Booking.GetBooking"), classLane);
+        recorder.complete("GetBooking", "class", TraceRecorder.STRUCTURE, classLane, start, start + 2_000_000, null);
+        recorder.async("DELETE /booking/{id}", "http", start, start + 1_000_000, Map.of("status", 201));
+        recorder.async("DELETE /booking/{id}", "http", start, start + 3_000_000, Map.of("status", 201));
+
+        JsonNode trace = written(recorder);
+        JsonNode cls = named(events(trace, "X"), "GetBooking");
+        assertEquals(cls.get("pid").asInt(), TraceRecorder.STRUCTURE);
+        assertEquals(cls.get("dur").asDouble(), 2000.0, 0.001);
+        List<JsonNode> begins = events(trace, "b");
+        List<JsonNode> ends = events(trace, "e");
+        assertEquals(begins.size(), 2);
+        assertEquals(ends.size(), 2);
+        // Overlapping requests from one thread are told apart by id
+        assertNotEquals(begins.get(0).get("id").asText(), begins.get(1).get("id").asText());
+        assertEquals(ends.get(1).get("ts").asDouble() - begins.get(1).get("ts").asDouble(), 3000.0, 0.001);
+        assertEquals(trace.get("displayTimeUnit").asText(), "ms");
+    }
+
+    @Test
+    public void disabledAndFullRecordersKeepNothingMore() throws Exception {
+        TraceRecorder disabled = new TraceRecorder(false, 1000);
+        disabled.begin("test", "test").arg("status", "passed").close();
+        disabled.async("GET /booking", "http", 0, 1, null);
+        assertEquals(disabled.size(), 0);
+        assertEquals(events(written(disabled), "X").size(), 0);
+
+        TraceRecorder full = new TraceRecorder(true, 3);
+        for (int i = 0; i < 5; i++) {
+            full.begin("span " + i, "test").close();
+        }
+        assertEquals(full.size(), 3);
+        assertEquals(full.dropped(), 2);
+        assertEquals(events(written(full), "X").size(), 3);
+    }
+}
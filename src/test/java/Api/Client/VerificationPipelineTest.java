@@ -0,0 +1,126 @@
+package Api.Client;
+
+import Chaos.FaultInjectionProxy;
+import Chaos.FaultRule;
+import Client.ApiResponse;
+import Client.Booking;
+import Client.HttpBookingClient;
+import Utils.LocalBookingServer;
+import Verification.Check;
+import Verification.Checks;
+import Verification.VerificationFailure;
+import Verification.VerificationPipeline;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class VerificationPipelineTest {
+    private static final Logger logger = LoggerFactory.getLogger(VerificationPipelineTest.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // Stands in for heavier validation than these small bodies need
+    private static final Check SLOW = response -> TimeUnit.MILLISECONDS.sleep(3);
+
+    private LocalBookingServer server;
+    private FaultInjectionProxy proxy;
+    private HttpBookingClient client;
+    private final List<Integer> ids = new ArrayList<>();
+    private final List<JsonNode> oracles = new ArrayList<>();
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer();
+        proxy = new FaultInjectionProxy(server.getBaseUri());
+        // Every read waits 3ms, like a request that has to cross a network
+        proxy.addRule(FaultRule.route("GET", "/booking/\\d+").latency(random -> 3));
+        client = new HttpBookingClient(proxy.getBaseUri());
+        try (VerificationPipeline pipeline = new VerificationPipeline(2, 16)) {
+            for (int i = 0; i < 10; i++) {
+                String body = new Booking("Pipe", "Line" + i, 100 + i, i % 2 == 0, "2025-07-01",
+                        "2025-07-0" + (2 + i % 7), "Breakfast").toJson();
+                JsonNode oracle = MAPPER.readTree(body);
+                ApiResponse created = pipeline.issue("create " + i, () -> client.createBooking(body),
+                        Checks.status(200), Checks.created(oracle));
+                ids.add(created.json().get("bookingid").asInt());
+                oracles.add(oracle);
+            }
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void cleanup() {
+        proxy.close();
+        server.close();
+    }
+
+    private void readAll(VerificationPipeline pipeline, int rounds, Check... extra) {
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < ids.size(); i++) {
+                int id = ids.get(i);
+                pipeline.issue("get " + id, () -> client.getBooking(id), Checks.status(200), Checks.bookingSchema(),
+                        Checks.matches(oracles.get(i)), Checks.all(extra));
+            }
+        }
+    }
+
+    @Test
+    public void failuresMapBackToTheirStep() {
+        VerificationPipeline pipeline = new VerificationPipeline(2, 8);
+        readAll(pipeline, 2);
+        int id = ids.get(3);
+        pipeline.issue("get " + id + " with a wrong price", () -> client.getBooking(id),
+                Checks.field("totalprice", 999), Checks.field("bookingdates.checkin", "2025-07-01"));
+        readAll(pipeline, 1);
+
+        VerificationFailure failure = expectThrows(VerificationFailure.class, pipeline::close);
+        assertEquals(failure.failures().size(), 1, failure.getMessage());
+        VerificationPipeline.Failure failed = failure.failures().get(0);
+        assertEquals(failed.test(), "VerificationPipelineTest.failuresMapBackToTheirStep");
+        assertEquals(failed.step(), "get " + id + " with a wrong price");
+        assertEquals(failed.index(), 21);
+        assertEquals(failed.status(), 200);
+        assertTrue(failed.cause().getMessage().startsWith("totalprice"), failed.cause().getMessage());
+        assertTrue(failure.getMessage().startsWith("1 of 31 responses failed verification:"), failure.getMessage());
+        assertEquals(pipeline.verified(), 31);
+    }
+
+    @Test
+    public void fullQueueHoldsTheIssuerBack() {
+        VerificationPipeline pipeline = new VerificationPipeline(1, 4);
+        // Checks several times slower than the requests
+        readAll(pipeline, 4, response -> TimeUnit.MILLISECONDS.sleep(20));
+        pipeline.close();
+
+        logger.info("Slow validation behind a 4-deep queue:\n{}", pipeline);
+        assertEquals(pipeline.verified(), 40);
+        assertTrue(pipeline.peakQueued() <= 4, pipeline.toString());
+        assertTrue(pipeline.blocked(TimeUnit.MILLISECONDS) > 0, pipeline.toString());
+    }
+
+    @Test
+    public void pipeliningOverlapsWaitingWithValidation() {
+        VerificationPipeline inline = new VerificationPipeline(0, 1);
+        readAll(inline, 10, SLOW);
+        inline.close();
+        VerificationPipeline pipelined = new VerificationPipeline(4, 64);
+        readAll(pipelined, 10, SLOW);
+        pipelined.close();
+
+        logger.info("Inline:\n{}\nPipelined:\n{}", inline, pipelined);
+        assertFalse(inline.isPipelined());
+        assertEquals(inline.verified(), 100);
+        assertEquals(pipelined.verified(), 100);
+        // Inline pays for the 3ms wait and the 3ms check one after the other; pipelined mostly just the wait
+        assertTrue(pipelined.elapsed(TimeUnit.MILLISECONDS) < inline.elapsed(TimeUnit.MILLISECONDS) * 3 / 4,
+                "inline " + inline + "\npipelined " + pipelined);
+    }
+}
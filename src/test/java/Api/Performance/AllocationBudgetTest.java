@@ -0,0 +1,173 @@
+package Api.Performance;
+
+import Client.Booking;
+import Client.HttpBookingClient;
+import Load.ScenarioMix;
+import Telemetry.AllocationBudgets;
+import Telemetry.AllocationMeter;
+import Utils.ConfigManager;
+import Utils.LocalBookingServer;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.testng.Assert.*;
+
+// Bytes each booking operation allocates on the test thread, end to end: building the body, the RestAssured
+// request, parsing the response and asserting on it. Measured requests leave out the suite-wide filters (metrics,
+// JFR, trace, deadlines), so the budgets cover the operation alone. Budgets are committed in
+// perf/allocation-budgets.properties; -Dalloc.bless=true rewrites them from this run.
+public class AllocationBudgetTest {
+    private static final Logger logger = LoggerFactory.getLogger(AllocationBudgetTest.class);
+    private static final Path BUDGETS = Paths.get(ConfigManager.get("alloc.budgets", "perf/allocation-budgets.properties"));
+
+    private final int warmup = ConfigManager.getInt("alloc.warmup", 300);
+    private final int iterations = ConfigManager.getInt("alloc.iterations", 200);
+    private final Map<String, Long> measured = new ConcurrentHashMap<>();
+    private final Map<String, AllocationMeter.Operation> pipelines = new LinkedHashMap<>();
+    private LocalBookingServer server;
+    private AllocationBudgets budgets;
+    private String baseUri;
+    private int searchedId;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        if (!AllocationMeter.isSupported()) {
+            throw new SkipException("This JVM does not report per-thread allocation");
+        }
+        server = new LocalBookingServer();
+        budgets = AllocationBudgets.load(BUDGETS);
+        baseUri = server.getBaseUri();
+        String token = ScenarioMix.authenticate(new HttpBookingClient(baseUri));
+        Booking searched = new Booking("Budget", "Search", 120, true, "2025-03-01", "2025-03-04", "Breakfast");
+        searchedId = create(searched.toJson()).getInt("bookingid");
+        int updatedId = create(booking(0).toJson()).getInt("bookingid");
+
+        pipelines.put("create", () -> {
+            Booking booking = booking(1);
+            JsonPath json = create(booking.toJson());
+            assertTrue(json.getInt("bookingid") > 0);
+            assertEquals(json.getString("booking.lastname"), booking.getLastname());
+        });
+        pipelines.put("get", get(response -> { }));
+        pipelines.put("search", () -> {
+            Response response = request()
+                    .queryParam("firstname", "Budget")
+                    .queryParam("lastname", "Search")
+                    .get("/booking");
+            assertEquals(response.getStatusCode(), 200);
+            assertEquals(response.jsonPath().getList("bookingid").size(), 1);
+        });
+        pipelines.put("put", () -> {
+            Booking booking = booking(2);
+            Response response = request()
+                    .cookie("token", token)
+                    .contentType(ContentType.JSON)
+                    .body(booking.toJson())
+                    .put("/booking/" + updatedId);
+            assertEquals(response.getStatusCode(), 200);
+            assertEquals(response.jsonPath().getString("firstname"), booking.getFirstname());
+        });
+        pipelines.put("patch", () -> {
+            Response response = request()
+                    .cookie("token", token)
+                    .contentType(ContentType.JSON)
+                    .body("{\"additionalneeds\": \"Late checkout\"}")
+                    .patch("/booking/" + updatedId);
+            assertEquals(response.getStatusCode(), 200);
+            assertEquals(response.jsonPath().getString("additionalneeds"), "Late checkout");
+        });
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void cleanup() throws Exception {
+        if (server != null) {
+            server.close();
+        }
+        if (measured.isEmpty()) {
+            return;
+        }
+        logger.info("Allocated bytes per operation: {}", new TreeMap<>(measured));
+        if (ConfigManager.getBoolean("alloc.bless", false)) {
+            AllocationBudgets.bless(BUDGETS, measured, ConfigManager.getLong("alloc.marginBytes", 32 * 1024));
+            logger.info("Blessed allocation budgets for {} operations in {}", measured.size(), BUDGETS);
+        }
+    }
+
+    @DataProvider
+    public Object[][] operations() {
+        return new Object[][] {{"create"}, {"get"}, {"search"}, {"put"}, {"patch"}};
+    }
+
+    @Test(dataProvider = "operations")
+    public void operationStaysWithinAllocationBudget(String operation) throws Exception {
+        long bytes = AllocationMeter.bytesPerOperation(pipelines.get(operation), warmup, iterations);
+        measured.put(operation, bytes);
+        logger.info("{}: {} bytes per operation (budget {})", operation, bytes, budgets.budget(operation));
+
+        if (!ConfigManager.getBoolean("alloc.bless", false)) {
+            String failure = budgets.check(operation, bytes);
+            assertNull(failure, failure);
+        }
+    }
+
+    // The smallest regression the budgets are meant to catch: one more pretty-printed copy of the response
+    @Test
+    public void extraPrettyPrintIsOverBudget() throws Exception {
+        if (ConfigManager.getBoolean("alloc.bless", false)) {
+            throw new SkipException("Budgets are being blessed");
+        }
+        long bytes = AllocationMeter.bytesPerOperation(get(Response::asPrettyString), warmup, iterations);
+        logger.info("get with an extra asPrettyString(): {} bytes per operation (budget {})", bytes,
+                budgets.budget("get"));
+
+        assertNotNull(budgets.check("get", bytes), "get plus asPrettyString() fits the get budget");
+    }
+
+    // A GET of the searched booking; extra runs on the response before the assertions
+    private AllocationMeter.Operation get(Consumer<Response> extra) {
+        return () -> {
+            Response response = request().get("/booking/" + searchedId);
+            extra.accept(response);
+            assertEquals(response.getStatusCode(), 200);
+            assertEquals(response.jsonPath().getString("firstname"), "Budget");
+        };
+    }
+
+    // Without the suite-wide filters, which RestAssured.given() copies into every request
+    private RequestSpecification request() {
+        return RestAssured.given().noFilters().baseUri(baseUri);
+    }
+
+    private JsonPath create(String body) {
+        Response response = request()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .post("/booking");
+        assertEquals(response.getStatusCode(), 200);
+        return response.jsonPath();
+    }
+
+    // Fixed values, so every run builds the same bodies and measures the same bytes
+    private static Booking booking(int variant) {
+        return new Booking("Alloc" + variant, "Budget", 100 + variant, variant % 2 == 0,
+                "2025-05-0" + (variant + 1), "2025-05-1" + (variant + 1), "Dinner");
+    }
+}
@@ -0,0 +1,125 @@
+package Api.Performance;
+
+import Client.ApiResponse;
+import Client.BookingClient;
+import Client.ClientBackend;
+import Client.ClientStartupProbe;
+import Client.HttpBookingClient;
+import Utils.ConfigManager;
+import Utils.LocalBookingServer;
+import Utils.Percentiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.*;
+
+// Compares JVM startup and per-request overhead of the RestAssured and java.net.http backends
+// against a local in-memory server, so the network does not drown out the client cost.
+public class ClientBackendBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(ClientBackendBenchmark.class);
+    private static final Pattern PROBE_OUTPUT = Pattern.compile(
+            "status=(\\d+) firstRequestMs=(\\d+) uptimeMs=(\\d+) loadedClasses=(\\d+)");
+
+    private final int iterations = ConfigManager.getInt("benchmark.iterations", 500);
+    private final int warmup = ConfigManager.getInt("benchmark.warmup", 100);
+    private final int startupRuns = ConfigManager.getInt("benchmark.startupRuns", 3);
+    private LocalBookingServer server;
+    private int bookingId;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer();
+        ApiResponse created = new HttpBookingClient(server.getBaseUri()).createBooking("{"
+                + "\"firstname\": \"John\","
+                + "\"lastname\": \"Doe\","
+                + "\"totalprice\": 250,"
+                + "\"depositpaid\": true,"
+                + "\"bookingdates\": {\"checkin\": \"2025-01-01\", \"checkout\": \"2025-01-05\"}"
+                + "}");
+        bookingId = created.json().get("bookingid").asInt();
+    }
+
+    @AfterClass
+    public void cleanup() {
+        server.close();
+    }
+
+    @Test
+    public void startupTimeOfEachBackend() throws Exception {
+        for (ClientBackend backend : ClientBackend.values()) {
+            long[] firstRequest = new long[startupRuns];
+            long[] uptime = new long[startupRuns];
+            long[] classes = new long[startupRuns];
+            for (int run = 0; run < startupRuns; run++) {
+                Matcher probe = runProbe(backend);
+                assertEquals(Integer.parseInt(probe.group(1)), 200, backend + " probe request failed");
+                firstRequest[run] = Long.parseLong(probe.group(2));
+                uptime[run] = Long.parseLong(probe.group(3));
+                classes[run] = Long.parseLong(probe.group(4));
+            }
+            logger.info("{} startup: first request {} ms, JVM uptime {} ms, {} classes loaded (median of {})",
+                    backend, Percentiles.of(firstRequest, 50), Percentiles.of(uptime, 50),
+                    Percentiles.of(classes, 50), startupRuns);
+        }
+    }
+
+    @Test
+    public void perRequestOverheadOfEachBackend() {
+        for (ClientBackend backend : ClientBackend.values()) {
+            BookingClient client = backend.create(server.getBaseUri());
+            for (int i = 0; i < warmup; i++) {
+                getAndParse(client);
+            }
+            long[] samples = new long[iterations];
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                getAndParse(client);
+                samples[i] = System.nanoTime() - start;
+            }
+            logger.info("{} per request: p50 {} us, p90 {} us, p99 {} us over {} calls",
+                    backend, Percentiles.of(samples, 50) / 1000, Percentiles.of(samples, 90) / 1000,
+                    Percentiles.of(samples, 99) / 1000, iterations);
+        }
+    }
+
+    private void getAndParse(BookingClient client) {
+        ApiResponse response = client.getBooking(bookingId);
+        assertEquals(response.getStatusCode(), 200);
+        assertEquals(response.json().get("firstname").asText(), "John");
+    }
+
+    private Matcher runProbe(ClientBackend backend) throws Exception {
+        String classpath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        Process process = new ProcessBuilder(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", classpath, ClientStartupProbe.class.getName(),
+                backend.name(), server.getBaseUri(), String.valueOf(bookingId))
+                .redirectErrorStream(true)
+                .start();
+
+        Matcher result = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = PROBE_OUTPUT.matcher(line);
+                if (matcher.find()) {
+                    result = matcher;
+                }
+            }
+        }
+        assertEquals(process.waitFor(), 0, backend + " probe exited abnormally");
+        assertNotNull(result, backend + " probe printed no result");
+        return result;
+    }
+}
@@ -0,0 +1,171 @@
+package Api.Performance;
+
+import Client.ApiResponse;
+import Client.Booking;
+import Client.Compression;
+import Client.HttpBookingClient;
+import Load.ScenarioMix;
+import Utils.ConfigManager;
+import Utils.LocalBookingServer;
+import Utils.Percentiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+// Sends bookings whose additionalneeds grows from 1KB to 10MB with and without compression and reports
+// bytes on the wire, create/get latency and CPU time for each. Client CPU is the calling thread (where bodies
+// are compressed and decoded); process CPU also includes the in-process server.
+public class CompressionBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(CompressionBenchmark.class);
+    private static final int[] SIZES = {1 << 10, 10 << 10, 100 << 10, 1 << 20, 10 << 20};
+    private static final String[] WORDS = {"late", "checkout", "breakfast", "extra", "pillows", "quiet", "room",
+            "parking", "airport", "shuttle", "vegan", "meal", "crib", "high", "floor", "view", "sea", "allergy",
+            "gluten", "free", "wheelchair", "access", "early", "checkin", "twin", "beds", "balcony", "towels"};
+
+    private final int maxIterations = ConfigManager.getInt("benchmark.compression.iterations", 20);
+    private final int maxPayload = ConfigManager.getInt("benchmark.compression.maxBytes", 10 << 20);
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private LocalBookingServer server;
+    private String token;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer();
+        token = ScenarioMix.authenticate(new HttpBookingClient(server.getBaseUri()));
+    }
+
+    @AfterClass
+    public void cleanup() {
+        server.close();
+    }
+
+    @Test
+    public void smallBodiesStayUncompressed() {
+        Compression gzip = Compression.gzip(1024);
+        assertNull(gzip.encodingFor(1023));
+        assertEquals(gzip.encodingFor(1024), "gzip");
+        assertNull(Compression.none().encodingFor(Integer.MAX_VALUE - 1));
+    }
+
+    @Test
+    public void bodiesRoundTripThroughGzipAndDeflate() {
+        byte[] original = additionalNeeds(64 << 10).getBytes(StandardCharsets.UTF_8);
+        for (String encoding : new String[]{"gzip", "deflate"}) {
+            byte[] compressed = Compression.compress(original, encoding);
+            assertTrue(compressed.length < original.length / 2, encoding + " barely compressed the payload");
+            assertEquals(Compression.decompress(compressed, encoding), original);
+        }
+    }
+
+    @Test
+    public void payloadSizeSweep() {
+        Compression[] modes = {Compression.none(), Compression.gzip(1024), Compression.deflate(1024)};
+        logger.info(String.format("%9s %-8s %12s %12s %10s %10s %11s %11s",
+                "payload", "mode", "req_wire", "resp_wire", "create_p50", "get_p50", "client_cpu", "process_cpu"));
+        for (int size : SIZES) {
+            if (size > maxPayload) {
+                continue;
+            }
+            String body = booking(size);
+            long uncompressedRequest = 0;
+            for (Compression mode : modes) {
+                Row row = measure(mode, body, iterationsFor(size));
+                logger.info(String.format("%8dK %-8s %12d %12d %8.2fms %8.2fms %9.2fms %9.2fms",
+                        size >> 10, mode.isEnabled() ? mode.encoding() : "none", row.requestBytes, row.responseBytes,
+                        row.createP50Micros / 1000.0, row.getP50Micros / 1000.0,
+                        row.clientCpuNanos / 1e6, row.processCpuNanos / 1e6));
+                if (!mode.isEnabled()) {
+                    uncompressedRequest = row.requestBytes;
+                } else {
+                    assertTrue(row.requestBytes < uncompressedRequest,
+                            mode.encoding() + " did not shrink a " + size + " byte payload");
+                }
+            }
+        }
+    }
+
+    private static class Row {
+        long requestBytes;
+        long responseBytes;
+        long createP50Micros;
+        long getP50Micros;
+        long clientCpuNanos;
+        long processCpuNanos;
+    }
+
+    // Per-iteration averages for one payload size and compression mode
+    private Row measure(Compression mode, String body, int iterations) {
+        HttpBookingClient client = new HttpBookingClient(
+                HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(), server.getBaseUri(), mode);
+        byte[] raw = body.getBytes(StandardCharsets.UTF_8);
+        String encoding = mode.encodingFor(raw.length);
+        Row row = new Row();
+        row.requestBytes = encoding == null ? raw.length : Compression.compress(raw, encoding).length;
+        int expectedNeeds = Booking.fromJson(body).getAdditionalneeds().length();
+
+        long[] create = new long[iterations];
+        long[] get = new long[iterations];
+        long responseBytes = 0;
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long processStart = processCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            ApiResponse created = client.createBooking(body);
+            assertEquals(created.getStatusCode(), 200);
+            int id = created.json().get("bookingid").asInt();
+            ApiResponse fetched = client.getBooking(id);
+            assertEquals(fetched.getStatusCode(), 200);
+            assertEquals(fetched.json().get("additionalneeds").asText().length(), expectedNeeds);
+            create[i] = created.getTimeIn(TimeUnit.MICROSECONDS);
+            get[i] = fetched.getTimeIn(TimeUnit.MICROSECONDS);
+            String contentLength = fetched.getHeader("Content-Length");
+            responseBytes += contentLength != null ? Long.parseLong(contentLength) : fetched.getBody().length();
+            assertEquals(client.deleteBooking(id, token).getStatusCode(), 201);
+        }
+        row.clientCpuNanos = (threads.getCurrentThreadCpuTime() - cpuStart) / iterations;
+        row.processCpuNanos = (processCpuTime() - processStart) / iterations;
+        row.responseBytes = responseBytes / iterations;
+        row.createP50Micros = Percentiles.of(create, 50);
+        row.getP50Micros = Percentiles.of(get, 50);
+        return row;
+    }
+
+    private int iterationsFor(int size) {
+        return Math.max(3, Math.min(maxIterations, (20 << 20) / size));
+    }
+
+    private static long processCpuTime() {
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        return os instanceof com.sun.management.OperatingSystemMXBean
+                ? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime() : 0;
+    }
+
+    // A booking whose whole JSON body is about the given size, the bulk of it in additionalneeds
+    private static String booking(int size) {
+        Booking booking = new Booking("John", "Doe", 250, true, "2025-01-01", "2025-01-05", "");
+        int skeleton = booking.toJson().length();
+        booking.setAdditionalneeds(additionalNeeds(Math.max(1, size - skeleton)));
+        return booking.toJson();
+    }
+
+    // Word salad from a small vocabulary compresses about as well as real free-text requests
+    private static String additionalNeeds(int length) {
+        Random random = new Random(length);
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(8) == 0 ? ". " : " ");
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package Api.Performance;
+
+import Client.ClientBackend;
+import Load.LoadCoordinator;
+import Load.LoadJob;
+import Load.LoadStats;
+import Utils.LocalBookingServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class DistributedLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(DistributedLoadTest.class);
+
+    @Test
+    public void snapshotsRoundTripMergeAndSubtract() throws Exception {
+        LoadStats first = new LoadStats();
+        LoadStats second = new LoadStats();
+        for (int i = 0; i < 100; i++) {
+            first.record("get", 200, TimeUnit.MILLISECONDS.toNanos(5));
+            second.record("get", i % 10 == 0 ? 500 : 200, TimeUnit.MILLISECONDS.toNanos(50));
+            first.iteration(true);
+            second.iteration(i % 10 != 0);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        second.write(new DataOutputStream(bytes));
+        LoadStats received = LoadStats.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        LoadStats merged = new LoadStats();
+        merged.merge(first);
+        merged.merge(received);
+
+        assertEquals(merged.requests(), 200);
+        assertEquals(merged.errors("get"), 10);
+        assertEquals(merged.failedIterations(), 10);
+        // Half the requests took 5ms and half 50ms, so the median sits at the fast ones and p99 at the slow
+        assertTrue(merged.combinedLatency().percentileMicros(50) < 6_000);
+        assertTrue(merged.combinedLatency().percentileMicros(99) > 45_000);
+        LoadStats delta = merged.minus(first);
+        assertEquals(delta.requests(), 100);
+        assertEquals(delta.errors(), 10);
+        assertEquals(delta.combinedLatency().percentileMicros(50), received.combinedLatency().percentileMicros(50));
+    }
+
+    @Test
+    public void localWorkerProcessesShareTheRate() throws Exception {
+        int workers = 3;
+        try (LocalBookingServer server = new LocalBookingServer(16);
+             LoadCoordinator coordinator = new LoadCoordinator(0)) {
+            // 30 iterations/s for 4s across the cluster, reporting every second
+            LoadJob job = new LoadJob(server.getBaseUri(), ClientBackend.HTTP.name(), 30, 4, 4, 50, 30, 1000);
+            coordinator.startLocalWorkers(workers);
+
+            LoadCoordinator.Report report = coordinator.run(job, workers);
+
+            logger.info("Distributed run:\n{}", report);
+            assertEquals(report.workers().size(), workers);
+            long expected = (long) (job.ratePerSecond * job.durationSeconds);
+            long iterations = report.combined().iterations();
+            assertTrue(iterations >= expected * 0.9 && iterations <= expected + workers, report.toString());
+            assertEquals(report.combined().failedIterations(), 0, report.toString());
+            for (LoadCoordinator.WorkerResult worker : report.workers()) {
+                assertNull(worker.failure, worker.name);
+                assertEquals(worker.stats.iterations(), expected / workers, 2, worker.name);
+            }
+            // Every iteration creates, gets and deletes once; the merged histograms must say the same
+            assertEquals(report.combined().latency().get("create").count(), iterations);
+            assertEquals(report.combined().latency().get("delete").count(), iterations);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package Api.Performance;
+
+import Chaos.FaultInjectionProxy;
+import Chaos.FaultRule;
+import Chaos.LatencyDistribution;
+import Client.HttpBookingClient;
+import Load.ScenarioMix;
+import Telemetry.LatencyHistogram;
+import Utils.ConfigManager;
+import Utils.LocalBookingServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.*;
+
+// Runs the booking scenario mix through a fault-injection proxy in front of the local server and
+// reports how each fault shifts tail latency, error count and wall-clock time against a clean baseline.
+// Tests take turns on the one proxy and compare against the baseline's timings, so they never run side by side.
+@Test(singleThreaded = true)
+public class FaultInjectionScenarioTest {
+    private static final Logger logger = LoggerFactory.getLogger(FaultInjectionScenarioTest.class);
+
+    private final int iterations = ConfigManager.getInt("chaos.iterations", 40);
+    private final int threads = ConfigManager.getInt("chaos.threads", 4);
+    private LocalBookingServer server;
+    private FaultInjectionProxy proxy;
+    private ScenarioMix mix;
+    private long baselineWallMillis;
+
+    private static class Outcome {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final Map<String, LatencyHistogram> byOperation = new ConcurrentHashMap<>();
+        final AtomicLong errors = new AtomicLong();
+        long wallMillis;
+    }
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer();
+        proxy = new FaultInjectionProxy(server.getBaseUri());
+        HttpBookingClient client = new HttpBookingClient(proxy.getBaseUri());
+        mix = new ScenarioMix(client, ScenarioMix.authenticate(client));
+        baselineWallMillis = run("baseline").wallMillis;
+    }
+
+    @AfterMethod
+    public void clearFaults() {
+        proxy.clearRules();
+    }
+
+    @AfterClass
+    public void cleanup() {
+        proxy.close();
+        server.close();
+    }
+
+    @Test
+    public void baselineHasNoErrors() throws Exception {
+        Outcome outcome = run("baseline");
+        assertEquals(outcome.errors.get(), 0, "Requests failed without any fault injected");
+    }
+
+    @Test
+    public void fixedLatencyShowsUpInMedian() throws Exception {
+        proxy.addRule(FaultRule.allRoutes().latency(LatencyDistribution.fixed(20)));
+        Outcome outcome = run("latency 20ms");
+        assertEquals(outcome.errors.get(), 0);
+        assertTrue(outcome.latency.percentileMicros(50) >= 20_000,
+                "Median " + outcome.latency.percentileMicros(50) + "us is below the injected 20ms");
+    }
+
+    @Test
+    public void jitterWidensTheTail() throws Exception {
+        proxy.addRule(FaultRule.allRoutes().latency(LatencyDistribution.logNormal(5, 1.0).withJitter(5)));
+        Outcome outcome = run("lognormal 5ms + jitter");
+        assertEquals(outcome.errors.get(), 0);
+        assertTrue(outcome.latency.percentileMicros(99) > outcome.latency.percentileMicros(50));
+    }
+
+    @Test
+    public void slowSearchRouteOnlyDelaysSearch() throws Exception {
+        proxy.addRule(FaultRule.route("GET", "/booking\\?.*").latency(LatencyDistribution.uniform(30, 60)));
+        Outcome outcome = run("slow search");
+        assertEquals(outcome.errors.get(), 0);
+        assertTrue(outcome.byOperation.get("search").percentileMicros(50) >= 30_000);
+        assertTrue(outcome.byOperation.get("get").percentileMicros(50) < 30_000);
+    }
+
+    @Test
+    public void bandwidthCapSlowsResponses() throws Exception {
+        Outcome baseline = run("uncapped");
+        long bytesPerSecond = 16 * 1024;
+        proxy.addRule(FaultRule.allRoutes().bandwidth(bytesPerSecond));
+        Outcome outcome = run("16KB/s");
+        assertEquals(outcome.errors.get(), 0);
+        // Even a bare status line and headers (~128 bytes) take ~8ms at this cap, far above a local round trip
+        long floorMicros = 128 * 1_000_000L / bytesPerSecond;
+        long baselineMedian = baseline.latency.percentileMicros(50);
+        long cappedMedian = outcome.latency.percentileMicros(50);
+        assertTrue(cappedMedian >= baselineMedian + floorMicros,
+                "Median " + cappedMedian + "us under the cap is not " + floorMicros + "us above the uncapped "
+                        + baselineMedian + "us");
+        assertTrue(outcome.wallMillis > baseline.wallMillis,
+                "Capped run took " + outcome.wallMillis + "ms, uncapped " + baseline.wallMillis + "ms");
+    }
+
+    @Test
+    public void occasionalResetsAreMostlyAbsorbedByRetries() throws Exception {
+        // java.net.http retries an idempotent GET once on a dropped connection, so only some resets fail
+        proxy.addRule(FaultRule.route("GET", "/booking/\\d+").resets(0.2));
+        Outcome outcome = run("20% resets on get");
+        assertTrue(outcome.errors.get() <= proxy.resetCount());
+    }
+
+    @Test
+    public void persistentResetsFailEveryIteration() throws Exception {
+        proxy.addRule(FaultRule.route("GET", "/booking/\\d+").resets(1.0));
+        Outcome outcome = run("100% resets on get");
+        assertEquals(outcome.errors.get(), iterations);
+    }
+
+    @Test
+    public void partialResponsesFailEveryIteration() throws Exception {
+        proxy.addRule(FaultRule.route("GET", "/booking/\\d+").partialResponses(1.0));
+        Outcome outcome = run("truncated get");
+        assertEquals(outcome.errors.get(), iterations);
+    }
+
+    private Outcome run(String scenario) throws Exception {
+        Outcome outcome = new Outcome();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < iterations; i++) {
+                futures.add(pool.submit(() -> iterate(outcome)));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        outcome.wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info(String.format("%-24s p50 %7.1f ms  p99 %7.1f ms  errors %3d  wall %6d ms (%+.0f%% vs baseline)",
+                scenario, outcome.latency.percentileMicros(50) / 1000.0, outcome.latency.percentileMicros(99) / 1000.0,
+                outcome.errors.get(), outcome.wallMillis,
+                baselineWallMillis == 0 ? 0 : (outcome.wallMillis * 100.0 / baselineWallMillis - 100)));
+        return outcome;
+    }
+
+    private void iterate(Outcome outcome) {
+        try {
+            boolean ok = mix.runIteration((operation, status, latencyNanos) -> {
+                outcome.latency.recordNanos(latencyNanos);
+                outcome.byOperation.computeIfAbsent(operation, key -> new LatencyHistogram()).recordNanos(latencyNanos);
+            });
+            if (!ok) {
+                outcome.errors.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            // Resets and truncated bodies arrive as UncheckedIOException from the client
+            outcome.errors.incrementAndGet();
+        }
+    }
+}
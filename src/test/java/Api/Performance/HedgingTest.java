@@ -0,0 +1,84 @@
+package Api.Performance;
+
+import Chaos.FaultInjectionProxy;
+import Chaos.FaultRule;
+import Client.ApiResponse;
+import Client.Booking;
+import Client.HedgeReport;
+import Client.HedgedBookingClient;
+import Client.HttpBookingClient;
+import Utils.LocalBookingServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+// Every 40th request to GET /booking/{id} stalls for 250ms, like a single slow backend instance behind a
+// load balancer; everything else answers at once
+public class HedgingTest {
+    private static final Logger logger = LoggerFactory.getLogger(HedgingTest.class);
+
+    private LocalBookingServer server;
+    private FaultInjectionProxy proxy;
+    private int bookingId;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer();
+        proxy = new FaultInjectionProxy(server.getBaseUri());
+        AtomicInteger gets = new AtomicInteger();
+        proxy.addRule(FaultRule.route("GET", "/booking/\\d+")
+                .latency(random -> gets.incrementAndGet() % 40 == 0 ? 250 : 0));
+        ApiResponse created = new HttpBookingClient(server.getBaseUri())
+                .createBooking(new Booking("Hedge", "Hog", 100, true, "2025-05-01", "2025-05-02", null).toJson());
+        bookingId = created.json().get("bookingid").asInt();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void cleanup() {
+        proxy.close();
+        server.close();
+    }
+
+    @Test
+    public void hedgingCutsTheTailWithinTheLoadCap() throws Exception {
+        HedgeReport report = new HedgeReport();
+        HedgedBookingClient client = new HedgedBookingClient(new HttpBookingClient(proxy.getBaseUri()), report);
+        for (int i = 0; i < 600; i++) {
+            assertEquals(client.getBooking(bookingId).getStatusCode(), 200);
+        }
+        // Stalled first attempts that lost to their hedge are still out
+        assertTrue(client.awaitPrimaries(Duration.ofSeconds(5)), "First attempts still running");
+
+        logger.info("Hedged GET /booking/{id}:\n{}", report);
+        assertEquals(report.requests(), 600);
+        assertTrue(report.hedges() > 0, report.toString());
+        assertTrue(report.hedgeWins() > 0, report.toString());
+        // Never more than the 10% cap of extra requests
+        assertTrue(report.hedges() <= report.requests() / 10, report.toString());
+        // Without hedging p99 is the stall; with it the tail is whoever answered first
+        assertTrue(report.primary().percentileMicros(99) >= 200_000, report.toString());
+        assertTrue(report.answered().percentileMicros(99) < report.primary().percentileMicros(99) / 2,
+                report.toString());
+    }
+
+    @Test
+    public void writesAndSearchesStillWork() {
+        HedgedBookingClient client = new HedgedBookingClient(new HttpBookingClient(proxy.getBaseUri()),
+                new HedgeReport());
+        ApiResponse created = client.createBooking(
+                new Booking("Hedge", "Row", 100, true, "2025-05-01", "2025-05-02", null).toJson());
+        assertEquals(created.getStatusCode(), 200);
+        ApiResponse found = client.searchBookings(Map.of("firstname", "Hedge", "lastname", "Row"));
+        assertEquals(found.getStatusCode(), 200);
+        assertEquals(found.json().size(), 1);
+        assertEquals(client.report().requests(), 1);
+    }
+}
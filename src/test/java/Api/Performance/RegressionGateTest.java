@@ -0,0 +1,94 @@
+package Api.Performance;
+
+import Telemetry.LatencyHistogram;
+import Telemetry.RegressionGate;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.testng.Assert.*;
+
+public class RegressionGateTest {
+    private final RegressionGate gate = new RegressionGate(0.01, 0.10, 20);
+
+    @Test
+    public void sameDistributionIsUnchanged() {
+        RegressionGate.Result result = compare(sample(1, 2000, 100_000, 1.0), sample(2, 2000, 100_000, 1.0));
+
+        assertEquals(result.verdict, RegressionGate.Verdict.UNCHANGED);
+    }
+
+    @Test
+    public void thirtyPercentSlowdownIsARegression() {
+        RegressionGate.Result result = compare(sample(1, 500, 100_000, 1.0), sample(2, 500, 100_000, 1.3));
+
+        assertEquals(result.verdict, RegressionGate.Verdict.REGRESSION);
+        assertTrue(result.pSlower < 0.01);
+        assertTrue(result.probabilitySlower > 0.5);
+    }
+
+    @Test
+    public void significantButTinySlowdownIsBelowMinimumEffect() {
+        RegressionGate.Result result = compare(sample(1, 50_000, 100_000, 1.0), sample(2, 50_000, 100_000, 1.03));
+
+        assertEquals(result.verdict, RegressionGate.Verdict.UNCHANGED);
+    }
+
+    @Test
+    public void speedupIsReportedAsImprovement() {
+        RegressionGate.Result result = compare(sample(1, 500, 100_000, 1.0), sample(2, 500, 100_000, 0.7));
+
+        assertEquals(result.verdict, RegressionGate.Verdict.IMPROVED);
+    }
+
+    @Test
+    public void tooFewSamplesAreNotJudged() {
+        RegressionGate.Result result = compare(sample(1, 10, 100_000, 1.0), sample(2, 10, 100_000, 2.0));
+
+        assertEquals(result.verdict, RegressionGate.Verdict.INSUFFICIENT_DATA);
+    }
+
+    @Test
+    public void baselineFileRoundTripsBucketCounts() throws Exception {
+        Map<String, LatencyHistogram> histograms = new TreeMap<>();
+        histograms.put("GET /booking/{id}", sample(1, 1000, 80_000, 1.0));
+        histograms.put("POST /booking", sample(2, 300, 200_000, 1.0));
+        Path file = Files.createTempFile("latency-baseline", ".bin");
+
+        RegressionGate.save(file, histograms);
+        Map<String, LatencyHistogram> loaded = RegressionGate.load(file);
+        Files.deleteIfExists(file);
+
+        assertEquals(loaded.keySet(), histograms.keySet());
+        for (String operation : histograms.keySet()) {
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                assertEquals(loaded.get(operation).bucketCount(i), histograms.get(operation).bucketCount(i));
+            }
+        }
+        List<RegressionGate.Result> results = gate.compare(loaded, histograms);
+        assertEquals(results.size(), 2);
+    }
+
+    private RegressionGate.Result compare(LatencyHistogram baseline, LatencyHistogram current) {
+        Map<String, LatencyHistogram> base = new TreeMap<>();
+        base.put("GET /booking/{id}", baseline);
+        Map<String, LatencyHistogram> cur = new TreeMap<>();
+        cur.put("GET /booking/{id}", current);
+        return gate.compare(base, cur).get(0);
+    }
+
+    // Log-normal latencies around the given median, scaled by factor
+    private static LatencyHistogram sample(long seed, int count, long medianMicros, double factor) {
+        Random random = new Random(seed);
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < count; i++) {
+            histogram.recordMicros((long) (medianMicros * factor * Math.exp(0.3 * random.nextGaussian())));
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,104 @@
+package Api.Performance;
+
+import Client.BookingClient;
+import Client.ClientBackend;
+import Deadlines.Deadline;
+import Load.ScenarioMix;
+import Load.SoakMonitor;
+import Utils.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.*;
+
+// Endurance run of the booking scenario mix. Disabled unless -Dsoak.durationSeconds is set, e.g.
+// mvn test -Dtest=SoakTest -Dsoak.durationSeconds=7200 -Dsoak.threads=8
+public class SoakTest {
+    private static final Logger logger = LoggerFactory.getLogger(SoakTest.class);
+
+    @Test
+    public void scenarioMixDoesNotLeakHeapOrSockets() throws Exception {
+        long durationSeconds = ConfigManager.getLong("soak.durationSeconds", 0);
+        if (durationSeconds <= 0) {
+            throw new SkipException("Soak mode is off; set -Dsoak.durationSeconds to run it");
+        }
+        Deadline.extendCurrent(Duration.ofSeconds(durationSeconds + 120));
+        int threads = ConfigManager.getInt("soak.threads", 4);
+        Duration sampleInterval = Duration.ofSeconds(ConfigManager.getLong("soak.sampleSeconds", 30));
+        int trendWindows = ConfigManager.getInt("soak.trendWindows", 5);
+
+        BookingClient client = ClientBackend.createConfigured();
+        ScenarioMix mix = new ScenarioMix(client, ScenarioMix.authenticate(client));
+        AtomicLong iterations = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        ScenarioMix.Recorder recorder = (operation, status, latency) -> { };
+
+        SoakMonitor monitor = new SoakMonitor(sampleInterval);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        monitor.start();
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.execute(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        try {
+                            if (!mix.runIteration(recorder)) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                            logger.debug("Soak iteration failed: ", e);
+                        }
+                        iterations.incrementAndGet();
+                    }
+                });
+            }
+            workers.shutdown();
+            assertTrue(workers.awaitTermination(durationSeconds + 300, TimeUnit.SECONDS), "Soak workers did not stop");
+        } finally {
+            workers.shutdownNow();
+            monitor.close();
+        }
+
+        List<SoakMonitor.Sample> samples = monitor.getSamples();
+        monitor.writeCsv(new File("target/soak/soak-samples.csv"));
+        logger.info("Soak finished: {} iterations, {} failed, {} samples", iterations.get(), failures.get(), samples.size());
+
+        long[] heap = samples.stream().mapToLong(s -> s.heapAfterGcBytes).toArray();
+        long[] sockets = samples.stream().mapToLong(s -> s.openSockets).toArray();
+        assertFalse(SoakMonitor.isMonotonicUpwardTrend(heap, trendWindows,
+                        ConfigManager.getDouble("soak.heapGrowth", 0.10), 8L << 20),
+                "Post-GC heap grows monotonically; see target/soak/soak-samples.csv");
+        assertFalse(SoakMonitor.isMonotonicUpwardTrend(sockets, trendWindows, 0.0,
+                        ConfigManager.getLong("soak.socketGrowth", 5)),
+                "Open socket count grows monotonically; see target/soak/soak-samples.csv");
+    }
+
+    @Test
+    public void trendDetectorFlagsSteadyGrowth() {
+        long[] values = new long[50];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (100L << 20) + i * (1L << 20) + (i % 3) * (2L << 20);
+        }
+        assertTrue(SoakMonitor.isMonotonicUpwardTrend(values, 5, 0.10, 8L << 20));
+    }
+
+    @Test
+    public void trendDetectorIgnoresSawtoothAtStableLevel() {
+        long[] values = new long[50];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (100L << 20) + (i % 7) * (5L << 20);
+        }
+        assertFalse(SoakMonitor.isMonotonicUpwardTrend(values, 5, 0.10, 8L << 20));
+    }
+}
@@ -0,0 +1,167 @@
+package Api.Performance;
+
+import Replay.RecordedCall;
+import Replay.TrafficLog;
+import Replay.TrafficReplayer;
+import Utils.LocalBookingServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class TrafficReplayTest {
+    private static final Logger logger = LoggerFactory.getLogger(TrafficReplayTest.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String BOOKING = "{\"firstname\": \"Replay\", \"lastname\": \"Doe\", \"totalprice\": 100,"
+            + " \"depositpaid\": true, \"bookingdates\": {\"checkin\": \"2025-01-01\", \"checkout\": \"2025-01-02\"}}";
+
+    private LocalBookingServer server;
+    private HttpClient http;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        server = new LocalBookingServer();
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterClass
+    public void cleanup() {
+        server.close();
+    }
+
+    @Test
+    public void createdIdsAreRemappedForLaterCalls() throws Exception {
+        // Recorded against another environment, where the booking got id 9001
+        String log = String.join("\n",
+                line(0, "POST", "/booking", BOOKING, false, 200, "{\"bookingid\": 9001, \"booking\": " + BOOKING + "}"),
+                line(20, "GET", "/booking/9001", null, false, 200, null),
+                line(40, "PATCH", "/booking/9001", "{\"firstname\": \"Patched\"}", true, 200, null),
+                line(60, "GET", "/booking?firstname=Patched", null, false, 200, null),
+                line(80, "DELETE", "/booking/9001", null, true, 201, null),
+                line(100, "GET", "/booking/9001", null, false, 404, null));
+        int before = server.bookingCount();
+
+        TrafficReplayer.Report report = replayer().replay(TrafficLog.fromJsonl(new StringReader(log)));
+
+        logger.info("Lifecycle replay:\n{}", report);
+        assertEquals(report.latency().count(), 6);
+        assertEquals(report.errors(), 0);
+        assertEquals(report.statusMismatches(), 0, report.toString());
+        assertEquals(server.bookingCount(), before);
+    }
+
+    @Test
+    public void scheduleIsPreservedAndCanBeCompressed() throws Exception {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i <= 10; i++) {
+            log.append(line(i * 30, "GET", "/booking", null, false, 200, null)).append('\n');
+        }
+        List<RecordedCall> calls = TrafficLog.fromJsonl(new StringReader(log.toString()));
+
+        long original = replayer().replay(calls).scheduleSpan(TimeUnit.MILLISECONDS);
+        long triple = replayer().speed(3).replay(calls).scheduleSpan(TimeUnit.MILLISECONDS);
+
+        logger.info("300ms of traffic sent over {}ms at 1x and {}ms at 3x", original, triple);
+        assertTrue(original >= 300 && original < 400, "1x took " + original + "ms");
+        assertTrue(triple >= 100 && triple < 200, "3x took " + triple + "ms");
+    }
+
+    @Test
+    public void harEntriesAreReadInOrder() throws Exception {
+        String har = "{\"log\": {\"entries\": ["
+                + harEntry("2025-01-01T10:00:00.250+01:00", "GET", "https://example.test/booking/3?x=1", null, 200)
+                + "," + harEntry("2025-01-01T10:00:00.100+01:00", "POST", "https://example.test/booking", BOOKING, 200)
+                + "," + harEntry("2025-01-01T10:00:00.200+01:00", "GET", "https://example.test/app.js", null, 200)
+                + "]}}";
+
+        List<RecordedCall> calls = TrafficLog.fromHar(MAPPER.readTree(har));
+
+        assertEquals(calls.size(), 2);
+        assertEquals(calls.get(0).method(), "POST");
+        assertEquals(calls.get(0).body(), BOOKING);
+        assertEquals(calls.get(1).path(), "/booking/3?x=1");
+        assertEquals(calls.get(1).offsetNanos(), TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    public void latencyIncludesQueueingBehindSlowResponses() throws Exception {
+        // One request at a time, 20ms each, while the log sends one every 5ms: the queue grows by 15ms per call
+        HttpServer slow = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        ExecutorService serial = Executors.newSingleThreadExecutor();
+        slow.setExecutor(serial);
+        slow.createContext("/booking", exchange -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, 2);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("[]".getBytes());
+            }
+        });
+        slow.start();
+        try {
+            StringBuilder log = new StringBuilder();
+            for (int i = 0; i < 30; i++) {
+                log.append(line(i * 5, "GET", "/booking", null, false, 200, null)).append('\n');
+            }
+            TrafficReplayer.Report report = new TrafficReplayer(http, "http://127.0.0.1:" + slow.getAddress().getPort())
+                    .replay(TrafficLog.fromJsonl(new StringReader(log.toString())));
+
+            logger.info("Open-loop replay against a saturated server:\n{}", report);
+            assertEquals(report.errors(), 0);
+            // A closed loop would report ~20ms per call; measured from the schedule the last calls waited 450ms+,
+            // and that wait was in the server's queue, not in calls leaving late
+            long p99Millis = report.latency().percentileMicros(99) / 1000;
+            assertTrue(p99Millis > 300, report.toString());
+            assertTrue(report.maxSendLag(TimeUnit.MILLISECONDS) * 4 < p99Millis, "Calls left late: " + report);
+        } finally {
+            slow.stop(0);
+            serial.shutdownNow();
+        }
+    }
+
+    private TrafficReplayer replayer() {
+        return new TrafficReplayer(http, server.getBaseUri());
+    }
+
+    private static String line(long millis, String method, String path, String body, boolean authenticated,
+                               int status, String response) {
+        ObjectNode call = MAPPER.createObjectNode()
+                .put("ts", 1735725600000L + millis).put("method", method).put("path", path).put("status", status);
+        if (body != null) {
+            call.put("body", body);
+        }
+        if (authenticated) {
+            call.putObject("headers").put("Cookie", "token=recorded");
+        }
+        if (response != null) {
+            call.put("response", response);
+        }
+        return call.toString();
+    }
+
+    private static String harEntry(String started, String method, String url, String body, int status) {
+        return "{\"startedDateTime\": \"" + started + "\", \"request\": {\"method\": \"" + method + "\", \"url\": \""
+                + url + "\", \"headers\": []" + (body == null ? "" : ", \"postData\": {\"mimeType\": \"application/json\","
+                + " \"text\": " + MAPPER.getNodeFactory().textNode(body) + "}")
+                + "}, \"response\": {\"status\": " + status + ", \"content\": {}}}";
+    }
+}
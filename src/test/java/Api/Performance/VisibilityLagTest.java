@@ -0,0 +1,85 @@
+package Api.Performance;
+
+import Client.ClientBackend;
+import Client.BookingClient;
+import Load.ScenarioMix;
+import Load.VisibilityProbe;
+import Telemetry.MetricsRegistry;
+import Utils.LocalBookingServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+import static org.testng.Assert.*;
+
+// Every test gets a local server of its own in the fields below, so the class runs single-threaded.
+@Test(singleThreaded = true)
+public class VisibilityLagTest {
+    private static final Logger logger = LoggerFactory.getLogger(VisibilityLagTest.class);
+
+    private LocalBookingServer server;
+    private BookingClient client;
+    private String token;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        server = new LocalBookingServer(16);
+        client = ClientBackend.HTTP.create(server.getBaseUri());
+        token = ScenarioMix.authenticate(client);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void teardown() {
+        server.close();
+    }
+
+    @Test
+    public void consistentSearchShowsWritesImmediately() throws Exception {
+        VisibilityProbe.Report report = new VisibilityProbe(client, token)
+                .rate(50)
+                .count(100)
+                .pollers(2, Duration.ofMillis(10))
+                .run();
+
+        logger.info("Search visibility:\n{}", report);
+        report.publish(MetricsRegistry.global());
+        assertEquals(report.created(), 100, report.toString());
+        assertEquals(report.writeErrors(), 0, report.toString());
+        assertEquals(report.createLag().count(), 100);
+        assertEquals(report.deleteLag().count(), 100);
+        // The search right after each write already agrees with it
+        assertTrue(report.createLag().percentileMicros(99) < 50_000, report.toString());
+        assertTrue(report.deleteLag().percentileMicros(99) < 50_000, report.toString());
+        assertEquals(server.bookingCount(), 0);
+    }
+
+    @Test
+    public void laggingSearchIsMeasured() throws Exception {
+        server.setSearchLag(Duration.ofMillis(150));
+
+        VisibilityProbe.Report report = new VisibilityProbe(client, token)
+                .rate(50)
+                .count(100)
+                .pollers(2, Duration.ofMillis(10))
+                .timeout(Duration.ofSeconds(5))
+                .run();
+
+        logger.info("Search visibility with 150ms index lag:\n{}", report);
+        assertEquals(report.neverVisible(), 0, report.toString());
+        assertEquals(report.stillVisible(), 0, report.toString());
+        assertEquals(report.createLag().count(), 100);
+        assertEquals(report.deleteLag().count(), 100);
+        // Nothing can be seen before the lag is up, and two pollers 5ms apart catch it soon after. Lags run from
+        // the client seeing the write acknowledged, which trails the server's clock by the response time, and the
+        // histogram buckets are ~8ms wide here, so the floor leaves room for both.
+        assertTrue(report.createLag().percentileMicros(1) >= 120_000, report.toString());
+        assertTrue(report.createLag().percentileMicros(50) < 400_000, report.toString());
+        assertTrue(report.deleteLag().percentileMicros(1) >= 120_000, report.toString());
+        assertTrue(report.deleteLag().percentileMicros(50) < 400_000, report.toString());
+        assertEquals(server.bookingCount(), 0);
+    }
+}
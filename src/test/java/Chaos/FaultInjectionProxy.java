@@ -0,0 +1,389 @@
+package Chaos;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Plain-HTTP reverse proxy on localhost that forwards to any base URI (http or https) and injects
+// latency, bandwidth limits, connection resets and truncated responses per route. Point a client
+// at getBaseUri() instead of the real service.
+public class FaultInjectionProxy implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(FaultInjectionProxy.class);
+    private static final int THROTTLE_SLICE = 1024;
+
+    private final URI upstream;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fault-proxy");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<FaultRule> rules = new CopyOnWriteArrayList<>();
+    private final List<Socket> openSockets = new CopyOnWriteArrayList<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+    private final AtomicLong partials = new AtomicLong();
+    private volatile boolean running = true;
+
+    public FaultInjectionProxy(String upstreamBaseUri) throws IOException {
+        this.upstream = URI.create(upstreamBaseUri);
+        serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        connections.execute(this::acceptLoop);
+    }
+
+    public String getBaseUri() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    public FaultInjectionProxy addRule(FaultRule rule) {
+        rules.add(rule);
+        return this;
+    }
+
+    public void clearRules() {
+        rules.clear();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long resetCount() {
+        return resets.get();
+    }
+
+    public long partialResponseCount() {
+        return partials.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.debug("Error closing proxy socket: ", e);
+        }
+        for (Socket socket : openSockets) {
+            closeQuietly(socket);
+        }
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket client = serverSocket.accept();
+                client.setTcpNoDelay(true);
+                openSockets.add(client);
+                connections.execute(() -> serve(client));
+            } catch (IOException e) {
+                if (running) {
+                    logger.error("Proxy accept failed: ", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        Socket server = null;
+        InputStream serverIn = null;
+        try {
+            InputStream clientIn = new BufferedInputStream(client.getInputStream());
+            OutputStream clientOut = client.getOutputStream();
+            while (running) {
+                Message request = Message.read(clientIn, true, null);
+                if (request == null) {
+                    return;
+                }
+                requests.incrementAndGet();
+                FaultRule rule = ruleFor(request.method(), request.target());
+                Random random = ThreadLocalRandom.current();
+
+                if (rule != null) {
+                    sleep(rule.getLatency().sampleMillis(random));
+                    if (random.nextDouble() < rule.getResetProbability()) {
+                        resets.incrementAndGet();
+                        reset(client);
+                        return;
+                    }
+                }
+
+                if (server == null || server.isClosed()) {
+                    server = connectUpstream();
+                    serverIn = new BufferedInputStream(server.getInputStream());
+                }
+                request.setHeader("Host", upstream.getPort() < 0 ? upstream.getHost() : upstream.getHost() + ":" + upstream.getPort());
+                request.writeTo(server.getOutputStream(), 0);
+                Message response = Message.read(serverIn, false, request.method());
+                if (response == null) {
+                    throw new EOFException("Upstream closed the connection");
+                }
+
+                long bytesPerSecond = rule == null ? 0 : rule.getBytesPerSecond();
+                if (rule != null && random.nextDouble() < rule.getPartialResponseProbability()) {
+                    partials.incrementAndGet();
+                    response.writePartialTo(clientOut, bytesPerSecond);
+                    reset(client);
+                    return;
+                }
+                response.writeTo(clientOut, bytesPerSecond);
+                if (response.closesConnection() || request.closesConnection()) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Proxy connection ended: {}", e.toString());
+        } finally {
+            openSockets.remove(client);
+            closeQuietly(client);
+            closeQuietly(server);
+        }
+    }
+
+    private FaultRule ruleFor(String method, String target) {
+        for (FaultRule rule : rules) {
+            if (rule.matches(method, target)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private Socket connectUpstream() throws IOException {
+        boolean tls = "https".equalsIgnoreCase(upstream.getScheme());
+        int port = upstream.getPort() > 0 ? upstream.getPort() : (tls ? 443 : 80);
+        Socket socket = tls
+                ? SSLSocketFactory.getDefault().createSocket(upstream.getHost(), port)
+                : new Socket(upstream.getHost(), port);
+        socket.setTcpNoDelay(true);
+        return socket;
+    }
+
+    // SO_LINGER 0 makes close() send RST instead of FIN, which is what a dropped connection looks like
+    private static void reset(Socket socket) {
+        try {
+            socket.setSoLinger(true, 0);
+        } catch (SocketException e) {
+            logger.debug("Could not set SO_LINGER: ", e);
+        }
+        closeQuietly(socket);
+    }
+
+    private static void sleep(long millis) throws IOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while injecting latency", e);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already gone
+            }
+        }
+    }
+
+    // One HTTP/1.1 request or response, kept as raw head lines plus raw (possibly chunked) body bytes
+    static class Message {
+        private final List<String> lines;
+        private final byte[] body;
+
+        private Message(List<String> lines, byte[] body) {
+            this.lines = lines;
+            this.body = body;
+        }
+
+        static Message read(InputStream in, boolean isRequest, String requestMethod) throws IOException {
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                lines.add(line);
+            }
+            if (lines.isEmpty()) {
+                return null;
+            }
+            Message head = new Message(lines, new byte[0]);
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            String contentLength = head.header("Content-Length");
+            String transferEncoding = head.header("Transfer-Encoding");
+            if (!isRequest && (requestMethod.equals("HEAD") || head.status() == 204 || head.status() == 304
+                    || head.status() / 100 == 1)) {
+                // no body
+            } else if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ROOT).contains("chunked")) {
+                copyChunked(in, body);
+            } else if (contentLength != null) {
+                copy(in, body, Long.parseLong(contentLength.trim()));
+            } else if (!isRequest) {
+                in.transferTo(body);
+            }
+            return new Message(lines, body.toByteArray());
+        }
+
+        String method() {
+            return lines.get(0).split(" ", 3)[0];
+        }
+
+        String target() {
+            String[] parts = lines.get(0).split(" ", 3);
+            return parts.length > 1 ? parts[1] : "/";
+        }
+
+        int status() {
+            String[] parts = lines.get(0).split(" ", 3);
+            try {
+                return parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        String header(String name) {
+            for (int i = 1; i < lines.size(); i++) {
+                int colon = lines.get(i).indexOf(':');
+                if (colon > 0 && lines.get(i).substring(0, colon).trim().equalsIgnoreCase(name)) {
+                    return lines.get(i).substring(colon + 1).trim();
+                }
+            }
+            return null;
+        }
+
+        void setHeader(String name, String value) {
+            for (int i = 1; i < lines.size(); i++) {
+                int colon = lines.get(i).indexOf(':');
+                if (colon > 0 && lines.get(i).substring(0, colon).trim().equalsIgnoreCase(name)) {
+                    lines.set(i, name + ": " + value);
+                    return;
+                }
+            }
+            lines.add(name + ": " + value);
+        }
+
+        boolean closesConnection() {
+            String connection = header("Connection");
+            return connection != null && connection.equalsIgnoreCase("close")
+                    || (header("Content-Length") == null && header("Transfer-Encoding") == null && status() != 0
+                    && status() != 204 && status() != 304);
+        }
+
+        void writeTo(OutputStream out, long bytesPerSecond) throws IOException {
+            byte[] head = headBytes();
+            // One write per message, so head and body do not go out as separate small segments
+            byte[] message = new byte[head.length + body.length];
+            System.arraycopy(head, 0, message, 0, head.length);
+            System.arraycopy(body, 0, message, head.length, body.length);
+            write(out, message, bytesPerSecond);
+            out.flush();
+        }
+
+        // Full head, then only the first half of the body
+        void writePartialTo(OutputStream out, long bytesPerSecond) throws IOException {
+            write(out, headBytes(), bytesPerSecond);
+            byte[] half = new byte[body.length / 2];
+            System.arraycopy(body, 0, half, 0, half.length);
+            write(out, half, bytesPerSecond);
+            out.flush();
+        }
+
+        private byte[] headBytes() {
+            return (String.join("\r\n", lines) + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        }
+
+        private static void write(OutputStream out, byte[] bytes, long bytesPerSecond) throws IOException {
+            if (bytesPerSecond <= 0) {
+                out.write(bytes);
+                return;
+            }
+            long start = System.nanoTime();
+            for (int offset = 0; offset < bytes.length; offset += THROTTLE_SLICE) {
+                int length = Math.min(THROTTLE_SLICE, bytes.length - offset);
+                out.write(bytes, offset, length);
+                out.flush();
+                long dueNanos = (long) ((offset + length) * 1e9 / bytesPerSecond);
+                long aheadMillis = (dueNanos - (System.nanoTime() - start)) / 1_000_000;
+                sleep(aheadMillis);
+            }
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    byte[] bytes = line.toByteArray();
+                    int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                    return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+                }
+                line.write(b);
+            }
+            return line.size() == 0 ? null : line.toString(StandardCharsets.ISO_8859_1);
+        }
+
+        private static void copy(InputStream in, OutputStream out, long length) throws IOException {
+            byte[] buffer = new byte[8192];
+            long remaining = length;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new EOFException("Body ended " + remaining + " bytes early");
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+
+        // Copies chunked framing verbatim so the receiver sees exactly what the sender wrote
+        private static void copyChunked(InputStream in, ByteArrayOutputStream out) throws IOException {
+            while (true) {
+                String sizeLine = readLine(in);
+                if (sizeLine == null) {
+                    throw new EOFException("Chunked body ended early");
+                }
+                out.write((sizeLine + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                int semicolon = sizeLine.indexOf(';');
+                long size = Long.parseLong((semicolon >= 0 ? sizeLine.substring(0, semicolon) : sizeLine).trim(), 16);
+                if (size == 0) {
+                    String trailer;
+                    while ((trailer = readLine(in)) != null && !trailer.isEmpty()) {
+                        out.write((trailer + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                    }
+                    out.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                    return;
+                }
+                copy(in, out, size);
+                readLine(in);
+                out.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package Chaos;
+
+import java.util.regex.Pattern;
+
+// Faults applied to requests whose method and path match; the first matching rule of a proxy wins
+public class FaultRule {
+    private final String method;
+    private final Pattern path;
+    private LatencyDistribution latency = LatencyDistribution.none();
+    private long bytesPerSecond;
+    private double resetProbability;
+    private double partialResponseProbability;
+
+    private FaultRule(String method, String pathRegex) {
+        this.method = method;
+        this.path = Pattern.compile(pathRegex);
+    }
+
+    // method may be null to match any method; pathRegex is matched against the path including the query
+    public static FaultRule route(String method, String pathRegex) {
+        return new FaultRule(method, pathRegex);
+    }
+
+    public static FaultRule allRoutes() {
+        return new FaultRule(null, ".*");
+    }
+
+    public FaultRule latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public FaultRule bandwidth(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    public FaultRule resets(double probability) {
+        this.resetProbability = probability;
+        return this;
+    }
+
+    public FaultRule partialResponses(double probability) {
+        this.partialResponseProbability = probability;
+        return this;
+    }
+
+    boolean matches(String requestMethod, String requestPath) {
+        return (method == null || method.equalsIgnoreCase(requestMethod)) && path.matcher(requestPath).matches();
+    }
+
+    LatencyDistribution getLatency() {
+        return latency;
+    }
+
+    long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    double getResetProbability() {
+        return resetProbability;
+    }
+
+    double getPartialResponseProbability() {
+        return partialResponseProbability;
+    }
+}
@@ -0,0 +1,35 @@
+package Chaos;
+
+import java.util.Random;
+
+// Delay to inject in front of a request, in milliseconds
+public interface LatencyDistribution {
+
+    long sampleMillis(Random random);
+
+    static LatencyDistribution none() {
+        return random -> 0;
+    }
+
+    static LatencyDistribution fixed(long millis) {
+        return random -> millis;
+    }
+
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+    }
+
+    static LatencyDistribution exponential(double meanMillis) {
+        return random -> (long) (-meanMillis * Math.log(1 - random.nextDouble()));
+    }
+
+    // Heavy-tailed like real service time: median m, sigma ~0.5-1.0 gives p99 of roughly 3-10x the median
+    static LatencyDistribution logNormal(double medianMillis, double sigma) {
+        return random -> (long) (medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    // Adds uniform +/- jitter on top of this distribution, never going below zero
+    default LatencyDistribution withJitter(long jitterMillis) {
+        return random -> Math.max(0, sampleMillis(random) + (long) ((random.nextDouble() * 2 - 1) * jitterMillis));
+    }
+}
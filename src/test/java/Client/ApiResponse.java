@@ -0,0 +1,68 @@
+package Client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Backend-neutral view of a booking API response, so tests do not depend on RestAssured's Response
+public class ApiResponse {
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int statusCode;
+    private final String body;
+    private final Map<String, List<String>> headers;
+    private final long latencyNanos;
+    private JsonNode json;
+
+    public ApiResponse(int statusCode, String body, Map<String, List<String>> headers, long latencyNanos) {
+        this.statusCode = statusCode;
+        this.body = body == null ? "" : body;
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.headers.putAll(headers);
+        this.latencyNanos = latencyNanos;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public String getHeader(String name) {
+        List<String> values = headers.getOrDefault(name, Collections.emptyList());
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    public long getTimeIn(TimeUnit unit) {
+        return unit.convert(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public JsonNode json() {
+        if (json == null) {
+            try {
+                json = MAPPER.readTree(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Response body is not valid JSON: " + body, e);
+            }
+        }
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return statusCode + " " + body;
+    }
+}
@@ -0,0 +1,176 @@
+package Client;
+
+import Telemetry.Endpoints;
+import Telemetry.HttpExchangeEvent;
+import Trace.TraceRecorder;
+import Utils.ConfigManager;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Non-blocking booking operations on top of HttpClient.sendAsync. Callers never block: requests beyond
+// maxInFlight are queued and dispatched as earlier ones complete.
+public class AsyncBookingClient {
+    private final HttpBookingClient http;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    public AsyncBookingClient(String baseUri) {
+        this(new HttpBookingClient(baseUri), ConfigManager.getInt("async.maxInFlight", 64));
+    }
+
+    public AsyncBookingClient(HttpBookingClient http, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1, was " + maxInFlight);
+        }
+        this.http = http;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public CompletableFuture<ApiResponse> auth(String username, String password) {
+        return submit(() -> http.authRequest(username, password));
+    }
+
+    public CompletableFuture<ApiResponse> createBooking(String body) {
+        return submit(() -> http.createRequest(body));
+    }
+
+    public CompletableFuture<ApiResponse> getBooking(Object id) {
+        return submit(() -> http.getRequest(id));
+    }
+
+    public CompletableFuture<ApiResponse> searchBookings(Map<String, String> query) {
+        return submit(() -> http.searchRequest(query));
+    }
+
+    public CompletableFuture<ApiResponse> updateBooking(Object id, String body, String token) {
+        return submit(() -> http.updateRequest(id, body, token));
+    }
+
+    public CompletableFuture<ApiResponse> partialUpdateBooking(Object id, String body, String token) {
+        return submit(() -> http.partialUpdateRequest(id, body, token));
+    }
+
+    public CompletableFuture<ApiResponse> deleteBooking(Object id, String token) {
+        return submit(() -> http.deleteRequest(id, token));
+    }
+
+    // Completes with the GET of the new booking, or with the create response itself if creation failed
+    public CompletableFuture<ApiResponse> createThenGet(String body) {
+        return createBooking(body).thenCompose(created -> created.getStatusCode() == 200
+                ? getBooking(created.json().get("bookingid").asInt())
+                : CompletableFuture.completedFuture(created));
+    }
+
+    public CompletableFuture<List<ApiResponse>> createAll(List<String> bodies, Duration timeout) {
+        List<CompletableFuture<ApiResponse>> futures = new ArrayList<>(bodies.size());
+        for (String body : bodies) {
+            futures.add(createBooking(body));
+        }
+        return allOf(futures, timeout);
+    }
+
+    public CompletableFuture<List<ApiResponse>> getAll(List<?> ids, Duration timeout) {
+        List<CompletableFuture<ApiResponse>> futures = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            futures.add(getBooking(id));
+        }
+        return allOf(futures, timeout);
+    }
+
+    // Results keep the order of the input futures; completes exceptionally with a TimeoutException
+    // if they have not all finished within the timeout
+    public static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures, Duration timeout) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> {
+                    List<T> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<T> future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    private CompletableFuture<ApiResponse> submit(Supplier<HttpRequest> request) {
+        CompletableFuture<ApiResponse> result = new CompletableFuture<>();
+        pending.add(() -> dispatch(request, result));
+        drain();
+        return result;
+    }
+
+    private void drain() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Runnable next = pending.poll();
+            if (next == null) {
+                inFlight.decrementAndGet();
+                // Another thread may have queued work between our poll and the decrement
+                if (pending.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            peakInFlight.accumulateAndGet(current + 1, Math::max);
+            next.run();
+        }
+    }
+
+    private void dispatch(Supplier<HttpRequest> requestSupplier, CompletableFuture<ApiResponse> result) {
+        long start = System.nanoTime();
+        HttpRequest request;
+        CompletableFuture<HttpResponse<byte[]>> sent;
+        HttpExchangeEvent event;
+        try {
+            request = requestSupplier.get();
+            event = HttpBookingClient.startEvent(request);
+            sent = http.httpClient().sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            result.completeExceptionally(e);
+            return;
+        }
+        sent.whenComplete((response, error) -> {
+            long latency = System.nanoTime() - start;
+            inFlight.decrementAndGet();
+            drain();
+            String name = request.method() + " " + Endpoints.template(request.uri().getPath());
+            if (error != null) {
+                TraceRecorder.global().async(name, "http", start, start + latency, Map.of("error", error.toString()));
+                result.completeExceptionally(error);
+            } else {
+                TraceRecorder.global().async(name, "http", start, start + latency,
+                        Map.of("status", response.statusCode()));
+                ApiResponse apiResponse = HttpBookingClient.toApiResponse(response, latency);
+                HttpBookingClient.recordExchange(event, request, apiResponse);
+                result.complete(apiResponse);
+            }
+        });
+    }
+}
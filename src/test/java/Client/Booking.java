@@ -0,0 +1,136 @@
+package Client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.javafaker.Faker;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Booking {
+    private String firstname;
+    private String lastname;
+    private Integer totalprice;
+    private Boolean depositpaid;
+    private BookingDates bookingdates;
+    private String additionalneeds;
+
+    public Booking() {
+    }
+
+    public Booking(String firstname, String lastname, int totalprice, boolean depositpaid,
+                   String checkin, String checkout, String additionalneeds) {
+        this.firstname = firstname;
+        this.lastname = lastname;
+        this.totalprice = totalprice;
+        this.depositpaid = depositpaid;
+        this.bookingdates = new BookingDates(checkin, checkout);
+        this.additionalneeds = additionalneeds;
+    }
+
+    public static Booking random(Faker faker) {
+        LocalDate checkin = faker.date().future(30, TimeUnit.DAYS)
+                .toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        return new Booking(faker.name().firstName(), faker.name().lastName(),
+                faker.number().numberBetween(100, 1000), faker.bool().bool(),
+                checkin.toString(), checkin.plusDays(faker.number().numberBetween(1, 14)).toString(),
+                faker.food().ingredient());
+    }
+
+    public static Booking fromJson(String json) {
+        try {
+            return ApiResponse.MAPPER.readValue(json, Booking.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String toJson() {
+        try {
+            return ApiResponse.MAPPER.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String getFirstname() {
+        return firstname;
+    }
+
+    public void setFirstname(String firstname) {
+        this.firstname = firstname;
+    }
+
+    public String getLastname() {
+        return lastname;
+    }
+
+    public void setLastname(String lastname) {
+        this.lastname = lastname;
+    }
+
+    public Integer getTotalprice() {
+        return totalprice;
+    }
+
+    public void setTotalprice(Integer totalprice) {
+        this.totalprice = totalprice;
+    }
+
+    public Boolean getDepositpaid() {
+        return depositpaid;
+    }
+
+    public void setDepositpaid(Boolean depositpaid) {
+        this.depositpaid = depositpaid;
+    }
+
+    public BookingDates getBookingdates() {
+        return bookingdates;
+    }
+
+    public void setBookingdates(BookingDates bookingdates) {
+        this.bookingdates = bookingdates;
+    }
+
+    public String getAdditionalneeds() {
+        return additionalneeds;
+    }
+
+    public void setAdditionalneeds(String additionalneeds) {
+        this.additionalneeds = additionalneeds;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class BookingDates {
+        private String checkin;
+        private String checkout;
+
+        public BookingDates() {
+        }
+
+        public BookingDates(String checkin, String checkout) {
+            this.checkin = checkin;
+            this.checkout = checkout;
+        }
+
+        public String getCheckin() {
+            return checkin;
+        }
+
+        public void setCheckin(String checkin) {
+            this.checkin = checkin;
+        }
+
+        public String getCheckout() {
+            return checkout;
+        }
+
+        public void setCheckout(String checkout) {
+            this.checkout = checkout;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package Client;
+
+import java.util.Map;
+
+// The booking API operations the tests use; implemented once per HTTP backend
+public interface BookingClient {
+
+    ApiResponse auth(String username, String password);
+
+    ApiResponse createBooking(String body);
+
+    ApiResponse getBooking(Object id);
+
+    // A null value sends the parameter without a value, like RestAssured's queryParam(name, null)
+    ApiResponse searchBookings(Map<String, String> query);
+
+    ApiResponse updateBooking(Object id, String body, String token);
+
+    ApiResponse partialUpdateBooking(Object id, String body, String token);
+
+    ApiResponse deleteBooking(Object id, String token);
+}
@@ -0,0 +1,40 @@
+package Client;
+
+import Utils.ConfigManager;
+
+import java.util.Locale;
+
+// Pick with -Dbooking.client=restassured|http|hedged (defaults to restassured)
+public enum ClientBackend {
+    RESTASSURED {
+        @Override
+        public BookingClient create(String baseUri) {
+            return new RestAssuredBookingClient(baseUri);
+        }
+    },
+    HTTP {
+        @Override
+        public BookingClient create(String baseUri) {
+            return new HttpBookingClient(baseUri);
+        }
+    },
+    // HTTP with hedged GETs, see HedgedBookingClient
+    HEDGED {
+        @Override
+        public BookingClient create(String baseUri) {
+            return new HedgedBookingClient(baseUri);
+        }
+    };
+
+    public static final String PROPERTY = "booking.client";
+
+    public abstract BookingClient create(String baseUri);
+
+    public static ClientBackend configured() {
+        return valueOf(ConfigManager.get(PROPERTY, RESTASSURED.name()).toUpperCase(Locale.ROOT));
+    }
+
+    public static BookingClient createConfigured() {
+        return configured().create(ConfigManager.getBaseUri());
+    }
+}
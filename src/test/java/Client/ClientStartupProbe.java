@@ -0,0 +1,20 @@
+package Client;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+// Run in a fresh JVM by ClientBackendBenchmark: java Client.ClientStartupProbe <backend> <baseUri>
+public class ClientStartupProbe {
+
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        BookingClient client = ClientBackend.valueOf(args[0]).create(args[1]);
+        ApiResponse response = client.getBooking(args.length > 2 ? args[2] : "1");
+        long firstRequestMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.println("status=" + response.getStatusCode()
+                + " firstRequestMs=" + firstRequestMillis
+                + " uptimeMs=" + ManagementFactory.getRuntimeMXBean().getUptime()
+                + " loadedClasses=" + ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+    }
+}
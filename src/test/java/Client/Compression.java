@@ -0,0 +1,113 @@
+package Client;
+
+import Utils.ConfigManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Request body compression and response decoding for the java.net.http client. Bodies below the threshold
+// go out as-is, since compressing a few hundred bytes costs more CPU than it saves on the wire.
+// Configure with -Dcompression.encoding=none|gzip|deflate and -Dcompression.threshold (bytes, default 1024).
+public class Compression {
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private final String encoding;
+    private final int thresholdBytes;
+
+    private Compression(String encoding, int thresholdBytes) {
+        this.encoding = encoding;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    public static Compression none() {
+        return new Compression(null, Integer.MAX_VALUE);
+    }
+
+    public static Compression gzip(int thresholdBytes) {
+        return new Compression("gzip", thresholdBytes);
+    }
+
+    public static Compression deflate(int thresholdBytes) {
+        return new Compression("deflate", thresholdBytes);
+    }
+
+    public static Compression configured() {
+        String encoding = ConfigManager.get("compression.encoding", "none").toLowerCase(Locale.ROOT);
+        int threshold = ConfigManager.getInt("compression.threshold", 1024);
+        switch (encoding) {
+            case "none":
+                return none();
+            case "gzip":
+                return gzip(threshold);
+            case "deflate":
+                return deflate(threshold);
+            default:
+                throw new IllegalArgumentException("Unknown compression.encoding '" + encoding + "'");
+        }
+    }
+
+    public boolean isEnabled() {
+        return encoding != null;
+    }
+
+    public String encoding() {
+        return encoding;
+    }
+
+    // Content-Encoding to send for a body of this size, or null to send it uncompressed
+    public String encodingFor(int bodyBytes) {
+        return encoding != null && bodyBytes >= thresholdBytes ? encoding : null;
+    }
+
+    public static byte[] compress(byte[] data, String encoding) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (OutputStream out = "gzip".equals(encoding) ? new GZIPOutputStream(buffer, 8192)
+                : new DeflaterOutputStream(buffer)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // Decodes a body according to its Content-Encoding header; identity or a missing header returns it unchanged
+    public static byte[] decompress(byte[] data, String contentEncoding) {
+        if (contentEncoding == null || data.length == 0) {
+            return data;
+        }
+        String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        if (encoding.isEmpty() || encoding.equals("identity")) {
+            return data;
+        }
+        InputStream in;
+        if (encoding.equals("gzip") || encoding.equals("x-gzip")) {
+            in = gzipStream(data);
+        } else if (encoding.equals("deflate")) {
+            in = new InflaterInputStream(new ByteArrayInputStream(data));
+        } else {
+            throw new IllegalArgumentException("Unsupported Content-Encoding '" + contentEncoding + "'");
+        }
+        try (InputStream decoded = in) {
+            return decoded.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream gzipStream(byte[] data) {
+        try {
+            return new GZIPInputStream(new ByteArrayInputStream(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package Client;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+
+// Compresses RestAssured request bodies above the threshold. Response decoding needs nothing extra:
+// RestAssured already advertises and decodes gzip/deflate. Runs before the telemetry filters so they
+// count the bytes that actually go on the wire.
+public class CompressionFilter implements OrderedFilter {
+    private final Compression compression;
+
+    public CompressionFilter(Compression compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 1;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Object body = requestSpec.getBody();
+        byte[] bytes = body instanceof byte[] ? (byte[]) body
+                : body instanceof String ? ((String) body).getBytes(StandardCharsets.UTF_8) : null;
+        String encoding = bytes == null ? null : compression.encodingFor(bytes.length);
+        if (encoding != null) {
+            requestSpec.body(Compression.compress(bytes, encoding));
+            requestSpec.header("Content-Encoding", encoding);
+        }
+        return ctx.next(requestSpec, responseSpec);
+    }
+}
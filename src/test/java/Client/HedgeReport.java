@@ -0,0 +1,91 @@
+package Client;
+
+import Telemetry.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// What hedging bought and what it cost. primary() is the latency each first attempt took on its own, i.e. what
+// callers would have seen without hedging; answered() is what they did see. Extra load is hedges sent per request.
+public class HedgeReport {
+    private static final HedgeReport GLOBAL = new HedgeReport();
+
+    private final LatencyHistogram primary = new LatencyHistogram();
+    private final LatencyHistogram answered = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder heldBack = new LongAdder();
+
+    public static HedgeReport global() {
+        return GLOBAL;
+    }
+
+    void request() {
+        requests.increment();
+    }
+
+    void hedged() {
+        hedged.increment();
+    }
+
+    void hedgeWon() {
+        hedgeWins.increment();
+    }
+
+    // A hedge was due but the rate cap held it back
+    void heldBackByCap() {
+        heldBack.increment();
+    }
+
+    void primaryCompleted(long nanos) {
+        primary.recordNanos(nanos);
+    }
+
+    void answered(long nanos) {
+        answered.recordNanos(nanos);
+    }
+
+    public LatencyHistogram primary() {
+        return primary;
+    }
+
+    public LatencyHistogram answered() {
+        return answered;
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long hedges() {
+        return hedged.sum();
+    }
+
+    public long hedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    public long heldBack() {
+        return heldBack.sum();
+    }
+
+    public boolean isEmpty() {
+        return requests() == 0;
+    }
+
+    @Override
+    public String toString() {
+        long requests = requests();
+        return String.format("%d GETs, %d hedged (%.1f%% extra load, %d held back by the cap), hedge answered first %d"
+                        + " times%n%-10s %9s %9s %9s %9s%n%-10s %7.1fms %7.1fms %7.1fms %7.1fms%n"
+                        + "%-10s %7.1fms %7.1fms %7.1fms %7.1fms",
+                requests, hedges(), requests == 0 ? 0 : 100.0 * hedges() / requests, heldBack(), hedgeWins(),
+                "", "p50", "p99", "p99.9", "max",
+                "unhedged", ms(primary, 50), ms(primary, 99), ms(primary, 99.9), ms(primary, 100),
+                "hedged", ms(answered, 50), ms(answered, 99), ms(answered, 99.9), ms(answered, 100));
+    }
+
+    private static double ms(LatencyHistogram histogram, double percentile) {
+        return histogram.percentileMicros(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,212 @@
+package Client;
+
+import Deadlines.Deadline;
+import Telemetry.Endpoints;
+import Telemetry.HttpExchangeEvent;
+import Telemetry.LatencyHistogram;
+import Utils.ConfigManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hedges the idempotent reads, GET /booking/{id} and GET /booking?..: if the first attempt has not answered
+// within the -Dhedge.percentile (default 95) of that endpoint's latency so far, a second identical request goes
+// out on its own HttpClient, so it never queues behind the slow one's connection, and whichever answers first
+// is returned. Hedging starts once -Dhedge.minSamples (default 50) first attempts have been timed, and at most
+// -Dhedge.maxPercent (default 10) hedges are sent per 100 requests. Writes are passed straight through.
+// Pick with -Dbooking.client=hedged; HedgeReport.global() shows the effect for the run.
+public class HedgedBookingClient implements BookingClient {
+    private final HttpBookingClient http;
+    private final HttpClient hedgeClient;
+    private final HedgeReport report;
+    private final double percentile = ConfigManager.getDouble("hedge.percentile", 95);
+    private final long minSamples = ConfigManager.getLong("hedge.minSamples", 50);
+    private final double maxHedgeRatio = ConfigManager.getDouble("hedge.maxPercent", 10) / 100;
+    private final long minDelayMicros = ConfigManager.getLong("hedge.minDelayMicros", 1000);
+    private final Map<String, LatencyHistogram> primaryLatency = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    // First attempts whose latency is not recorded yet, including ones that lost to a hedge
+    private final Set<CompletableFuture<ApiResponse>> pendingPrimaries = ConcurrentHashMap.newKeySet();
+
+    public HedgedBookingClient(String baseUri) {
+        this(new HttpBookingClient(baseUri), HedgeReport.global());
+    }
+
+    public HedgedBookingClient(HttpBookingClient http, HedgeReport report) {
+        this.http = http;
+        this.hedgeClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Deadline.requestCap()).build();
+        this.report = report;
+    }
+
+    @Override
+    public ApiResponse auth(String username, String password) {
+        return http.auth(username, password);
+    }
+
+    @Override
+    public ApiResponse createBooking(String body) {
+        return http.createBooking(body);
+    }
+
+    @Override
+    public ApiResponse getBooking(Object id) {
+        return hedged(http.getRequest(id));
+    }
+
+    @Override
+    public ApiResponse searchBookings(Map<String, String> query) {
+        return hedged(http.searchRequest(query));
+    }
+
+    @Override
+    public ApiResponse updateBooking(Object id, String body, String token) {
+        return http.updateBooking(id, body, token);
+    }
+
+    @Override
+    public ApiResponse partialUpdateBooking(Object id, String body, String token) {
+        return http.partialUpdateBooking(id, body, token);
+    }
+
+    @Override
+    public ApiResponse deleteBooking(Object id, String token) {
+        return http.deleteBooking(id, token);
+    }
+
+    // Microseconds to wait for the first attempt before hedging, or -1 while there are too few samples
+    long hedgeDelayMicros(String endpoint) {
+        LatencyHistogram observed = primaryLatency.get(endpoint);
+        if (observed == null || observed.count() < minSamples) {
+            return -1;
+        }
+        return Math.max(minDelayMicros, observed.percentileMicros(percentile));
+    }
+
+    private ApiResponse hedged(HttpRequest request) {
+        String endpoint = Endpoints.template(request.uri().getPath());
+        String call = "GET " + endpoint;
+        LatencyHistogram observed = primaryLatency.computeIfAbsent(endpoint, key -> new LatencyHistogram());
+        long delayMicros = hedgeDelayMicros(endpoint);
+        requests.incrementAndGet();
+        report.request();
+
+        long start = System.nanoTime();
+        CompletableFuture<ApiResponse> answer = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        CompletableFuture<ApiResponse> primary = attempt(http.httpClient(), request);
+        CompletableFuture<ApiResponse> recorded = primary.whenComplete((response, error) -> {
+            if (error == null) {
+                long nanos = response.getTimeIn(TimeUnit.NANOSECONDS);
+                observed.recordNanos(nanos);
+                report.primaryCompleted(nanos);
+            }
+        });
+        pendingPrimaries.add(recorded);
+        recorded.whenComplete((response, error) -> pendingPrimaries.remove(recorded));
+        settle(primary, answer, running, false);
+
+        if (delayMicros >= 0) {
+            try {
+                primary.get(delayMicros, TimeUnit.MICROSECONDS);
+            } catch (TimeoutException slow) {
+                if (allowHedge()) {
+                    report.hedged();
+                    running.incrementAndGet();
+                    settle(attempt(hedgeClient, request), answer, running, true);
+                } else {
+                    report.heldBackByCap();
+                }
+            } catch (ExecutionException e) {
+                // answer completes with it
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during " + call, e);
+            }
+        }
+        try {
+            ApiResponse response = answer.join();
+            long nanos = System.nanoTime() - start;
+            report.answered(nanos);
+            Deadline.record(call, nanos, false);
+            return response;
+        } catch (CompletionException e) {
+            Deadline.record(call, System.nanoTime() - start, true);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException(request.method() + " " + request.uri() + " failed",
+                        (IOException) cause);
+            }
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+    }
+
+    // The first success completes answer; a failure only does once no other attempt is still running
+    private void settle(CompletableFuture<ApiResponse> attempt, CompletableFuture<ApiResponse> answer,
+                        AtomicInteger running, boolean hedge) {
+        attempt.whenComplete((response, error) -> {
+            if (error == null) {
+                if (answer.complete(response) && hedge) {
+                    report.hedgeWon();
+                }
+            } else if (running.decrementAndGet() == 0) {
+                answer.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            }
+        });
+    }
+
+    private boolean allowHedge() {
+        while (true) {
+            long sent = hedges.get();
+            if (sent + 1 > requests.get() * maxHedgeRatio) {
+                return false;
+            }
+            if (hedges.compareAndSet(sent, sent + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static CompletableFuture<ApiResponse> attempt(HttpClient client, HttpRequest request) {
+        HttpExchangeEvent event = HttpBookingClient.startEvent(request);
+        long sent = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            ApiResponse api = HttpBookingClient.toApiResponse(response, System.nanoTime() - sent);
+            HttpBookingClient.recordExchange(event, request, api);
+            return api;
+        });
+    }
+
+    public HedgeReport report() {
+        return report;
+    }
+
+    // A call can return on its hedge while the first attempt is still out, so the report's primary latency
+    // lags behind; wait for those before reading it. False if some are still running after the timeout.
+    public boolean awaitPrimaries(Duration timeout) throws InterruptedException {
+        try {
+            CompletableFuture.allOf(pendingPrimaries.toArray(new CompletableFuture<?>[0]))
+                    .get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            // A failed first attempt has nothing to record
+        }
+        return pendingPrimaries.isEmpty();
+    }
+}
@@ -0,0 +1,223 @@
+package Client;
+
+import Deadlines.Deadline;
+import Telemetry.Endpoints;
+import Telemetry.HttpExchangeEvent;
+import Telemetry.MetricsRegistry;
+import Trace.TraceRecorder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Groovy-free backend: java.net.http for transport, Jackson (via ApiResponse.json()) for parsing
+public class HttpBookingClient implements BookingClient {
+    private final HttpClient httpClient;
+    private final String baseUri;
+    private final Compression compression;
+
+    public HttpBookingClient(String baseUri) {
+        this(HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Deadline.requestCap())
+                .build(), baseUri);
+    }
+
+    public HttpBookingClient(HttpClient httpClient, String baseUri) {
+        this(httpClient, baseUri, Compression.configured());
+    }
+
+    public HttpBookingClient(HttpClient httpClient, String baseUri, Compression compression) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri.endsWith("/") ? baseUri.substring(0, baseUri.length() - 1) : baseUri;
+        this.compression = compression;
+    }
+
+    @Override
+    public ApiResponse auth(String username, String password) {
+        return send(authRequest(username, password));
+    }
+
+    @Override
+    public ApiResponse createBooking(String body) {
+        return send(createRequest(body));
+    }
+
+    @Override
+    public ApiResponse getBooking(Object id) {
+        return send(getRequest(id));
+    }
+
+    @Override
+    public ApiResponse searchBookings(Map<String, String> query) {
+        return send(searchRequest(query));
+    }
+
+    @Override
+    public ApiResponse updateBooking(Object id, String body, String token) {
+        return send(updateRequest(id, body, token));
+    }
+
+    @Override
+    public ApiResponse partialUpdateBooking(Object id, String body, String token) {
+        return send(partialUpdateRequest(id, body, token));
+    }
+
+    @Override
+    public ApiResponse deleteBooking(Object id, String token) {
+        return send(deleteRequest(id, token));
+    }
+
+    // Sent with chunked transfer encoding while the writer produces it; compressed whenever compression is on
+    public ApiResponse createBookingStreaming(StreamingBody.JsonWriter body) {
+        return send(createStreamingRequest(body));
+    }
+
+    public ApiResponse partialUpdateBookingStreaming(Object id, StreamingBody.JsonWriter body, String token) {
+        return send(partialUpdateStreamingRequest(id, body, token));
+    }
+
+    HttpClient httpClient() {
+        return httpClient;
+    }
+
+    HttpRequest authRequest(String username, String password) {
+        String requestBody = String.format("{ \"username\": \"%s\", \"password\": \"%s\" }", username, password);
+        return json(builder("/auth", null), requestBody).build();
+    }
+
+    HttpRequest createRequest(String body) {
+        return json(builder("/booking", null), body).build();
+    }
+
+    HttpRequest getRequest(Object id) {
+        return builder("/booking/" + encode(id), null).GET().build();
+    }
+
+    HttpRequest searchRequest(Map<String, String> query) {
+        StringBuilder path = new StringBuilder("/booking");
+        char separator = '?';
+        for (Map.Entry<String, String> param : query.entrySet()) {
+            path.append(separator).append(encode(param.getKey()));
+            if (param.getValue() != null) {
+                path.append('=').append(encode(param.getValue()));
+            }
+            separator = '&';
+        }
+        return builder(path.toString(), null).GET().build();
+    }
+
+    HttpRequest updateRequest(Object id, String body, String token) {
+        HttpRequest.Builder builder = builder("/booking/" + encode(id), token);
+        return builder.PUT(body(builder, body)).build();
+    }
+
+    HttpRequest partialUpdateRequest(Object id, String body, String token) {
+        HttpRequest.Builder builder = builder("/booking/" + encode(id), token);
+        return builder.method("PATCH", body(builder, body)).build();
+    }
+
+    HttpRequest createStreamingRequest(StreamingBody.JsonWriter body) {
+        HttpRequest.Builder builder = builder("/booking", null);
+        return builder.POST(streamingBody(builder, body)).build();
+    }
+
+    HttpRequest partialUpdateStreamingRequest(Object id, StreamingBody.JsonWriter body, String token) {
+        HttpRequest.Builder builder = builder("/booking/" + encode(id), token);
+        return builder.method("PATCH", streamingBody(builder, body)).build();
+    }
+
+    HttpRequest deleteRequest(Object id, String token) {
+        return builder("/booking/" + encode(id), token).DELETE().build();
+    }
+
+    ApiResponse send(HttpRequest request) {
+        HttpExchangeEvent event = startEvent(request);
+        String endpoint = Endpoints.template(request.uri().getPath());
+        long start = System.nanoTime();
+        try (TraceRecorder.Span span = TraceRecorder.global().begin(request.method() + " " + endpoint, "http")) {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            ApiResponse apiResponse = toApiResponse(response, System.nanoTime() - start);
+            span.arg("status", apiResponse.getStatusCode());
+            recordExchange(event, request, apiResponse);
+            Deadline.record(request.method() + " " + endpoint, apiResponse.getTimeIn(TimeUnit.NANOSECONDS), false);
+            return apiResponse;
+        } catch (IOException e) {
+            MetricsRegistry.global().record(request.uri().getRawAuthority(), request.method(), endpoint, 0,
+                    System.nanoTime() - start, 0, 0);
+            Deadline.record(request.method() + " " + endpoint, System.nanoTime() - start, true);
+            throw new UncheckedIOException(request.method() + " " + request.uri() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during " + request.method() + " " + request.uri(), e);
+        }
+    }
+
+    static ApiResponse toApiResponse(HttpResponse<byte[]> response, long latencyNanos) {
+        byte[] body = Compression.decompress(response.body(), response.headers().firstValue("Content-Encoding").orElse(null));
+        return new ApiResponse(response.statusCode(), new String(body, StandardCharsets.UTF_8),
+                response.headers().map(), latencyNanos);
+    }
+
+    static HttpExchangeEvent startEvent(HttpRequest request) {
+        return HttpExchangeEvent.start("http", request.method(), request.uri().getPath());
+    }
+
+    static void recordExchange(HttpExchangeEvent event, HttpRequest request, ApiResponse response) {
+        long requestBytes = Math.max(0, request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(0L));
+        String contentLength = response.getHeader("Content-Length");
+        long responseBytes = contentLength != null ? Long.parseLong(contentLength.trim()) : response.getBody().length();
+        MetricsRegistry.global().record(request.uri().getRawAuthority(), request.method(),
+                Endpoints.template(request.uri().getPath()),
+                response.getStatusCode(), response.getTimeIn(TimeUnit.NANOSECONDS), requestBytes, responseBytes);
+        event.end(response.getStatusCode(), requestBytes, responseBytes);
+        ResponseCache.global().invalidate(request.method(), request.uri().toString());
+    }
+
+    // Times out with whatever is left of the current Deadline
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUri + path))
+                .timeout(Deadline.timeout(Endpoints.template(path)))
+                .header("Accept", "application/json");
+        if (compression.isEnabled()) {
+            builder.header("Accept-Encoding", Compression.ACCEPT_ENCODING);
+        }
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token)
+                    .header("Cookie", "token=" + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest.Builder json(HttpRequest.Builder builder, String body) {
+        return builder.POST(body(builder, body));
+    }
+
+    private HttpRequest.BodyPublisher body(HttpRequest.Builder builder, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        builder.header("Content-Type", "application/json");
+        String encoding = compression.encodingFor(bytes.length);
+        if (encoding != null) {
+            builder.header("Content-Encoding", encoding);
+            bytes = Compression.compress(bytes, encoding);
+        }
+        return HttpRequest.BodyPublishers.ofByteArray(bytes);
+    }
+
+    private HttpRequest.BodyPublisher streamingBody(HttpRequest.Builder builder, StreamingBody.JsonWriter body) {
+        builder.header("Content-Type", "application/json");
+        if (compression.isEnabled()) {
+            builder.header("Content-Encoding", compression.encoding());
+        }
+        return StreamingBody.of(body, compression.encoding());
+    }
+
+    private static String encode(Object value) {
+        return URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
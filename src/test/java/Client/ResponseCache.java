@@ -0,0 +1,257 @@
+package Client;
+
+import Utils.ConfigManager;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Client-side cache for successful GETs, opted into per request with given().filter(ResponseCache.global()).
+// Entries carrying an ETag or Last-Modified are revalidated with a conditional request every time; entries
+// without validators are served for a short TTL. Writes to a booking (through any client, cached or not)
+// drop that booking and the /booking listing. Eviction is LRU, bounded by both entry count and body bytes.
+// It runs ahead of the telemetry filters, so hits never show up as wire traffic.
+public class ResponseCache implements OrderedFilter {
+    private static final ResponseCache GLOBAL = new ResponseCache(
+            ConfigManager.getInt("cache.maxEntries", 256),
+            ConfigManager.getLong("cache.maxBytes", 8L * 1024 * 1024),
+            ConfigManager.getLong("cache.ttlMillis", 2000));
+
+    private static class Entry {
+        final String path;
+        final int statusCode;
+        final String statusLine;
+        final Headers headers;
+        final String contentType;
+        final byte[] body;
+        final String etag;
+        final String lastModified;
+        volatile long expiresAtNanos;
+
+        Entry(String path, Response response, long ttlNanos) {
+            this.path = path;
+            this.statusCode = response.getStatusCode();
+            this.statusLine = response.getStatusLine();
+            this.headers = response.getHeaders();
+            this.contentType = response.getContentType();
+            this.body = response.asByteArray();
+            this.etag = response.getHeader("ETag");
+            this.lastModified = response.getHeader("Last-Modified");
+            this.expiresAtNanos = System.nanoTime() + ttlNanos;
+        }
+
+        boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        Response toResponse() {
+            return new ResponseBuilder()
+                    .setStatusCode(statusCode)
+                    .setStatusLine(statusLine)
+                    .setHeaders(headers)
+                    .setContentType(contentType)
+                    .setBody(body)
+                    .build();
+        }
+    }
+
+    // Installed for every RestAssured request, so writes from tests that do not use the cache still invalidate it
+    public static class Invalidator implements Filter {
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                               FilterContext ctx) {
+            try {
+                return ctx.next(requestSpec, responseSpec);
+            } finally {
+                GLOBAL.invalidate(requestSpec.getMethod(), requestSpec.getURI());
+            }
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache(int maxEntries, long maxBytes, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public static ResponseCache global() {
+        return GLOBAL;
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String method = requestSpec.getMethod();
+        String uri = requestSpec.getURI();
+        if (!"GET".equals(method)) {
+            try {
+                return ctx.next(requestSpec, responseSpec);
+            } finally {
+                invalidate(method, uri);
+            }
+        }
+
+        // Responses may differ per credential and representation, so both are part of the key
+        Headers requestHeaders = requestSpec.getHeaders();
+        String key = uri + '\n' + requestHeaders.getValue("Accept") + '\n' + requestHeaders.getValue("Authorization");
+        Entry cached = get(key);
+        if (cached != null && !cached.hasValidators() && System.nanoTime() < cached.expiresAtNanos) {
+            hits.increment();
+            return cached.toResponse();
+        }
+        if (cached != null && cached.hasValidators()) {
+            if (cached.etag != null) {
+                requestSpec.header("If-None-Match", cached.etag);
+            }
+            if (cached.lastModified != null) {
+                requestSpec.header("If-Modified-Since", cached.lastModified);
+            }
+        }
+
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (cached != null && response.getStatusCode() == 304) {
+            revalidations.increment();
+            cached.expiresAtNanos = System.nanoTime() + ttlNanos;
+            return cached.toResponse();
+        }
+        misses.increment();
+        String cacheControl = response.getHeader("Cache-Control");
+        if (response.getStatusCode() == 200 && (cacheControl == null || !cacheControl.contains("no-store"))) {
+            put(key, new Entry(pathOf(uri), response, ttlNanos));
+        } else if (cached != null) {
+            remove(key);
+        }
+        return response;
+    }
+
+    // Called for every write so entries cannot outlive the data they describe: a write to /booking/1
+    // drops /booking/1 and every /booking listing or search, a POST to /booking drops the listings
+    public void invalidate(String method, String uri) {
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return;
+        }
+        String path = pathOf(uri);
+        int slash = path.lastIndexOf('/');
+        String parent = slash > 0 ? path.substring(0, slash) : path;
+        synchronized (this) {
+            if (entries.isEmpty()) {
+                return;
+            }
+            for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (entry.path.equals(path) || entry.path.equals(parent)) {
+                    bytes -= entry.body.length;
+                    it.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long revalidations() {
+        return revalidations.sum();
+    }
+
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache{hits=" + hits() + ", revalidations=" + revalidations() + ", misses=" + misses()
+                + ", invalidations=" + invalidations() + ", evictions=" + evictions() + ", entries=" + size() + "}";
+    }
+
+    private synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.body.length;
+        }
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        if (entry.body.length > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.body.length;
+        }
+        bytes += entry.body.length;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().body.length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String pathOf(String uri) {
+        int start = 0;
+        int scheme = uri.indexOf("://");
+        if (scheme >= 0) {
+            int slash = uri.indexOf('/', scheme + 3);
+            start = slash < 0 ? uri.length() : slash;
+        }
+        int end = uri.indexOf('?', start);
+        if (end < 0) {
+            end = uri.length();
+        }
+        if (end - start > 1 && uri.charAt(end - 1) == '/') {
+            end--;
+        }
+        return start == end ? "/" : uri.substring(start, end);
+    }
+}
@@ -0,0 +1,103 @@
+package Client;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class RestAssuredBookingClient implements BookingClient {
+    private final String baseUri;
+    private final Compression compression;
+
+    public RestAssuredBookingClient(String baseUri) {
+        this(baseUri, Compression.configured());
+    }
+
+    public RestAssuredBookingClient(String baseUri, Compression compression) {
+        this.baseUri = baseUri;
+        this.compression = compression;
+    }
+
+    @Override
+    public ApiResponse auth(String username, String password) {
+        String requestBody = String.format("{ \"username\": \"%s\", \"password\": \"%s\" }", username, password);
+        return toApiResponse(request(null)
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .post("/auth"));
+    }
+
+    @Override
+    public ApiResponse createBooking(String body) {
+        return toApiResponse(request(null)
+                .contentType(ContentType.JSON)
+                .body(body)
+                .post("/booking"));
+    }
+
+    @Override
+    public ApiResponse getBooking(Object id) {
+        return toApiResponse(request(null)
+                .pathParam("id", id)
+                .get("/booking/{id}"));
+    }
+
+    @Override
+    public ApiResponse searchBookings(Map<String, String> query) {
+        RequestSpecification spec = request(null);
+        query.forEach((name, value) -> spec.queryParam(name, value));
+        return toApiResponse(spec.get("/booking"));
+    }
+
+    @Override
+    public ApiResponse updateBooking(Object id, String body, String token) {
+        return toApiResponse(request(token)
+                .contentType(ContentType.JSON)
+                .pathParam("id", id)
+                .body(body)
+                .put("/booking/{id}"));
+    }
+
+    @Override
+    public ApiResponse partialUpdateBooking(Object id, String body, String token) {
+        return toApiResponse(request(token)
+                .contentType(ContentType.JSON)
+                .pathParam("id", id)
+                .body(body)
+                .patch("/booking/{id}"));
+    }
+
+    @Override
+    public ApiResponse deleteBooking(Object id, String token) {
+        return toApiResponse(request(token)
+                .pathParam("id", id)
+                .delete("/booking/{id}"));
+    }
+
+    private RequestSpecification request(String token) {
+        RequestSpecification spec = RestAssured.given().baseUri(baseUri);
+        if (compression.isEnabled()) {
+            spec.filter(new CompressionFilter(compression));
+        }
+        if (token != null) {
+            spec.header("Authorization", "Bearer " + token).cookie("token", token);
+        }
+        return spec;
+    }
+
+    private static ApiResponse toApiResponse(Response response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (Header header : response.getHeaders()) {
+            headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+        }
+        return new ApiResponse(response.getStatusCode(), response.getBody().asString(), headers,
+                TimeUnit.MILLISECONDS.toNanos(response.getTimeIn(TimeUnit.MILLISECONDS)));
+    }
+}
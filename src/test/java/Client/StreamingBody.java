@@ -0,0 +1,179 @@
+package Client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Request bodies that are written while they are sent instead of being built as a String first. A producer
+// thread runs the JsonWriter against a Jackson generator feeding a small pipe; java.net.http drains the pipe
+// with chunked transfer encoding, so client memory stays at the pipe size whatever the body size.
+public class StreamingBody {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingBody.class);
+    static final int PIPE_BYTES = 64 * 1024;
+
+    private static final ExecutorService producers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "streaming-body");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private StreamingBody() {
+    }
+
+    public static HttpRequest.BodyPublisher of(JsonWriter writer, String contentEncoding) {
+        return HttpRequest.BodyPublishers.ofInputStream(() -> open(writer, contentEncoding));
+    }
+
+    // The booking's own fields, with additionalneeds streamed from the reader rather than held in memory
+    public static JsonWriter booking(Booking booking, Reader additionalNeeds) {
+        return generator -> {
+            generator.writeStartObject();
+            writeIfPresent(generator, "firstname", booking.getFirstname());
+            writeIfPresent(generator, "lastname", booking.getLastname());
+            if (booking.getTotalprice() != null) {
+                generator.writeNumberField("totalprice", booking.getTotalprice());
+            }
+            if (booking.getDepositpaid() != null) {
+                generator.writeBooleanField("depositpaid", booking.getDepositpaid());
+            }
+            if (booking.getBookingdates() != null) {
+                generator.writeObjectFieldStart("bookingdates");
+                writeIfPresent(generator, "checkin", booking.getBookingdates().getCheckin());
+                writeIfPresent(generator, "checkout", booking.getBookingdates().getCheckout());
+                generator.writeEndObject();
+            }
+            generator.writeFieldName("additionalneeds");
+            generator.writeString(additionalNeeds, -1);
+            generator.writeEndObject();
+        };
+    }
+
+    // A one-field object, e.g. a PATCH of additionalneeds, with the value streamed from the reader
+    public static JsonWriter field(String name, Reader value) {
+        return generator -> {
+            generator.writeStartObject();
+            generator.writeFieldName(name);
+            generator.writeString(value, -1);
+            generator.writeEndObject();
+        };
+    }
+
+    // length characters of text repeated, generated on demand
+    public static Reader repeating(String text, long length) {
+        return new Reader() {
+            private long remaining = length;
+            private int position;
+
+            @Override
+            public int read(char[] buffer, int offset, int count) {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int n = (int) Math.min(count, remaining);
+                for (int i = 0; i < n; i++) {
+                    buffer[offset + i] = text.charAt(position);
+                    position = position + 1 == text.length() ? 0 : position + 1;
+                }
+                remaining -= n;
+                return n;
+            }
+
+            @Override
+            public void close() {
+                remaining = 0;
+            }
+        };
+    }
+
+    private static void writeIfPresent(JsonGenerator generator, String field, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value);
+        }
+    }
+
+    private static InputStream open(JsonWriter writer, String contentEncoding) {
+        ProducerPipe pipe = new ProducerPipe();
+        PipedOutputStream sink;
+        try {
+            sink = new PipedOutputStream(pipe);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        producers.execute(() -> {
+            try {
+                JsonGenerator generator = ApiResponse.MAPPER.getFactory().createGenerator(encode(sink, contentEncoding));
+                writer.write(generator);
+                generator.close();
+            } catch (IOException | RuntimeException e) {
+                // Usually the request was cancelled and the reader went away; otherwise the reader sees it
+                logger.debug("Streaming body producer stopped: {}", e.toString());
+                pipe.fail(e);
+            } finally {
+                // After fail(), so the reader never mistakes a broken body for a complete one
+                try {
+                    sink.close();
+                } catch (IOException ignored) {
+                    // already closed by the generator
+                }
+            }
+        });
+        return pipe;
+    }
+
+    private static OutputStream encode(OutputStream out, String contentEncoding) throws IOException {
+        if ("gzip".equals(contentEncoding)) {
+            return new GZIPOutputStream(out, 8192);
+        }
+        return "deflate".equals(contentEncoding) ? new DeflaterOutputStream(out) : out;
+    }
+
+    // A pipe whose reader gets an IOException, not a silently truncated body, if the producer failed
+    private static class ProducerPipe extends PipedInputStream {
+        private volatile Exception failure;
+
+        ProducerPipe() {
+            super(PIPE_BYTES);
+        }
+
+        void fail(Exception e) {
+            failure = e;
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            int b = super.read();
+            checkFailure(b);
+            return b;
+        }
+
+        @Override
+        public synchronized int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            checkFailure(n);
+            return n;
+        }
+
+        private void checkFailure(int result) throws IOException {
+            if (result < 0 && failure != null) {
+                throw new IOException("Streaming body could not be generated", failure);
+            }
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package Client;
+
+import Deadlines.Deadline;
+import Telemetry.Endpoints;
+import Telemetry.HttpExchangeEvent;
+import Telemetry.MetricsRegistry;
+import Telemetry.PhaseReport;
+import Telemetry.PhaseTimings;
+import Trace.TraceRecorder;
+import Utils.ConfigManager;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+// Minimal HTTP/1.1 client over plain sockets, used where a test needs to know where a request's time went.
+// java.net.http and RestAssured only expose the total; here every phase is timed on its own (see PhaseTimings),
+// recorded in PhaseReport.global() and attached to the running TestNG result. Like HttpBookingClient it also feeds
+// MetricsRegistry, JFR and the trace recorder itself, since RestAssured's filters never see these requests.
+// Connections are kept alive and pooled per client, so the first request pays dns/connect/tls and later ones
+// show the warm cost.
+// Lookups go through the JVM's address cache; run with -Dsun.net.inetaddr.ttl=0 to time real DNS every time.
+public class TimedHttpClient {
+    private static final Map<String, TimedHttpClient> SHARED = new ConcurrentHashMap<>();
+    private static final Set<String> IDEMPOTENT = Set.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS");
+
+    private final URI baseUri;
+    private final String host;
+    private final int port;
+    private final boolean tls;
+    private final int timeoutMillis = ConfigManager.getInt("timing.timeoutMillis", 30_000);
+    private final long idleNanos = TimeUnit.SECONDS.toNanos(ConfigManager.getLong("timing.idleSeconds", 20));
+    private final Deque<Connection> idle = new ConcurrentLinkedDeque<>();
+    private final PhaseReport report;
+
+    public TimedHttpClient(String baseUri) {
+        this(baseUri, PhaseReport.global());
+    }
+
+    public TimedHttpClient(String baseUri, PhaseReport report) {
+        this.baseUri = URI.create(baseUri);
+        this.host = this.baseUri.getHost();
+        this.tls = "https".equalsIgnoreCase(this.baseUri.getScheme());
+        this.port = this.baseUri.getPort() > 0 ? this.baseUri.getPort() : tls ? 443 : 80;
+        this.report = report;
+    }
+
+    // One client per base URI for the whole run, so tests in different classes share warm connections
+    public static TimedHttpClient shared(String baseUri) {
+        return SHARED.computeIfAbsent(baseUri, TimedHttpClient::new);
+    }
+
+    public static class Exchange {
+        private final ApiResponse response;
+        private final PhaseTimings timings;
+        private final long responseBytes;
+
+        Exchange(ApiResponse response, PhaseTimings timings, long responseBytes) {
+            this.response = response;
+            this.timings = timings;
+            this.responseBytes = responseBytes;
+        }
+
+        public ApiResponse response() {
+            return response;
+        }
+
+        public PhaseTimings timings() {
+            return timings;
+        }
+    }
+
+    public Exchange get(String pathAndQuery) throws IOException {
+        return send("GET", pathAndQuery, Map.of(), null);
+    }
+
+    // path may carry a query string; body is sent as-is with the caller's Content-Type
+    public Exchange send(String method, String pathAndQuery, Map<String, String> headers, String body)
+            throws IOException {
+        String base = baseUri.getRawPath() == null ? "" : baseUri.getRawPath().replaceAll("/$", "");
+        byte[] bodyBytes = body == null ? null : body.getBytes(StandardCharsets.UTF_8);
+        byte[] request = request(method, base + pathAndQuery, headers, bodyBytes);
+        String endpoint = Endpoints.template(pathAndQuery);
+        String call = method + " " + endpoint;
+        HttpExchangeEvent event = HttpExchangeEvent.start("timed", method, pathAndQuery);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try (TraceRecorder.Span span = TraceRecorder.global().begin(call, "http")) {
+            Exchange exchange;
+            try {
+                exchange = exchange(method, pathAndQuery, request, true, call);
+            } catch (StaleConnectionException e) {
+                // The server closed a pooled connection as we used it; the request never reached it
+                if (!IDEMPOTENT.contains(method)) {
+                    throw e;
+                }
+                exchange = exchange(method, pathAndQuery, request, false, call);
+            }
+            failed = false;
+            int status = exchange.response().getStatusCode();
+            long requestBytes = bodyBytes == null ? 0 : bodyBytes.length;
+            span.arg("status", status);
+            MetricsRegistry.global().record(baseUri.getRawAuthority(), method, endpoint, status,
+                    exchange.response().getTimeIn(TimeUnit.NANOSECONDS), requestBytes, exchange.responseBytes);
+            event.end(status, requestBytes, exchange.responseBytes);
+            return exchange;
+        } finally {
+            if (failed) {
+                MetricsRegistry.global().record(baseUri.getRawAuthority(), method, endpoint, 0,
+                        System.nanoTime() - start, 0, 0);
+            }
+            Deadline.record(call, System.nanoTime() - start, failed);
+        }
+    }
+
+    private Exchange exchange(String method, String pathAndQuery, byte[] request, boolean pooled, String call)
+            throws IOException {
+        int timeout = Math.min(timeoutMillis, Deadline.timeoutMillis(call));
+        long start = System.nanoTime();
+        long dns = 0;
+        long connect = 0;
+        long handshake = 0;
+        Connection connection = pooled ? borrow() : null;
+        boolean reused = connection != null;
+        if (connection == null) {
+            InetAddress address = InetAddress.getByName(host);
+            long resolved = System.nanoTime();
+            dns = resolved - start;
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(address, port), timeout);
+                socket.setTcpNoDelay(true);
+                long connected = System.nanoTime();
+                connect = connected - resolved;
+                socket.setSoTimeout(timeout);
+                if (tls) {
+                    SSLSocket secure = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+                            .createSocket(socket, host, port, true);
+                    SSLParameters parameters = secure.getSSLParameters();
+                    parameters.setEndpointIdentificationAlgorithm("HTTPS");
+                    secure.setSSLParameters(parameters);
+                    secure.startHandshake();
+                    socket = secure;
+                    handshake = System.nanoTime() - connected;
+                }
+                connection = new Connection(socket);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        boolean keep = false;
+        try {
+            if (reused) {
+                connection.socket.setSoTimeout(timeout);
+            }
+            long writeStart = System.nanoTime();
+            long written;
+            try {
+                connection.out.write(request);
+                connection.out.flush();
+                written = System.nanoTime();
+                connection.in.mark(1);
+                if (connection.in.read() < 0) {
+                    throw new EOFException("Connection closed before a response to " + method + " " + pathAndQuery);
+                }
+            } catch (IOException e) {
+                if (reused && !(e instanceof SocketTimeoutException)) {
+                    throw new StaleConnectionException(e);
+                }
+                throw e;
+            }
+            long firstByte = System.nanoTime();
+            connection.in.reset();
+            Response response = Response.read(connection.in, method);
+            long done = System.nanoTime();
+            keep = response.keepAlive;
+
+            PhaseTimings timings = new PhaseTimings(method, pathAndQuery, response.status, reused, dns, connect,
+                    handshake, written - writeStart, firstByte - written, done - firstByte);
+            report.record(timings);
+            PhaseReport.attach(timings);
+            ApiResponse api = new ApiResponse(response.status, new String(response.body, StandardCharsets.UTF_8),
+                    response.headers, done - start);
+            return new Exchange(api, timings, response.body.length);
+        } finally {
+            if (keep) {
+                connection.lastUsed = System.nanoTime();
+                idle.push(connection);
+            } else {
+                connection.close();
+            }
+        }
+    }
+
+    // Drops pooled connections, so the next request starts cold
+    public void closeIdle() {
+        for (Connection connection; (connection = idle.poll()) != null; ) {
+            connection.close();
+        }
+    }
+
+    public int idleConnections() {
+        return idle.size();
+    }
+
+    private Connection borrow() {
+        for (Connection connection; (connection = idle.poll()) != null; ) {
+            if (System.nanoTime() - connection.lastUsed < idleNanos && connection.isOpen()) {
+                return connection;
+            }
+            connection.close();
+        }
+        return null;
+    }
+
+    private byte[] request(String method, String target, Map<String, String> headers, byte[] body) {
+        StringBuilder head = new StringBuilder(256).append(method).append(' ').append(target).append(" HTTP/1.1\r\n");
+        head.append("Host: ").append(host);
+        if (baseUri.getPort() > 0) {
+            head.append(':').append(port);
+        }
+        head.append("\r\n");
+        Map<String, String> all = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        all.put("Accept", "application/json");
+        all.put("User-Agent", "TimedHttpClient");
+        all.putAll(headers);
+        if (body != null) {
+            all.put("Content-Length", String.valueOf(body.length));
+        }
+        all.forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+        head.append("\r\n");
+        byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        if (body == null) {
+            return headBytes;
+        }
+        byte[] whole = new byte[headBytes.length + body.length];
+        System.arraycopy(headBytes, 0, whole, 0, headBytes.length);
+        System.arraycopy(body, 0, whole, headBytes.length, body.length);
+        return whole;
+    }
+
+    private static class StaleConnectionException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        StaleConnectionException(IOException cause) {
+            super("Pooled connection failed before a response", cause);
+        }
+    }
+
+    private static class Connection {
+        final Socket socket;
+        final BufferedInputStream in;
+        final OutputStream out;
+        long lastUsed;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream(), 16 * 1024);
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 16 * 1024);
+        }
+
+        // Without blocking: closed, shut down or holding bytes nobody asked for. A connection the server closed
+        // while idle still passes; the exchange finds out and throws StaleConnectionException.
+        boolean isOpen() {
+            if (socket.isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+                return false;
+            }
+            try {
+                return in.available() == 0;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already unusable
+            }
+        }
+    }
+
+    private static class Response {
+        int status;
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        byte[] body;
+        boolean keepAlive;
+
+        static Response read(InputStream in, String method) throws IOException {
+            Response response = new Response();
+            String statusLine = line(in);
+            String[] parts = statusLine.split(" ", 3);
+            if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+                throw new IOException("Not an HTTP response: " + statusLine);
+            }
+            response.status = Integer.parseInt(parts[1]);
+            for (String header; !(header = line(in)).isEmpty(); ) {
+                int colon = header.indexOf(':');
+                if (colon > 0) {
+                    response.headers.computeIfAbsent(header.substring(0, colon).trim(), key -> new ArrayList<>())
+                            .add(header.substring(colon + 1).trim());
+                }
+            }
+            String connection = response.header("Connection").toLowerCase(Locale.ROOT);
+            response.keepAlive = parts[0].equals("HTTP/1.1") ? !connection.contains("close")
+                    : connection.contains("keep-alive");
+
+            if (method.equals("HEAD") || response.status / 100 == 1 || response.status == 204
+                    || response.status == 304) {
+                response.body = new byte[0];
+            } else if (response.header("Transfer-Encoding").toLowerCase(Locale.ROOT).contains("chunked")) {
+                response.body = chunked(in);
+            } else if (!response.header("Content-Length").isEmpty()) {
+                int length = Integer.parseInt(response.header("Content-Length").trim());
+                response.body = in.readNBytes(length);
+                if (response.body.length < length) {
+                    throw new EOFException("Body ended after " + response.body.length + " of " + length + " bytes");
+                }
+            } else {
+                response.body = in.readAllBytes();
+                response.keepAlive = false;
+            }
+            return response;
+        }
+
+        private String header(String name) {
+            List<String> values = headers.get(name);
+            return values == null || values.isEmpty() ? "" : values.get(0);
+        }
+
+        private static byte[] chunked(InputStream in) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            while (true) {
+                String size = line(in);
+                int extension = size.indexOf(';');
+                int length = Integer.parseInt((extension < 0 ? size : size.substring(0, extension)).trim(), 16);
+                if (length == 0) {
+                    // Trailers, if any, end with an empty line
+                    while (!line(in).isEmpty()) {
+                        // skip
+                    }
+                    return body.toByteArray();
+                }
+                byte[] chunk = in.readNBytes(length);
+                if (chunk.length < length) {
+                    throw new EOFException("Chunked body ended early");
+                }
+                body.write(chunk);
+                line(in);
+            }
+        }
+
+        private static String line(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder(64);
+            for (int b; (b = in.read()) != '\n'; ) {
+                if (b < 0) {
+                    throw new EOFException("Connection closed mid-response");
+                }
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+            }
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package Deadlines;
+
+import Utils.ConfigManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// A time budget for one test method or fixture. DeadlineListener starts one around each invocation; the HTTP
+// clients ask it for their connect and read timeouts, which are whatever is left of the budget (capped by
+// -Ddeadline.requestSeconds, which also applies when no budget is running). Once the budget is spent, further
+// calls fail at once with DeadlineExceededException instead of being sent. Every call is recorded, so a
+// failure can name the slowest one. Threads started by the test inherit its deadline until the test ends.
+public class Deadline implements AutoCloseable {
+    private static final InheritableThreadLocal<Deadline> CURRENT = new InheritableThreadLocal<>();
+    private static final long REQUEST_CAP_NANOS =
+            TimeUnit.SECONDS.toNanos(ConfigManager.getLong("deadline.requestSeconds", 30));
+
+    private final String name;
+    private final long startNanos;
+    private volatile long budgetNanos;
+    private volatile boolean closed;
+    private int calls;
+    private String slowestCall;
+    private long slowestNanos;
+    private boolean slowestFailed;
+
+    private Deadline(String name, long budgetNanos) {
+        this.name = name;
+        this.budgetNanos = budgetNanos;
+        this.startNanos = System.nanoTime();
+    }
+
+    // Becomes the calling thread's deadline until closed
+    public static Deadline start(String name, Duration budget) {
+        Deadline deadline = new Deadline(name, budget.toNanos());
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    // The running deadline of this thread, or null
+    public static Deadline current() {
+        Deadline deadline = CURRENT.get();
+        return deadline == null || deadline.closed ? null : deadline;
+    }
+
+    // For tests whose length is configured, e.g. soak runs: makes the current budget at least this long from now
+    public static void extendCurrent(Duration atLeast) {
+        Deadline deadline = current();
+        if (deadline != null) {
+            deadline.budgetNanos = Math.max(deadline.budgetNanos,
+                    System.nanoTime() - deadline.startNanos + atLeast.toNanos());
+        }
+    }
+
+    // The -Ddeadline.requestSeconds cap, for settings fixed when a client is built
+    public static Duration requestCap() {
+        return Duration.ofNanos(REQUEST_CAP_NANOS);
+    }
+
+    // Connect/read timeout for the next call: the rest of the current budget, at most the per-request cap.
+    // Throws if the budget is already spent, naming the call that was not sent.
+    public static Duration timeout(String call) {
+        Deadline deadline = current();
+        if (deadline == null) {
+            return requestCap();
+        }
+        long remaining = deadline.remainingNanos();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException(deadline, call + " was not sent", null);
+        }
+        return Duration.ofNanos(Math.min(remaining, REQUEST_CAP_NANOS));
+    }
+
+    // Same, in whole milliseconds and never 0 (which socket APIs read as "no timeout")
+    public static int timeoutMillis(String call) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, timeout(call).toMillis()));
+    }
+
+    // Adds a finished (or failed) call to the current deadline's record
+    public static void record(String call, long nanos, boolean failed) {
+        Deadline deadline = current();
+        if (deadline != null) {
+            deadline.recordCall(call, nanos, failed);
+        }
+    }
+
+    private synchronized void recordCall(String call, long nanos, boolean failed) {
+        calls++;
+        if (slowestCall == null || nanos > slowestNanos) {
+            slowestCall = call;
+            slowestNanos = nanos;
+            slowestFailed = failed;
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long budget(TimeUnit unit) {
+        return unit.convert(budgetNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long elapsed(TimeUnit unit) {
+        return unit.convert(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long remainingNanos() {
+        return budgetNanos - (System.nanoTime() - startNanos);
+    }
+
+    public boolean isExceeded() {
+        return remainingNanos() <= 0;
+    }
+
+    // e.g. "GET /booking/{id} took 29812ms (failed), slowest of 4 calls"
+    public synchronized String slowest() {
+        if (slowestCall == null) {
+            return "no HTTP calls were made";
+        }
+        return String.format("%s took %dms%s, slowest of %d calls", slowestCall,
+                TimeUnit.NANOSECONDS.toMillis(slowestNanos), slowestFailed ? " (failed)" : "", calls);
+    }
+
+    // Stops this deadline applying anywhere, including threads that inherited it
+    @Override
+    public void close() {
+        closed = true;
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%dms of %dms used)", name, elapsed(TimeUnit.MILLISECONDS),
+                budget(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,15 @@
+package Deadlines;
+
+import java.util.concurrent.TimeUnit;
+
+// A test or fixture ran out of its time budget. The message names the budget, how far over it went and the
+// slowest HTTP call, which is usually the one to look at.
+public class DeadlineExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(Deadline deadline, String detail, Throwable cause) {
+        super(String.format("%s exceeded its %dms budget after %dms%s; %s", deadline.name(),
+                deadline.budget(TimeUnit.MILLISECONDS), deadline.elapsed(TimeUnit.MILLISECONDS),
+                detail == null ? "" : " (" + detail + ")", deadline.slowest()), cause);
+    }
+}
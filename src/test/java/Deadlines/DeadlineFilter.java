@@ -0,0 +1,42 @@
+package Deadlines;
+
+import Telemetry.Endpoints;
+import io.restassured.RestAssured;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+// Gives every RestAssured request connect and socket timeouts from the current Deadline and records how long
+// it took. Runs outermost, so the recorded time is what the test waited for.
+public class DeadlineFilter implements OrderedFilter {
+    private static final String CONNECT_TIMEOUT = "http.connection.timeout";
+    private static final String SOCKET_TIMEOUT = "http.socket.timeout";
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String call = requestSpec.getMethod() + " " + Endpoints.template(requestSpec.getUserDefinedPath());
+        int timeout = Deadline.timeoutMillis(call);
+        RestAssuredConfig config = requestSpec.getConfig() != null ? requestSpec.getConfig() : RestAssured.config;
+        requestSpec.config(config.httpClient(config.getHttpClientConfig()
+                .setParam(CONNECT_TIMEOUT, timeout)
+                .setParam(SOCKET_TIMEOUT, timeout)));
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            failed = false;
+            return response;
+        } finally {
+            Deadline.record(call, System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
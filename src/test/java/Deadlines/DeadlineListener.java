@@ -0,0 +1,75 @@
+package Deadlines;
+
+import Utils.ConfigManager;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Starts a Deadline around every test method and configuration method. Test methods get their @Test(timeOut)
+// if they set one, otherwise -Ddeadline.testSeconds (default 120); fixtures get -Ddeadline.fixtureSeconds
+// (default 60). 0 turns the budget off. A test that overran its budget fails with DeadlineExceededException,
+// whether it failed on a timeout or finished late; the original failure is kept as the cause.
+public class DeadlineListener implements IInvokedMethodListener {
+    private final long testBudgetMillis = TimeUnit.SECONDS.toMillis(ConfigManager.getLong("deadline.testSeconds", 120));
+    private final long fixtureBudgetMillis =
+            TimeUnit.SECONDS.toMillis(ConfigManager.getLong("deadline.fixtureSeconds", 60));
+    private final Map<ITestResult, Deadline> running = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult result) {
+        ITestNGMethod testMethod = method.getTestMethod();
+        long budget = !method.isTestMethod() ? fixtureBudgetMillis
+                : testMethod.getTimeOut() > 0 ? testMethod.getTimeOut() : testBudgetMillis;
+        if (budget > 0) {
+            running.put(result, Deadline.start(testMethod.getQualifiedName(), Duration.ofMillis(budget)));
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        Deadline deadline = running.remove(result);
+        if (deadline == null) {
+            return;
+        }
+        try {
+            DeadlineExceededException exceeded = explain(deadline, result.getThrowable());
+            if (exceeded != null) {
+                result.setThrowable(exceeded);
+                result.setStatus(ITestResult.FAILURE);
+            }
+        } finally {
+            deadline.close();
+        }
+    }
+
+    // The failure to report for an invocation that ended with failure (null if it passed), or null if the
+    // budget had nothing to do with the outcome
+    static DeadlineExceededException explain(Deadline deadline, Throwable failure) {
+        if (failure instanceof DeadlineExceededException) {
+            return (DeadlineExceededException) failure;
+        }
+        if (deadline.isExceeded()) {
+            return new DeadlineExceededException(deadline, failure == null ? "finished late" : null, failure);
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException) {
+                return (DeadlineExceededException) cause;
+            }
+            // A call that timed out at the end of its budget, with a little time left over
+            if ((cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException)
+                    && deadline.remainingNanos() < TimeUnit.SECONDS.toNanos(1)) {
+                return new DeadlineExceededException(deadline, "timed out", failure);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,277 @@
+package Fuzz;
+
+import Utils.ConfigManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// The run shared by Fuzzer and Lifecycle.LifecycleEngine. Input i of a run is generated from (seed, i) alone, so
+// inputAt(i) regenerates it. A worker pool evaluates inputs until the count, the deadline or maxFailures is
+// reached; then the first failure of each kind is shrunk, outside the timed phase, by replaying smaller candidates
+// until none fails the same way. Failures are "kind: detail" strings, as Properties returns them.
+// Defaults come from -D<prefix>.threads, -D<prefix>.seed, -D<prefix>.seconds and -D<prefix>.shrinkAttempts, plus the
+// count property the subclass names.
+public abstract class Campaign<T, R extends Campaign.Report<T>, S extends Campaign<T, R, S>> {
+    private final String prefix;
+    private int count;
+    private int threads;
+    private long seed;
+    private Duration duration;
+    private int shrinkAttempts;
+    private int maxFailures = 20;
+
+    protected Campaign(String prefix, String countProperty, int count, long seconds, int shrinkAttempts) {
+        this.prefix = prefix;
+        this.count = ConfigManager.getInt(prefix + "." + countProperty, count);
+        this.threads = ConfigManager.getInt(prefix + ".threads", 8);
+        this.seed = ConfigManager.getLong(prefix + ".seed", System.nanoTime());
+        this.duration = Duration.ofSeconds(ConfigManager.getLong(prefix + ".seconds", seconds));
+        this.shrinkAttempts = ConfigManager.getInt(prefix + ".shrinkAttempts", shrinkAttempts);
+    }
+
+    protected abstract T generate(Random random);
+
+    // null when the input passes, otherwise "kind: detail". report is null while shrinking, which keeps replays
+    // out of the statistics.
+    protected abstract String evaluate(T input, R report);
+
+    // Smaller variants of a failing input, most aggressive first, see Shrinker
+    protected abstract List<T> candidates(T input);
+
+    protected abstract R newReport(long seed);
+
+    // How a shrunk input is shown under its failure
+    protected String describe(T minimal) {
+        return "\n  minimal: " + minimal;
+    }
+
+    protected S count(int count) {
+        this.count = count;
+        return self();
+    }
+
+    public S threads(int threads) {
+        this.threads = threads;
+        return self();
+    }
+
+    public S seed(long seed) {
+        this.seed = seed;
+        return self();
+    }
+
+    // Upper bound on the timed phase; the run stops at whichever of count and duration comes first
+    public S duration(Duration duration) {
+        this.duration = duration;
+        return self();
+    }
+
+    public S shrinkAttempts(int shrinkAttempts) {
+        this.shrinkAttempts = shrinkAttempts;
+        return self();
+    }
+
+    // Stop starting inputs once this many have failed
+    public S maxFailures(int maxFailures) {
+        this.maxFailures = maxFailures;
+        return self();
+    }
+
+    public T inputAt(long index) {
+        return generate(new Random(mix(seed + index * 0x9E3779B97F4A7C15L)));
+    }
+
+    public R run() throws InterruptedException {
+        R report = newReport(seed);
+        Report<T> totals = report;
+        AtomicLong next = new AtomicLong();
+        AtomicInteger failed = new AtomicInteger();
+        Map<Long, String> failures = new ConcurrentHashMap<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> {
+                for (long i; (i = next.getAndIncrement()) < count && failed.get() < maxFailures
+                        && System.nanoTime() < deadline; ) {
+                    String failure = evaluate(inputAt(i), report);
+                    totals.executed.increment();
+                    if (failure != null) {
+                        failures.put(i, failure);
+                        failed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(prefix + " worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        totals.elapsedNanos = System.nanoTime() - start;
+        totals.failed = failures.size();
+
+        // Lowest index per kind, so a rerun with the same seed shrinks the same input
+        Map<String, Long> firstByKind = new TreeMap<>();
+        new TreeMap<>(failures).forEach((index, failure) -> firstByKind.putIfAbsent(kind(failure), index));
+        for (long index : firstByKind.values()) {
+            totals.failures.add(shrink(index, failures.get(index)));
+        }
+        return report;
+    }
+
+    private Failure<T> shrink(long index, String failure) {
+        T original = inputAt(index);
+        T minimal = original;
+        String kind = kind(failure);
+        int attempts = 0;
+        int steps = 0;
+        boolean progress = true;
+        while (progress && attempts < shrinkAttempts) {
+            progress = false;
+            for (T candidate : candidates(minimal)) {
+                if (attempts++ >= shrinkAttempts) {
+                    break;
+                }
+                String result = evaluate(candidate, null);
+                if (result != null && kind(result).equals(kind)) {
+                    minimal = candidate;
+                    failure = result;
+                    steps++;
+                    progress = true;
+                    break;
+                }
+            }
+        }
+        return new Failure<>(index, original, minimal, failure, steps, attempts, describe(minimal));
+    }
+
+    private static String kind(String failure) {
+        int colon = failure.indexOf(':');
+        return colon < 0 ? failure : failure.substring(0, colon);
+    }
+
+    // SplitMix64 finaliser: neighbouring indexes get unrelated Random seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @SuppressWarnings("unchecked")
+    private S self() {
+        return (S) this;
+    }
+
+    public static class Failure<T> {
+        private final long index;
+        private final T original;
+        private final T minimal;
+        private final String failure;
+        private final int steps;
+        private final int attempts;
+        private final String description;
+
+        Failure(long index, T original, T minimal, String failure, int steps, int attempts, String description) {
+            this.index = index;
+            this.original = original;
+            this.minimal = minimal;
+            this.failure = failure;
+            this.steps = steps;
+            this.attempts = attempts;
+            this.description = description;
+        }
+
+        public long index() {
+            return index;
+        }
+
+        public T original() {
+            return original;
+        }
+
+        // The smallest input found that still fails the same way
+        public T minimal() {
+            return minimal;
+        }
+
+        public String failure() {
+            return failure;
+        }
+
+        @Override
+        public String toString() {
+            return failure + "\n  index " + index + " (shrunk in " + steps + " steps / " + attempts + " attempts)"
+                    + description;
+        }
+    }
+
+    public static class Report<T> {
+        private final long seed;
+        private final LongAdder executed = new LongAdder();
+        private final List<Failure<T>> failures = new ArrayList<>();
+        private long elapsedNanos;
+        private int failed;
+
+        protected Report(long seed) {
+            this.seed = seed;
+        }
+
+        public long seed() {
+            return seed;
+        }
+
+        public long elapsed(TimeUnit unit) {
+            return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        // One shrunk example per kind of failure
+        public List<Failure<T>> failures() {
+            return Collections.unmodifiableList(failures);
+        }
+
+        protected long executed() {
+            return executed.sum();
+        }
+
+        protected int failed() {
+            return failed;
+        }
+
+        protected double perSecond(long events) {
+            return elapsedNanos == 0 ? 0 : events * 1e9 / elapsedNanos;
+        }
+
+        protected String failuresText() {
+            StringBuilder text = new StringBuilder();
+            for (Failure<T> failure : failures) {
+                text.append("\n").append(failure);
+            }
+            return text.toString();
+        }
+    }
+}
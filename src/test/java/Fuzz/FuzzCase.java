@@ -0,0 +1,91 @@
+package Fuzz;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+
+// One generated request: a JSON tree, or a raw body when the generator deliberately broke the syntax.
+// path may contain {id}, which the target replaces with its fixture booking.
+public class FuzzCase {
+    static final ObjectMapper MAPPER = new ObjectMapper();
+    // As strict as JSON.parse in the real service: trailing content after the value is an error
+    private static final ObjectReader STRICT = MAPPER.reader().with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+
+    private final String method;
+    private final String path;
+    private final JsonNode tree;
+    private final String raw;
+    private String body;
+
+    private FuzzCase(String method, String path, JsonNode tree, String raw) {
+        this.method = method;
+        this.path = path;
+        this.tree = tree;
+        this.raw = raw;
+    }
+
+    public static FuzzCase json(String method, String path, JsonNode tree) {
+        return new FuzzCase(method, path, tree, null);
+    }
+
+    public static FuzzCase raw(String method, String path, String body) {
+        return new FuzzCase(method, path, null, body);
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    // The structured body, or null for a raw one
+    public JsonNode tree() {
+        return tree;
+    }
+
+    public boolean isRaw() {
+        return tree == null;
+    }
+
+    public String body() {
+        if (body == null) {
+            body = tree != null ? tree.toString() : raw;
+        }
+        return body;
+    }
+
+    // The body as a strict JSON parser sees it, or null if it does not parse; raw bodies sometimes still do
+    public JsonNode parsed() {
+        if (tree != null) {
+            return tree;
+        }
+        try {
+            JsonNode node = STRICT.readTree(raw);
+            return node == null || node.isMissingNode() ? null : node;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    FuzzCase withTree(JsonNode replacement) {
+        return new FuzzCase(method, path, replacement, null);
+    }
+
+    FuzzCase withRaw(String replacement) {
+        return new FuzzCase(method, path, null, replacement);
+    }
+
+    @Override
+    public String toString() {
+        String text = body();
+        if (text.length() > 300) {
+            text = text.substring(0, 300) + "... (" + text.length() + " chars)";
+        }
+        return method + " " + path + " " + text;
+    }
+}
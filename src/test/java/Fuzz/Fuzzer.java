@@ -0,0 +1,140 @@
+package Fuzz;
+
+import Client.ApiResponse;
+import Telemetry.LatencyHistogram;
+import Utils.ConfigManager;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Runs generated cases against a target on a worker pool and checks every response against a property.
+// Case i of a run is generated from (seed, i) alone, so any failure can be regenerated with caseAt(i).
+// The first failure of each kind is then shrunk to a minimal reproducer, outside the timed phase.
+// Defaults come from -Dfuzz.cases, -Dfuzz.threads, -Dfuzz.seed, -Dfuzz.seconds and -Dfuzz.shrinkAttempts.
+public class Fuzzer extends Campaign<FuzzCase, Fuzzer.Report, Fuzzer> {
+    private final Target target;
+    private final Generators.Generator generator;
+    private final Properties.Property property;
+
+    public interface Target {
+        ApiResponse send(FuzzCase input) throws Exception;
+    }
+
+    public Fuzzer(Target target, Generators.Generator generator, Properties.Property property) {
+        super("fuzz", "cases", 2000, 60, 2000);
+        this.target = target;
+        this.generator = generator;
+        this.property = property;
+    }
+
+    public Fuzzer cases(int cases) {
+        return count(cases);
+    }
+
+    public FuzzCase caseAt(long index) {
+        return inputAt(index);
+    }
+
+    @Override
+    protected FuzzCase generate(Random random) {
+        return generator.next(random);
+    }
+
+    @Override
+    protected String evaluate(FuzzCase input, Report report) {
+        ApiResponse response;
+        long sent = System.nanoTime();
+        try {
+            response = target.send(input);
+        } catch (Exception e) {
+            return "transport: " + e;
+        }
+        if (report != null) {
+            report.latency.recordNanos(System.nanoTime() - sent);
+            report.statuses.computeIfAbsent(response.getStatusCode(), status -> new LongAdder()).increment();
+        }
+        return property.check(input, response);
+    }
+
+    @Override
+    protected List<FuzzCase> candidates(FuzzCase input) {
+        return Shrinker.candidates(input);
+    }
+
+    @Override
+    protected Report newReport(long seed) {
+        return new Report(seed);
+    }
+
+    // POSTs and PUTs each case to baseUri; {id} in a path becomes bookingId and token goes in the cookie
+    public static Target http(HttpClient client, String baseUri, String token, int bookingId) {
+        Duration timeout = Duration.ofMillis(ConfigManager.getLong("fuzz.timeoutMillis", 5000));
+        return input -> {
+            HttpRequest.Builder request = HttpRequest.newBuilder(
+                            URI.create(baseUri + input.path().replace("{id}", String.valueOf(bookingId))))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .method(input.method(), HttpRequest.BodyPublishers.ofString(input.body(), StandardCharsets.UTF_8));
+            if (token != null) {
+                request.header("Cookie", "token=" + token);
+            }
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            return new ApiResponse(response.statusCode(), response.body(), response.headers().map(),
+                    System.nanoTime() - start);
+        };
+    }
+
+    public static class Report extends Campaign.Report<FuzzCase> {
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        Report(long seed) {
+            super(seed);
+        }
+
+        public long cases() {
+            return executed();
+        }
+
+        public double casesPerSecond() {
+            return perSecond(executed());
+        }
+
+        // Number of cases that failed; failures() holds one shrunk example per kind
+        public int failedCases() {
+            return failed();
+        }
+
+        public Map<Integer, Long> statusCounts() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            return counts;
+        }
+
+        public LatencyHistogram latency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d cases in %.1fs = %.0f cases/s (seed %d), p50 %.2fms p99 %.2fms, statuses %s, %d failed",
+                    cases(), elapsed(TimeUnit.MILLISECONDS) / 1000.0, casesPerSecond(), seed(),
+                    latency.percentileMicros(50) / 1000.0, latency.percentileMicros(99) / 1000.0, statusCounts(),
+                    failedCases()) + failuresText();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package Fuzz;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+// Random /booking and /auth bodies: a valid payload with a few mutations applied (wrong types, unicode and
+// oversized strings, edge-case numbers and dates, missing and extra fields), some of them then broken as text.
+// Everything is drawn from the Random passed in, so a case is reproducible from its seed.
+public class Generators {
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    private static final double MALFORMED = 0.12;
+    private static final double NOT_OBJECT = 0.04;
+
+    private static final String[] NAMES = {"John", "Jane", "Sally", "Mark", "Eric", "Susan", "Jim", "Mary"};
+    private static final String[] SAMPLES = {"José", "Zoë", "Łódź", "Ærøskøbing", "北京", "東京都", "Привет",
+            "مرحبا", "שלום", "नमस्ते", "😀", "👨\u200D👩\u200D👧", "e\u0301", "\u200B", "\u202Eevil", "\uFEFF",
+            "\u0000", "\t\n\r", "\"quoted\"", "back\\slash", "<script>alert(1)</script>", "' OR '1'='1", "%00",
+            "${jndi:ldap://x}", "null", "undefined", "NaN", "-1", " ", "O'Brien", "Smith-Jones", "😀😀"};
+    private static final int[] LENGTHS = {0, 1, 2, 64, 255, 256, 1000, 10000};
+    private static final String[] DATES = {"2024-02-29", "2025-02-30", "2025-13-01", "", "01/02/2025",
+            "2025-01-01T10:00:00Z", "0000-00-00", "9999-12-31", "1970-01-01", "not a date", "2025-1-1"};
+    private static final String[] EXTRA_FIELDS = {"bookingid", "__proto__", "constructor", "$where", "", "id",
+            "firstName", "FIRSTNAME", "token", "extra"};
+    private static final String[] AUTH_VARIANTS = {"admin", "Admin", "ADMIN", " admin", "admin ", "password123",
+            "password123 ", "Password123", "admin\u0000", "adm\u0456n"};
+    private static final String STRUCTURAL = "{}[]:,\"\\";
+
+    public interface Generator {
+        FuzzCase next(Random random);
+    }
+
+    private Generators() {
+    }
+
+    public static Generator booking() {
+        return random -> bookingCase(random, "POST", "/booking");
+    }
+
+    // PUT bodies for the target's fixture booking
+    public static Generator bookingUpdate() {
+        return random -> bookingCase(random, "PUT", "/booking/{id}");
+    }
+
+    public static Generator auth() {
+        return random -> {
+            ObjectNode body = NODES.objectNode();
+            body.put("username", "admin");
+            body.put("password", "password123");
+            if (random.nextDouble() >= 0.3) {
+                for (int i = 0, n = 1 + random.nextInt(3); i < n; i++) {
+                    mutateAuth(random, body);
+                }
+            }
+            return finish(random, "POST", "/auth", body);
+        };
+    }
+
+    private static FuzzCase bookingCase(Random random, String method, String path) {
+        ObjectNode body = NODES.objectNode();
+        body.put("firstname", name(random));
+        body.put("lastname", name(random));
+        body.put("totalprice", random.nextInt(1000));
+        body.put("depositpaid", random.nextBoolean());
+        ObjectNode dates = body.putObject("bookingdates");
+        dates.put("checkin", "2025-01-0" + (1 + random.nextInt(4)));
+        dates.put("checkout", "2025-01-0" + (5 + random.nextInt(5)));
+        if (random.nextBoolean()) {
+            body.put("additionalneeds", random.nextBoolean() ? "Breakfast" : string(random));
+        }
+        for (int i = 0, n = random.nextInt(4); i < n; i++) {
+            mutateBooking(random, body);
+        }
+        return finish(random, method, path, body);
+    }
+
+    private static void mutateBooking(Random random, ObjectNode body) {
+        switch (random.nextInt(6)) {
+            case 0:
+                removeField(random, random.nextInt(4) == 0 && body.get("bookingdates") instanceof ObjectNode
+                        ? (ObjectNode) body.get("bookingdates") : body);
+                break;
+            case 1:
+                body.set(extraFieldName(random), value(random, 0));
+                break;
+            case 2:
+                replaceField(random, body, value(random, 0));
+                break;
+            case 3:
+                replaceField(random, body, NODES.textNode(string(random)));
+                break;
+            case 4:
+                body.set("totalprice", number(random));
+                break;
+            default:
+                JsonNode dates = body.get("bookingdates");
+                if (dates instanceof ObjectNode) {
+                    ((ObjectNode) dates).put(random.nextBoolean() ? "checkin" : "checkout",
+                            DATES[random.nextInt(DATES.length)]);
+                }
+        }
+    }
+
+    private static void mutateAuth(Random random, ObjectNode body) {
+        String field = random.nextBoolean() ? "username" : "password";
+        switch (random.nextInt(5)) {
+            case 0:
+                body.remove(field);
+                break;
+            case 1:
+                body.set(extraFieldName(random), value(random, 0));
+                break;
+            case 2:
+                body.set(field, value(random, 0));
+                break;
+            case 3:
+                body.put(field, string(random));
+                break;
+            default:
+                body.put(field, AUTH_VARIANTS[random.nextInt(AUTH_VARIANTS.length)]);
+        }
+    }
+
+    // Occasionally swaps the object for another top-level value or breaks its syntax
+    private static FuzzCase finish(Random random, String method, String path, ObjectNode body) {
+        double roll = random.nextDouble();
+        if (roll < NOT_OBJECT) {
+            JsonNode other = random.nextBoolean() ? NODES.arrayNode().add(body) : scalar(random);
+            return FuzzCase.json(method, path, other);
+        }
+        if (roll < NOT_OBJECT + MALFORMED) {
+            return FuzzCase.raw(method, path, malformed(random, body.toString()));
+        }
+        return FuzzCase.json(method, path, body);
+    }
+
+    static String malformed(Random random, String json) {
+        // Cut at code point boundaries; half a surrogate pair would not survive the trip to UTF-8
+        int at = json.offsetByCodePoints(0, 1 + random.nextInt(json.codePointCount(0, json.length()) - 1));
+        switch (random.nextInt(9)) {
+            case 0:
+                return json.substring(0, at);
+            case 1:
+                return json.substring(0, at) + json.substring(json.offsetByCodePoints(at, 1));
+            case 2:
+                char inserted = STRUCTURAL.charAt(random.nextInt(STRUCTURAL.length()));
+                return json.substring(0, at) + inserted + json.substring(at);
+            case 3:
+                return json.substring(0, json.length() - 1) + ",}";
+            case 4:
+                return json.replace('"', '\'');
+            case 5:
+                return json.replaceFirst("\"(\\w+)\":", "$1:");
+            case 6:
+                return json + (random.nextBoolean() ? "}" : " x");
+            case 7:
+                return "/* comment */" + json;
+            default:
+                String nan = json.replaceFirst("(\"totalprice\":)[^,}]*", "$1NaN");
+                return nan.equals(json) ? json.substring(0, at) : nan;
+        }
+    }
+
+    private static void removeField(Random random, ObjectNode object) {
+        List<String> names = fieldNames(object);
+        if (!names.isEmpty()) {
+            object.remove(names.get(random.nextInt(names.size())));
+        }
+    }
+
+    private static void replaceField(Random random, ObjectNode object, JsonNode value) {
+        List<String> names = fieldNames(object);
+        if (!names.isEmpty()) {
+            object.set(names.get(random.nextInt(names.size())), value);
+        }
+    }
+
+    private static List<String> fieldNames(ObjectNode object) {
+        List<String> names = new ArrayList<>();
+        for (Iterator<String> it = object.fieldNames(); it.hasNext(); ) {
+            names.add(it.next());
+        }
+        return names;
+    }
+
+    private static String extraFieldName(Random random) {
+        return random.nextBoolean() ? EXTRA_FIELDS[random.nextInt(EXTRA_FIELDS.length)] : string(random);
+    }
+
+    private static String name(Random random) {
+        return random.nextInt(10) < 7 ? NAMES[random.nextInt(NAMES.length)] : string(random);
+    }
+
+    static String string(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return SAMPLES[random.nextInt(SAMPLES.length)];
+            case 1:
+                String unit = random.nextBoolean() ? "a" : SAMPLES[random.nextInt(SAMPLES.length)];
+                int length = LENGTHS[random.nextInt(LENGTHS.length)];
+                StringBuilder repeated = new StringBuilder(length + unit.length());
+                while (repeated.length() < length) {
+                    repeated.append(unit);
+                }
+                return repeated.toString();
+            default:
+                StringBuilder text = new StringBuilder();
+                for (int i = 0, n = random.nextInt(32); i < n; i++) {
+                    text.appendCodePoint(codePoint(random));
+                }
+                return text.toString();
+        }
+    }
+
+    // Mostly printable, with control characters, BMP scripts and astral planes mixed in; never a lone surrogate
+    private static int codePoint(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return random.nextInt(0x20);
+            case 1:
+                return 0x20 + random.nextInt(0x5F);
+            case 2:
+                int bmp = 0xA0 + random.nextInt(0xFFFE - 0xA0);
+                return bmp >= 0xD800 && bmp <= 0xDFFF ? 0xFFFD : bmp;
+            default:
+                return 0x10000 + random.nextInt(0x10FFFF - 0x10000);
+        }
+    }
+
+    private static JsonNode number(Random random) {
+        switch (random.nextInt(12)) {
+            case 0:
+                return NODES.numberNode(0);
+            case 1:
+                return NODES.numberNode(-1);
+            case 2:
+                return NODES.numberNode(Integer.MAX_VALUE);
+            case 3:
+                return NODES.numberNode(Integer.MIN_VALUE);
+            case 4:
+                return NODES.numberNode(Long.MAX_VALUE);
+            case 5:
+                return NODES.numberNode(0.1);
+            case 6:
+                return NODES.numberNode(99.999);
+            case 7:
+                return NODES.numberNode(1e308);
+            case 8:
+                return NODES.numberNode(4.9e-324);
+            case 9:
+                return NODES.numberNode(BigInteger.ONE.shiftLeft(70));
+            case 10:
+                return NODES.numberNode(new BigDecimal("12345678901234567890.123"));
+            default:
+                return NODES.numberNode(-random.nextInt(100000));
+        }
+    }
+
+    private static JsonNode scalar(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return NODES.nullNode();
+            case 1:
+                return NODES.booleanNode(random.nextBoolean());
+            case 2:
+                return number(random);
+            default:
+                return NODES.textNode(string(random));
+        }
+    }
+
+    private static JsonNode value(Random random, int depth) {
+        int kind = random.nextInt(depth < 2 ? 6 : 4);
+        if (kind < 4) {
+            return scalar(random);
+        }
+        if (kind == 4) {
+            ArrayNode array = NODES.arrayNode();
+            for (int i = 0, n = random.nextInt(4); i < n; i++) {
+                array.add(value(random, depth + 1));
+            }
+            return array;
+        }
+        ObjectNode object = NODES.objectNode();
+        for (int i = 0, n = random.nextInt(4); i < n; i++) {
+            object.set(extraFieldName(random), value(random, depth + 1));
+        }
+        return object;
+    }
+}
@@ -0,0 +1,167 @@
+package Fuzz;
+
+import Client.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+// What a correct service does with a fuzzed body. A check returns null when the response is acceptable and
+// "kind: detail" otherwise; shrinking only keeps candidates that fail with the same kind. Shapes the real
+// service and the local stub treat differently (wrong types, odd dates) are only required to get an answer.
+public class Properties {
+    private static final String[] REQUIRED = {"firstname", "lastname", "totalprice", "depositpaid", "bookingdates"};
+
+    public interface Property {
+        String check(FuzzCase input, ApiResponse response);
+    }
+
+    public enum Shape {
+        MALFORMED, NOT_OBJECT, MISSING_REQUIRED, WRONG_TYPES, VALID
+    }
+
+    private Properties() {
+    }
+
+    public static Shape bookingShape(FuzzCase input) {
+        JsonNode body = input.parsed();
+        if (body == null) {
+            return Shape.MALFORMED;
+        }
+        if (!body.isObject()) {
+            return Shape.NOT_OBJECT;
+        }
+        for (String field : REQUIRED) {
+            if (!body.hasNonNull(field)) {
+                return Shape.MISSING_REQUIRED;
+            }
+        }
+        JsonNode dates = body.get("bookingdates");
+        boolean typed = body.get("firstname").isTextual() && body.get("lastname").isTextual()
+                && body.get("totalprice").isNumber() && body.get("depositpaid").isBoolean()
+                && dates.isObject() && dates.path("checkin").isTextual() && dates.path("checkout").isTextual()
+                && (!body.has("additionalneeds") || body.get("additionalneeds").isTextual());
+        return typed ? Shape.VALID : Shape.WRONG_TYPES;
+    }
+
+    // POST /booking: broken JSON is a 400, a missing required field is rejected, a well-typed booking is created
+    // and echoed back as sent
+    public static Property bookingCreate() {
+        return (input, response) -> {
+            Shape shape = bookingShape(input);
+            int status = response.getStatusCode();
+            switch (shape) {
+                case MALFORMED:
+                    return status == 400 ? null : unexpected(shape, "400", status);
+                case NOT_OBJECT:
+                case MISSING_REQUIRED:
+                    return status >= 400 ? null : unexpected(shape, "an error", status);
+                case VALID:
+                    if (status != 200) {
+                        return unexpected(shape, "200", status);
+                    }
+                    JsonNode created = json(response);
+                    if (created == null || !created.path("bookingid").canConvertToInt()) {
+                        return "echo: no bookingid in " + abbreviate(response.getBody());
+                    }
+                    return echoMismatch(input.parsed(), created.get("booking"));
+                default:
+                    return null;
+            }
+        };
+    }
+
+    // PUT /booking/{id}: broken JSON is a 400 and a well-typed booking replaces the stored one and is echoed back
+    public static Property bookingUpdate() {
+        return (input, response) -> {
+            Shape shape = bookingShape(input);
+            int status = response.getStatusCode();
+            if (shape == Shape.MALFORMED) {
+                return status == 400 ? null : unexpected(shape, "400", status);
+            }
+            if (shape != Shape.VALID) {
+                return null;
+            }
+            return status == 200 ? echoMismatch(input.parsed(), json(response)) : unexpected(shape, "200", status);
+        };
+    }
+
+    // POST /auth: broken JSON is a 400, the exact admin credentials get a token, nothing else ever does and
+    // nothing makes the service fail
+    public static Property auth() {
+        return (input, response) -> {
+            JsonNode body = input.parsed();
+            int status = response.getStatusCode();
+            if (body == null) {
+                return status == 400 ? null : unexpected(Shape.MALFORMED, "400", status);
+            }
+            JsonNode reply = json(response);
+            boolean token = reply != null && reply.path("token").isTextual() && !reply.get("token").asText().isEmpty();
+            if (isAdmin(body)) {
+                return status == 200 && token ? null : "status ADMIN: valid credentials got " + status + " "
+                        + abbreviate(response.getBody());
+            }
+            if (token) {
+                return "token-leak: token issued for " + abbreviate(body.toString());
+            }
+            return status < 500 ? null : unexpected(body.isObject() ? Shape.WRONG_TYPES : Shape.NOT_OBJECT,
+                    "no server error", status);
+        };
+    }
+
+    private static boolean isAdmin(JsonNode body) {
+        return body.isObject() && body.path("username").isTextual() && body.path("password").isTextual()
+                && body.get("username").asText().equals("admin") && body.get("password").asText().equals("password123");
+    }
+
+    private static String echoMismatch(JsonNode sent, JsonNode stored) {
+        if (stored == null || !stored.isObject()) {
+            return "echo: response has no booking";
+        }
+        for (String field : new String[]{"firstname", "lastname", "additionalneeds"}) {
+            if (sent.has(field) && !sent.get(field).asText().equals(stored.path(field).asText())) {
+                return "echo: " + field + " came back as " + abbreviate(stored.path(field).toString());
+            }
+        }
+        if (sent.get("totalprice").asDouble() != stored.path("totalprice").asDouble()) {
+            return "echo: totalprice " + sent.get("totalprice") + " came back as " + stored.path("totalprice");
+        }
+        if (sent.get("depositpaid").asBoolean() != stored.path("depositpaid").asBoolean()) {
+            return "echo: depositpaid came back as " + stored.path("depositpaid");
+        }
+        for (String field : new String[]{"checkin", "checkout"}) {
+            // The real service parses dates, so only calendar dates are expected to survive unchanged
+            String date = sent.get("bookingdates").get(field).asText();
+            if (isDate(date) && !date.equals(stored.path("bookingdates").path(field).asText())) {
+                return "echo: " + field + " " + date + " came back as " + stored.path("bookingdates").path(field);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDate(String text) {
+        try {
+            LocalDate.parse(text);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static JsonNode json(ApiResponse response) {
+        try {
+            return response.json();
+        } catch (UncheckedIOException e) {
+            return null;
+        }
+    }
+
+    private static String unexpected(Shape shape, String expected, int status) {
+        return "status " + shape + ": expected " + expected + ", got " + status;
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() > 120 ? text.substring(0, 120) + "..." : text;
+    }
+}
@@ -0,0 +1,154 @@
+package Fuzz;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+// Smaller variants of a failing input, most aggressive first. Structured bodies lose fields and elements and have
+// strings cut, numbers zeroed or halved; raw bodies lose chunks of text, delta-debugging style; sequences lose one
+// element at a time. Campaign takes the first variant that still fails the same way and asks again until none does.
+public class Shrinker {
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    private static final int CHARACTER_LIMIT = 32;
+
+    private Shrinker() {
+    }
+
+    static List<FuzzCase> candidates(FuzzCase input) {
+        List<FuzzCase> candidates = new ArrayList<>();
+        if (input.isRaw()) {
+            for (String text : smallerTexts(input.body())) {
+                candidates.add(input.withRaw(text));
+            }
+        } else {
+            for (JsonNode tree : smallerValues(input.tree())) {
+                candidates.add(input.withTree(tree));
+            }
+        }
+        // Only strictly shorter bodies, so shrinking always terminates
+        candidates.removeIf(candidate -> candidate.body().length() >= input.body().length());
+        return candidates;
+    }
+
+    // Copies of items with one element taken out, last element first; the first keep elements always stay
+    public static <T> List<List<T>> withoutOne(List<T> items, int keep) {
+        List<List<T>> smaller = new ArrayList<>();
+        for (int remove = items.size() - 1; remove >= keep; remove--) {
+            List<T> candidate = new ArrayList<>(items);
+            candidate.remove(remove);
+            smaller.add(candidate);
+        }
+        return smaller;
+    }
+
+    private static List<JsonNode> smallerValues(JsonNode node) {
+        List<JsonNode> smaller = new ArrayList<>();
+        if (node.isObject()) {
+            List<String> names = new ArrayList<>();
+            node.fieldNames().forEachRemaining(names::add);
+            for (String name : names) {
+                ObjectNode without = ((ObjectNode) node).deepCopy();
+                without.remove(name);
+                smaller.add(without);
+            }
+            for (String name : names) {
+                for (JsonNode value : smallerValues(node.get(name))) {
+                    ObjectNode replaced = ((ObjectNode) node).deepCopy();
+                    replaced.set(name, value);
+                    smaller.add(replaced);
+                }
+            }
+        } else if (node.isArray()) {
+            if (node.size() > 0) {
+                smaller.add(NODES.arrayNode());
+            }
+            for (int i = 0; i < node.size(); i++) {
+                ArrayNode without = ((ArrayNode) node).deepCopy();
+                without.remove(i);
+                smaller.add(without);
+            }
+            for (int i = 0; i < node.size(); i++) {
+                for (JsonNode value : smallerValues(node.get(i))) {
+                    ArrayNode replaced = ((ArrayNode) node).deepCopy();
+                    replaced.set(i, value);
+                    smaller.add(replaced);
+                }
+            }
+        } else if (node.isTextual()) {
+            for (String text : smallerTexts(node.asText())) {
+                smaller.add(NODES.textNode(text));
+            }
+        } else if (node.isNumber()) {
+            smaller.addAll(smallerNumbers(node));
+        }
+        return smaller;
+    }
+
+    // Empty, then prefixes that converge on the shortest failing length, then short strings lose one character
+    private static List<String> smallerTexts(String text) {
+        List<String> smaller = new ArrayList<>();
+        int length = text.length();
+        if (length == 0) {
+            return smaller;
+        }
+        smaller.add("");
+        for (int cut = length / 2; cut >= 1; cut /= 2) {
+            smaller.add(text.substring(0, length - cut));
+            if (cut < length) {
+                smaller.add(text.substring(cut));
+            }
+        }
+        smaller.add(text.substring(0, text.offsetByCodePoints(length, -1)));
+        smaller.add(text.substring(text.offsetByCodePoints(0, 1)));
+        if (length <= CHARACTER_LIMIT) {
+            for (int i = 0; i < length; i++) {
+                smaller.add(text.substring(0, i) + text.substring(i + 1));
+            }
+        } else {
+            // Long raw bodies: drop one chunk from the middle at a time
+            for (int chunk = length / 4; chunk >= 1 && chunk * 2 >= length / CHARACTER_LIMIT; chunk /= 2) {
+                for (int start = chunk; start + chunk < length; start += chunk) {
+                    smaller.add(text.substring(0, start) + text.substring(start + chunk));
+                }
+            }
+        }
+        // Cuts must not split a surrogate pair, or the body would no longer be what was generated
+        smaller.removeIf(candidate -> !wellFormed(candidate));
+        return smaller;
+    }
+
+    private static List<JsonNode> smallerNumbers(JsonNode number) {
+        List<JsonNode> smaller = new ArrayList<>();
+        if (number.isIntegralNumber()) {
+            BigInteger value = number.bigIntegerValue();
+            if (value.signum() != 0) {
+                smaller.add(NODES.numberNode(0));
+                smaller.add(NODES.numberNode(value.shiftRight(1)));
+                if (value.signum() < 0) {
+                    smaller.add(NODES.numberNode(value.negate()));
+                }
+            }
+        } else {
+            smaller.add(NODES.numberNode(0));
+            smaller.add(NODES.numberNode(number.bigIntegerValue()));
+        }
+        return smaller;
+    }
+
+    private static boolean wellFormed(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
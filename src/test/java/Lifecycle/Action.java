@@ -0,0 +1,7 @@
+package Lifecycle;
+
+// The operations a booking goes through. Every one but CREATE may follow any other, before or after DELETE;
+// what the model expects from them depends on whether the booking still exists.
+public enum Action {
+    CREATE, GET, SEARCH, PUT, PATCH, DELETE
+}
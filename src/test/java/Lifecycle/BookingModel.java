@@ -0,0 +1,191 @@
+package Lifecycle;
+
+import Client.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+
+// The in-memory reference for one booking: what the service should hold, and whether it still exists.
+// check() compares a response against it and returns null when the response is right, otherwise
+// "kind: detail", as Fuzz.Properties does; apply() then moves the model on as the service should have.
+public class BookingModel {
+    private final String firstname;
+    private ObjectNode expected;
+    private int id = -1;
+    private boolean live;
+
+    public BookingModel(String firstname) {
+        this.firstname = firstname;
+    }
+
+    public String firstname() {
+        return firstname;
+    }
+
+    // -1 until created
+    public int id() {
+        return id;
+    }
+
+    public boolean isLive() {
+        return live;
+    }
+
+    // The body a step sends, with this booking's firstname filled in where a full booking is sent
+    public ObjectNode request(Step step) {
+        ObjectNode body = step.body().deepCopy();
+        if (step.action() != Action.PATCH) {
+            body.put("firstname", firstname);
+        }
+        return body;
+    }
+
+    public String check(Step step, ObjectNode sent, ApiResponse response) {
+        int status = response.getStatusCode();
+        switch (step.action()) {
+            case CREATE:
+                if (status != 200) {
+                    return unexpected("200", response);
+                }
+                JsonNode created = json(response);
+                if (created == null || !created.path("bookingid").canConvertToInt()) {
+                    return "body: no bookingid in " + abbreviate(response.getBody());
+                }
+                return differs(sent, created.get("booking"));
+            case GET:
+                if (!live) {
+                    return status == 404 ? null : unexpected("404 after delete", response);
+                }
+                return status != 200 ? unexpected("200", response) : differs(expected, json(response));
+            case SEARCH:
+                if (status != 200) {
+                    return unexpected("200", response);
+                }
+                return searchResult(step.lastname(), json(response));
+            case PUT:
+            case PATCH:
+                if (!live) {
+                    return status >= 400 ? null : unexpected("an error after delete", response);
+                }
+                if (status != 200) {
+                    return unexpected("200", response);
+                }
+                return differs(step.action() == Action.PUT ? sent : merged(sent), json(response));
+            case DELETE:
+                if (!live) {
+                    // restful-booker answers 405; any client error means the delete was refused
+                    return status >= 400 && status < 500 ? null : unexpected("a 4xx after delete", response);
+                }
+                return status == 201 ? null : unexpected("201", response);
+            default:
+                return null;
+        }
+    }
+
+    public void apply(Step step, ObjectNode sent, ApiResponse response) {
+        switch (step.action()) {
+            case CREATE:
+                id = response.json().get("bookingid").asInt();
+                expected = sent;
+                live = true;
+                break;
+            case PUT:
+                if (live) {
+                    expected = sent;
+                }
+                break;
+            case PATCH:
+                if (live) {
+                    expected = merged(sent);
+                }
+                break;
+            case DELETE:
+                live = false;
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Only this booking has this firstname, so a search returns it alone or not at all
+    private String searchResult(String lastname, JsonNode found) {
+        if (found == null || !found.isArray()) {
+            return "body: search did not return a list";
+        }
+        boolean contains = false;
+        for (JsonNode entry : found) {
+            if (entry.path("bookingid").asInt() == id) {
+                contains = true;
+            } else {
+                return "search: returned booking " + entry.path("bookingid") + " that has another firstname";
+            }
+        }
+        boolean matches = live && (lastname == null || lastname.equals(expected.path("lastname").asText()));
+        if (matches && !contains) {
+            return "search: booking " + id + " missing from " + (lastname == null ? "firstname" : "name") + " search";
+        }
+        if (!matches && contains) {
+            return "search: booking " + id + (live ? " returned for lastname " + lastname : " returned after delete");
+        }
+        return null;
+    }
+
+    private ObjectNode merged(ObjectNode patch) {
+        ObjectNode merged = expected.deepCopy();
+        merged.setAll(patch);
+        return merged;
+    }
+
+    private static String differs(JsonNode expected, JsonNode actual) {
+        if (actual == null) {
+            return "body: not JSON";
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> fields = expected.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String mismatch = differs(field.getKey(), field.getValue(), actual.get(field.getKey()));
+            if (mismatch != null) {
+                return mismatch;
+            }
+        }
+        return null;
+    }
+
+    private static String differs(String path, JsonNode expected, JsonNode actual) {
+        if (actual == null) {
+            return "field: " + path + " missing";
+        }
+        if (expected.isObject()) {
+            for (Iterator<Map.Entry<String, JsonNode>> fields = expected.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String mismatch = differs(path + "." + field.getKey(), field.getValue(), actual.get(field.getKey()));
+                if (mismatch != null) {
+                    return mismatch;
+                }
+            }
+            return null;
+        }
+        boolean same = expected.isNumber() && actual.isNumber()
+                ? expected.decimalValue().compareTo(actual.decimalValue()) == 0 : expected.equals(actual);
+        return same ? null : "field: " + path + " expected " + expected + " but was " + actual;
+    }
+
+    private static String unexpected(String expected, ApiResponse response) {
+        return "status: expected " + expected + ", got " + response.getStatusCode() + " "
+                + abbreviate(response.getBody());
+    }
+
+    private static JsonNode json(ApiResponse response) {
+        try {
+            return response.json();
+        } catch (UncheckedIOException e) {
+            return null;
+        }
+    }
+
+    private static String abbreviate(String body) {
+        return body.length() > 120 ? body.substring(0, 120) + "..." : body;
+    }
+}
@@ -0,0 +1,258 @@
+package Lifecycle;
+
+import Client.ApiResponse;
+import Client.BookingClient;
+import Fuzz.Campaign;
+import Fuzz.Shrinker;
+import Telemetry.LatencyHistogram;
+import Utils.ConfigManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Model-based testing of the booking lifecycle. Each booking follows a random walk that starts with CREATE and
+// then picks among GET, SEARCH, PUT, PATCH and DELETE, carrying on after DELETE so reads and writes of a deleted
+// booking, a second DELETE included, are covered too. A worker pool runs one walk per booking and checks every
+// response against a BookingModel of that booking. A walk stops at its first wrong response.
+// Runs, seeding and shrinking are Fuzz.Campaign's: walk i is generated from (seed, i) alone, so sequenceAt(i)
+// regenerates it, and the first failing walk of each kind is shrunk by replaying it against fresh bookings with
+// steps taken out, until no single step can be removed without the failure going away.
+// Searches are expected to see writes at once; a service with an indexing lag fails them (see VisibilityProbe).
+// Defaults come from -Dlifecycle.bookings, -Dlifecycle.threads, -Dlifecycle.seed, -Dlifecycle.maxSteps,
+// -Dlifecycle.seconds and -Dlifecycle.shrinkAttempts.
+public class LifecycleEngine extends Campaign<List<Step>, LifecycleEngine.Report, LifecycleEngine> {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] LASTNAMES = {"Brown", "Jones", "Smith", "Wilson", "Ericsson"};
+    private static final String[] NEEDS = {"Breakfast", "Lunch", "Late checkout", ""};
+    private static final String[] PATCHABLE = {"lastname", "totalprice", "depositpaid", "bookingdates",
+            "additionalneeds"};
+
+    private final BookingClient client;
+    private final String token;
+    private final String runName = "Lc" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+    private final AtomicLong runs = new AtomicLong();
+    private int maxSteps = ConfigManager.getInt("lifecycle.maxSteps", 12);
+
+    public LifecycleEngine(BookingClient client, String token) {
+        super("lifecycle", "bookings", 2000, 120, 200);
+        this.client = client;
+        this.token = token;
+    }
+
+    // Number of walks, one booking each
+    public LifecycleEngine bookings(int bookings) {
+        return count(bookings);
+    }
+
+    // Longest walk, CREATE included
+    public LifecycleEngine maxSteps(int maxSteps) {
+        this.maxSteps = maxSteps;
+        return this;
+    }
+
+    public List<Step> sequenceAt(long index) {
+        return inputAt(index);
+    }
+
+    @Override
+    protected List<Step> generate(Random random) {
+        int length = 2 + random.nextInt(Math.max(1, maxSteps - 1));
+        List<Step> steps = new ArrayList<>(length);
+        ObjectNode booking = booking(random);
+        steps.add(Step.write(Action.CREATE, booking));
+        String lastname = booking.get("lastname").asText();
+        boolean live = true;
+        while (steps.size() < length) {
+            int roll = random.nextInt(10);
+            Step step;
+            if (roll < 3) {
+                step = Step.of(Action.GET);
+            } else if (roll < 5) {
+                // Mostly the current lastname, which should match while the booking exists
+                step = Step.search(random.nextInt(3) == 0 ? null
+                        : random.nextInt(3) == 0 ? LASTNAMES[random.nextInt(LASTNAMES.length)] : lastname);
+            } else if (roll < 6) {
+                step = Step.write(Action.PUT, booking(random));
+            } else if (roll < 8) {
+                step = Step.write(Action.PATCH, patch(random));
+            } else {
+                step = Step.of(Action.DELETE);
+            }
+            if (live && step.body() != null && step.body().has("lastname")) {
+                lastname = step.body().get("lastname").asText();
+            }
+            live &= step.action() != Action.DELETE;
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    // Runs a walk on a booking of its own until the first wrong response, which comes back as "ACTION kind: detail";
+    // a booking still live at the end is deleted without being checked
+    @Override
+    protected String evaluate(List<Step> steps, Report report) {
+        BookingModel model = new BookingModel(runName + "-" + runs.incrementAndGet());
+        try {
+            for (Step step : steps) {
+                ObjectNode sent = step.body() == null ? null : model.request(step);
+                long start = System.nanoTime();
+                ApiResponse response;
+                try {
+                    response = send(step, sent, model);
+                } catch (RuntimeException e) {
+                    return step.action() + " transport: " + e;
+                }
+                if (report != null) {
+                    report.record(step.action(), System.nanoTime() - start);
+                }
+                String failure = model.check(step, sent, response);
+                if (failure != null) {
+                    return step.action() + " " + failure;
+                }
+                model.apply(step, sent, response);
+            }
+            return null;
+        } finally {
+            if (model.isLive()) {
+                try {
+                    client.deleteBooking(model.id(), token);
+                } catch (RuntimeException e) {
+                    // cleanup only
+                }
+            }
+        }
+    }
+
+    // CREATE stays; any later step may go
+    @Override
+    protected List<List<Step>> candidates(List<Step> steps) {
+        return Shrinker.withoutOne(steps, 1);
+    }
+
+    @Override
+    protected Report newReport(long seed) {
+        return new Report(seed);
+    }
+
+    @Override
+    protected String describe(List<Step> minimal) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < minimal.size(); i++) {
+            text.append("\n    ").append(i + 1).append(". ").append(minimal.get(i));
+        }
+        return text.toString();
+    }
+
+    private ApiResponse send(Step step, ObjectNode sent, BookingModel model) {
+        switch (step.action()) {
+            case CREATE:
+                return client.createBooking(sent.toString());
+            case GET:
+                return client.getBooking(model.id());
+            case SEARCH:
+                Map<String, String> query = new TreeMap<>();
+                query.put("firstname", model.firstname());
+                if (step.lastname() != null) {
+                    query.put("lastname", step.lastname());
+                }
+                return client.searchBookings(query);
+            case PUT:
+                return client.updateBooking(model.id(), sent.toString(), token);
+            case PATCH:
+                return client.partialUpdateBooking(model.id(), sent.toString(), token);
+            case DELETE:
+                return client.deleteBooking(model.id(), token);
+            default:
+                throw new IllegalArgumentException("Unknown action " + step.action());
+        }
+    }
+
+    private static ObjectNode booking(Random random) {
+        LocalDate checkin = LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365));
+        ObjectNode booking = MAPPER.createObjectNode();
+        booking.put("lastname", LASTNAMES[random.nextInt(LASTNAMES.length)]);
+        booking.put("totalprice", 1 + random.nextInt(2000));
+        booking.put("depositpaid", random.nextBoolean());
+        ObjectNode dates = booking.putObject("bookingdates");
+        dates.put("checkin", checkin.toString());
+        dates.put("checkout", checkin.plusDays(1 + random.nextInt(14)).toString());
+        if (random.nextBoolean()) {
+            booking.put("additionalneeds", NEEDS[random.nextInt(NEEDS.length)]);
+        }
+        return booking;
+    }
+
+    // One to three fields of a fresh booking
+    private static ObjectNode patch(Random random) {
+        ObjectNode source = booking(random);
+        source.put("additionalneeds", NEEDS[random.nextInt(NEEDS.length)]);
+        ObjectNode patch = MAPPER.createObjectNode();
+        for (int fields = 1 + random.nextInt(3); patch.size() < fields; ) {
+            String field = PATCHABLE[random.nextInt(PATCHABLE.length)];
+            patch.set(field, source.get(field));
+        }
+        return patch;
+    }
+
+    public static class Report extends Campaign.Report<List<Step>> {
+        private final Map<Action, LatencyHistogram> latency = new EnumMap<>(Action.class);
+
+        Report(long seed) {
+            super(seed);
+            for (Action action : Action.values()) {
+                latency.put(action, new LatencyHistogram());
+            }
+        }
+
+        private void record(Action action, long nanos) {
+            latency.get(action).recordNanos(nanos);
+        }
+
+        public long sequences() {
+            return executed();
+        }
+
+        public long actions() {
+            return latency.values().stream().mapToLong(LatencyHistogram::count).sum();
+        }
+
+        public long actions(Action action) {
+            return latency.get(action).count();
+        }
+
+        public double actionsPerSecond() {
+            return perSecond(actions());
+        }
+
+        // Number of walks that failed; failures() holds one shrunk example per kind
+        public int failedSequences() {
+            return failed();
+        }
+
+        public LatencyHistogram latency(Action action) {
+            return latency.get(action);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format(
+                    "%d walks, %d actions in %.1fs = %.0f actions/s (seed %d), %d failed",
+                    sequences(), actions(), elapsed(TimeUnit.MILLISECONDS) / 1000.0, actionsPerSecond(), seed(),
+                    failedSequences()));
+            latency.forEach((action, histogram) -> text.append(String.format("%n  %-6s %6d  p50 %.2fms p99 %.2fms",
+                    action, histogram.count(), histogram.percentileMicros(50) / 1000.0,
+                    histogram.percentileMicros(99) / 1000.0)));
+            return text.append(failuresText()).toString();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package Lifecycle;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+// One action of a generated sequence with the data it sends. Bodies never carry firstname: each run of a
+// sequence gets a firstname of its own, so searches only ever match that run's booking.
+public class Step {
+    private final Action action;
+    private final ObjectNode body;
+    private final String lastname;
+
+    private Step(Action action, ObjectNode body, String lastname) {
+        this.action = action;
+        this.body = body;
+        this.lastname = lastname;
+    }
+
+    // CREATE, PUT and PATCH send a body; PATCH only the fields it changes
+    public static Step write(Action action, ObjectNode body) {
+        return new Step(action, body, null);
+    }
+
+    // A search by firstname, and lastname too when not null
+    public static Step search(String lastname) {
+        return new Step(Action.SEARCH, null, lastname);
+    }
+
+    public static Step of(Action action) {
+        return new Step(action, null, null);
+    }
+
+    public Action action() {
+        return action;
+    }
+
+    public ObjectNode body() {
+        return body;
+    }
+
+    public String lastname() {
+        return lastname;
+    }
+
+    @Override
+    public String toString() {
+        if (body != null) {
+            return action + " " + body;
+        }
+        return lastname != null ? action + " lastname=" + lastname : action.toString();
+    }
+}
@@ -0,0 +1,280 @@
+package Load;
+
+import Telemetry.LatencyHistogram;
+import Utils.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Drives a load run across several worker JVMs (see LoadWorker), local processes or other hosts pointed at
+// this coordinator's port. Each worker gets the same LoadJob with an equal share of the rate. Their stats
+// snapshots are merged into a cluster-wide live line every report interval and into the final Report.
+// Usage: java Load.LoadCoordinator with -Dload.workers=N (default 2), -Dload.port (default 0 = any) and
+// -Dload.localWorkers=true to start the workers as local processes; remote ones run
+// java Load.LoadWorker <coordinatorHost> <port>. See LoadJob.configured() for the rate and scenario settings.
+public class LoadCoordinator implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(LoadCoordinator.class);
+
+    private final ServerSocket server;
+    private final List<Process> processes = new ArrayList<>();
+    private final long connectTimeoutMillis =
+            TimeUnit.SECONDS.toMillis(ConfigManager.getLong("load.connectTimeoutSeconds", 60));
+
+    public LoadCoordinator(int port) throws IOException {
+        server = new ServerSocket();
+        server.bind(new InetSocketAddress(ConfigManager.get("load.bind", "0.0.0.0"), port));
+    }
+
+    public static void main(String[] args) throws Exception {
+        int workers = ConfigManager.getInt("load.workers", 2);
+        try (LoadCoordinator coordinator = new LoadCoordinator(ConfigManager.getInt("load.port", 0))) {
+            if (ConfigManager.getBoolean("load.localWorkers", false)) {
+                coordinator.startLocalWorkers(workers);
+            } else {
+                System.out.println("Waiting for " + workers + " workers: java Load.LoadWorker <thisHost> "
+                        + coordinator.port());
+            }
+            System.out.println(coordinator.run(LoadJob.configured(), workers));
+        }
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    // Same JVM and classpath as this one; output goes to target/load/worker-<n>.log
+    public void startLocalWorkers(int count) throws IOException {
+        Path logs = Paths.get("target/load");
+        Files.createDirectories(logs);
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        for (int i = 0; i < count; i++) {
+            File log = logs.resolve("worker-" + (processes.size() + 1) + ".log").toFile();
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    LoadWorker.class.getName(), "127.0.0.1", String.valueOf(port()))
+                    .redirectErrorStream(true)
+                    .redirectOutput(log)
+                    .start());
+        }
+    }
+
+    public Report run(LoadJob job, int workerCount) throws IOException, InterruptedException {
+        List<Worker> workers = new ArrayList<>();
+        server.setSoTimeout((int) connectTimeoutMillis);
+        try {
+            while (workers.size() < workerCount) {
+                Socket socket = server.accept();
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                if (in.readInt() != LoadWorker.MAGIC) {
+                    socket.close();
+                    continue;
+                }
+                workers.add(new Worker(workers.size() + 1, in.readUTF(), socket, in));
+            }
+        } catch (SocketTimeoutException e) {
+            workers.forEach(Worker::close);
+            throw new IOException("Only " + workers.size() + " of " + workerCount + " workers connected within "
+                    + connectTimeoutMillis + "ms", e);
+        }
+
+        LoadJob share = job.withRate(job.ratePerSecond / workerCount);
+        logger.info("Starting {} workers, each at {}", workerCount, share);
+        CountDownLatch finished = new CountDownLatch(workerCount);
+        long start = System.nanoTime();
+        for (Worker worker : workers) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(worker.socket.getOutputStream()));
+            out.writeInt(worker.id);
+            share.write(out);
+            out.flush();
+            Thread reader = new Thread(() -> worker.readReports(finished), "load-worker-" + worker.id);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        long deadline = start + TimeUnit.SECONDS.toNanos(job.durationSeconds + 120);
+        LoadStats previous = new LoadStats();
+        long previousNanos = start;
+        while (!finished.await(job.reportMillis, TimeUnit.MILLISECONDS) && System.nanoTime() < deadline) {
+            LoadStats current = combined(workers);
+            long now = System.nanoTime();
+            logger.info(liveLine(now - start, current.minus(previous), now - previousNanos, workers));
+            previous = current;
+            previousNanos = now;
+        }
+        workers.forEach(Worker::close);
+        return new Report(workers, System.nanoTime() - start, job);
+    }
+
+    private static LoadStats combined(List<Worker> workers) {
+        LoadStats combined = new LoadStats();
+        for (Worker worker : workers) {
+            combined.merge(worker.latest());
+        }
+        return combined;
+    }
+
+    private static String liveLine(long elapsedNanos, LoadStats interval, long intervalNanos, List<Worker> workers) {
+        LatencyHistogram latency = interval.combinedLatency();
+        double seconds = intervalNanos / 1e9;
+        long reporting = workers.stream().filter(worker -> worker.reports > 0 && !worker.done).count();
+        return String.format("t=%ds %.1f it/s %.1f req/s, %d errors, p50 %.1fms p99 %.1fms, %d/%d workers reporting",
+                TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), interval.iterations() / seconds,
+                interval.requests() / seconds, interval.errors(), latency.percentileMicros(50) / 1000.0,
+                latency.percentileMicros(99) / 1000.0, reporting, workers.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class Worker {
+        final int id;
+        final String name;
+        final Socket socket;
+        final DataInputStream in;
+        volatile LoadStats latest = new LoadStats();
+        volatile long elapsedNanos;
+        volatile int reports;
+        volatile boolean done;
+        volatile String failure;
+
+        Worker(int id, String name, Socket socket, DataInputStream in) {
+            this.id = id;
+            this.name = name;
+            this.socket = socket;
+            this.in = in;
+        }
+
+        LoadStats latest() {
+            return latest;
+        }
+
+        void readReports(CountDownLatch finished) {
+            try {
+                while (true) {
+                    byte kind = in.readByte();
+                    elapsedNanos = in.readLong();
+                    latest = LoadStats.read(in);
+                    reports++;
+                    if (kind == LoadWorker.FINAL) {
+                        break;
+                    }
+                }
+            } catch (EOFException e) {
+                failure = "disconnected before its final report";
+            } catch (IOException e) {
+                failure = e.toString();
+            } finally {
+                done = true;
+                finished.countDown();
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // nothing left to read
+            }
+        }
+    }
+
+    public static class WorkerResult {
+        public final String name;
+        public final LoadStats stats;
+        public final long elapsedNanos;
+        // null when the worker sent its final report
+        public final String failure;
+
+        WorkerResult(Worker worker) {
+            this.name = worker.name;
+            this.stats = worker.latest;
+            this.elapsedNanos = worker.elapsedNanos;
+            this.failure = worker.done && worker.failure == null ? null
+                    : worker.failure == null ? "still running" : worker.failure;
+        }
+    }
+
+    public static class Report {
+        private final List<WorkerResult> workers = new ArrayList<>();
+        private final LoadStats combined = new LoadStats();
+        private final long elapsedNanos;
+        private final LoadJob job;
+
+        Report(List<Worker> workers, long elapsedNanos, LoadJob job) {
+            for (Worker worker : workers) {
+                WorkerResult result = new WorkerResult(worker);
+                this.workers.add(result);
+                combined.merge(result.stats);
+            }
+            this.elapsedNanos = elapsedNanos;
+            this.job = job;
+        }
+
+        public List<WorkerResult> workers() {
+            return workers;
+        }
+
+        // All workers' stats merged
+        public LoadStats combined() {
+            return combined;
+        }
+
+        public long elapsed(TimeUnit unit) {
+            return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            double seconds = job.durationSeconds;
+            StringBuilder text = new StringBuilder(String.format(
+                    "%d workers, %d iterations (%.1f/s of %.1f/s requested), %d failed, %d requests, %d errors",
+                    workers.size(), combined.iterations(), combined.iterations() / seconds, job.ratePerSecond,
+                    combined.failedIterations(), combined.requests(), combined.errors()));
+            text.append(String.format("%n%-10s %9s %8s %9s %9s %9s %9s %9s", "operation", "requests", "errors",
+                    "req/s", "p50", "p90", "p99", "max"));
+            for (Map.Entry<String, LatencyHistogram> entry : combined.latency().entrySet()) {
+                LatencyHistogram latency = entry.getValue();
+                text.append(String.format("%n%-10s %9d %8d %9.1f %7.1fms %7.1fms %7.1fms %7.1fms", entry.getKey(),
+                        latency.count(), combined.errors(entry.getKey()), latency.count() / seconds,
+                        latency.percentileMicros(50) / 1000.0, latency.percentileMicros(90) / 1000.0,
+                        latency.percentileMicros(99) / 1000.0, latency.percentileMicros(100) / 1000.0));
+            }
+            for (WorkerResult worker : workers) {
+                text.append(String.format("%n  %-30s %7d iterations, p99 %.1fms%s", worker.name,
+                        worker.stats.iterations(), worker.stats.combinedLatency().percentileMicros(99) / 1000.0,
+                        worker.failure == null ? "" : " (" + worker.failure + ")"));
+            }
+            return text.toString();
+        }
+    }
+}
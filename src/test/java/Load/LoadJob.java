@@ -0,0 +1,69 @@
+package Load;
+
+import Client.ClientBackend;
+import Utils.ConfigManager;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// What a worker should run: the scenario mix against baseUri at ratePerSecond iterations per second, for
+// durationSeconds, reporting every reportMillis. The coordinator sends each worker its own share of the rate.
+public class LoadJob {
+    public final String baseUri;
+    public final String backend;
+    public final double ratePerSecond;
+    public final int threads;
+    public final long durationSeconds;
+    public final int searchPercent;
+    public final int putPercent;
+    public final long reportMillis;
+
+    public LoadJob(String baseUri, String backend, double ratePerSecond, int threads, long durationSeconds,
+                   int searchPercent, int putPercent, long reportMillis) {
+        this.baseUri = baseUri;
+        this.backend = backend;
+        this.ratePerSecond = ratePerSecond;
+        this.threads = threads;
+        this.durationSeconds = durationSeconds;
+        this.searchPercent = searchPercent;
+        this.putPercent = putPercent;
+        this.reportMillis = reportMillis;
+    }
+
+    // -Dload.rate (iterations/s for the whole cluster), -Dload.threads (per worker), -Dload.seconds,
+    // -Dload.searchPercent, -Dload.putPercent, -Dload.reportSeconds and the usual baseURI / booking.client
+    public static LoadJob configured() {
+        return new LoadJob(ConfigManager.getBaseUri(), ClientBackend.configured().name(),
+                ConfigManager.getDouble("load.rate", 50), ConfigManager.getInt("load.threads", 16),
+                ConfigManager.getLong("load.seconds", 60), ConfigManager.getInt("load.searchPercent", 50),
+                ConfigManager.getInt("load.putPercent", 30), ConfigManager.getLong("load.reportSeconds", 5) * 1000);
+    }
+
+    public LoadJob withRate(double ratePerSecond) {
+        return new LoadJob(baseUri, backend, ratePerSecond, threads, durationSeconds, searchPercent, putPercent,
+                reportMillis);
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeUTF(baseUri);
+        out.writeUTF(backend);
+        out.writeDouble(ratePerSecond);
+        out.writeInt(threads);
+        out.writeLong(durationSeconds);
+        out.writeInt(searchPercent);
+        out.writeInt(putPercent);
+        out.writeLong(reportMillis);
+    }
+
+    static LoadJob read(DataInput in) throws IOException {
+        return new LoadJob(in.readUTF(), in.readUTF(), in.readDouble(), in.readInt(), in.readLong(), in.readInt(),
+                in.readInt(), in.readLong());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f iterations/s for %ds on %d threads against %s (%s, %d%% search, %d%% put)",
+                ratePerSecond, durationSeconds, threads, baseUri, backend, searchPercent, putPercent);
+    }
+}
@@ -0,0 +1,146 @@
+package Load;
+
+import Telemetry.LatencyHistogram;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters and per-operation latency histograms of a load run. Workers keep one cumulative instance and send a
+// snapshot of it on every report; snapshots from any number of workers merge into the cluster view, and the
+// difference of two snapshots is the activity in between.
+public class LoadStats {
+    private final Map<String, LatencyHistogram> latency = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder failedIterations = new LongAdder();
+
+    // Responses outside 2xx count as errors of that operation; status <= 0 means the call threw
+    public void record(String operation, int status, long latencyNanos) {
+        latency.computeIfAbsent(operation, key -> new LatencyHistogram()).recordNanos(latencyNanos);
+        if (status < 200 || status >= 300) {
+            errors.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        }
+    }
+
+    public void iteration(boolean ok) {
+        iterations.increment();
+        if (!ok) {
+            failedIterations.increment();
+        }
+    }
+
+    public long iterations() {
+        return iterations.sum();
+    }
+
+    public long failedIterations() {
+        return failedIterations.sum();
+    }
+
+    public long requests() {
+        return latency.values().stream().mapToLong(LatencyHistogram::count).sum();
+    }
+
+    public long errors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long errors(String operation) {
+        LongAdder count = errors.get(operation);
+        return count == null ? 0 : count.sum();
+    }
+
+    public Map<String, LatencyHistogram> latency() {
+        return new TreeMap<>(latency);
+    }
+
+    // All requests of all operations in one histogram
+    public LatencyHistogram combinedLatency() {
+        LatencyHistogram combined = new LatencyHistogram();
+        latency.values().forEach(combined::merge);
+        return combined;
+    }
+
+    public void merge(LoadStats other) {
+        other.latency.forEach((operation, histogram) ->
+                latency.computeIfAbsent(operation, key -> new LatencyHistogram()).merge(histogram));
+        other.errors.forEach((operation, count) ->
+                errors.computeIfAbsent(operation, key -> new LongAdder()).add(count.sum()));
+        iterations.add(other.iterations());
+        failedIterations.add(other.failedIterations());
+    }
+
+    // This snapshot minus an earlier one of the same cumulative stats
+    public LoadStats minus(LoadStats earlier) {
+        LoadStats delta = new LoadStats();
+        latency.forEach((operation, histogram) -> {
+            LatencyHistogram before = earlier.latency.get(operation);
+            LatencyHistogram difference = new LatencyHistogram();
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                long count = histogram.bucketCount(i) - (before == null ? 0 : before.bucketCount(i));
+                if (count > 0) {
+                    difference.addBucket(i, count);
+                }
+            }
+            delta.latency.put(operation, difference);
+        });
+        errors.forEach((operation, count) ->
+                delta.errors.computeIfAbsent(operation, key -> new LongAdder()).add(count.sum() - earlier.errors(operation)));
+        delta.iterations.add(iterations() - earlier.iterations());
+        delta.failedIterations.add(failedIterations() - earlier.failedIterations());
+        return delta;
+    }
+
+    // Sparse bucket counts, as in the regression baseline: a few hundred bytes per operation
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(iterations());
+        out.writeLong(failedIterations());
+        Map<String, LatencyHistogram> operations = latency();
+        out.writeInt(operations.size());
+        for (Map.Entry<String, LatencyHistogram> entry : operations.entrySet()) {
+            long[] counts = new long[LatencyHistogram.BUCKETS];
+            int nonEmpty = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = entry.getValue().bucketCount(i);
+                if (counts[i] != 0) {
+                    nonEmpty++;
+                }
+            }
+            out.writeUTF(entry.getKey());
+            out.writeLong(errors(entry.getKey()));
+            out.writeInt(nonEmpty);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    out.writeShort(i);
+                    out.writeLong(counts[i]);
+                }
+            }
+        }
+    }
+
+    public static LoadStats read(DataInput in) throws IOException {
+        LoadStats stats = new LoadStats();
+        stats.iterations.add(in.readLong());
+        stats.failedIterations.add(in.readLong());
+        int operations = in.readInt();
+        for (int o = 0; o < operations; o++) {
+            String operation = in.readUTF();
+            long errorCount = in.readLong();
+            if (errorCount > 0) {
+                stats.errors.computeIfAbsent(operation, key -> new LongAdder()).add(errorCount);
+            }
+            LatencyHistogram histogram = new LatencyHistogram();
+            int buckets = in.readInt();
+            for (int b = 0; b < buckets; b++) {
+                histogram.addBucket(in.readShort(), in.readLong());
+            }
+            stats.latency.put(operation, histogram);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,113 @@
+package Load;
+
+import Client.BookingClient;
+import Client.ClientBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// One load-generating JVM. Connects to a LoadCoordinator, receives its LoadJob, runs the scenario mix at the
+// job's rate and sends a snapshot of its LoadStats every reportMillis, then a final one when the time is up.
+// Iterations are started on a fixed schedule shared by the worker's threads; when all threads are busy the
+// schedule falls behind and catches up as they free, so threads bounds concurrency rather than the rate.
+// Usage: java Load.LoadWorker <coordinatorHost> <port>
+public class LoadWorker {
+    static final int MAGIC = 0x4C4F4144; // "LOAD"
+    static final byte PROGRESS = 1;
+    static final byte FINAL = 2;
+    private static final Logger logger = LoggerFactory.getLogger(LoadWorker.class);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: <coordinatorHost> <port>");
+            System.exit(2);
+        }
+        run(args[0], Integer.parseInt(args[1]));
+    }
+
+    public static void run(String host, int port) throws IOException, InterruptedException {
+        try (Socket socket = new Socket(host, port)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out.writeInt(MAGIC);
+            out.writeUTF(InetAddress.getLocalHost().getHostName() + "/" + ProcessHandle.current().pid());
+            out.flush();
+            int id = in.readInt();
+            LoadJob job = LoadJob.read(in);
+            logger.info("Worker {} running {}", id, job);
+
+            LoadStats stats = new LoadStats();
+            long start = System.nanoTime();
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+            reporter.scheduleAtFixedRate(() -> {
+                try {
+                    send(out, PROGRESS, System.nanoTime() - start, stats);
+                } catch (IOException e) {
+                    logger.error("Lost the coordinator: ", e);
+                    reporter.shutdown();
+                }
+            }, job.reportMillis, job.reportMillis, TimeUnit.MILLISECONDS);
+            try {
+                execute(job, stats, start);
+            } finally {
+                reporter.shutdownNow();
+                reporter.awaitTermination(5, TimeUnit.SECONDS);
+            }
+            send(out, FINAL, System.nanoTime() - start, stats);
+        }
+    }
+
+    static void execute(LoadJob job, LoadStats stats, long start) throws InterruptedException {
+        BookingClient client = ClientBackend.valueOf(job.backend).create(job.baseUri);
+        ScenarioMix mix = new ScenarioMix(client, ScenarioMix.authenticate(client), job.searchPercent, job.putPercent);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / job.ratePerSecond);
+        long end = start + TimeUnit.SECONDS.toNanos(job.durationSeconds);
+        AtomicLong next = new AtomicLong();
+        ExecutorService threads = Executors.newFixedThreadPool(job.threads);
+        for (int t = 0; t < job.threads; t++) {
+            threads.execute(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    long scheduled = start + next.getAndIncrement() * intervalNanos;
+                    if (scheduled >= end) {
+                        return;
+                    }
+                    for (long wait; (wait = scheduled - System.nanoTime()) > 0; ) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    try {
+                        stats.iteration(mix.runIteration(stats::record));
+                    } catch (RuntimeException e) {
+                        stats.iteration(false);
+                        logger.debug("Iteration failed: ", e);
+                    }
+                }
+            });
+        }
+        threads.shutdown();
+        if (!threads.awaitTermination(job.durationSeconds + 300, TimeUnit.SECONDS)) {
+            threads.shutdownNow();
+        }
+    }
+
+    private static void send(DataOutputStream out, byte kind, long elapsedNanos, LoadStats stats) throws IOException {
+        synchronized (out) {
+            out.writeByte(kind);
+            out.writeLong(elapsedNanos);
+            stats.write(out);
+            out.flush();
+        }
+    }
+}
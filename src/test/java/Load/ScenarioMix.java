@@ -0,0 +1,89 @@
+package Load;
+
+import Client.ApiResponse;
+import Client.Booking;
+import Client.BookingClient;
+import com.github.javafaker.Faker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The booking scenario mix used by long-running and load modes. Each iteration walks one booking
+// through its lifecycle and always deletes it, so the mix does not grow the server's data set.
+public class ScenarioMix {
+
+    public interface Recorder {
+        void record(String operation, int statusCode, long latencyNanos);
+    }
+
+    public static final String[] OPERATIONS = {"create", "get", "search", "put", "patch", "delete"};
+
+    // One Faker per worker thread rather than one per iteration
+    private static final ThreadLocal<Faker> FAKER = ThreadLocal.withInitial(Faker::new);
+
+    private final BookingClient client;
+    private final String token;
+    private final int searchPercent;
+    private final int putPercent;
+
+    public ScenarioMix(BookingClient client, String token) {
+        this(client, token, 50, 30);
+    }
+
+    public ScenarioMix(BookingClient client, String token, int searchPercent, int putPercent) {
+        this.client = client;
+        this.token = token;
+        this.searchPercent = searchPercent;
+        this.putPercent = putPercent;
+    }
+
+    public static String authenticate(BookingClient client) {
+        ApiResponse response = client.auth("admin", "password123");
+        if (response.getStatusCode() != 200 || !response.json().hasNonNull("token")) {
+            throw new IllegalStateException("Could not obtain token: " + response);
+        }
+        return response.json().get("token").asText();
+    }
+
+    // Returns false if any step answered with an unexpected status
+    public boolean runIteration(Recorder recorder) {
+        Faker faker = FAKER.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Booking booking = Booking.random(faker);
+
+        ApiResponse created = client.createBooking(booking.toJson());
+        record(recorder, "create", created);
+        if (created.getStatusCode() != 200) {
+            return false;
+        }
+        int id = created.json().get("bookingid").asInt();
+        boolean ok = true;
+
+        ok &= record(recorder, "get", client.getBooking(id)).getStatusCode() == 200;
+
+        if (random.nextInt(100) < searchPercent) {
+            Map<String, String> query = new LinkedHashMap<>();
+            query.put("firstname", booking.getFirstname());
+            query.put("lastname", booking.getLastname());
+            ok &= record(recorder, "search", client.searchBookings(query)).getStatusCode() == 200;
+        }
+
+        if (random.nextInt(100) < putPercent) {
+            booking.setTotalprice(faker.number().numberBetween(100, 1000));
+            ok &= record(recorder, "put", client.updateBooking(id, booking.toJson(), token)).getStatusCode() == 200;
+        }
+
+        String patch = "{ \"additionalneeds\": \"" + faker.food().ingredient() + "\" }";
+        ok &= record(recorder, "patch", client.partialUpdateBooking(id, patch, token)).getStatusCode() == 200;
+
+        ok &= record(recorder, "delete", client.deleteBooking(id, token)).getStatusCode() == 201;
+        return ok;
+    }
+
+    private static ApiResponse record(Recorder recorder, String operation, ApiResponse response) {
+        recorder.record(operation, response.getStatusCode(), response.getTimeIn(TimeUnit.NANOSECONDS));
+        return response;
+    }
+}
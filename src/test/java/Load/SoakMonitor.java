@@ -0,0 +1,240 @@
+package Load;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Samples the client JVM while a soak run is in progress. Uses JMX and GC notifications only,
+// since the build targets Java 11 and JFR event streaming needs 14+.
+public class SoakMonitor implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SoakMonitor.class);
+
+    public static class Sample {
+        public final long elapsedMillis;
+        public final long heapAfterGcBytes;
+        public final long allocationBytesPerSecond;
+        public final long gcCount;
+        public final long gcTimeMillis;
+        public final long maxGcPauseMillis;
+        public final int threadCount;
+        public final int openSockets;
+
+        Sample(long elapsedMillis, long heapAfterGcBytes, long allocationBytesPerSecond, long gcCount,
+               long gcTimeMillis, long maxGcPauseMillis, int threadCount, int openSockets) {
+            this.elapsedMillis = elapsedMillis;
+            this.heapAfterGcBytes = heapAfterGcBytes;
+            this.allocationBytesPerSecond = allocationBytesPerSecond;
+            this.gcCount = gcCount;
+            this.gcTimeMillis = gcTimeMillis;
+            this.maxGcPauseMillis = maxGcPauseMillis;
+            this.threadCount = threadCount;
+            this.openSockets = openSockets;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("t=%ds heapAfterGc=%dMB alloc=%dMB/s gcs=%d gcTime=%dms maxPause=%dms threads=%d sockets=%d",
+                    elapsedMillis / 1000, heapAfterGcBytes >> 20, allocationBytesPerSecond >> 20, gcCount,
+                    gcTimeMillis, maxGcPauseMillis, threadCount, openSockets);
+        }
+    }
+
+    private final Duration interval;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final List<Sample> samples = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong maxPauseSinceLastSample = new AtomicLong();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener gcListener = this::onGcNotification;
+    private ScheduledExecutorService scheduler;
+    private long startNanos;
+    private long lastAllocatedBytes;
+    private long lastSampleNanos;
+
+    public SoakMonitor(Duration interval) {
+        this.interval = interval;
+    }
+
+    public void start() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener(gcListener, null, null);
+                emitters.add((NotificationEmitter) gc);
+            }
+        }
+        startNanos = System.nanoTime();
+        lastSampleNanos = startNanos;
+        lastAllocatedBytes = totalAllocatedBytes();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soak-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::sample, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (Exception e) {
+                logger.debug("Could not remove GC listener: ", e);
+            }
+        }
+        emitters.clear();
+    }
+
+    public List<Sample> getSamples() {
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    public void writeCsv(File file) throws IOException {
+        file.getParentFile().mkdirs();
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            out.println("elapsed_ms,heap_after_gc_bytes,alloc_bytes_per_s,gc_count,gc_time_ms,max_gc_pause_ms,threads,open_sockets");
+            for (Sample s : getSamples()) {
+                out.printf("%d,%d,%d,%d,%d,%d,%d,%d%n", s.elapsedMillis, s.heapAfterGcBytes, s.allocationBytesPerSecond,
+                        s.gcCount, s.gcTimeMillis, s.maxGcPauseMillis, s.threadCount, s.openSockets);
+            }
+        }
+    }
+
+    void sample() {
+        try {
+            long now = System.nanoTime();
+            long allocated = totalAllocatedBytes();
+            double seconds = Math.max(1e-9, (now - lastSampleNanos) / 1e9);
+            long allocationRate = (long) ((allocated - lastAllocatedBytes) / seconds);
+            lastAllocatedBytes = allocated;
+            lastSampleNanos = now;
+
+            long gcCount = 0;
+            long gcTime = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, gc.getCollectionCount());
+                gcTime += Math.max(0, gc.getCollectionTime());
+            }
+
+            Sample sample = new Sample(TimeUnit.NANOSECONDS.toMillis(now - startNanos), heapAfterGc(),
+                    Math.max(0, allocationRate), gcCount, gcTime, maxPauseSinceLastSample.getAndSet(0),
+                    threads.getThreadCount(), openSockets());
+            samples.add(sample);
+            logger.info("Soak sample: {}", sample);
+        } catch (RuntimeException e) {
+            logger.error("Soak sampling failed: ", e);
+        }
+    }
+
+    private void onGcNotification(Notification notification, Object handback) {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            maxPauseSinceLastSample.accumulateAndGet(info.getGcInfo().getDuration(), Math::max);
+        }
+    }
+
+    // Heap occupancy as of the end of the most recent collection, summed over heap pools
+    static long heapAfterGc() {
+        long total = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+                total += afterGc.getUsed();
+            }
+        }
+        return total;
+    }
+
+    private long totalAllocatedBytes() {
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+        long total = 0;
+        for (long bytes : sunThreads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, bytes);
+        }
+        return total;
+    }
+
+    // Counts socket descriptors on Linux; elsewhere falls back to all open descriptors (or -1 if unknown)
+    static int openSockets() {
+        Path fds = Paths.get("/proc/self/fd");
+        if (Files.isDirectory(fds)) {
+            int sockets = 0;
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(fds)) {
+                for (Path entry : entries) {
+                    try {
+                        if (Files.readSymbolicLink(entry).toString().startsWith("socket:")) {
+                            sockets++;
+                        }
+                    } catch (IOException e) {
+                        // descriptor closed while we were listing
+                    }
+                }
+                return sockets;
+            } catch (IOException e) {
+                logger.debug("Could not list /proc/self/fd: ", e);
+            }
+        }
+        Object os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.UnixOperatingSystemMXBean) {
+            return (int) ((com.sun.management.UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount();
+        }
+        return -1;
+    }
+
+    // A leak shows up as window medians that never decrease and grow by more than the given margins
+    // overall. Medians per window smooth out the sawtooth of individual samples.
+    public static boolean isMonotonicUpwardTrend(long[] values, int windows, double minRelativeGrowth, long minAbsoluteGrowth) {
+        if (windows < 2 || values.length < windows * 2) {
+            return false;
+        }
+        long[] medians = new long[windows];
+        int size = values.length / windows;
+        for (int w = 0; w < windows; w++) {
+            long[] window = Arrays.copyOfRange(values, values.length - (windows - w) * size, values.length - (windows - w - 1) * size);
+            Arrays.sort(window);
+            medians[w] = window[window.length / 2];
+        }
+        for (int w = 1; w < windows; w++) {
+            if (medians[w] < medians[w - 1]) {
+                return false;
+            }
+        }
+        long growth = medians[windows - 1] - medians[0];
+        return growth > minAbsoluteGrowth && growth > medians[0] * minRelativeGrowth;
+    }
+}
@@ -0,0 +1,315 @@
+package Load;
+
+import Client.ApiResponse;
+import Client.Booking;
+import Client.BookingClient;
+import Telemetry.LatencyHistogram;
+import Telemetry.MetricsRegistry;
+import Utils.ConfigManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Measures read-your-writes lag of the search endpoint. Bookings are created at a fixed rate, all under one
+// firstname unique to the run, while poller threads keep searching for that name. A booking's create lag runs
+// from the create response to the first search sent after it that returns the booking; once visible it is
+// deleted, and its delete lag runs from the delete response to the first search after it that no longer does.
+// Every write is also followed by an immediate search from the writing thread, so a consistent service
+// measures ~0 rather than the polling interval.
+public class VisibilityProbe {
+    private static final Logger logger = LoggerFactory.getLogger(VisibilityProbe.class);
+    private static final int CREATED = 0;
+    private static final int VISIBLE = 1;
+    private static final int DELETED = 2;
+    private static final int DONE = 3;
+
+    private final BookingClient client;
+    private final String token;
+    private double ratePerSecond = ConfigManager.getDouble("visibility.rate", 10);
+    private int count = ConfigManager.getInt("visibility.count", 200);
+    private int pollers = ConfigManager.getInt("visibility.pollers", 2);
+    private long pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(ConfigManager.getLong("visibility.pollMillis", 20));
+    private long timeoutNanos = TimeUnit.SECONDS.toNanos(ConfigManager.getLong("visibility.timeoutSeconds", 30));
+    private int writers = ConfigManager.getInt("visibility.writers", 4);
+
+    private static class Tracked {
+        final int id;
+        final String lastname;
+        final AtomicInteger state = new AtomicInteger(CREATED);
+        final long createdNanos;
+        volatile long deletedNanos;
+
+        Tracked(int id, String lastname, long createdNanos) {
+            this.id = id;
+            this.lastname = lastname;
+            this.createdNanos = createdNanos;
+        }
+    }
+
+    public VisibilityProbe(BookingClient client, String token) {
+        this.client = client;
+        this.token = token;
+    }
+
+    // Creates per second
+    public VisibilityProbe rate(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+        return this;
+    }
+
+    public VisibilityProbe count(int bookings) {
+        this.count = bookings;
+        return this;
+    }
+
+    public VisibilityProbe pollers(int threads, Duration interval) {
+        this.pollers = threads;
+        this.pollIntervalNanos = interval.toNanos();
+        return this;
+    }
+
+    // How long a booking may stay invisible (or visible after delete) before it is counted as lost
+    public VisibilityProbe timeout(Duration timeout) {
+        this.timeoutNanos = timeout.toNanos();
+        return this;
+    }
+
+    public Report run() throws InterruptedException {
+        String firstname = "Vis" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+        Map<Integer, Tracked> tracked = new ConcurrentHashMap<>();
+        Report report = new Report(ratePerSecond);
+        // Creates not yet answered; pollers keep going until these are in and everything tracked is done
+        AtomicInteger pending = new AtomicInteger(count);
+        ExecutorService writePool = Executors.newFixedThreadPool(writers);
+        ExecutorService pollPool = Executors.newFixedThreadPool(pollers);
+        for (int p = 0; p < pollers; p++) {
+            long offset = pollIntervalNanos * p / pollers;
+            pollPool.execute(() -> {
+                LockSupport.parkNanos(offset);
+                while (pending.get() > 0 || !tracked.isEmpty()) {
+                    poll(firstname, tracked, writePool, report);
+                    LockSupport.parkNanos(pollIntervalNanos);
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        for (int i = 0; i < count; i++) {
+            long scheduled = start + i * intervalNanos;
+            for (long wait; (wait = scheduled - System.nanoTime()) > 0; ) {
+                LockSupport.parkNanos(wait);
+            }
+            String lastname = "L" + i;
+            writePool.execute(() -> {
+                try {
+                    create(firstname, lastname, tracked, writePool, report);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        }
+        pollPool.shutdown();
+        if (!pollPool.awaitTermination(TimeUnit.NANOSECONDS.toSeconds(timeoutNanos) * 2 + 60, TimeUnit.SECONDS)) {
+            pollPool.shutdownNow();
+        }
+        writePool.shutdown();
+        writePool.awaitTermination(60, TimeUnit.SECONDS);
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    private void create(String firstname, String lastname, Map<Integer, Tracked> tracked, ExecutorService writePool,
+                        Report report) {
+        Booking booking = new Booking(firstname, lastname, 100, true, "2025-06-01", "2025-06-03", "Visibility");
+        try {
+            ApiResponse response = client.createBooking(booking.toJson());
+            long acknowledged = System.nanoTime();
+            if (response.getStatusCode() != 200) {
+                report.writeErrors.increment();
+                return;
+            }
+            Tracked entry = new Tracked(response.json().get("bookingid").asInt(), lastname, acknowledged);
+            report.created.increment();
+            tracked.put(entry.id, entry);
+            long sent = System.nanoTime();
+            if (search(firstname, lastname, report).contains(entry.id)) {
+                visible(firstname, entry, sent, writePool, tracked, report);
+            }
+        } catch (RuntimeException e) {
+            report.writeErrors.increment();
+            logger.debug("Create failed: ", e);
+        }
+    }
+
+    private void delete(String firstname, Tracked entry, Map<Integer, Tracked> tracked, Report report) {
+        try {
+            ApiResponse response = client.deleteBooking(entry.id, token);
+            entry.deletedNanos = System.nanoTime();
+            if (response.getStatusCode() != 201) {
+                report.writeErrors.increment();
+                tracked.remove(entry.id);
+                return;
+            }
+            entry.state.set(DELETED);
+            long sent = System.nanoTime();
+            if (!search(firstname, entry.lastname, report).contains(entry.id)) {
+                gone(entry, sent, tracked, report);
+            }
+        } catch (RuntimeException e) {
+            report.writeErrors.increment();
+            tracked.remove(entry.id);
+            logger.debug("Delete failed: ", e);
+        }
+    }
+
+    private void poll(String firstname, Map<Integer, Tracked> tracked, ExecutorService writePool, Report report) {
+        if (tracked.isEmpty()) {
+            return;
+        }
+        long sent = System.nanoTime();
+        Set<Integer> found;
+        try {
+            found = search(firstname, null, report);
+        } catch (RuntimeException e) {
+            logger.debug("Poll failed: ", e);
+            return;
+        }
+        for (Tracked entry : tracked.values()) {
+            int state = entry.state.get();
+            if (state == CREATED && entry.createdNanos - sent <= 0) {
+                if (found.contains(entry.id)) {
+                    visible(firstname, entry, sent, writePool, tracked, report);
+                } else if (sent - entry.createdNanos > timeoutNanos && entry.state.compareAndSet(CREATED, VISIBLE)) {
+                    report.neverVisible.increment();
+                    writePool.execute(() -> delete(firstname, entry, tracked, report));
+                }
+            } else if (state == DELETED && entry.deletedNanos - sent <= 0) {
+                if (!found.contains(entry.id)) {
+                    gone(entry, sent, tracked, report);
+                } else if (sent - entry.deletedNanos > timeoutNanos && entry.state.compareAndSet(DELETED, DONE)) {
+                    report.stillVisible.increment();
+                    tracked.remove(entry.id);
+                }
+            }
+        }
+    }
+
+    private void visible(String firstname, Tracked entry, long observedNanos, ExecutorService writePool,
+                         Map<Integer, Tracked> tracked, Report report) {
+        if (entry.state.compareAndSet(CREATED, VISIBLE)) {
+            report.createLag.recordNanos(Math.max(0, observedNanos - entry.createdNanos));
+            writePool.execute(() -> delete(firstname, entry, tracked, report));
+        }
+    }
+
+    private void gone(Tracked entry, long observedNanos, Map<Integer, Tracked> tracked, Report report) {
+        if (entry.state.compareAndSet(DELETED, DONE)) {
+            report.deleteLag.recordNanos(Math.max(0, observedNanos - entry.deletedNanos));
+            tracked.remove(entry.id);
+        }
+    }
+
+    // Ids returned by a search for the run's firstname, and lastname if given
+    private Set<Integer> search(String firstname, String lastname, Report report) {
+        Map<String, String> query = new LinkedHashMap<>();
+        query.put("firstname", firstname);
+        if (lastname != null) {
+            query.put("lastname", lastname);
+        }
+        ApiResponse response = client.searchBookings(query);
+        report.searchLatency.recordNanos(response.getTimeIn(TimeUnit.NANOSECONDS));
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("Search answered " + response);
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (JsonNode entry : response.json()) {
+            ids.add(entry.path("bookingid").asInt());
+        }
+        return Collections.unmodifiableSet(ids);
+    }
+
+    public static class Report {
+        private final double ratePerSecond;
+        private final LatencyHistogram createLag = new LatencyHistogram();
+        private final LatencyHistogram deleteLag = new LatencyHistogram();
+        private final LatencyHistogram searchLatency = new LatencyHistogram();
+        private final LongAdder created = new LongAdder();
+        private final LongAdder writeErrors = new LongAdder();
+        private final LongAdder neverVisible = new LongAdder();
+        private final LongAdder stillVisible = new LongAdder();
+        private long elapsedNanos;
+
+        Report(double ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        // From create response until search returns the booking
+        public LatencyHistogram createLag() {
+            return createLag;
+        }
+
+        // From delete response until search stops returning the booking
+        public LatencyHistogram deleteLag() {
+            return deleteLag;
+        }
+
+        public LatencyHistogram searchLatency() {
+            return searchLatency;
+        }
+
+        public long created() {
+            return created.sum();
+        }
+
+        public long writeErrors() {
+            return writeErrors.sum();
+        }
+
+        // Created bookings search had not returned when the timeout ran out
+        public long neverVisible() {
+            return neverVisible.sum();
+        }
+
+        // Deleted bookings search still returned when the timeout ran out
+        public long stillVisible() {
+            return stillVisible.sum();
+        }
+
+        // Adds both lag distributions to the metrics registry's booking_visibility_lag_seconds family
+        public void publish(MetricsRegistry registry) {
+            registry.visibilityLag("create").merge(createLag);
+            registry.visibilityLag("delete").merge(deleteLag);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d bookings created at %.1f/s in %.1fs, %d write errors%n"
+                            + "visible after create: p50 %.1fms p90 %.1fms p99 %.1fms max %.1fms, %d never visible%n"
+                            + "gone after delete:    p50 %.1fms p90 %.1fms p99 %.1fms max %.1fms, %d still visible%n"
+                            + "search latency: p50 %.1fms p99 %.1fms over %d searches",
+                    created(), ratePerSecond, elapsedNanos / 1e9, writeErrors(),
+                    createLag.percentileMicros(50) / 1000.0, createLag.percentileMicros(90) / 1000.0,
+                    createLag.percentileMicros(99) / 1000.0, createLag.percentileMicros(100) / 1000.0, neverVisible(),
+                    deleteLag.percentileMicros(50) / 1000.0, deleteLag.percentileMicros(90) / 1000.0,
+                    deleteLag.percentileMicros(99) / 1000.0, deleteLag.percentileMicros(100) / 1000.0, stillVisible(),
+                    searchLatency.percentileMicros(50) / 1000.0, searchLatency.percentileMicros(99) / 1000.0,
+                    searchLatency.count());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package Replay;
+
+// One request from a traffic log: when it was sent relative to the first request, what was sent and, if the
+// log has it, what came back. The recorded response is only used for its status and for created booking ids.
+public class RecordedCall {
+    private final long offsetNanos;
+    private final String method;
+    private final String path;
+    private final String body;
+    private final boolean authenticated;
+    private final int recordedStatus;
+    private final String recordedResponse;
+
+    public RecordedCall(long offsetNanos, String method, String path, String body, boolean authenticated,
+                        int recordedStatus, String recordedResponse) {
+        this.offsetNanos = offsetNanos;
+        this.method = method;
+        this.path = path;
+        this.body = body;
+        this.authenticated = authenticated;
+        this.recordedStatus = recordedStatus;
+        this.recordedResponse = recordedResponse;
+    }
+
+    public long offsetNanos() {
+        return offsetNanos;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    // Path and query, without scheme and host
+    public String path() {
+        return path;
+    }
+
+    // Null for requests without a body
+    public String body() {
+        return body;
+    }
+
+    // Whether the original carried a token cookie or an Authorization header; replay sends its own
+    public boolean authenticated() {
+        return authenticated;
+    }
+
+    // 0 when the log has no response
+    public int recordedStatus() {
+        return recordedStatus;
+    }
+
+    public String recordedResponse() {
+        return recordedResponse;
+    }
+
+    boolean isCreate() {
+        return method.equals("POST") && (path.equals("/booking") || path.startsWith("/booking?"));
+    }
+
+    // The id segment of /booking/{id}, or null
+    String bookingId() {
+        if (!path.startsWith("/booking/")) {
+            return null;
+        }
+        int end = path.length();
+        for (char stop : new char[]{'/', '?'}) {
+            int at = path.indexOf(stop, "/booking/".length());
+            if (at >= 0 && at < end) {
+                end = at;
+            }
+        }
+        String id = path.substring("/booking/".length(), end);
+        return id.isEmpty() ? null : id;
+    }
+
+    String withBookingId(String id) {
+        String recorded = bookingId();
+        return "/booking/" + id + path.substring("/booking/".length() + recorded.length());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("+%.3fs %s %s", offsetNanos / 1e9, method, path);
+    }
+}
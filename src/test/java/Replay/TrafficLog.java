@@ -0,0 +1,139 @@
+package Replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// Reads recorded booking API traffic, sorted by send time with offsets relative to the first request.
+// JSONL has one request per line:
+//   {"ts": "2025-01-01T10:00:00.120Z" or epoch millis, "method": "PUT", "path": "/booking/12" (or a full "url"),
+//    "body": string or object, "headers": {"Cookie": "token=..."}, "status": 200, "response": string or object}
+// HAR files (browser or proxy exports) are read from log.entries. Calls outside /booking and /auth are dropped.
+public class TrafficLog {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private TrafficLog() {
+    }
+
+    public static List<RecordedCall> read(Path file) throws IOException {
+        String text = Files.readString(file, StandardCharsets.UTF_8);
+        JsonNode har = file.toString().toLowerCase(Locale.ROOT).endsWith(".har") ? MAPPER.readTree(text) : null;
+        return har != null ? fromHar(har) : fromJsonl(new StringReader(text));
+    }
+
+    public static List<RecordedCall> fromJsonl(Reader in) throws IOException {
+        List<RecordedCall> entries = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(in);
+        int number = 0;
+        for (String line; (line = lines.readLine()) != null; ) {
+            number++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode call = MAPPER.readTree(line);
+            if (!call.hasNonNull("ts") || !call.hasNonNull("method") || !(call.has("path") || call.has("url"))) {
+                throw new IOException("Line " + number + " needs ts, method and path or url: " + line);
+            }
+            JsonNode headers = call.path("headers");
+            boolean authenticated = hasToken(headers.path("Cookie").asText(headers.path("cookie").asText()))
+                    || headers.has("Authorization") || headers.has("authorization");
+            entries.add(new RecordedCall(timestampNanos(call.get("ts")), call.get("method").asText(),
+                    pathOf(call.has("path") ? call.get("path").asText() : call.get("url").asText()),
+                    text(call.get("body")), authenticated, call.path("status").asInt(), text(call.get("response"))));
+        }
+        return toCalls(entries);
+    }
+
+    public static List<RecordedCall> fromHar(JsonNode har) throws IOException {
+        JsonNode log = har.path("log").path("entries");
+        if (!log.isArray()) {
+            throw new IOException("Not a HAR file: no log.entries");
+        }
+        List<RecordedCall> entries = new ArrayList<>();
+        for (JsonNode entry : log) {
+            JsonNode request = entry.path("request");
+            boolean authenticated = false;
+            for (JsonNode header : request.path("headers")) {
+                String name = header.path("name").asText().toLowerCase(Locale.ROOT);
+                authenticated |= name.equals("authorization")
+                        || name.equals("cookie") && hasToken(header.path("value").asText());
+            }
+            for (JsonNode cookie : request.path("cookies")) {
+                authenticated |= cookie.path("name").asText().equals("token");
+            }
+            JsonNode content = entry.path("response").path("content");
+            String response = text(content.get("text"));
+            if (response != null && content.path("encoding").asText().equals("base64")) {
+                response = new String(Base64.getDecoder().decode(response), StandardCharsets.UTF_8);
+            }
+            entries.add(new RecordedCall(timestampNanos(entry.path("startedDateTime")),
+                    request.path("method").asText(), pathOf(request.path("url").asText()),
+                    text(request.path("postData").get("text")), authenticated,
+                    entry.path("response").path("status").asInt(), response));
+        }
+        return toCalls(entries);
+    }
+
+    // Entries are read with absolute timestamps as offsets; rebase them on the first request
+    private static List<RecordedCall> toCalls(List<RecordedCall> entries) {
+        entries.removeIf(entry -> !(entry.path().startsWith("/booking") || entry.path().startsWith("/auth")));
+        entries.sort(Comparator.comparingLong(RecordedCall::offsetNanos));
+        List<RecordedCall> calls = new ArrayList<>(entries.size());
+        long first = entries.isEmpty() ? 0 : entries.get(0).offsetNanos();
+        for (RecordedCall entry : entries) {
+            calls.add(new RecordedCall(entry.offsetNanos() - first, entry.method().toUpperCase(Locale.ROOT),
+                    entry.path(), entry.body(), entry.authenticated(), entry.recordedStatus(),
+                    entry.recordedResponse()));
+        }
+        return calls;
+    }
+
+    private static long timestampNanos(JsonNode ts) {
+        if (ts.isNumber()) {
+            return Math.round(ts.asDouble() * 1_000_000L);
+        }
+        // HAR timestamps carry a zone offset rather than Z
+        Instant instant = OffsetDateTime.parse(ts.asText()).toInstant();
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static String pathOf(String pathOrUrl) {
+        if (!pathOrUrl.contains("://")) {
+            return pathOrUrl;
+        }
+        URI uri = URI.create(pathOrUrl);
+        return uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+    }
+
+    private static boolean hasToken(String cookie) {
+        for (String part : cookie.split(";")) {
+            if (part.trim().startsWith("token=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Bodies may be logged as a JSON string or inline as JSON
+    private static String text(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return null;
+        }
+        return node.isTextual() ? node.asText() : node.toString();
+    }
+}
@@ -0,0 +1,310 @@
+package Replay;
+
+import Client.ApiResponse;
+import Client.HttpBookingClient;
+import Load.ScenarioMix;
+import Telemetry.Endpoints;
+import Telemetry.LatencyHistogram;
+import Utils.ConfigManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop replay of a traffic log: every call is sent at its recorded offset (divided by the speed multiplier)
+// whether or not earlier calls have answered, and its latency runs from that intended send time. A slow
+// response therefore shows up in the tail instead of quietly delaying the calls behind it.
+// Bookings created during replay get new ids; later calls on the recorded id wait for the create and are
+// rewritten to the live one. Calls that carried a token are sent with the replayer's own.
+// Usage: java Replay.TrafficReplayer <log.jsonl|log.har> [baseUri], with -Dreplay.speed (default 1.0).
+public class TrafficReplayer {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // Head start so the first calls are not already late while the scheduler warms up
+    private static final long LEAD_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final HttpClient httpClient;
+    private final String baseUri;
+    private double speed = ConfigManager.getDouble("replay.speed", 1.0);
+    private Duration timeout = Duration.ofSeconds(ConfigManager.getLong("replay.timeoutSeconds", 60));
+    private String token;
+
+    public TrafficReplayer(HttpClient httpClient, String baseUri) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri.endsWith("/") ? baseUri.substring(0, baseUri.length() - 1) : baseUri;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: <log.jsonl|log.har> [baseUri]");
+            System.exit(2);
+        }
+        String baseUri = args.length > 1 ? args[1] : ConfigManager.getBaseUri();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        System.out.println(new TrafficReplayer(client, baseUri).replay(TrafficLog.read(Paths.get(args[0]))));
+    }
+
+    // 2.0 replays twice as fast as recorded
+    public TrafficReplayer speed(double multiplier) {
+        this.speed = multiplier;
+        return this;
+    }
+
+    // How long to wait for outstanding calls after the last one is sent
+    public TrafficReplayer timeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    // Token for calls that were authenticated; fetched with the default credentials when not set
+    public TrafficReplayer token(String token) {
+        this.token = token;
+        return this;
+    }
+
+    public Report replay(List<RecordedCall> calls) throws InterruptedException {
+        if (token == null && calls.stream().anyMatch(RecordedCall::authenticated)) {
+            token = ScenarioMix.authenticate(new HttpBookingClient(httpClient, baseUri));
+        }
+        // Recorded id -> live id, for creates seen so far; only the scheduling thread touches the map
+        Map<String, CompletableFuture<String>> liveIds = new HashMap<>();
+        Report report = new Report(speed);
+        List<CompletableFuture<Void>> pending = new ArrayList<>(calls.size());
+
+        long start = System.nanoTime() + LEAD_NANOS;
+        for (RecordedCall call : calls) {
+            long intended = start + (long) (call.offsetNanos() / speed);
+            waitUntil(intended);
+            CompletableFuture<String> created = null;
+            if (call.isCreate()) {
+                String recordedId = createdId(call.recordedResponse());
+                if (recordedId != null) {
+                    created = new CompletableFuture<>();
+                    liveIds.put(recordedId, created);
+                }
+            }
+            String recordedId = call.bookingId();
+            CompletableFuture<String> dependency = recordedId == null ? null : liveIds.get(recordedId);
+            if (dependency == null) {
+                pending.add(send(call, call.path(), intended, created, report));
+            } else {
+                CompletableFuture<String> completesCreate = created;
+                pending.add(dependency.handle((liveId, failed) -> liveId)
+                        .thenCompose(liveId -> {
+                            if (liveId == null) {
+                                report.series(call).skipped.increment();
+                                return CompletableFuture.completedFuture(null);
+                            }
+                            return send(call, call.withBookingId(liveId), intended, completesCreate, report);
+                        }));
+            }
+        }
+        report.scheduleNanos = System.nanoTime() - start;
+
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]))
+                    .get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            report.unfinished = pending.stream().filter(future -> !future.isDone()).count();
+            pending.forEach(future -> future.cancel(true));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replay failed", e.getCause());
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    private CompletableFuture<Void> send(RecordedCall call, String path, long intended,
+                                         CompletableFuture<String> created, Report report) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUri + path))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (call.body() != null) {
+            request.header("Content-Type", "application/json")
+                    .method(call.method(), HttpRequest.BodyPublishers.ofString(call.body()));
+        } else {
+            request.method(call.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        if (call.authenticated() && token != null) {
+            request.header("Cookie", "token=" + token);
+        }
+        long sentAt = System.nanoTime();
+        report.sendLag(sentAt - intended);
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString()).handle((response, error) -> {
+            long now = System.nanoTime();
+            report.record(call, response == null ? -1 : response.statusCode(), now - intended, now - sentAt);
+            if (created != null) {
+                String liveId = response == null ? null : createdId(response.body());
+                if (liveId != null) {
+                    created.complete(liveId);
+                } else {
+                    created.completeExceptionally(new IllegalStateException("Create failed: " + call));
+                }
+            }
+            return null;
+        });
+    }
+
+    // bookingid from a create response, or null
+    private static String createdId(String response) {
+        if (response == null) {
+            return null;
+        }
+        try {
+            JsonNode id = MAPPER.readTree(response).path("bookingid");
+            return id.canConvertToLong() ? id.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void waitUntil(long deadline) throws InterruptedException {
+        for (long remaining; (remaining = deadline - System.nanoTime()) > 0; ) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    public static class Series {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder statusMismatches = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+
+        // From the intended send time to the response
+        public LatencyHistogram latency() {
+            return latency;
+        }
+
+        // From the actual send to the response
+        public LatencyHistogram serviceTime() {
+            return serviceTime;
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        // Answered with a different status than recorded
+        public long statusMismatches() {
+            return statusMismatches.sum();
+        }
+
+        // Not sent because the create they depend on failed
+        public long skipped() {
+            return skipped.sum();
+        }
+    }
+
+    public static class Report {
+        private final double speed;
+        private final Map<String, Series> endpoints = new ConcurrentHashMap<>();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong maxSendLagNanos = new AtomicLong();
+        private long scheduleNanos;
+        private long elapsedNanos;
+        private long unfinished;
+
+        Report(double speed) {
+            this.speed = speed;
+        }
+
+        void sendLag(long nanos) {
+            maxSendLagNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void record(RecordedCall call, int status, long latencyNanos, long serviceNanos) {
+            Series series = series(call);
+            latency.recordNanos(latencyNanos);
+            series.latency.recordNanos(latencyNanos);
+            series.serviceTime.recordNanos(serviceNanos);
+            if (status < 0) {
+                series.errors.increment();
+            } else if (call.recordedStatus() != 0 && status != call.recordedStatus()) {
+                series.statusMismatches.increment();
+            }
+        }
+
+        Series series(RecordedCall call) {
+            return endpoints.computeIfAbsent(call.method() + " " + Endpoints.template(call.path()), key -> new Series());
+        }
+
+        // Keyed by "METHOD /path/{id}"
+        public Map<String, Series> endpoints() {
+            return new TreeMap<>(endpoints);
+        }
+
+        public LatencyHistogram latency() {
+            return latency;
+        }
+
+        public long errors() {
+            return endpoints.values().stream().mapToLong(Series::errors).sum();
+        }
+
+        public long statusMismatches() {
+            return endpoints.values().stream().mapToLong(Series::statusMismatches).sum();
+        }
+
+        public long skipped() {
+            return endpoints.values().stream().mapToLong(Series::skipped).sum();
+        }
+
+        // Calls still outstanding when the timeout ran out
+        public long unfinished() {
+            return unfinished;
+        }
+
+        // Latest any call left after its intended send time, whether from scheduling or waiting on a create
+        public long maxSendLag(TimeUnit unit) {
+            return unit.convert(maxSendLagNanos.get(), TimeUnit.NANOSECONDS);
+        }
+
+        // From the first intended send to the last call being sent
+        public long scheduleSpan(TimeUnit unit) {
+            return unit.convert(scheduleNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public long elapsed(TimeUnit unit) {
+            return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format(
+                    "%d calls at %.1fx in %.2fs (sent over %.2fs, max send lag %.1fms), %d errors, %d status mismatches,"
+                            + " %d skipped, %d unfinished",
+                    latency.count(), speed, elapsedNanos / 1e9, scheduleNanos / 1e9, maxSendLagNanos.get() / 1e6,
+                    errors(), statusMismatches(), skipped(), unfinished));
+            text.append(String.format("%n%-28s %7s %10s %10s %10s %12s %12s", "endpoint", "calls", "p50", "p99", "max",
+                    "service_p50", "service_p99"));
+            endpoints().forEach((endpoint, series) -> text.append(String.format(
+                    "%n%-28s %7d %8.2fms %8.2fms %8.2fms %10.2fms %10.2fms", endpoint, series.latency.count(),
+                    series.latency.percentileMicros(50) / 1000.0, series.latency.percentileMicros(99) / 1000.0,
+                    series.latency.percentileMicros(100) / 1000.0, series.serviceTime.percentileMicros(50) / 1000.0,
+                    series.serviceTime.percentileMicros(99) / 1000.0)));
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package Results;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Append-only binary log of test outcomes, one file for the whole run.
+// Layout: "TRLG" + int version, then records of [byte kind][int length][payload][int crc32 of payload].
+// Class names, method names and exception types are written once as STRING records and referenced by id after
+// that; parameters and failure messages are written inline, truncated. A record is only complete once its CRC is
+// on disk, so a reader can follow the file while it is written and a crashed run loses at most its last record.
+public class ResultLog {
+    static final int MAGIC = 0x54524C47; // "TRLG"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    private static final byte STRING = 1;
+    private static final byte OUTCOME = 2;
+    private static final int MAX_PARAMETERS = 512;
+    private static final int MAX_MESSAGE = 2048;
+
+    private ResultLog() {
+    }
+
+    public static class Writer implements AutoCloseable {
+        private final DataOutputStream out;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+        private final DataOutputStream payload = new DataOutputStream(record);
+        private final CRC32 crc = new CRC32();
+        private long written;
+
+        // Appends to the file, writing the header first if it is new or empty
+        public Writer(Path file) throws IOException {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            boolean fresh = !Files.exists(file) || Files.size(file) == 0;
+            if (!fresh) {
+                // Carry on an existing log: its string table is needed to keep ids consistent
+                Reader existing = new Reader(file);
+                existing.readAvailable(outcome -> { });
+                existing.strings.forEach(value -> ids.put(value, ids.size()));
+            }
+            OutputStream file0 = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            out = new DataOutputStream(new BufferedOutputStream(file0, 64 * 1024));
+            if (fresh) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+            }
+        }
+
+        public synchronized void append(TestOutcome outcome) throws IOException {
+            int classId = id(outcome.testClass());
+            int methodId = id(outcome.method());
+            int failureId = outcome.failureType() == null ? -1 : id(outcome.failureType());
+            payload.writeInt(classId);
+            payload.writeInt(methodId);
+            payload.writeLong(outcome.startMillis());
+            payload.writeLong(outcome.durationMicros());
+            payload.writeByte(outcome.status().ordinal());
+            payload.writeUTF(truncate(outcome.parameters(), MAX_PARAMETERS));
+            payload.writeInt(failureId);
+            if (failureId >= 0) {
+                payload.writeUTF(truncate(outcome.failureMessage() == null ? "" : outcome.failureMessage(), MAX_MESSAGE));
+            }
+            emit(OUTCOME);
+            written++;
+        }
+
+        public synchronized long written() {
+            return written;
+        }
+
+        // Makes everything appended so far visible to readers
+        public synchronized void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+
+        private int id(String value) throws IOException {
+            Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            // Emitted between two outcome payloads, so stash the one being built
+            byte[] pending = record.toByteArray();
+            record.reset();
+            id = ids.size();
+            payload.writeInt(id);
+            payload.writeUTF(truncate(value, MAX_MESSAGE));
+            emit(STRING);
+            ids.put(value, id);
+            record.write(pending);
+            return id;
+        }
+
+        private void emit(byte kind) throws IOException {
+            byte[] body = record.toByteArray();
+            crc.reset();
+            crc.update(body, 0, body.length);
+            out.writeByte(kind);
+            out.writeInt(body.length);
+            out.write(body);
+            out.writeInt((int) crc.getValue());
+            record.reset();
+        }
+    }
+
+    // Reads complete records from where the previous call stopped; call again to pick up what was appended since
+    public static class Reader {
+        private final Path file;
+        private final List<String> strings = new ArrayList<>();
+        private long offset;
+
+        public Reader(Path file) {
+            this.file = file;
+        }
+
+        // Byte offset of the first record not read yet
+        public long offset() {
+            return offset;
+        }
+
+        public int readAvailable(Consumer<TestOutcome> consumer) throws IOException {
+            int outcomes = 0;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (offset == 0) {
+                    if (size < HEADER_BYTES) {
+                        return 0;
+                    }
+                    DataInputStream header = new DataInputStream(Channels.newInputStream(channel.position(0)));
+                    if (header.readInt() != MAGIC || header.readInt() != VERSION) {
+                        throw new IOException(file + " is not a version " + VERSION + " result log");
+                    }
+                    offset = HEADER_BYTES;
+                }
+                InputStream stream = new BufferedInputStream(Channels.newInputStream(channel.position(offset)), 64 * 1024);
+                DataInputStream in = new DataInputStream(stream);
+                CRC32 crc = new CRC32();
+                while (offset + 5 <= size) {
+                    byte kind = in.readByte();
+                    int length = in.readInt();
+                    if (offset + 5 + length + 4 > size) {
+                        break; // still being written
+                    }
+                    byte[] body = new byte[length];
+                    in.readFully(body);
+                    int expected = in.readInt();
+                    crc.reset();
+                    crc.update(body, 0, length);
+                    if ((int) crc.getValue() != expected) {
+                        throw new IOException("Corrupt record at offset " + offset + " of " + file);
+                    }
+                    offset += 5 + length + 4;
+                    DataInputStream record = new DataInputStream(new ByteArrayInputStream(body));
+                    if (kind == STRING) {
+                        int id = record.readInt();
+                        String value = record.readUTF();
+                        if (id != strings.size()) {
+                            throw new IOException("String id " + id + " out of sequence at offset " + offset);
+                        }
+                        strings.add(value);
+                    } else if (kind == OUTCOME) {
+                        consumer.accept(decode(record));
+                        outcomes++;
+                    }
+                }
+            } catch (EOFException e) {
+                // the file was truncated under us; what was read so far stands
+            }
+            return outcomes;
+        }
+
+        private TestOutcome decode(DataInputStream record) throws IOException {
+            String testClass = strings.get(record.readInt());
+            String method = strings.get(record.readInt());
+            long start = record.readLong();
+            long duration = record.readLong();
+            TestOutcome.Status status = TestOutcome.Status.values()[record.readByte()];
+            String parameters = record.readUTF();
+            int failureId = record.readInt();
+            String failureType = failureId < 0 ? null : strings.get(failureId);
+            String message = failureId < 0 ? null : record.readUTF();
+            return new TestOutcome(testClass, method, parameters, start, duration, status, failureType, message);
+        }
+    }
+
+    // writeUTF is limited to 64KB of modified UTF-8, and nothing here needs to be that long
+    private static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max) + "...";
+    }
+}
@@ -0,0 +1,143 @@
+package Results;
+
+import Utils.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Appends every finished invocation to the result log as it completes, and refreshes the summary report from the
+// log every results.reportEverySeconds while the run is going. Whichever test thread finds the report due does the
+// refresh, and only if no other thread is already on it, so tests never queue up behind reporting.
+// Writes target/results/results.bin and summary.txt unless -Dresults.log / -Dresults.summary say otherwise;
+// -Dresults.enabled=false turns it off.
+public class ResultLogListener implements ITestListener, ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(ResultLogListener.class);
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private final Path logFile = Paths.get(ConfigManager.get("results.log", "target/results/results.bin"));
+    private final Path summaryFile = Paths.get(ConfigManager.get("results.summary", "target/results/summary.txt"));
+    private final long reportEveryNanos =
+            TimeUnit.SECONDS.toNanos(ConfigManager.getLong("results.reportEverySeconds", 30));
+    private final ReentrantLock reporting = new ReentrantLock();
+    private ResultLog.Writer writer;
+    private ResultSummary summary;
+    private volatile long nextReport;
+
+    @Override
+    public synchronized void onStart(ISuite suite) {
+        if (writer != null || !ConfigManager.getBoolean("results.enabled", true)) {
+            return;
+        }
+        try {
+            // One log per run; suites after the first keep appending to it
+            Files.deleteIfExists(logFile);
+            writer = new ResultLog.Writer(logFile);
+            summary = new ResultSummary(logFile);
+            nextReport = System.nanoTime() + reportEveryNanos;
+        } catch (IOException e) {
+            logger.error("Could not open result log {}: ", logFile, e);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        reporting.lock();
+        try {
+            report();
+            if (summary != null) {
+                logger.info("{} results in {}, summary in {}", summary.total(), logFile, summaryFile);
+            }
+        } finally {
+            reporting.unlock();
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        append(result, TestOutcome.Status.PASSED);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        append(result, TestOutcome.Status.FAILED);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        append(result, TestOutcome.Status.FAILED);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        append(result, TestOutcome.Status.SKIPPED);
+    }
+
+    private void append(ITestResult result, TestOutcome.Status status) {
+        ResultLog.Writer target = writer;
+        if (target == null) {
+            return;
+        }
+        try {
+            target.append(toOutcome(result, status));
+        } catch (IOException e) {
+            logger.error("Could not append to result log {}: ", logFile, e);
+            return;
+        }
+        if (System.nanoTime() - nextReport >= 0 && reporting.tryLock()) {
+            try {
+                nextReport = System.nanoTime() + reportEveryNanos;
+                report();
+            } finally {
+                reporting.unlock();
+            }
+        }
+    }
+
+    private void report() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+            summary.update();
+            summary.write(summaryFile);
+        } catch (IOException e) {
+            logger.error("Could not update result summary {}: ", summaryFile, e);
+        }
+    }
+
+    static TestOutcome toOutcome(ITestResult result, TestOutcome.Status status) {
+        Throwable failure = result.getThrowable();
+        // A skip carries the SkipException or the failed dependency; only failures keep their cause
+        boolean failed = status == TestOutcome.Status.FAILED && failure != null;
+        return new TestOutcome(result.getMethod().getRealClass().getName(), result.getMethod().getMethodName(),
+                parameters(result.getParameters()), result.getStartMillis(),
+                TimeUnit.MILLISECONDS.toMicros(Math.max(0, result.getEndMillis() - result.getStartMillis())), status,
+                failed ? failure.getClass().getName() : null, failed ? String.valueOf(failure.getMessage()) : null);
+    }
+
+    private static String parameters(Object[] parameters) {
+        if (parameters == null || parameters.length == 0) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (Object parameter : parameters) {
+            String value = String.valueOf(parameter);
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(value.length() <= MAX_PARAMETER_LENGTH ? value : value.substring(0, MAX_PARAMETER_LENGTH) + "...");
+        }
+        return text.toString();
+    }
+}
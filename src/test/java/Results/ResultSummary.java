@@ -0,0 +1,235 @@
+package Results;
+
+import Telemetry.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+// Summary of a result log, built incrementally: update() folds in only what was appended since the last call,
+// so a live report costs as much as the new records rather than the whole run. Memory is bounded by the number
+// of distinct test methods, not invocations: each method keeps counters and a latency histogram, and only the
+// slowest invocations and a capped set of failure groups are kept whole.
+// Usage: java Results.ResultSummary <results.bin> [summary.txt]
+public class ResultSummary {
+    static final int SLOWEST = 20;
+    static final int MAX_FAILURE_GROUPS = 500;
+    private static final int EXAMPLES_PER_GROUP = 3;
+
+    private final ResultLog.Reader reader;
+    private final Map<String, MethodStats> methods = new TreeMap<>();
+    private final PriorityQueue<TestOutcome> slowest =
+            new PriorityQueue<>(Comparator.comparingLong(TestOutcome::durationMicros));
+    private final Map<String, FailureGroup> failures = new LinkedHashMap<>();
+    private final LatencyHistogram duration = new LatencyHistogram();
+    private final long[] statusCounts = new long[TestOutcome.Status.values().length];
+    private long ungroupedFailures;
+
+    public ResultSummary(Path log) {
+        this.reader = new ResultLog.Reader(log);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: <results.bin> [summary.txt]");
+            System.exit(2);
+        }
+        ResultSummary summary = new ResultSummary(Paths.get(args[0]));
+        summary.update();
+        if (args.length > 1) {
+            summary.write(Paths.get(args[1]));
+        } else {
+            System.out.println(summary);
+        }
+    }
+
+    // Reads what was appended since the previous call; returns the number of new outcomes
+    public synchronized int update() throws IOException {
+        return reader.readAvailable(this::add);
+    }
+
+    private void add(TestOutcome outcome) {
+        statusCounts[outcome.status().ordinal()]++;
+        duration.recordMicros(outcome.durationMicros());
+        methods.computeIfAbsent(outcome.testClass() + "." + outcome.method(), key -> new MethodStats()).add(outcome);
+        if (slowest.size() < SLOWEST) {
+            slowest.add(outcome);
+        } else if (outcome.durationMicros() > slowest.peek().durationMicros()) {
+            slowest.poll();
+            slowest.add(outcome);
+        }
+        if (outcome.status() == TestOutcome.Status.FAILED) {
+            String key = outcome.testClass() + "." + outcome.method() + " " + outcome.failureType() + ": "
+                    + signature(outcome.failureMessage());
+            FailureGroup group = failures.get(key);
+            if (group == null && failures.size() < MAX_FAILURE_GROUPS) {
+                group = new FailureGroup(key);
+                failures.put(key, group);
+            }
+            if (group == null) {
+                ungroupedFailures++;
+            } else {
+                group.add(outcome);
+            }
+        }
+    }
+
+    // Groups failures that differ only in ids, timings and other numbers
+    static String signature(String message) {
+        if (message == null) {
+            return "";
+        }
+        int newline = message.indexOf('\n');
+        String firstLine = newline < 0 ? message : message.substring(0, newline);
+        return firstLine.replaceAll("\\d+", "#").trim();
+    }
+
+    public synchronized long total() {
+        long total = 0;
+        for (long count : statusCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public synchronized long count(TestOutcome.Status status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    public synchronized Map<String, MethodStats> methods() {
+        return new TreeMap<>(methods);
+    }
+
+    // Slowest invocations first
+    public synchronized List<TestOutcome> slowest() {
+        List<TestOutcome> sorted = new ArrayList<>(slowest);
+        sorted.sort(Comparator.comparingLong(TestOutcome::durationMicros).reversed());
+        return sorted;
+    }
+
+    // Largest groups first
+    public synchronized List<FailureGroup> failureGroups() {
+        List<FailureGroup> sorted = new ArrayList<>(failures.values());
+        sorted.sort(Comparator.comparingLong(FailureGroup::count).reversed());
+        return sorted;
+    }
+
+    // Failures past the group cap, counted but not grouped
+    public synchronized long ungroupedFailures() {
+        return ungroupedFailures;
+    }
+
+    // Written to a temporary file and moved into place, so a reader never sees half a report
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder text = new StringBuilder(String.format(
+                "%d invocations: %d passed, %d failed, %d skipped; duration p50 %.1fms, p99 %.1fms, max %.1fms",
+                total(), count(TestOutcome.Status.PASSED), count(TestOutcome.Status.FAILED),
+                count(TestOutcome.Status.SKIPPED), duration.percentileMicros(50) / 1000.0,
+                duration.percentileMicros(99) / 1000.0, duration.percentileMicros(100) / 1000.0));
+        text.append(String.format("%n%n%-60s %8s %7s %7s %10s %10s %10s", "method", "runs", "failed", "skipped",
+                "p50", "p99", "total"));
+        methods.forEach((method, stats) -> text.append(String.format("%n%-60s %8d %7d %7d %8.1fms %8.1fms %9.1fs",
+                method, stats.duration.count(), stats.failed, stats.skipped, stats.duration.percentileMicros(50) / 1000.0,
+                stats.duration.percentileMicros(99) / 1000.0, stats.duration.sumMicros() / 1e6)));
+        text.append(String.format("%n%nSlowest invocations:"));
+        for (TestOutcome outcome : slowest()) {
+            text.append(String.format("%n  %s", outcome));
+        }
+        if (!failures.isEmpty()) {
+            text.append(String.format("%n%nFailures by cause:"));
+            for (FailureGroup group : failureGroups()) {
+                text.append(String.format("%n  %dx %s", group.count, group.key));
+                for (TestOutcome example : group.examples) {
+                    text.append(String.format("%n      e.g. %s", example.parameters().isEmpty() ? example.failureMessage()
+                            : "(" + example.parameters() + ") " + example.failureMessage()));
+                }
+            }
+            if (ungroupedFailures > 0) {
+                text.append(String.format("%n  %d more failures past the %d group limit", ungroupedFailures,
+                        MAX_FAILURE_GROUPS));
+            }
+        }
+        return text.toString();
+    }
+
+    public static class MethodStats {
+        private final LatencyHistogram duration = new LatencyHistogram();
+        private long failed;
+        private long skipped;
+
+        void add(TestOutcome outcome) {
+            duration.recordMicros(outcome.durationMicros());
+            if (outcome.status() == TestOutcome.Status.FAILED) {
+                failed++;
+            } else if (outcome.status() == TestOutcome.Status.SKIPPED) {
+                skipped++;
+            }
+        }
+
+        public LatencyHistogram duration() {
+            return duration;
+        }
+
+        public long runs() {
+            return duration.count();
+        }
+
+        public long failed() {
+            return failed;
+        }
+
+        public long skipped() {
+            return skipped;
+        }
+    }
+
+    public static class FailureGroup {
+        private final String key;
+        private final List<TestOutcome> examples = new ArrayList<>(EXAMPLES_PER_GROUP);
+        private long count;
+
+        FailureGroup(String key) {
+            this.key = key;
+        }
+
+        void add(TestOutcome outcome) {
+            count++;
+            if (examples.size() < EXAMPLES_PER_GROUP) {
+                examples.add(outcome);
+            }
+        }
+
+        // "Class.method ExceptionType: message with numbers as #"
+        public String key() {
+            return key;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public List<TestOutcome> examples() {
+            return examples;
+        }
+    }
+}
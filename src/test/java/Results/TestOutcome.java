@@ -0,0 +1,69 @@
+package Results;
+
+// One finished test invocation as stored in the result log
+public class TestOutcome {
+    public enum Status {
+        PASSED, FAILED, SKIPPED
+    }
+
+    private final String testClass;
+    private final String method;
+    private final String parameters;
+    private final long startMillis;
+    private final long durationMicros;
+    private final Status status;
+    private final String failureType;
+    private final String failureMessage;
+
+    public TestOutcome(String testClass, String method, String parameters, long startMillis, long durationMicros,
+                       Status status, String failureType, String failureMessage) {
+        this.testClass = testClass;
+        this.method = method;
+        this.parameters = parameters == null ? "" : parameters;
+        this.startMillis = startMillis;
+        this.durationMicros = durationMicros;
+        this.status = status;
+        this.failureType = failureType;
+        this.failureMessage = failureMessage;
+    }
+
+    public String testClass() {
+        return testClass;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    // Rendered data provider arguments, empty for plain tests
+    public String parameters() {
+        return parameters;
+    }
+
+    public long startMillis() {
+        return startMillis;
+    }
+
+    public long durationMicros() {
+        return durationMicros;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    // Exception class name, or null when the invocation did not throw
+    public String failureType() {
+        return failureType;
+    }
+
+    public String failureMessage() {
+        return failureMessage;
+    }
+
+    @Override
+    public String toString() {
+        return testClass + "." + method + (parameters.isEmpty() ? "" : "(" + parameters + ")") + " " + status
+                + " in " + durationMicros / 1000 + "ms" + (failureType == null ? "" : ": " + failureType);
+    }
+}
@@ -0,0 +1,73 @@
+package Scheduling;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+// The resources one test reads and writes. Two tests conflict when either writes something the other reads or
+// writes; readers of the same resource never do.
+public class ResourceClaims {
+    public static final ResourceClaims NONE = new ResourceClaims(Collections.emptySet(), Collections.emptySet());
+
+    private final Set<String> reads;
+    private final Set<String> writes;
+
+    public ResourceClaims(Set<String> reads, Set<String> writes) {
+        Set<String> readOnly = new TreeSet<>(reads);
+        readOnly.removeAll(writes);
+        this.reads = Collections.unmodifiableSet(readOnly);
+        this.writes = Collections.unmodifiableSet(new TreeSet<>(writes));
+    }
+
+    // @UsesResources on the method and on its class, merged
+    public static ResourceClaims of(Method method) {
+        if (method == null) {
+            return NONE;
+        }
+        Set<String> reads = new TreeSet<>();
+        Set<String> writes = new TreeSet<>();
+        for (UsesResources declared : new UsesResources[]{
+                method.getDeclaringClass().getAnnotation(UsesResources.class),
+                method.getAnnotation(UsesResources.class)}) {
+            if (declared != null) {
+                reads.addAll(Arrays.asList(declared.reads()));
+                writes.addAll(Arrays.asList(declared.writes()));
+            }
+        }
+        return reads.isEmpty() && writes.isEmpty() ? NONE : new ResourceClaims(reads, writes);
+    }
+
+    // Read-only resources; anything written is only in writes()
+    public Set<String> reads() {
+        return reads;
+    }
+
+    public Set<String> writes() {
+        return writes;
+    }
+
+    public boolean isEmpty() {
+        return reads.isEmpty() && writes.isEmpty();
+    }
+
+    public boolean conflictsWith(ResourceClaims other) {
+        for (String resource : writes) {
+            if (other.writes.contains(resource) || other.reads.contains(resource)) {
+                return true;
+            }
+        }
+        for (String resource : reads) {
+            if (other.writes.contains(resource)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "reads " + reads + " writes " + writes;
+    }
+}
@@ -0,0 +1,118 @@
+package Scheduling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Readers-writer locks over named resources, taken all at once: a test waits until every resource it claims is
+// free for it and then holds them together, so tests never hold some while waiting for others and cannot
+// deadlock. A test also waits behind any earlier waiting test it conflicts with, so a writer is not starved by
+// a stream of readers overtaking it.
+// Leases are not tied to a thread; TestNG may finish a test on another thread than the one that started it.
+public class ResourceLocks {
+    private final Map<String, Integer> readers = new HashMap<>();
+    private final Set<String> writers = new HashSet<>();
+    // Leases still waiting for their claims, oldest first
+    private final List<Lease> waiting = new ArrayList<>();
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong waited = new AtomicLong();
+    private final AtomicLong waitedNanos = new AtomicLong();
+
+    public Lease acquire(ResourceClaims claims) throws InterruptedException {
+        if (claims.isEmpty()) {
+            return new Lease(ResourceClaims.NONE);
+        }
+        Lease lease = new Lease(claims);
+        synchronized (this) {
+            if (!available(claims, waiting.size())) {
+                long start = System.nanoTime();
+                waiting.add(lease);
+                try {
+                    while (!available(claims, waiting.indexOf(lease))) {
+                        wait();
+                    }
+                } finally {
+                    waiting.remove(lease);
+                    notifyAll();
+                }
+                waited.incrementAndGet();
+                waitedNanos.addAndGet(System.nanoTime() - start);
+            }
+            adjust(readers, claims.reads(), 1);
+            writers.addAll(claims.writes());
+            acquired.incrementAndGet();
+        }
+        return lease;
+    }
+
+    // Free of holders and of conflicting claims queued ahead of position
+    private boolean available(ResourceClaims claims, int position) {
+        for (String resource : claims.writes()) {
+            if (writers.contains(resource) || readers.containsKey(resource)) {
+                return false;
+            }
+        }
+        for (String resource : claims.reads()) {
+            if (writers.contains(resource)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < position; i++) {
+            if (waiting.get(i).claims.conflictsWith(claims)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void release(ResourceClaims claims) {
+        adjust(readers, claims.reads(), -1);
+        writers.removeAll(claims.writes());
+        notifyAll();
+    }
+
+    private static void adjust(Map<String, Integer> counts, Set<String> resources, int delta) {
+        for (String resource : resources) {
+            counts.merge(resource, delta, (count, change) -> count + change == 0 ? null : count + change);
+        }
+    }
+
+    // Leases handed out that claimed at least one resource
+    public long acquired() {
+        return acquired.get();
+    }
+
+    // Of those, how many had to wait for another test, and for how long in total
+    public long waited() {
+        return waited.get();
+    }
+
+    public long waited(TimeUnit unit) {
+        return unit.convert(waitedNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public class Lease implements AutoCloseable {
+        private final ResourceClaims claims;
+        private boolean released;
+
+        private Lease(ResourceClaims claims) {
+            this.claims = claims;
+        }
+
+        @Override
+        public void close() {
+            synchronized (ResourceLocks.this) {
+                if (released || claims.isEmpty()) {
+                    return;
+                }
+                released = true;
+            }
+            release(claims);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package Scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Lets the suite run with parallel="methods" (mvn test -Pparallel) although some tests share fixed server-side
+// state. Tests declare what they touch with @UsesResources. While a test or configuration method runs it holds
+// its resources through ResourceLocks, so a writer never overlaps a reader or writer of the same resource, and
+// methods without declarations never wait. A @BeforeClass fixture declares what it seeds on itself.
+// A lease covers one invocation, not a @BeforeMethod, its test and its @AfterMethod together, so a class that
+// keeps per-test fixtures in fields is @Test(singleThreaded = true) rather than declared.
+// As the method interceptor it also orders each run in waves of mutually compatible tests, conflicting ones
+// in different waves, so the thread pool is rarely handed a test that would only block.
+// Registered through META-INF/services like the other listeners.
+public class ResourceScheduler implements IMethodInterceptor, IInvokedMethodListener, ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceScheduler.class);
+    private static final ResourceLocks locks = new ResourceLocks();
+    private static final Map<Method, ResourceClaims> claims = new ConcurrentHashMap<>();
+
+    private final Map<ITestResult, ResourceLocks.Lease> leases = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        List<List<IMethodInstance>> waves = waves(methods, instance -> claimsOf(instance.getMethod()));
+        if (waves.size() > 1) {
+            logger.info("Scheduled {} tests of {} in {} waves of compatible resource use", methods.size(),
+                    context.getName(), waves.size());
+        }
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        waves.forEach(ordered::addAll);
+        return ordered;
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult result) {
+        ResourceClaims claimed = claimsOf(method.getTestMethod());
+        if (claimed.isEmpty()) {
+            return;
+        }
+        try {
+            leases.put(result, locks.acquire(claimed));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for " + claimed, e);
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        ResourceLocks.Lease lease = leases.remove(result);
+        if (lease != null) {
+            lease.close();
+        }
+    }
+
+    static ResourceClaims claimsOf(ITestNGMethod method) {
+        Method reflected = method.getConstructorOrMethod().getMethod();
+        return reflected == null ? ResourceClaims.NONE : claims.computeIfAbsent(reflected, ResourceClaims::of);
+    }
+
+    // Greedy colouring of the conflict graph: items go, most conflicted first, into the first wave holding
+    // nothing they conflict with. Within a wave the input order is kept. Unclaimed items all land in the first.
+    public static <T> List<List<T>> waves(List<T> items, Function<T, ResourceClaims> claimsOf) {
+        int size = items.size();
+        List<ResourceClaims> claimed = new ArrayList<>(size);
+        for (T item : items) {
+            claimed.add(claimsOf.apply(item));
+        }
+        int[] conflicts = new int[size];
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (claimed.get(i).conflictsWith(claimed.get(j))) {
+                    conflicts[i]++;
+                    conflicts[j]++;
+                }
+            }
+        }
+        List<Integer> byConflicts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            byConflicts.add(i);
+        }
+        byConflicts.sort(Comparator.comparingInt((Integer i) -> -conflicts[i]).thenComparingInt(i -> i));
+
+        int[] wave = new int[size];
+        List<List<Integer>> members = new ArrayList<>();
+        for (int i : byConflicts) {
+            int w = 0;
+            while (w < members.size() && conflictsWithAny(claimed, i, members.get(w))) {
+                w++;
+            }
+            if (w == members.size()) {
+                members.add(new ArrayList<>());
+            }
+            members.get(w).add(i);
+            wave[i] = w;
+        }
+
+        List<List<T>> waves = new ArrayList<>();
+        for (int w = 0; w < members.size(); w++) {
+            waves.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            waves.get(wave[i]).add(items.get(i));
+        }
+        return waves;
+    }
+
+    private static boolean conflictsWithAny(List<ResourceClaims> claimed, int item, List<Integer> wave) {
+        for (int other : wave) {
+            if (claimed.get(item).conflictsWith(claimed.get(other))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // How much parallelism the declarations cost: tests that had to wait for a conflicting one to finish
+    @Override
+    public void onFinish(ISuite suite) {
+        if (locks.acquired() > 0) {
+            logger.info("{} tests took resource locks, {} waited for {}ms in total", locks.acquired(),
+                    locks.waited(), locks.waited(TimeUnit.MILLISECONDS));
+        }
+    }
+}
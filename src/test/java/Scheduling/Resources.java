@@ -0,0 +1,13 @@
+package Scheduling;
+
+// Resource keys for @UsesResources. The prefixes are meant to be concatenated with a constant, which keeps the
+// key a compile-time constant: @UsesResources(reads = Resources.BOOKING + 1)
+public class Resources {
+    // A fixed booking id, e.g. BOOKING + 1
+    public static final String BOOKING = "booking:";
+    // Bookings found by a name search, e.g. NAME + "John Doe"
+    public static final String NAME = "name:";
+
+    private Resources() {
+    }
+}
@@ -0,0 +1,17 @@
+package Scheduling;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Declares the shared server-side state a test reads or changes, so ResourceScheduler can run it alongside every
+// test it does not conflict with. Keys are plain strings, see Resources for the conventional ones. On a class it
+// applies to each of its test methods, in addition to what the method itself declares.
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface UsesResources {
+    String[] reads() default {};
+
+    String[] writes() default {};
+}
@@ -0,0 +1,312 @@
+package Snapshot;
+
+import Client.Booking;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Columnar snapshot of every booking, sorted by id. The file is one flat buffer, read in place (memory-mapped
+// on load) without parsing:
+//   header   magic "BKSN", version, rows, dictionary size, captured-at millis
+//   dict     int offsets[size + 1], then the UTF-8 bytes of every distinct string, padded to 4 bytes
+//   columns  int[rows] each for id, firstname, lastname, totalprice, checkin, checkout, additionalneeds
+//   bitset   long[(rows + 63) / 64] for depositpaid
+// Strings are dictionary indexes, dates are epoch days, and missing values are MISSING.
+public class BookingSnapshot {
+    public static final int MISSING = Integer.MIN_VALUE;
+    private static final int MAGIC = 0x424B534E; // "BKSN"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+
+    static final int ID = 0;
+    static final int FIRSTNAME = 1;
+    static final int LASTNAME = 2;
+    static final int TOTALPRICE = 3;
+    static final int CHECKIN = 4;
+    static final int CHECKOUT = 5;
+    static final int ADDITIONALNEEDS = 6;
+    static final String[] COLUMNS = {"id", "firstname", "lastname", "totalprice", "checkin", "checkout", "additionalneeds"};
+    static final boolean[] STRING_COLUMNS = {false, true, true, false, false, false, true};
+
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final int dictionarySize;
+    private final long capturedAtMillis;
+    private final int blobStart;
+    private final int columnsStart;
+    private final int bitsetStart;
+
+    private BookingSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a booking snapshot (or an unsupported version)");
+        }
+        rows = buffer.getInt(8);
+        dictionarySize = buffer.getInt(12);
+        capturedAtMillis = buffer.getLong(16);
+        blobStart = HEADER_BYTES + (dictionarySize + 1) * 4;
+        columnsStart = blobStart + pad(buffer.getInt(HEADER_BYTES + dictionarySize * 4));
+        bitsetStart = columnsStart + COLUMNS.length * rows * 4;
+        if (bitsetStart + bitsetWords(rows) * 8 > buffer.limit()) {
+            throw new IOException("Booking snapshot is truncated");
+        }
+    }
+
+    public static BookingSnapshot map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new BookingSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer source = buffer.duplicate();
+            source.clear();
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public long capturedAtMillis() {
+        return capturedAtMillis;
+    }
+
+    public int sizeInBytes() {
+        return buffer.limit();
+    }
+
+    public int id(int row) {
+        return column(ID, row);
+    }
+
+    // Row of the given booking id, or -1
+    public int rowOf(int id) {
+        int low = 0;
+        int high = rows - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = id(mid);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public String firstname(int row) {
+        return string(column(FIRSTNAME, row));
+    }
+
+    public String lastname(int row) {
+        return string(column(LASTNAME, row));
+    }
+
+    public Integer totalprice(int row) {
+        int value = column(TOTALPRICE, row);
+        return value == MISSING ? null : value;
+    }
+
+    public boolean depositpaid(int row) {
+        return (buffer.getLong(bitsetStart + (row >>> 6) * 8) & (1L << (row & 63))) != 0;
+    }
+
+    public LocalDate checkin(int row) {
+        return date(column(CHECKIN, row));
+    }
+
+    public LocalDate checkout(int row) {
+        return date(column(CHECKOUT, row));
+    }
+
+    public String additionalneeds(int row) {
+        return string(column(ADDITIONALNEEDS, row));
+    }
+
+    public Booking booking(int row) {
+        Booking booking = new Booking();
+        booking.setFirstname(firstname(row));
+        booking.setLastname(lastname(row));
+        booking.setTotalprice(totalprice(row));
+        booking.setDepositpaid(depositpaid(row));
+        LocalDate checkin = checkin(row);
+        LocalDate checkout = checkout(row);
+        booking.setBookingdates(new Booking.BookingDates(checkin == null ? null : checkin.toString(),
+                checkout == null ? null : checkout.toString()));
+        booking.setAdditionalneeds(additionalneeds(row));
+        return booking;
+    }
+
+    int column(int column, int row) {
+        return buffer.getInt(columnsStart + (column * rows + row) * 4);
+    }
+
+    // Compares a string column across two snapshots by their UTF-8 bytes, without decoding either side
+    boolean sameString(int column, int row, BookingSnapshot other, int otherRow) {
+        int index = column(column, row);
+        int otherIndex = other.column(column, otherRow);
+        if (index == MISSING || otherIndex == MISSING) {
+            return index == otherIndex;
+        }
+        int start = stringStart(index);
+        int length = stringStart(index + 1) - start;
+        int otherStart = other.stringStart(otherIndex);
+        if (other.stringStart(otherIndex + 1) - otherStart != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != other.buffer.get(otherStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int stringStart(int index) {
+        return blobStart + buffer.getInt(HEADER_BYTES + index * 4);
+    }
+
+    private String string(int index) {
+        if (index == MISSING) {
+            return null;
+        }
+        int start = stringStart(index);
+        byte[] bytes = new byte[stringStart(index + 1) - start];
+        buffer.duplicate().position(start).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDate date(int epochDay) {
+        return epochDay == MISSING ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static int pad(int bytes) {
+        return (bytes + 3) & ~3;
+    }
+
+    private static int bitsetWords(int rows) {
+        return (rows + 63) / 64;
+    }
+
+    // Collects bookings in any order (safe to call from several threads) and encodes them once at build()
+    public static class Builder {
+        private final Map<Integer, Booking> bookings = new HashMap<>();
+
+        public synchronized Builder add(int id, Booking booking) {
+            bookings.put(id, booking);
+            return this;
+        }
+
+        public synchronized int size() {
+            return bookings.size();
+        }
+
+        public synchronized BookingSnapshot build() {
+            int rows = bookings.size();
+            int[] ids = new int[rows];
+            int n = 0;
+            for (int id : bookings.keySet()) {
+                ids[n++] = id;
+            }
+            Arrays.sort(ids);
+
+            Map<String, Integer> dictionary = new HashMap<>();
+            List<byte[]> strings = new ArrayList<>();
+            int[][] columns = new int[COLUMNS.length][rows];
+            long[] deposit = new long[bitsetWords(rows)];
+            for (int row = 0; row < rows; row++) {
+                Booking booking = bookings.get(ids[row]);
+                Booking.BookingDates dates = booking.getBookingdates();
+                columns[ID][row] = ids[row];
+                columns[FIRSTNAME][row] = encode(booking.getFirstname(), dictionary, strings);
+                columns[LASTNAME][row] = encode(booking.getLastname(), dictionary, strings);
+                columns[TOTALPRICE][row] = booking.getTotalprice() == null ? MISSING : booking.getTotalprice();
+                columns[CHECKIN][row] = epochDay(dates == null ? null : dates.getCheckin());
+                columns[CHECKOUT][row] = epochDay(dates == null ? null : dates.getCheckout());
+                columns[ADDITIONALNEEDS][row] = encode(booking.getAdditionalneeds(), dictionary, strings);
+                if (Boolean.TRUE.equals(booking.getDepositpaid())) {
+                    deposit[row >>> 6] |= 1L << (row & 63);
+                }
+            }
+
+            int blobBytes = 0;
+            for (byte[] string : strings) {
+                blobBytes += string.length;
+            }
+            int size = HEADER_BYTES + (strings.size() + 1) * 4 + pad(blobBytes)
+                    + COLUMNS.length * rows * 4 + deposit.length * 8;
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(strings.size()).putLong(System.currentTimeMillis());
+            int offset = 0;
+            for (byte[] string : strings) {
+                buffer.putInt(offset);
+                offset += string.length;
+            }
+            buffer.putInt(offset);
+            for (byte[] string : strings) {
+                buffer.put(string);
+            }
+            buffer.position(buffer.position() + pad(blobBytes) - blobBytes);
+            for (int[] column : columns) {
+                for (int value : column) {
+                    buffer.putInt(value);
+                }
+            }
+            for (long word : deposit) {
+                buffer.putLong(word);
+            }
+            buffer.flip();
+            try {
+                return new BookingSnapshot(buffer);
+            } catch (IOException e) {
+                throw new IllegalStateException("Encoded snapshot failed validation", e);
+            }
+        }
+
+        private static int encode(String value, Map<String, Integer> dictionary, List<byte[]> strings) {
+            if (value == null) {
+                return MISSING;
+            }
+            return dictionary.computeIfAbsent(value, key -> {
+                strings.add(key.getBytes(StandardCharsets.UTF_8));
+                return strings.size() - 1;
+            });
+        }
+
+        // Unparseable dates are stored as missing rather than failing the whole capture
+        private static int epochDay(String date) {
+            if (date == null) {
+                return MISSING;
+            }
+            try {
+                return (int) LocalDate.parse(date).toEpochDay();
+            } catch (RuntimeException e) {
+                return MISSING;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package Snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Difference between two snapshots, found with a single merge pass over the sorted id columns. Int columns
+// are compared directly and string columns by their encoded bytes, so nothing is decoded along the way.
+public class SnapshotDiff {
+    private final List<Integer> added = new ArrayList<>();
+    private final List<Integer> removed = new ArrayList<>();
+    private final Map<Integer, List<String>> changed = new LinkedHashMap<>();
+
+    public static SnapshotDiff of(BookingSnapshot before, BookingSnapshot after) {
+        SnapshotDiff diff = new SnapshotDiff();
+        int b = 0;
+        int a = 0;
+        while (b < before.size() || a < after.size()) {
+            int beforeId = b < before.size() ? before.id(b) : Integer.MAX_VALUE;
+            int afterId = a < after.size() ? after.id(a) : Integer.MAX_VALUE;
+            if (beforeId < afterId) {
+                diff.removed.add(beforeId);
+                b++;
+            } else if (afterId < beforeId) {
+                diff.added.add(afterId);
+                a++;
+            } else {
+                List<String> fields = changedFields(before, b, after, a);
+                if (!fields.isEmpty()) {
+                    diff.changed.put(beforeId, fields);
+                }
+                b++;
+                a++;
+            }
+        }
+        return diff;
+    }
+
+    private static List<String> changedFields(BookingSnapshot before, int b, BookingSnapshot after, int a) {
+        List<String> fields = null;
+        for (int column = 1; column < BookingSnapshot.COLUMNS.length; column++) {
+            boolean same = BookingSnapshot.STRING_COLUMNS[column]
+                    ? before.sameString(column, b, after, a)
+                    : before.column(column, b) == after.column(column, a);
+            if (!same) {
+                fields = fields == null ? new ArrayList<>() : fields;
+                fields.add(BookingSnapshot.COLUMNS[column]);
+            }
+        }
+        if (before.depositpaid(b) != after.depositpaid(a)) {
+            fields = fields == null ? new ArrayList<>() : fields;
+            fields.add("depositpaid");
+        }
+        return fields == null ? Collections.emptyList() : fields;
+    }
+
+    public List<Integer> added() {
+        return added;
+    }
+
+    public List<Integer> removed() {
+        return removed;
+    }
+
+    // Booking id -> names of the fields that differ
+    public Map<Integer, List<String>> changed() {
+        return changed;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotDiff{added=" + added.size() + ", removed=" + removed.size() + ", changed=" + changed.size() + "}";
+    }
+}
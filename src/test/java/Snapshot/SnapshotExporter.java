@@ -0,0 +1,106 @@
+package Snapshot;
+
+import Client.ApiResponse;
+import Client.AsyncBookingClient;
+import Client.Booking;
+import Utils.ConfigManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Captures every booking of an environment: one GET /booking for the ids, then GET /booking/{id} for each,
+// with at most the async client's in-flight limit outstanding. Bookings deleted between listing and
+// fetching (404) are left out rather than failing the capture.
+public class SnapshotExporter {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotExporter.class);
+
+    private final AsyncBookingClient client;
+    private final Duration timeout;
+
+    public SnapshotExporter(AsyncBookingClient client, Duration timeout) {
+        this.client = client;
+        this.timeout = timeout;
+    }
+
+    // java Snapshot.SnapshotExporter capture <file> [baseUri] | diff <before> <after>
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("capture")) {
+            String baseUri = args.length > 2 ? args[2] : ConfigManager.getBaseUri();
+            Duration timeout = Duration.ofSeconds(ConfigManager.getLong("snapshot.timeoutSeconds", 300));
+            new SnapshotExporter(new AsyncBookingClient(baseUri), timeout).capture().write(Paths.get(args[1]));
+        } else if (args.length == 3 && args[0].equals("diff")) {
+            SnapshotDiff diff = SnapshotDiff.of(BookingSnapshot.map(Paths.get(args[1])), BookingSnapshot.map(Paths.get(args[2])));
+            System.out.println(diff);
+            System.out.println("added=" + diff.added());
+            System.out.println("removed=" + diff.removed());
+            System.out.println("changed=" + diff.changed());
+        } else {
+            System.err.println("usage: capture <file> [baseUri] | diff <before> <after>");
+            System.exit(2);
+        }
+    }
+
+    public BookingSnapshot capture() {
+        long start = System.nanoTime();
+        ApiResponse listing = client.searchBookings(Collections.emptyMap()).join();
+        if (listing.getStatusCode() != 200 || !listing.json().isArray()) {
+            throw new IllegalStateException("Could not list bookings: " + listing);
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode entry : listing.json()) {
+            ids.add(entry.get("bookingid").asInt());
+        }
+
+        BookingSnapshot.Builder builder = new BookingSnapshot.Builder();
+        AtomicInteger missing = new AtomicInteger();
+        List<CompletableFuture<Void>> fetches = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            fetches.add(client.getBooking(id).thenAccept(response -> {
+                if (response.getStatusCode() == 200) {
+                    builder.add(id, toBooking(response.json()));
+                } else if (response.getStatusCode() == 404) {
+                    missing.incrementAndGet();
+                } else {
+                    throw new IllegalStateException("GET /booking/" + id + " failed: " + response);
+                }
+            }));
+        }
+        AsyncBookingClient.allOf(fetches, timeout).join();
+
+        BookingSnapshot snapshot = builder.build();
+        logger.info("Captured {} bookings ({} vanished while fetching) into {} bytes in {} ms",
+                snapshot.size(), missing.get(), snapshot.sizeInBytes(), (System.nanoTime() - start) / 1_000_000);
+        return snapshot;
+    }
+
+    // Field by field from the tree, so a booking with an odd type in one field still gets captured
+    static Booking toBooking(JsonNode json) {
+        Booking booking = new Booking();
+        booking.setFirstname(text(json, "firstname"));
+        booking.setLastname(text(json, "lastname"));
+        JsonNode price = json.get("totalprice");
+        booking.setTotalprice(price != null && price.canConvertToInt() ? price.asInt() : null);
+        JsonNode deposit = json.get("depositpaid");
+        booking.setDepositpaid(deposit != null && deposit.asBoolean());
+        JsonNode dates = json.get("bookingdates");
+        if (dates != null && dates.isObject()) {
+            booking.setBookingdates(new Booking.BookingDates(text(dates, "checkin"), text(dates, "checkout")));
+        }
+        booking.setAdditionalneeds(text(json, "additionalneeds"));
+        return booking;
+    }
+
+    private static String text(JsonNode json, String field) {
+        JsonNode value = json.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
@@ -0,0 +1,70 @@
+package Telemetry;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+// Committed per-operation allocation budgets, in bytes per operation on the calling thread.
+// Blessing rewrites the file from a measured run plus a margin, so a budget only moves in a reviewed commit.
+public class AllocationBudgets {
+    private final Map<String, Long> budgets;
+
+    private AllocationBudgets(Map<String, Long> budgets) {
+        this.budgets = budgets;
+    }
+
+    public static AllocationBudgets load(Path file) throws IOException {
+        Properties properties = new Properties();
+        if (Files.exists(file)) {
+            try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(in);
+            }
+        }
+        Map<String, Long> budgets = new TreeMap<>();
+        for (String operation : properties.stringPropertyNames()) {
+            budgets.put(operation, Long.parseLong(properties.getProperty(operation).trim()));
+        }
+        return new AllocationBudgets(budgets);
+    }
+
+    // Each budget is the measured figure plus a margin in bytes, rounded up to a whole KB. The margin is the same
+    // for every operation rather than a share of it: it has to stay under the smallest regression worth catching,
+    // which costs about the same in a large pipeline as in a small one.
+    public static void bless(Path file, Map<String, Long> measured, long marginBytes) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# Bytes allocated per operation on the calling thread; regenerate with -Dalloc.bless=true\n");
+            for (Map.Entry<String, Long> entry : new TreeMap<>(measured).entrySet()) {
+                long budget = (entry.getValue() + marginBytes + 1023) / 1024 * 1024;
+                out.write(entry.getKey() + "=" + budget + "\n");
+            }
+        }
+    }
+
+    // null when the operation has no committed budget
+    public Long budget(String operation) {
+        return budgets.get(operation);
+    }
+
+    // Failure message when over budget or unbudgeted, otherwise null
+    public String check(String operation, long measuredBytes) {
+        Long budget = budgets.get(operation);
+        if (budget == null) {
+            return operation + " allocated " + measuredBytes + " bytes per operation but has no budget;"
+                    + " run with -Dalloc.bless=true and commit the file";
+        }
+        if (measuredBytes > budget) {
+            return String.format("%s allocated %d bytes per operation, %.0f%% over its budget of %d", operation,
+                    measuredBytes, (measuredBytes - budget) * 100.0 / budget, budget);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,52 @@
+package Telemetry;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+// Bytes allocated by the calling thread, from HotSpot's per-thread counter. Allocations on other threads
+// (server, I/O pools) are not counted, so the figure is what the code under test costs its caller.
+public class AllocationMeter {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private AllocationMeter() {
+    }
+
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    public static boolean isSupported() {
+        return THREADS != null && THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+    }
+
+    public static long threadAllocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // Median bytes per run after warmup runs, which load classes and fill caches the steady state never repeats.
+    // The cost of reading the counter itself is measured the same way and subtracted.
+    public static long bytesPerOperation(Operation operation, int warmup, int iterations) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        long overhead = median(() -> { }, Math.max(iterations, 100));
+        return Math.max(0, median(operation, iterations) - overhead);
+    }
+
+    private static long median(Operation operation, int iterations) throws Exception {
+        long[] samples = new long[iterations];
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < iterations; i++) {
+            long before = THREADS.getThreadAllocatedBytes(thread);
+            operation.run();
+            samples[i] = THREADS.getThreadAllocatedBytes(thread) - before;
+        }
+        Arrays.sort(samples);
+        return samples[iterations / 2];
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+}
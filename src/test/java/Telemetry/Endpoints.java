@@ -0,0 +1,153 @@
+package Telemetry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Collapses concrete request paths into endpoint templates, e.g. /booking/123 and /booking/{booking_id}
+// both become /booking/{id}, so telemetry is aggregated per endpoint rather than per URL.
+// Neither kind of path allocates once its endpoint has been seen: templated paths (the RestAssured case) are
+// memoized, and raw paths are matched in place against the few templates seen so far instead of being cached
+// one id at a time.
+public class Endpoints {
+    private static final int MAX_CACHED = 1024;
+    private static final int MAX_TEMPLATES = 256;
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+    private static final List<String> templates = new CopyOnWriteArrayList<>();
+    private static final Map<String, String> authorities = new ConcurrentHashMap<>();
+
+    private Endpoints() {
+    }
+
+    public static String template(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        String cached = cache.get(path);
+        if (cached != null) {
+            return cached;
+        }
+        for (int i = 0; i < templates.size(); i++) {
+            String known = templates.get(i);
+            if (walk(path, null, known)) {
+                return known;
+            }
+        }
+        StringBuilder built = new StringBuilder(path.length());
+        walk(path, built, null);
+        String template = built.toString();
+        // Raw /booking/123 paths are unbounded, so only paths that were already templates are kept as keys
+        if (path.indexOf('{') >= 0 && cache.size() < MAX_CACHED) {
+            cache.put(path, template);
+        }
+        if (templates.size() < MAX_TEMPLATES && !templates.contains(template)) {
+            templates.add(template);
+        }
+        return template;
+    }
+
+    // host[:port] of an absolute URI, or null for a relative path; memoized, since callers pass the same few base URIs
+    public static String authority(String uri) {
+        if (uri == null) {
+            return null;
+        }
+        String cached = authorities.get(uri);
+        if (cached == null) {
+            cached = "";
+            int scheme = uri.indexOf("://");
+            if (scheme >= 0) {
+                int end = scheme + 3;
+                while (end < uri.length() && uri.charAt(end) != '/' && uri.charAt(end) != '?') {
+                    end++;
+                }
+                cached = uri.substring(scheme + 3, end);
+            }
+            if (authorities.size() < MAX_CACHED) {
+                authorities.put(uri, cached);
+            }
+        }
+        return cached.isEmpty() ? null : cached;
+    }
+
+    // Produces the template of path: appended to out, or, with out null, compared with expected without building
+    // it. Scheme, host and query are dropped, id segments become {id} and a trailing slash is removed.
+    private static boolean walk(String path, StringBuilder out, String expected) {
+        int start = 0;
+        int scheme = path.indexOf("://");
+        if (scheme >= 0) {
+            int slash = path.indexOf('/', scheme + 3);
+            start = slash < 0 ? path.length() : slash;
+        }
+        int end = path.indexOf('?', start);
+        if (end < 0) {
+            end = path.length();
+        }
+
+        int length = 0;
+        // A '/' held back until something follows it, so a trailing one is dropped
+        boolean slash = false;
+        int segmentStart = start;
+        while (segmentStart < end) {
+            int segmentEnd = path.indexOf('/', segmentStart + 1);
+            if (segmentEnd < 0 || segmentEnd > end) {
+                segmentEnd = end;
+            }
+            if (path.charAt(segmentStart) == '/') {
+                if (slash && !emit(out, expected, length++, "/", 0, 1)) {
+                    return false;
+                }
+                slash = true;
+                segmentStart++;
+            }
+            if (segmentStart < segmentEnd) {
+                if (slash && !emit(out, expected, length++, "/", 0, 1)) {
+                    return false;
+                }
+                slash = false;
+                if (isIdSegment(path, segmentStart, segmentEnd)) {
+                    if (!emit(out, expected, length, "{id}", 0, 4)) {
+                        return false;
+                    }
+                    length += 4;
+                } else {
+                    if (!emit(out, expected, length, path, segmentStart, segmentEnd - segmentStart)) {
+                        return false;
+                    }
+                    length += segmentEnd - segmentStart;
+                }
+            }
+            segmentStart = segmentEnd;
+        }
+        if (length == 0) {
+            if (!emit(out, expected, 0, "/", 0, 1)) {
+                return false;
+            }
+            length = 1;
+        }
+        return out != null || length == expected.length();
+    }
+
+    private static boolean emit(StringBuilder out, String expected, int at, String source, int from, int count) {
+        if (out != null) {
+            out.append(source, from, from + count);
+            return true;
+        }
+        return expected.regionMatches(at, source, from, count);
+    }
+
+    private static boolean isIdSegment(String path, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        if (path.charAt(from) == '{' && path.charAt(to - 1) == '}') {
+            return true;
+        }
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(path.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
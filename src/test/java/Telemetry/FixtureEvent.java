@@ -0,0 +1,25 @@
+package Telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("booking.Fixture")
+@Label("Booking Fixture")
+@Category({"Booking API", "Fixtures"})
+@Description("Test fixture bookings being created or deleted, one event per batch")
+public class FixtureEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Bookings")
+    public int count;
+
+    @Label("Failed")
+    public int failed;
+
+    @Label("Test Class")
+    public String testClass;
+}
@@ -0,0 +1,57 @@
+package Telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("booking.HttpExchange")
+@Label("Booking API Exchange")
+@Category({"Booking API", "HTTP"})
+@Description("One request/response exchange with the booking API; the event duration is the latency")
+@StackTrace(false)
+public class HttpExchangeEvent extends Event {
+    @Label("Method")
+    public String method;
+
+    @Label("Endpoint")
+    @Description("Endpoint template, e.g. /booking/{id}")
+    public String endpoint;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    public long responseBytes;
+
+    @Label("Client")
+    public String client;
+
+    public static HttpExchangeEvent start(String client, String method, String path) {
+        HttpExchangeEvent event = new HttpExchangeEvent();
+        if (event.isEnabled()) {
+            event.client = client;
+            event.method = method;
+            event.endpoint = Endpoints.template(path);
+            event.begin();
+        }
+        return event;
+    }
+
+    public void end(int status, long requestBytes, long responseBytes) {
+        if (shouldCommit()) {
+            this.status = status;
+            this.requestBytes = requestBytes;
+            this.responseBytes = responseBytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package Telemetry;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+// Emits a booking.HttpExchange JFR event per RestAssured request. When no recording has the event
+// enabled this is one allocation-free isEnabled() check.
+public class JfrFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        HttpExchangeEvent event = HttpExchangeEvent.start("restassured", requestSpec.getMethod(),
+                requestSpec.getUserDefinedPath());
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (event.shouldCommit()) {
+            event.end(response.getStatusCode(), requestBytes(requestSpec.getBody()), responseBytes(response));
+        }
+        return response;
+    }
+
+    // Counted without copying the body; bodies RestAssured serializes itself (maps, POJOs) count as 0
+    static long requestBytes(Object body) {
+        if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        if (body instanceof CharSequence) {
+            return utf8Length((CharSequence) body);
+        }
+        return 0;
+    }
+
+    // Content-Length, or 0 when the response does not declare it; buffering the body to count it would
+    // allocate a copy per request
+    static long responseBytes(Response response) {
+        String contentLength = response.getHeader("Content-Length");
+        if (contentLength != null) {
+            try {
+                return Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                // not a usable length
+            }
+        }
+        return 0;
+    }
+
+    static long utf8Length(CharSequence text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
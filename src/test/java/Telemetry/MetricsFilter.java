@@ -0,0 +1,39 @@
+package Telemetry;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+// Feeds MetricsRegistry.global() from every RestAssured request
+public class MetricsFilter implements Filter {
+    private final MetricsRegistry registry;
+
+    public MetricsFilter() {
+        this(MetricsRegistry.global());
+    }
+
+    public MetricsFilter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String path = requestSpec.getUserDefinedPath();
+        String endpoint = Endpoints.template(path);
+        String target = Endpoints.authority(path != null && path.contains("://") ? path : requestSpec.getBaseUri());
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            registry.record(target, requestSpec.getMethod(), endpoint, 0, System.nanoTime() - start, 0, 0);
+            throw e;
+        }
+        registry.record(target, requestSpec.getMethod(), endpoint, response.getStatusCode(), System.nanoTime() - start,
+                JfrFilter.requestBytes(requestSpec.getBody()), JfrFilter.responseBytes(response));
+        return response;
+    }
+}
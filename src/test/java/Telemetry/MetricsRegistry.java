@@ -0,0 +1,239 @@
+package Telemetry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-endpoint request metrics, keyed by endpoint template, method and status class. Series are created
+// on first use; after that record() is two map/array lookups plus LongAdder and histogram increments,
+// with no locking and no allocation.
+public class MetricsRegistry {
+    static final String[] METHODS = {"GET", "POST", "PUT", "PATCH", "DELETE", "OTHER"};
+    static final String[] STATUS_CLASSES = {"error", "1xx", "2xx", "3xx", "4xx", "5xx"};
+    private static final double[] EXPORT_BOUNDS_SECONDS = {
+            0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    public static class Series {
+        final LongAdder requests = new LongAdder();
+        final LongAdder requestBytes = new LongAdder();
+        final LongAdder responseBytes = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        public long requests() {
+            return requests.sum();
+        }
+
+        public LatencyHistogram latency() {
+            return latency;
+        }
+    }
+
+    private static class Endpoint {
+        final Series[][] series = new Series[METHODS.length][STATUS_CLASSES.length];
+
+        synchronized Series create(int method, int statusClass) {
+            if (series[method][statusClass] == null) {
+                series[method][statusClass] = new Series();
+            }
+            return series[method][statusClass];
+        }
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    // Successful latency per target (host[:port]) and endpoint, one histogram per method, for the regression gate
+    private final Map<String, Map<String, LatencyHistogram[]>> targets = new ConcurrentHashMap<>();
+    // Search visibility lag per write operation, exported as its own family and never gated
+    private final Map<String, LatencyHistogram> visibilityLags = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    // status <= 0 means the exchange failed without a response
+    public void record(String method, String endpoint, int status, long latencyNanos, long requestBytes, long responseBytes) {
+        record(null, method, endpoint, status, latencyNanos, requestBytes, responseBytes);
+    }
+
+    // target is the host[:port] the request went to, or null if unknown
+    public void record(String target, String method, String endpoint, int status, long latencyNanos,
+                       long requestBytes, long responseBytes) {
+        if (target != null && statusClassIndex(status) == 2) {
+            Map<String, LatencyHistogram[]> byEndpoint = targets.get(target);
+            if (byEndpoint == null) {
+                byEndpoint = targets.computeIfAbsent(target, key -> new ConcurrentHashMap<>());
+            }
+            LatencyHistogram[] byMethod = byEndpoint.get(endpoint);
+            if (byMethod == null) {
+                byMethod = byEndpoint.computeIfAbsent(endpoint, key -> newHistograms());
+            }
+            byMethod[methodIndex(method)].recordNanos(latencyNanos);
+        }
+        Series series = series(method, endpoint, status);
+        series.requests.increment();
+        series.requestBytes.add(requestBytes);
+        series.responseBytes.add(responseBytes);
+        series.latency.recordNanos(latencyNanos);
+    }
+
+    public Series series(String method, String endpoint, int status) {
+        Endpoint entry = endpoints.get(endpoint);
+        if (entry == null) {
+            entry = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        }
+        int methodIndex = methodIndex(method);
+        int statusIndex = statusClassIndex(status);
+        Series series = entry.series[methodIndex][statusIndex];
+        return series != null ? series : entry.create(methodIndex, statusIndex);
+    }
+
+    // Latency of successful (2xx) requests per "METHOD endpoint", the input of the regression gate
+    public Map<String, LatencyHistogram> successLatencies() {
+        Map<String, LatencyHistogram> result = new TreeMap<>();
+        for (Map.Entry<String, Endpoint> endpoint : endpoints.entrySet()) {
+            for (int m = 0; m < METHODS.length; m++) {
+                Series series = endpoint.getValue().series[m][2];
+                if (series != null) {
+                    result.put(METHODS[m] + " " + endpoint.getKey(), series.latency);
+                }
+            }
+        }
+        return result;
+    }
+
+    // As successLatencies(), for requests to one target only, so runs against different servers are not mixed
+    public Map<String, LatencyHistogram> successLatencies(String target) {
+        Map<String, LatencyHistogram> result = new TreeMap<>();
+        Map<String, LatencyHistogram[]> byEndpoint = target == null ? null : targets.get(target);
+        if (byEndpoint != null) {
+            byEndpoint.forEach((endpoint, byMethod) -> {
+                for (int m = 0; m < METHODS.length; m++) {
+                    if (byMethod[m].count() > 0) {
+                        result.put(METHODS[m] + " " + endpoint, byMethod[m]);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    // How long a write ("create", "delete") took to show up in search
+    public LatencyHistogram visibilityLag(String operation) {
+        return visibilityLags.computeIfAbsent(operation, key -> new LatencyHistogram());
+    }
+
+    public void reset() {
+        endpoints.clear();
+        targets.clear();
+        visibilityLags.clear();
+    }
+
+    private static LatencyHistogram[] newHistograms() {
+        LatencyHistogram[] histograms = new LatencyHistogram[METHODS.length];
+        for (int m = 0; m < histograms.length; m++) {
+            histograms[m] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    public void writeOpenMetrics(Writer out) throws IOException {
+        Map<String, Endpoint> sorted = new TreeMap<>(endpoints);
+        String histogram = "booking_http_request_duration_seconds";
+        out.write("# TYPE " + histogram + " histogram\n");
+        out.write("# UNIT " + histogram + " seconds\n");
+        out.write("# HELP " + histogram + " Latency of booking API requests.\n");
+        forEachSeries(sorted, (labels, series) -> writeHistogram(out, histogram, labels, series.latency));
+        writeCounter(out, sorted, "booking_http_request_bytes", "Request body bytes sent.", series -> series.requestBytes.sum());
+        writeCounter(out, sorted, "booking_http_response_bytes", "Response body bytes received.", series -> series.responseBytes.sum());
+        if (!visibilityLags.isEmpty()) {
+            String lag = "booking_visibility_lag_seconds";
+            out.write("# TYPE " + lag + " histogram\n");
+            out.write("# UNIT " + lag + " seconds\n");
+            out.write("# HELP " + lag + " Time from a booking write until search reflects it.\n");
+            for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(visibilityLags).entrySet()) {
+                writeHistogram(out, lag, "op=\"" + escape(entry.getKey()) + "\"", entry.getValue());
+            }
+        }
+        out.write("# EOF\n");
+    }
+
+    public void dump(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeOpenMetrics(out);
+        }
+    }
+
+    private static void writeHistogram(Writer out, String name, String labels, LatencyHistogram latency)
+            throws IOException {
+        for (double bound : EXPORT_BOUNDS_SECONDS) {
+            out.write(name + "_bucket{" + labels + ",le=\"" + bound + "\"} "
+                    + latency.countAtOrBelow((long) (bound * 1_000_000)) + "\n");
+        }
+        out.write(name + "_bucket{" + labels + ",le=\"+Inf\"} " + latency.count() + "\n");
+        out.write(name + "_count{" + labels + "} " + latency.count() + "\n");
+        out.write(name + "_sum{" + labels + "} " + latency.sumMicros() / 1e6 + "\n");
+    }
+
+    private interface SeriesWriter {
+        void write(String labels, Series series) throws IOException;
+    }
+
+    private interface SeriesValue {
+        long of(Series series);
+    }
+
+    private void writeCounter(Writer out, Map<String, Endpoint> sorted, String name, String help, SeriesValue value)
+            throws IOException {
+        out.write("# TYPE " + name + " counter\n");
+        out.write("# HELP " + name + " " + help + "\n");
+        forEachSeries(sorted, (labels, series) -> out.write(name + "_total{" + labels + "} " + value.of(series) + "\n"));
+    }
+
+    private static void forEachSeries(Map<String, Endpoint> sorted, SeriesWriter writer) throws IOException {
+        for (Map.Entry<String, Endpoint> endpoint : sorted.entrySet()) {
+            for (int m = 0; m < METHODS.length; m++) {
+                for (int s = 0; s < STATUS_CLASSES.length; s++) {
+                    Series series = endpoint.getValue().series[m][s];
+                    if (series != null) {
+                        writer.write("method=\"" + METHODS[m] + "\",endpoint=\"" + escape(endpoint.getKey())
+                                + "\",status=\"" + STATUS_CLASSES[s] + "\"", series);
+                    }
+                }
+            }
+        }
+    }
+
+    static int methodIndex(String method) {
+        switch (method == null ? "" : method) {
+            case "GET":
+                return 0;
+            case "POST":
+                return 1;
+            case "PUT":
+                return 2;
+            case "PATCH":
+                return 3;
+            case "DELETE":
+                return 4;
+            default:
+                return 5;
+        }
+    }
+
+    static int statusClassIndex(int status) {
+        return status < 100 || status > 599 ? 0 : status / 100;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,110 @@
+package Telemetry;
+
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Per-phase latency histograms keyed by "METHOD /endpoint" and by cold or warm connection, so the report shows
+// how much of a cold request is connection setup and what the same call costs once the connection is pooled.
+public class PhaseReport {
+    // TestNG result attribute holding the List<PhaseTimings> of the requests a test made
+    public static final String ATTRIBUTE = "phaseTimings";
+    private static final PhaseReport GLOBAL = new PhaseReport();
+
+    public static class Series {
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram[] phases = new LatencyHistogram[PhaseTimings.Phase.values().length];
+
+        Series() {
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+
+        public LatencyHistogram total() {
+            return total;
+        }
+
+        public LatencyHistogram phase(PhaseTimings.Phase phase) {
+            return phases[phase.ordinal()];
+        }
+    }
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    public static PhaseReport global() {
+        return GLOBAL;
+    }
+
+    public void record(PhaseTimings timings) {
+        Series target = series.computeIfAbsent(key(timings.method() + " " + timings.endpoint(), timings.reused()),
+                key -> new Series());
+        target.total.recordNanos(timings.total(TimeUnit.NANOSECONDS));
+        for (PhaseTimings.Phase phase : PhaseTimings.Phase.values()) {
+            target.phases[phase.ordinal()].recordNanos(timings.get(phase, TimeUnit.NANOSECONDS));
+        }
+    }
+
+    // Adds the timings to the running TestNG test, if any, so listeners and reports can show them per test
+    @SuppressWarnings("unchecked")
+    public static void attach(PhaseTimings timings) {
+        ITestResult result = Reporter.getCurrentTestResult();
+        if (result == null) {
+            return;
+        }
+        synchronized (result) {
+            List<PhaseTimings> attached = (List<PhaseTimings>) result.getAttribute(ATTRIBUTE);
+            if (attached == null) {
+                attached = new ArrayList<>();
+                result.setAttribute(ATTRIBUTE, attached);
+            }
+            attached.add(timings);
+        }
+    }
+
+    // null when no request to that endpoint went over that kind of connection
+    public Series series(String endpoint, boolean warm) {
+        return series.get(key(endpoint, warm));
+    }
+
+    public boolean isEmpty() {
+        return series.isEmpty();
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String key(String endpoint, boolean warm) {
+        return endpoint + (warm ? " warm" : " cold");
+    }
+
+    // Median of each phase, which adds up to roughly the median total; p99 of the total for the tail
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format("%-34s %6s %9s %9s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "calls", "dns", "connect", "tls", "send", "wait", "download", "p50", "p99"));
+        new TreeMap<>(series).forEach((key, value) -> {
+            text.append(String.format("%n%-34s %6d", key, value.total.count()));
+            for (LatencyHistogram phase : value.phases) {
+                text.append(String.format(" %7.2fms", phase.percentileMicros(50) / 1000.0));
+            }
+            text.append(String.format(" %7.2fms %7.2fms", value.total.percentileMicros(50) / 1000.0,
+                    value.total.percentileMicros(99) / 1000.0));
+        });
+        return text.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package Telemetry;
+
+import java.util.concurrent.TimeUnit;
+
+// Where the time of one request went. Phases run back to back, so they add up to the total:
+// dns + connect + tls happen only on a cold (new) connection, send is writing the request, wait is from the
+// last request byte to the first response byte (server time plus one round trip), download is the rest of the body.
+public class PhaseTimings {
+    public enum Phase {
+        DNS, CONNECT, TLS, SEND, WAIT, DOWNLOAD
+    }
+
+    private final String method;
+    private final String endpoint;
+    private final int status;
+    private final boolean reused;
+    private final long[] nanos;
+
+    public PhaseTimings(String method, String path, int status, boolean reused, long dns, long connect, long tls,
+                        long send, long wait, long download) {
+        this.method = method;
+        this.endpoint = Endpoints.template(path);
+        this.status = status;
+        this.reused = reused;
+        this.nanos = new long[] {dns, connect, tls, send, wait, download};
+    }
+
+    public String method() {
+        return method;
+    }
+
+    // Endpoint template, e.g. /booking/{id}
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public int status() {
+        return status;
+    }
+
+    // True when the request went over a pooled connection, i.e. no dns, connect or tls
+    public boolean reused() {
+        return reused;
+    }
+
+    public long get(Phase phase, TimeUnit unit) {
+        return unit.convert(nanos[phase.ordinal()], TimeUnit.NANOSECONDS);
+    }
+
+    public long total(TimeUnit unit) {
+        long total = 0;
+        for (long phase : nanos) {
+            total += phase;
+        }
+        return unit.convert(total, TimeUnit.NANOSECONDS);
+    }
+
+    // Time spent before the request could be written
+    public long setup(TimeUnit unit) {
+        return unit.convert(nanos[0] + nanos[1] + nanos[2], TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %d %s %.1fms (dns %.1f, connect %.1f, tls %.1f, send %.1f, wait %.1f, download %.1f)",
+                method, endpoint, status, reused ? "warm" : "cold", total(TimeUnit.MICROSECONDS) / 1000.0,
+                nanos[0] / 1e6, nanos[1] / 1e6, nanos[2] / 1e6, nanos[3] / 1e6, nanos[4] / 1e6, nanos[5] / 1e6);
+    }
+}
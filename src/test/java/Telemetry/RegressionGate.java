@@ -0,0 +1,199 @@
+package Telemetry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Compares per-endpoint latency of a run against a blessed baseline. Distributions are compared with a
+// one-sided Mann-Whitney U test computed directly on histogram buckets (ties handled per bucket), and a
+// slowdown only counts when it is both significant and at least minEffect slower at the median.
+public class RegressionGate {
+    private static final int MAGIC = 0x424B4C42; // "BKLB"
+    private static final int VERSION = 1;
+
+    public enum Verdict { REGRESSION, IMPROVED, UNCHANGED, INSUFFICIENT_DATA }
+
+    public static class Result {
+        public final String operation;
+        public final long baselineCount;
+        public final long currentCount;
+        public final long baselineP50Micros;
+        public final long currentP50Micros;
+        public final double medianShift;
+        public final double pSlower;
+        public final double probabilitySlower;
+        public final Verdict verdict;
+
+        Result(String operation, long baselineCount, long currentCount, long baselineP50Micros, long currentP50Micros,
+               double pSlower, double probabilitySlower, Verdict verdict) {
+            this.operation = operation;
+            this.baselineCount = baselineCount;
+            this.currentCount = currentCount;
+            this.baselineP50Micros = baselineP50Micros;
+            this.currentP50Micros = currentP50Micros;
+            this.medianShift = baselineP50Micros == 0 ? 0 : (double) currentP50Micros / baselineP50Micros - 1;
+            this.pSlower = pSlower;
+            this.probabilitySlower = probabilitySlower;
+            this.verdict = verdict;
+        }
+    }
+
+    private final double alpha;
+    private final double minEffect;
+    private final long minSamples;
+
+    public RegressionGate(double alpha, double minEffect, long minSamples) {
+        this.alpha = alpha;
+        this.minEffect = minEffect;
+        this.minSamples = minSamples;
+    }
+
+    public List<Result> compare(Map<String, LatencyHistogram> baseline, Map<String, LatencyHistogram> current) {
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(current).entrySet()) {
+            LatencyHistogram base = baseline.get(entry.getKey());
+            if (base != null) {
+                results.add(compare(entry.getKey(), base, entry.getValue()));
+            }
+        }
+        return results;
+    }
+
+    Result compare(String operation, LatencyHistogram baseline, LatencyHistogram current) {
+        long n1 = baseline.count();
+        long n2 = current.count();
+        long p50Base = baseline.percentileMicros(50);
+        long p50Current = current.percentileMicros(50);
+        if (n1 < minSamples || n2 < minSamples) {
+            return new Result(operation, n1, n2, p50Base, p50Current, Double.NaN, Double.NaN, Verdict.INSUFFICIENT_DATA);
+        }
+
+        // Rank sum of the current run over the pooled sample; each bucket is one tie group
+        double rankSum = 0;
+        double tieTerm = 0;
+        double ranksSoFar = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            long a = baseline.bucketCount(i);
+            long c = current.bucketCount(i);
+            long t = a + c;
+            if (t == 0) {
+                continue;
+            }
+            double averageRank = ranksSoFar + (t + 1) / 2.0;
+            rankSum += c * averageRank;
+            tieTerm += (double) t * t * t - t;
+            ranksSoFar += t;
+        }
+        double n = n1 + n2;
+        double u = rankSum - n2 * (n2 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2.0;
+        double variance = n1 * (double) n2 / 12.0 * ((n + 1) - tieTerm / (n * (n - 1)));
+        double pSlower;
+        double pFaster;
+        if (variance <= 0) {
+            pSlower = 1;
+            pFaster = 1;
+        } else {
+            double sd = Math.sqrt(variance);
+            pSlower = upperTail((u - mean - 0.5) / sd);
+            pFaster = upperTail((mean - u - 0.5) / sd);
+        }
+
+        double medianShift = p50Base == 0 ? 0 : (double) p50Current / p50Base - 1;
+        Verdict verdict = Verdict.UNCHANGED;
+        if (pSlower < alpha && medianShift >= minEffect) {
+            verdict = Verdict.REGRESSION;
+        } else if (pFaster < alpha && medianShift <= -minEffect) {
+            verdict = Verdict.IMPROVED;
+        }
+        return new Result(operation, n1, n2, p50Base, p50Current, pSlower, u / (n1 * (double) n2), verdict);
+    }
+
+    public static String table(List<Result> results) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-32s %8s %8s %10s %10s %8s %9s %6s  %s%n",
+                "operation", "n_base", "n_cur", "p50_base", "p50_cur", "shift", "p_slower", "P(>)", "verdict"));
+        for (Result r : results) {
+            out.append(String.format("%-32s %8d %8d %8.1fms %8.1fms %+7.1f%% %9.2g %6.2f  %s%n",
+                    r.operation, r.baselineCount, r.currentCount, r.baselineP50Micros / 1000.0,
+                    r.currentP50Micros / 1000.0, r.medianShift * 100, r.pSlower, r.probabilitySlower, r.verdict));
+        }
+        return out.toString();
+    }
+
+    // Sparse, gzipped bucket counts: a few hundred bytes per endpoint regardless of sample count
+    public static void save(Path file, Map<String, LatencyHistogram> histograms) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(histograms.size());
+            for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+                // Snapshot first so the count we write matches the buckets that follow
+                long[] counts = new long[LatencyHistogram.BUCKETS];
+                int nonEmpty = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = entry.getValue().bucketCount(i);
+                    if (counts[i] != 0) {
+                        nonEmpty++;
+                    }
+                }
+                out.writeUTF(entry.getKey());
+                out.writeInt(nonEmpty);
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] != 0) {
+                        out.writeShort(i);
+                        out.writeLong(counts[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    public static Map<String, LatencyHistogram> load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(
+                new BufferedInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not a latency baseline (or has an unsupported version)");
+            }
+            int entries = in.readInt();
+            Map<String, LatencyHistogram> histograms = new TreeMap<>();
+            for (int e = 0; e < entries; e++) {
+                String operation = in.readUTF();
+                int buckets = in.readInt();
+                LatencyHistogram histogram = new LatencyHistogram();
+                for (int b = 0; b < buckets; b++) {
+                    histogram.addBucket(in.readShort(), in.readLong());
+                }
+                histograms.put(operation, histogram);
+            }
+            return histograms;
+        }
+    }
+
+    // P(Z > z) for a standard normal, via the complementary error function (|error| < 1.2e-7)
+    static double upperTail(double z) {
+        return 0.5 * erfc(z / Math.sqrt(2));
+    }
+
+    private static double erfc(double x) {
+        double t = 1.0 / (1.0 + 0.5 * Math.abs(x));
+        double y = t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? y : 2 - y;
+    }
+}
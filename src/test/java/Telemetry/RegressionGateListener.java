@@ -0,0 +1,66 @@
+package Telemetry;
+
+import Utils.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IExecutionListener;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Compares latency against the blessed baseline once every suite and every suite listener has finished, so a
+// failing gate cannot keep the metrics, trace or result dumps from being written. Only requests to the configured
+// baseURI are compared; local test servers and the real service have nothing in common latency-wise.
+public class RegressionGateListener implements IExecutionListener {
+    private static final Logger logger = LoggerFactory.getLogger(RegressionGateListener.class);
+
+    @Override
+    public void onExecutionFinish() {
+        String target = URI.create(ConfigManager.getBaseUri()).getRawAuthority();
+        applyRegressionGate(target, MetricsRegistry.global().successLatencies(target));
+    }
+
+    // -Dperf.bless=true stores this run as the baseline; otherwise an existing baseline is compared against
+    static void applyRegressionGate(String target, Map<String, LatencyHistogram> current) {
+        Path baselineFile = Paths.get(ConfigManager.get("perf.baseline", "perf/latency-baseline.bin"));
+        try {
+            if (ConfigManager.getBoolean("perf.bless", false)) {
+                RegressionGate.save(baselineFile, current);
+                logger.info("Blessed latency baseline for {} operations on {} in {}", current.size(), target,
+                        baselineFile);
+                return;
+            }
+            if (!Files.exists(baselineFile) || current.isEmpty()) {
+                return;
+            }
+            RegressionGate gate = new RegressionGate(ConfigManager.getDouble("perf.alpha", 0.01),
+                    ConfigManager.getDouble("perf.minEffect", 0.10), ConfigManager.getLong("perf.minSamples", 20));
+            List<RegressionGate.Result> results = gate.compare(RegressionGate.load(baselineFile), current);
+            String table = RegressionGate.table(results);
+            Path report = Paths.get("target/perf/regression-report.txt");
+            Files.createDirectories(report.getParent());
+            Files.write(report, table.getBytes(StandardCharsets.UTF_8));
+            logger.info("Latency on {} vs baseline {}:\n{}", target, baselineFile, table);
+
+            List<String> regressed = new ArrayList<>();
+            for (RegressionGate.Result result : results) {
+                if (result.verdict == RegressionGate.Verdict.REGRESSION) {
+                    regressed.add(result.operation);
+                }
+            }
+            if (!regressed.isEmpty() && ConfigManager.getBoolean("perf.gate", true)) {
+                throw new AssertionError("Significant latency regression on " + target + " in " + regressed
+                        + "; see " + report);
+            }
+        } catch (IOException e) {
+            logger.error("Latency regression gate could not run: ", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package Telemetry;
+
+import Client.HedgeReport;
+import Client.ResponseCache;
+import Deadlines.DeadlineFilter;
+import Trace.TraceFilter;
+import Trace.TraceRecorder;
+import Utils.ConfigManager;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Registered through META-INF/services so every suite gets the telemetry filters without
+// each test class having to add them
+public class TelemetryListener implements ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryListener.class);
+    private MetricsServer metricsServer;
+
+    @Override
+    public void onStart(ISuite suite) {
+        install(new JfrFilter());
+        install(new MetricsFilter());
+        install(new ResponseCache.Invalidator());
+        install(new DeadlineFilter());
+        if (TraceRecorder.global().isEnabled()) {
+            install(new TraceFilter());
+        }
+
+        int port = ConfigManager.getInt("metrics.port", -1);
+        if (port >= 0) {
+            try {
+                metricsServer = new MetricsServer(MetricsRegistry.global(), port);
+                logger.info("Serving metrics at http://127.0.0.1:{}/metrics", metricsServer.getPort());
+            } catch (IOException e) {
+                logger.error("Could not start metrics endpoint on port {}: ", port, e);
+            }
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        String file = ConfigManager.get("metrics.file", "target/metrics/" + suite.getName() + ".openmetrics.txt");
+        try {
+            MetricsRegistry.global().dump(Paths.get(file));
+        } catch (IOException e) {
+            logger.error("Could not write metrics to {}: ", file, e);
+        }
+        if (metricsServer != null) {
+            metricsServer.close();
+            metricsServer = null;
+        }
+        ResponseCache cache = ResponseCache.global();
+        if (cache.hits() + cache.revalidations() + cache.misses() > 0) {
+            logger.info("Response cache: {}", cache);
+        }
+        if (!HedgeReport.global().isEmpty()) {
+            logger.info("Hedged GETs:\n{}", HedgeReport.global());
+        }
+        if (!PhaseReport.global().isEmpty()) {
+            Path phases = Paths.get("target/metrics/" + suite.getName() + ".phases.txt");
+            try {
+                PhaseReport.global().write(phases);
+            } catch (IOException e) {
+                logger.error("Could not write phase timings to {}: ", phases, e);
+            }
+            logger.info("Request phases by endpoint and connection:\n{}", PhaseReport.global());
+        }
+    }
+
+    static synchronized void install(Filter filter) {
+        for (Filter existing : RestAssured.filters()) {
+            if (existing.getClass() == filter.getClass()) {
+                return;
+            }
+        }
+        RestAssured.filters(filter);
+    }
+}
@@ -0,0 +1,19 @@
+package Telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("booking.TokenFetch")
+@Label("Token Fetch")
+@Category({"Booking API", "Auth"})
+@Description("TokenManager requesting a new auth token; waits for TokenManager's monitor show up as jdk.JavaMonitorEnter")
+public class TokenFetchEvent extends Event {
+    @Label("Status")
+    public int status;
+
+    @Label("Token Received")
+    public boolean tokenReceived;
+}
@@ -0,0 +1,42 @@
+package Trace;
+
+import Telemetry.Endpoints;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+// Puts every RestAssured request on the calling thread's lane, inside the test that sent it
+public class TraceFilter implements OrderedFilter {
+    private final TraceRecorder recorder;
+
+    public TraceFilter() {
+        this(TraceRecorder.global());
+    }
+
+    public TraceFilter(TraceRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String call = requestSpec.getMethod() + " " + Endpoints.template(requestSpec.getUserDefinedPath());
+        try (TraceRecorder.Span span = recorder.begin(call, "http")) {
+            try {
+                Response response = ctx.next(requestSpec, responseSpec);
+                span.arg("status", response.getStatusCode());
+                return response;
+            } catch (RuntimeException e) {
+                span.arg("error", e.toString());
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,132 @@
+package Trace;
+
+import Utils.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// With -Dtrace.enabled=true, writes target/trace/<suite>.trace.json (or -Dtrace.file) when the suite finishes.
+// Test and configuration methods are spans on the lane of the thread that ran them, with their HTTP calls nested
+// inside; the suite and each test class get a lane of their own, from the first method started to the last one
+// finished, so a parallel run shows which classes overlapped and where threads sat idle.
+public class TraceListener implements ISuiteListener, IInvokedMethodListener {
+    private static final Logger logger = LoggerFactory.getLogger(TraceListener.class);
+    private final TraceRecorder recorder;
+    private final Map<ITestResult, TraceRecorder.Span> running = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Map<String, long[]> classes = new ConcurrentHashMap<>();
+    private long suiteStartNanos;
+
+    public TraceListener() {
+        this(TraceRecorder.global());
+    }
+
+    public TraceListener(TraceRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        suiteStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult result) {
+        if (!recorder.isEnabled()) {
+            return;
+        }
+        ITestNGMethod testMethod = method.getTestMethod();
+        String className = testMethod.getRealClass().getSimpleName();
+        String name = method.isTestMethod() ? className + "." + testMethod.getMethodName()
+                : configLabel(testMethod) + " " + className + "." + testMethod.getMethodName();
+        long now = System.nanoTime();
+        classes.computeIfAbsent(testMethod.getRealClass().getName(), c -> new long[]{now, now});
+        running.put(result, recorder.begin(name, method.isTestMethod() ? "test" : "config"));
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        TraceRecorder.Span span = running.remove(result);
+        if (span == null) {
+            return;
+        }
+        span.arg("status", status(result.getStatus()));
+        if (result.getThrowable() != null) {
+            span.arg("error", result.getThrowable().toString());
+        }
+        span.close();
+        long[] bounds = classes.get(method.getTestMethod().getRealClass().getName());
+        synchronized (bounds) {
+            bounds[1] = Math.max(bounds[1], System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!recorder.isEnabled()) {
+            return;
+        }
+        recorder.complete("Suite " + suite.getName(), "suite", TraceRecorder.STRUCTURE,
+                recorder.structureLane("Suite"), suiteStartNanos, System.nanoTime(), null);
+        classes.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(a[0], b[0])))
+                .forEach(entry -> {
+                    String className = entry.getKey().substring(entry.getKey().lastIndexOf('.') + 1);
+                    recorder.complete(className, "class", TraceRecorder.STRUCTURE,
+                            recorder.structureLane(entry.getKey()), entry.getValue()[0], entry.getValue()[1], null);
+                });
+        classes.clear();
+
+        Path file = Paths.get(ConfigManager.get("trace.file", "target/trace/" + suite.getName() + ".trace.json"));
+        try {
+            recorder.write(file);
+            logger.info("Wrote {} trace events to {}{}; open it in https://ui.perfetto.dev or chrome://tracing",
+                    recorder.size(), file,
+                    recorder.dropped() > 0 ? " (" + recorder.dropped() + " dropped over trace.maxEvents)" : "");
+        } catch (IOException e) {
+            logger.error("Could not write trace to {}: ", file, e);
+        }
+    }
+
+    private static String configLabel(ITestNGMethod method) {
+        if (method.isBeforeSuiteConfiguration()) {
+            return "@BeforeSuite";
+        } else if (method.isAfterSuiteConfiguration()) {
+            return "@AfterSuite";
+        } else if (method.isBeforeClassConfiguration()) {
+            return "@BeforeClass";
+        } else if (method.isAfterClassConfiguration()) {
+            return "@AfterClass";
+        } else if (method.isBeforeMethodConfiguration()) {
+            return "@BeforeMethod";
+        } else if (method.isAfterMethodConfiguration()) {
+            return "@AfterMethod";
+        }
+        return "@Configuration";
+    }
+
+    private static String status(int status) {
+        switch (status) {
+            case ITestResult.SUCCESS:
+                return "passed";
+            case ITestResult.FAILURE:
+                return "failed";
+            case ITestResult.SKIP:
+                return "skipped";
+            default:
+                return String.valueOf(status);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package Trace;
+
+import Utils.ConfigManager;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Collects spans in Chrome Trace Event format, which chrome://tracing and ui.perfetto.dev both open. Spans on
+// the THREADS process sit in one lane per thread and must nest, as they do when a test's HTTP calls run inside
+// the test method; work that overlaps on one thread (async requests) goes in as async slices instead.
+// Off unless -Dtrace.enabled=true; while it is off, begin() returns a no-op span and nothing is kept.
+public class TraceRecorder {
+    public static final int THREADS = 1;
+    public static final int STRUCTURE = 2;
+    private static final TraceRecorder GLOBAL = new TraceRecorder(ConfigManager.getBoolean("trace.enabled", false),
+            ConfigManager.getInt("trace.maxEvents", 1_000_000));
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Span NOOP = new Span(null, null, null, 0, 0, 0);
+
+    private final boolean enabled;
+    private final int maxEvents;
+    private final long originNanos = System.nanoTime();
+    private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong asyncIds = new AtomicLong();
+    private final AtomicLong laneIds = new AtomicLong();
+    private final Map<Long, String> threadNames = new ConcurrentHashMap<>();
+    private final Map<String, Long> structureLanes = new ConcurrentHashMap<>();
+
+    private static class Event {
+        final String name;
+        final String category;
+        final char phase;
+        final int pid;
+        final long tid;
+        final long startNanos;
+        final long durationNanos;
+        final long id;
+        final Map<String, Object> args;
+
+        Event(String name, String category, char phase, int pid, long tid, long startNanos, long durationNanos,
+              long id, Map<String, Object> args) {
+            this.name = name;
+            this.category = category;
+            this.phase = phase;
+            this.pid = pid;
+            this.tid = tid;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.id = id;
+            this.args = args;
+        }
+    }
+
+    public static class Span implements AutoCloseable {
+        private final TraceRecorder recorder;
+        private final String name;
+        private final String category;
+        private final long tid;
+        private final long startNanos;
+        private final int pid;
+        private Map<String, Object> args;
+
+        private Span(TraceRecorder recorder, String name, String category, int pid, long tid, long startNanos) {
+            this.recorder = recorder;
+            this.name = name;
+            this.category = category;
+            this.pid = pid;
+            this.tid = tid;
+            this.startNanos = startNanos;
+        }
+
+        // Shown in the slice's details
+        public Span arg(String key, Object value) {
+            if (recorder != null) {
+                if (args == null) {
+                    args = new LinkedHashMap<>();
+                }
+                args.put(key, value);
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (recorder != null) {
+                recorder.complete(name, category, pid, tid, startNanos, System.nanoTime(), args);
+            }
+        }
+    }
+
+    public TraceRecorder(boolean enabled, int maxEvents) {
+        this.enabled = enabled;
+        this.maxEvents = maxEvents;
+    }
+
+    public static TraceRecorder global() {
+        return GLOBAL;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // A span on the calling thread's lane, ended by close()
+    public Span begin(String name, String category) {
+        if (!enabled) {
+            return NOOP;
+        }
+        Thread thread = Thread.currentThread();
+        threadNames.putIfAbsent(thread.getId(), thread.getName());
+        return new Span(this, name, category, THREADS, thread.getId(), System.nanoTime());
+    }
+
+    // A finished span with explicit times; lane is a thread id for THREADS or a structureLane() for STRUCTURE
+    public void complete(String name, String category, int pid, long lane, long startNanos, long endNanos,
+                         Map<String, Object> args) {
+        add(new Event(name, category, 'X', pid, lane, startNanos, endNanos - startNanos, 0, args));
+    }
+
+    // Work that may overlap other work on the same thread, such as async requests; drawn on its own track
+    public void async(String name, String category, long startNanos, long endNanos, Map<String, Object> args) {
+        if (!enabled) {
+            return;
+        }
+        long id = asyncIds.incrementAndGet();
+        Thread thread = Thread.currentThread();
+        threadNames.putIfAbsent(thread.getId(), thread.getName());
+        long tid = thread.getId();
+        add(new Event(name, category, 'b', THREADS, tid, startNanos, 0, id, args));
+        add(new Event(name, category, 'e', THREADS, tid, endNanos, 0, id, null));
+    }
+
+    // A named lane in the STRUCTURE process, for suites and classes that span many threads
+    public long structureLane(String name) {
+        return structureLanes.computeIfAbsent(name, lane -> laneIds.incrementAndGet());
+    }
+
+    private void add(Event event) {
+        if (!enabled) {
+            return;
+        }
+        if (size.incrementAndGet() > maxEvents) {
+            size.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        events.add(event);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // Events not kept because -Dtrace.maxEvents was reached
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        List<Event> snapshot = new ArrayList<>(events);
+        try (OutputStream out = Files.newOutputStream(file);
+             JsonGenerator json = MAPPER.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("displayTimeUnit", "ms");
+            json.writeArrayFieldStart("traceEvents");
+            metadata(json, "process_name", THREADS, 0, "Test threads");
+            metadata(json, "process_name", STRUCTURE, 0, "Suites and classes");
+            for (Map.Entry<Long, String> thread : threadNames.entrySet()) {
+                metadata(json, "thread_name", THREADS, thread.getKey(), thread.getValue());
+            }
+            for (Map.Entry<String, Long> lane : structureLanes.entrySet()) {
+                metadata(json, "thread_name", STRUCTURE, lane.getValue(), lane.getKey());
+                metadata(json, "thread_sort_index", STRUCTURE, lane.getValue(), lane.getValue());
+            }
+            for (Event event : snapshot) {
+                json.writeStartObject();
+                json.writeStringField("name", event.name);
+                json.writeStringField("cat", event.category);
+                json.writeStringField("ph", String.valueOf(event.phase));
+                json.writeNumberField("ts", micros(event.startNanos - originNanos));
+                if (event.phase == 'X') {
+                    json.writeNumberField("dur", micros(event.durationNanos));
+                } else {
+                    json.writeStringField("id", Long.toHexString(event.id));
+                }
+                json.writeNumberField("pid", event.pid);
+                json.writeNumberField("tid", event.tid);
+                if (event.args != null) {
+                    json.writeObjectField("args", event.args);
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private static void metadata(JsonGenerator json, String name, int pid, long tid, Object value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", name);
+        json.writeStringField("ph", "M");
+        json.writeNumberField("pid", pid);
+        json.writeNumberField("tid", tid);
+        json.writeObjectFieldStart("args");
+        json.writeObjectField(name.equals("thread_sort_index") ? "sort_index" : "name", value);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static double micros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
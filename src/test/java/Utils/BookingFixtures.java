@@ -0,0 +1,107 @@
+package Utils;
+
+import Client.ApiResponse;
+import Client.AsyncBookingClient;
+import Telemetry.FixtureEvent;
+import Trace.TraceRecorder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.testng.Assert.*;
+
+// Creates and deletes the bookings test classes depend on. Bulk seeding fans out through the async
+// client, so a setup method can create hundreds of bookings from one thread.
+public class BookingFixtures {
+    private static final Duration TIMEOUT = Duration.ofSeconds(ConfigManager.getLong("fixture.timeoutSeconds", 60));
+    private static AsyncBookingClient client;
+
+    private BookingFixtures() {
+    }
+
+    public static synchronized AsyncBookingClient client() {
+        if (client == null) {
+            client = new AsyncBookingClient(ConfigManager.getBaseUri());
+        }
+        return client;
+    }
+
+    public static int create(String body) {
+        return createAll(List.of(body)).get(0);
+    }
+
+    public static List<Integer> createAll(List<String> bodies) {
+        FixtureEvent event = startEvent("create", bodies.size());
+        List<ApiResponse> responses;
+        TraceRecorder.Span span = TraceRecorder.global().begin("fixture create", "fixture")
+                .arg("count", bodies.size());
+        try {
+            responses = client().createAll(bodies, TIMEOUT).join();
+        } finally {
+            span.close();
+        }
+        endEvent(event, responses, 200);
+        List<Integer> ids = new ArrayList<>(responses.size());
+        for (ApiResponse response : responses) {
+            assertEquals(response.getStatusCode(), 200, "Fixture booking not created: " + response.getBody());
+            ids.add(response.json().get("bookingid").asInt());
+        }
+        return ids;
+    }
+
+    public static ApiResponse delete(int bookingId) {
+        return deleteAll(List.of(bookingId)).get(0);
+    }
+
+    public static List<ApiResponse> deleteAll(List<Integer> bookingIds) {
+        FixtureEvent event = startEvent("delete", bookingIds.size());
+        List<ApiResponse> responses;
+        TraceRecorder.Span span = TraceRecorder.global().begin("fixture delete", "fixture")
+                .arg("count", bookingIds.size());
+        try {
+            String token = TokenManager.getToken();
+            List<CompletableFuture<ApiResponse>> futures = new ArrayList<>(bookingIds.size());
+            for (int id : bookingIds) {
+                futures.add(client().deleteBooking(id, token));
+            }
+            responses = AsyncBookingClient.allOf(futures, TIMEOUT).join();
+        } finally {
+            span.close();
+        }
+        endEvent(event, responses, 201);
+        return responses;
+    }
+
+    private static FixtureEvent startEvent(String operation, int count) {
+        FixtureEvent event = new FixtureEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.count = count;
+            event.testClass = callingTestClass();
+            event.begin();
+        }
+        return event;
+    }
+
+    private static void endEvent(FixtureEvent event, List<ApiResponse> responses, int expectedStatus) {
+        if (event.shouldCommit()) {
+            for (ApiResponse response : responses) {
+                if (response.getStatusCode() != expectedStatus) {
+                    event.failed++;
+                }
+            }
+            event.commit();
+        }
+    }
+
+    private static String callingTestClass() {
+        for (StackTraceElement frame : Thread.currentThread().getStackTrace()) {
+            if (frame.getClassName().startsWith("Api.")) {
+                return frame.getClassName();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,309 @@
+package Utils;
+
+import Client.Compression;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-memory stand-in for restful-booker on localhost, so client overhead can be measured without the network
+public class LocalBookingServer implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // Like JSON.parse in the real service, content after the top-level value is a syntax error
+    private static final ObjectReader JSON_READER =
+            MAPPER.reader().with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    private static final int COMPRESSION_THRESHOLD = 1024;
+    private static final String[] REQUIRED_FIELDS = {"firstname", "lastname", "totalprice", "depositpaid", "bookingdates"};
+
+    static {
+        // The JDK server writes headers and body separately; with Nagle on, delayed ACKs add ~40ms per request.
+        // Read once when the server implementation initialises, so it must be set before the first HttpServer.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<Integer, ObjectNode> bookings = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> tokens = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    // Simulated search index lag: id -> when a new booking becomes searchable, and deleted bookings that search
+    // still returns until their time is up. Both stay empty unless setSearchLag is used.
+    private final Map<Integer, Long> searchableFrom = new ConcurrentHashMap<>();
+    private final Map<Integer, Tombstone> searchableUntil = new ConcurrentHashMap<>();
+    private volatile long searchLagNanos;
+
+    private static class Tombstone {
+        final ObjectNode booking;
+        final long until;
+
+        Tombstone(ObjectNode booking, long until) {
+            this.booking = booking;
+            this.until = until;
+        }
+    }
+
+    public LocalBookingServer() throws IOException {
+        this(16);
+    }
+
+    public LocalBookingServer(int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/auth", this::handleAuth);
+        server.createContext("/booking", this::handleBooking);
+        server.start();
+    }
+
+    public String getBaseUri() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int bookingCount() {
+        return bookings.size();
+    }
+
+    // Makes GET /booking?... trail writes by this much, like a search index fed asynchronously: new bookings
+    // show up late and deleted ones linger. GET /booking/{id} stays immediately consistent.
+    public void setSearchLag(Duration lag) {
+        searchLagNanos = lag.toNanos();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleAuth(HttpExchange exchange) throws IOException {
+        JsonNode credentials = readJson(exchange);
+        if (credentials == null) {
+            respond(exchange, 400, "text/plain", "Invalid JSON");
+        } else if (!credentials.hasNonNull("username") || !credentials.hasNonNull("password")
+                || credentials.get("username").asText().isEmpty()) {
+            respond(exchange, 400, "text/plain", "Invalid credentials");
+        } else if ("admin".equals(credentials.get("username").asText())
+                && "password123".equals(credentials.get("password").asText())) {
+            String token = UUID.randomUUID().toString().replace("-", "").substring(0, 15);
+            tokens.put(token, Boolean.TRUE);
+            respond(exchange, 200, MAPPER.createObjectNode().put("token", token));
+        } else {
+            respond(exchange, 401, MAPPER.createObjectNode().put("reason", "Bad credentials"));
+        }
+    }
+
+    private void handleBooking(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/booking") || path.equals("/booking/")) {
+            if (method.equals("POST")) {
+                create(exchange);
+            } else if (method.equals("GET")) {
+                search(exchange);
+            } else {
+                respond(exchange, 405, "text/plain", "Method Not Allowed");
+            }
+            return;
+        }
+
+        Integer id = parseId(path.substring("/booking/".length()));
+        ObjectNode booking = id == null ? null : bookings.get(id);
+        if (method.equals("GET")) {
+            if (booking == null) {
+                respond(exchange, 404, "text/plain", "Not Found");
+            } else {
+                respond(exchange, 200, booking);
+            }
+        } else if (!isAuthorized(exchange)) {
+            respond(exchange, 403, "text/plain", "Forbidden");
+        } else if (booking == null) {
+            respond(exchange, method.equals("DELETE") ? 405 : 404, "text/plain", "Not Found");
+        } else if (method.equals("DELETE")) {
+            bookings.remove(id);
+            long now = System.nanoTime();
+            Long indexed = searchableFrom.remove(id);
+            if (searchLagNanos > 0 && (indexed == null || indexed - now <= 0)) {
+                searchableUntil.put(id, new Tombstone(booking, now + searchLagNanos));
+            }
+            respond(exchange, 201, "text/plain", "Created");
+        } else if (method.equals("PUT") || method.equals("PATCH")) {
+            update(exchange, id, booking, method.equals("PATCH"));
+        } else {
+            respond(exchange, 405, "text/plain", "Method Not Allowed");
+        }
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        JsonNode body = readJson(exchange);
+        if (body == null || !body.isObject()) {
+            respond(exchange, 400, "text/plain", "Bad Request");
+            return;
+        }
+        for (String field : REQUIRED_FIELDS) {
+            if (!body.hasNonNull(field)) {
+                respond(exchange, 500, "text/plain", "Internal Server Error");
+                return;
+            }
+        }
+        int id = nextId.getAndIncrement();
+        ObjectNode booking = ((ObjectNode) body).deepCopy();
+        if (searchLagNanos > 0) {
+            searchableFrom.put(id, System.nanoTime() + searchLagNanos);
+        }
+        bookings.put(id, booking);
+        ObjectNode created = MAPPER.createObjectNode();
+        created.put("bookingid", id);
+        created.set("booking", booking);
+        respond(exchange, 200, created);
+    }
+
+    private void update(HttpExchange exchange, int id, ObjectNode booking, boolean partial) throws IOException {
+        JsonNode body = readJson(exchange);
+        if (body == null || !body.isObject()) {
+            respond(exchange, 400, "text/plain", "Bad Request");
+            return;
+        }
+        ObjectNode updated = partial ? booking.deepCopy() : MAPPER.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = body.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            updated.set(field.getKey(), field.getValue());
+        }
+        if (updated.has("totalprice") && !updated.get("totalprice").isNumber()) {
+            respond(exchange, 400, "text/plain", "Bad Request");
+            return;
+        }
+        bookings.put(id, updated);
+        respond(exchange, 200, updated);
+    }
+
+    private void search(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        ArrayNode result = MAPPER.createArrayNode();
+        long now = System.nanoTime();
+        bookings.forEach((id, booking) -> {
+            Long from = searchableFrom.get(id);
+            if (from != null) {
+                if (from - now > 0) {
+                    return;
+                }
+                searchableFrom.remove(id);
+            }
+            if (matches(booking, query, "firstname") && matches(booking, query, "lastname")) {
+                result.addObject().put("bookingid", id);
+            }
+        });
+        searchableUntil.forEach((id, tombstone) -> {
+            if (tombstone.until - now <= 0) {
+                searchableUntil.remove(id);
+            } else if (matches(tombstone.booking, query, "firstname") && matches(tombstone.booking, query, "lastname")) {
+                result.addObject().put("bookingid", id);
+            }
+        });
+        respond(exchange, 200, result);
+    }
+
+    private static boolean matches(ObjectNode booking, Map<String, String> query, String field) {
+        if (!query.containsKey(field)) {
+            return true;
+        }
+        return booking.hasNonNull(field) && booking.get(field).asText().equals(query.get(field));
+    }
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookie != null) {
+            for (String part : cookie.split(";")) {
+                String[] pair = part.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals("token") && tokens.containsKey(pair[1])) {
+                    return true;
+                }
+            }
+        }
+        return "Basic YWRtaW46cGFzc3dvcmQxMjM=".equals(exchange.getRequestHeaders().getFirst("Authorization"));
+    }
+
+    private static Integer parseId(String raw) {
+        try {
+            return Integer.valueOf(raw);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            String[] parts = pair.split("=", 2);
+            query.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return query;
+    }
+
+    private static JsonNode readJson(HttpExchange exchange) {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = Compression.decompress(in.readAllBytes(),
+                    exchange.getRequestHeaders().getFirst("Content-Encoding"));
+            JsonNode node = JSON_READER.readTree(body);
+            return node == null || node.isMissingNode() ? null : node;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        respond(exchange, status, "application/json; charset=utf-8", MAPPER.writeValueAsString(body));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (status == 200 && exchange.getRequestMethod().equals("GET")) {
+            // Weak validator like the real (Express) service sends, honoured on If-None-Match
+            String etag = "W/\"" + Integer.toHexString(bytes.length) + "-" + Integer.toHexString(Arrays.hashCode(bytes)) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        // Like the service's compression middleware: gzip only when asked and only above 1KB
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (bytes.length >= COMPRESSION_THRESHOLD && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            bytes = Compression.compress(bytes, "gzip");
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
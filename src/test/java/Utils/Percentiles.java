@@ -0,0 +1,27 @@
+package Utils;
+
+import java.util.Arrays;
+
+public class Percentiles {
+
+    private Percentiles() {
+    }
+
+    // Nearest-rank percentile; p in [0, 100]. Sorts a copy, so the caller's samples are left untouched.
+    public static long of(long[] samples, double p) {
+        if (samples.length == 0) {
+            return 0;
+        }
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return ofSorted(sorted, p);
+    }
+
+    public static long ofSorted(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
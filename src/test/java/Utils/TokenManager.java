@@ -1,5 +1,7 @@
 package Utils;
 
+import Telemetry.TokenFetchEvent;
+import Trace.TraceRecorder;
 import io.restassured.response.Response;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
@@ -10,7 +12,17 @@ import static org.testng.Assert.*;
 public class TokenManager {
     private static String authToken;
 
-    public static synchronized String getToken() {
+    // The span covers waiting for the lock, so threads queued behind the first fetch show up in a trace
+    public static String getToken() {
+        TraceRecorder.Span span = TraceRecorder.global().begin("token", "auth");
+        try {
+            return token();
+        } finally {
+            span.close();
+        }
+    }
+
+    private static synchronized String token() {
         if (authToken == null) {
             generateToken();
         }
@@ -18,14 +30,19 @@ public class TokenManager {
     }
 
     private static void generateToken() {
+        TokenFetchEvent event = new TokenFetchEvent();
+        event.begin();
         String requestBody = "{ \"username\": \"admin\", \"password\": \"password123\" }";
 
         Response response = RestAssured.given()
                 .contentType("application/json")
                 .body(requestBody)
-                .post("https://restful-booker.herokuapp.com/auth");
+                .post(ConfigManager.getBaseUri() + "/auth");
 
         authToken = response.jsonPath().getString("token");
 
+        event.status = response.getStatusCode();
+        event.tokenReceived = authToken != null;
+        event.commit();
     }
 }
\ No newline at end of file
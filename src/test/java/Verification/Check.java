@@ -0,0 +1,9 @@
+package Verification;
+
+import Client.ApiResponse;
+
+// One assertion on a response. Fails by throwing, so TestNG's Assert methods can be used as they are in tests.
+public interface Check {
+
+    void verify(ApiResponse response) throws Exception;
+}
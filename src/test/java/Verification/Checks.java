@@ -0,0 +1,123 @@
+package Verification;
+
+import Client.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+// The assertions bulk verification runs use: status, single fields, the booking schema, and comparison
+// with an oracle, i.e. the booking the test expects the service to hold
+public class Checks {
+    private static final String[] BOOKING_TEXT = {"firstname", "lastname"};
+
+    private Checks() {
+    }
+
+    public static Check status(int expected) {
+        return response -> assertEquals(response.getStatusCode(), expected, "status of " + abbreviate(response));
+    }
+
+    // path is dotted, like jsonPath: "bookingdates.checkin"
+    public static Check field(String path, Object expected) {
+        return response -> {
+            JsonNode node = at(response.json(), path);
+            assertFalse(node.isMissingNode(), path + " missing from " + abbreviate(response));
+            assertEquals(value(node), expected, path);
+        };
+    }
+
+    // A GET /booking/{id} body: required fields with the right types and parseable dates
+    public static Check bookingSchema() {
+        return response -> booking(response.json(), "");
+    }
+
+    // Every field of the oracle booking is in the response with the same value; extra response fields are allowed
+    public static Check matches(JsonNode oracle) {
+        return response -> compare(oracle, response.json(), "");
+    }
+
+    // As matches(), for POST /booking, which wraps the booking as {"bookingid": n, "booking": {...}}
+    public static Check created(JsonNode oracle) {
+        return response -> {
+            JsonNode body = response.json();
+            assertTrue(body.path("bookingid").canConvertToInt(), "no bookingid in " + abbreviate(response));
+            booking(body.get("booking"), "booking.");
+            compare(oracle, body.get("booking"), "booking.");
+        };
+    }
+
+    public static Check all(Check... checks) {
+        return response -> {
+            for (Check check : checks) {
+                check.verify(response);
+            }
+        };
+    }
+
+    private static void booking(JsonNode booking, String prefix) {
+        assertNotNull(booking, prefix + " missing");
+        for (String field : BOOKING_TEXT) {
+            assertTrue(booking.path(field).isTextual(), prefix + field + " should be text: " + booking);
+        }
+        assertTrue(booking.path("totalprice").isNumber(), prefix + "totalprice should be a number: " + booking);
+        assertTrue(booking.path("depositpaid").isBoolean(), prefix + "depositpaid should be a boolean: " + booking);
+        JsonNode dates = booking.path("bookingdates");
+        for (String date : new String[]{"checkin", "checkout"}) {
+            assertTrue(dates.path(date).isTextual(), prefix + "bookingdates." + date + " missing: " + booking);
+            LocalDate.parse(dates.get(date).asText());
+        }
+        if (booking.has("additionalneeds")) {
+            assertTrue(booking.get("additionalneeds").isTextual() || booking.get("additionalneeds").isNull(),
+                    prefix + "additionalneeds should be text: " + booking);
+        }
+    }
+
+    private static void compare(JsonNode expected, JsonNode actual, String path) {
+        if (expected.isObject()) {
+            assertTrue(actual != null && actual.isObject(), path + " should be an object, was " + actual);
+            for (Iterator<Map.Entry<String, JsonNode>> fields = expected.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                compare(field.getValue(), actual.get(field.getKey()), path + field.getKey() + ".");
+            }
+        } else {
+            String name = path.isEmpty() ? "body" : path.substring(0, path.length() - 1);
+            assertNotNull(actual, name + " missing");
+            // 100 and 100.0 are the same price
+            if (expected.isNumber() && actual.isNumber()) {
+                assertEquals(actual.decimalValue().compareTo(expected.decimalValue()), 0,
+                        name + ": expected " + expected + " but was " + actual);
+            } else {
+                assertEquals(actual, expected, name);
+            }
+        }
+    }
+
+    private static JsonNode at(JsonNode node, String path) {
+        for (String part : path.split("\\.")) {
+            node = node.path(part);
+        }
+        return node;
+    }
+
+    private static Object value(JsonNode node) {
+        if (node.isTextual()) {
+            return node.asText();
+        } else if (node.isBoolean()) {
+            return node.asBoolean();
+        } else if (node.isIntegralNumber()) {
+            return node.asInt();
+        } else if (node.isNumber()) {
+            return node.asDouble();
+        }
+        return node.isNull() ? null : node;
+    }
+
+    private static String abbreviate(ApiResponse response) {
+        String text = response.toString();
+        return text.length() > 200 ? text.substring(0, 200) + "..." : text;
+    }
+}
@@ -0,0 +1,38 @@
+package Verification;
+
+import java.util.List;
+
+// Thrown by VerificationPipeline.close() when any check failed. Lists every failure with the test and step that
+// issued it; the first one is the cause and the rest are suppressed, so their stack traces are kept.
+public class VerificationFailure extends AssertionError {
+    private static final long serialVersionUID = 1L;
+    private static final int LISTED = 20;
+
+    // Failure is not serializable; the message and the cause chain carry the same detail
+    private final transient List<VerificationPipeline.Failure> failures;
+
+    VerificationFailure(List<VerificationPipeline.Failure> failures, long verified) {
+        super(message(failures, verified), failures.get(0).cause());
+        this.failures = failures;
+        for (VerificationPipeline.Failure failure : failures.subList(1, failures.size())) {
+            addSuppressed(failure.cause());
+        }
+    }
+
+    public List<VerificationPipeline.Failure> failures() {
+        return failures;
+    }
+
+    private static String message(List<VerificationPipeline.Failure> failures, long verified) {
+        StringBuilder message = new StringBuilder()
+                .append(failures.size()).append(" of ").append(verified).append(" responses failed verification:");
+        for (VerificationPipeline.Failure failure : failures.subList(0, Math.min(LISTED, failures.size()))) {
+            message.append(System.lineSeparator()).append("  ").append(failure);
+        }
+        if (failures.size() > LISTED) {
+            message.append(System.lineSeparator())
+                    .append("  ... and ").append(failures.size() - LISTED).append(" more");
+        }
+        return message.toString();
+    }
+}
@@ -0,0 +1,265 @@
+package Verification;
+
+import Client.ApiResponse;
+import Utils.ConfigManager;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Splits bulk verification into an issuing side and a validating side. The test thread sends requests back to
+// back and hands each response, with its checks, to a bounded queue; a pool of validator threads runs the checks,
+// so parsing and comparing one response overlaps with waiting for the next. A full queue blocks the issuer,
+// which keeps memory bounded when validation is the slower side.
+// Each response remembers the test and step that issued it. close() waits for the queue to drain and throws one
+// VerificationFailure naming every failed step, so a failure is reported against the test that caused it.
+// With -Dverify.pipeline=false (the default) checks run on the issuing thread instead, in the same order and with
+// the same reporting, which is the baseline the pipelined mode is compared against.
+public class VerificationPipeline implements AutoCloseable {
+    private static final Pending STOP = new Pending(null, null, 0, null, null);
+
+    private final BlockingQueue<Pending> queue;
+    private final int capacity;
+    private final List<Thread> validators = new ArrayList<>();
+    private final List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicInteger peakQueued = new AtomicInteger();
+    private final LongAdder verified = new LongAdder();
+    private final AtomicLong issueNanos = new AtomicLong();
+    private final AtomicLong blockedNanos = new AtomicLong();
+    private final AtomicLong validationNanos = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+    private long elapsedNanos;
+    private boolean closed;
+
+    private static class Pending {
+        final String origin;
+        final String step;
+        final int index;
+        final ApiResponse response;
+        final Check[] checks;
+
+        Pending(String origin, String step, int index, ApiResponse response, Check[] checks) {
+            this.origin = origin;
+            this.step = step;
+            this.index = index;
+            this.response = response;
+            this.checks = checks;
+        }
+    }
+
+    // A failed check and where the response came from
+    public static class Failure {
+        private final String test;
+        private final String step;
+        private final int index;
+        private final int status;
+        private final Throwable cause;
+
+        Failure(Pending pending, Throwable cause) {
+            this.test = pending.origin;
+            this.step = pending.step;
+            this.index = pending.index;
+            this.status = pending.response.getStatusCode();
+            this.cause = cause;
+        }
+
+        // Class.method of the test that issued the request, or the thread name outside a test
+        public String test() {
+            return test;
+        }
+
+        public String step() {
+            return step;
+        }
+
+        // Position of the response among all the pipeline was given, from 1
+        public int index() {
+            return index;
+        }
+
+        public int status() {
+            return status;
+        }
+
+        public Throwable cause() {
+            return cause;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s step '%s' (#%d, status %d): %s", test, step, index, status, cause.getMessage());
+        }
+    }
+
+    public VerificationPipeline() {
+        this(ConfigManager.getBoolean("verify.pipeline", false)
+                        ? ConfigManager.getInt("verify.threads", Runtime.getRuntime().availableProcessors()) : 0,
+                ConfigManager.getInt("verify.queue", 256));
+    }
+
+    // threads 0 runs checks on the issuing thread
+    public VerificationPipeline(int threads, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1, was " + capacity);
+        }
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        for (int i = 0; i < threads; i++) {
+            Thread validator = new Thread(this::validate, "verify-" + (i + 1));
+            validator.setDaemon(true);
+            validator.start();
+            validators.add(validator);
+        }
+    }
+
+    public boolean isPipelined() {
+        return !validators.isEmpty();
+    }
+
+    // Sends a request on the calling thread and queues its response for checking. The response is returned for
+    // anything the next step needs from it, like a new booking's id.
+    public ApiResponse issue(String step, Supplier<ApiResponse> call, Check... checks) {
+        long start = System.nanoTime();
+        ApiResponse response = call.get();
+        issueNanos.addAndGet(System.nanoTime() - start);
+        verify(step, response, checks);
+        return response;
+    }
+
+    public void verify(String step, ApiResponse response, Check... checks) {
+        if (closed) {
+            throw new IllegalStateException("Verification pipeline is closed");
+        }
+        Pending pending = new Pending(origin(), step, sequence.incrementAndGet(), response, checks);
+        if (!isPipelined()) {
+            run(pending);
+            return;
+        }
+        if (!queue.offer(pending)) {
+            long start = System.nanoTime();
+            try {
+                queue.put(pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing " + step, e);
+            } finally {
+                blockedNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+        peakQueued.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    // Waits for every queued response to be checked, then fails with all the failures, if any
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            try {
+                for (int i = 0; i < validators.size(); i++) {
+                    queue.put(STOP);
+                }
+                for (Thread validator : validators) {
+                    validator.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                validators.forEach(Thread::interrupt);
+                throw new IllegalStateException("Interrupted while draining the verification queue", e);
+            }
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+        List<Failure> failed = failures();
+        if (!failed.isEmpty()) {
+            throw new VerificationFailure(failed, verified());
+        }
+    }
+
+    private void validate() {
+        while (true) {
+            Pending pending;
+            try {
+                pending = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (pending == STOP) {
+                return;
+            }
+            run(pending);
+        }
+    }
+
+    private void run(Pending pending) {
+        long start = System.nanoTime();
+        try {
+            for (Check check : pending.checks) {
+                check.verify(pending.response);
+            }
+        } catch (Throwable e) {
+            failures.add(new Failure(pending, e));
+        } finally {
+            validationNanos.addAndGet(System.nanoTime() - start);
+            verified.increment();
+        }
+    }
+
+    private static String origin() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        if (result == null) {
+            return Thread.currentThread().getName();
+        }
+        return result.getMethod().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+    }
+
+    // In the order the responses were issued
+    public List<Failure> failures() {
+        List<Failure> sorted;
+        synchronized (failures) {
+            sorted = new ArrayList<>(failures);
+        }
+        sorted.sort(Comparator.comparingInt(Failure::index));
+        return sorted;
+    }
+
+    public long verified() {
+        return verified.sum();
+    }
+
+    public int peakQueued() {
+        return peakQueued.get();
+    }
+
+    // Time the issuer spent waiting for room in a full queue
+    public long blocked(TimeUnit unit) {
+        return unit.convert(blockedNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    // Until close(), or so far
+    public long elapsed(TimeUnit unit) {
+        return unit.convert(closed ? elapsedNanos : System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        double seconds = elapsed(TimeUnit.NANOSECONDS) / 1e9;
+        return String.format("%d responses verified in %.2fs (%.0f/s) %s, %d failed%n"
+                        + "waiting on requests %.1fms, running checks %.1fms, issuer blocked on a full queue %.1fms, "
+                        + "peak queue %d of %d",
+                verified(), seconds, verified() / Math.max(seconds, 1e-9),
+                isPipelined() ? "by " + validators.size() + (validators.size() == 1 ? " validator" : " validators")
+                        : "inline", failures.size(),
+                issueNanos.get() / 1e6, validationNanos.get() / 1e6, blockedNanos.get() / 1e6,
+                peakQueued(), capacity);
+    }
+}